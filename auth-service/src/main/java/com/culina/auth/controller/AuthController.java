@@ -1,32 +1,73 @@
 package com.culina.auth.controller;
 
 import com.culina.auth.dto.*;
+import com.culina.auth.exception.TooManyRequestsException;
+import com.culina.auth.security.LoginThrottle;
 import com.culina.auth.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/auth")
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginThrottle loginThrottle) {
         this.authService = authService;
+        this.loginThrottle = loginThrottle;
+    }
+
+    /**
+     * Throttled or the password hashing queue is full
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyRequests(TooManyRequestsException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", ex.getMessage());
+        response.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(response);
     }
 
     // SIGNUP
     @PostMapping("/signup")
-    public ResponseEntity<String> signup(@Valid @RequestBody SignupRequest request) {
-        authService.signup(request);
+    public ResponseEntity<String> signup(@Valid @RequestBody SignupRequest request, HttpServletRequest http) {
+        loginThrottle.acquire(http.getRemoteAddr(), request.getEmail());
+        try {
+            authService.signup(request);
+        } catch (TooManyRequestsException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            loginThrottle.recordFailure(request.getEmail());
+            throw e;
+        }
         return ResponseEntity.ok("User registered successfully");
     }
 
     // LOGIN
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest http) {
+        loginThrottle.acquire(http.getRemoteAddr(), request.getEmail());
+        AuthResponse response;
+        try {
+            response = authService.login(request);
+        } catch (TooManyRequestsException e) {
+            // The hashing queue was full, not a wrong password
+            throw e;
+        } catch (RuntimeException e) {
+            loginThrottle.recordFailure(request.getEmail());
+            throw e;
+        }
         return ResponseEntity.ok(response);
     }
 
@@ -0,0 +1,19 @@
+package com.culina.auth.exception;
+
+/**
+ * Thrown when a login or signup is turned away to protect the service;
+ * answered with 429 and a Retry-After header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String code, long retryAfterSeconds) {
+        super(code);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -17,10 +17,10 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtVerifier jwtVerifier;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
     }
 
     @Override
@@ -36,13 +36,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
 
             try {
-                // Validate token and ensure it's an ACCESS token (not a REFRESH token)
-                if (jwtUtil.isTokenValid(token) 
-                        && jwtUtil.isAccessToken(token)
+                // Validate token once and ensure it's an ACCESS token (not a REFRESH token)
+                VerifiedToken verified = jwtVerifier.verify(token);
+                if (verified.isAccessToken()
                         && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                    Long userId = jwtUtil.extractUserId(token);
-                    String role = jwtUtil.extractRole(token);
+                    Long userId = verified.getUserId();
+                    String role = verified.getRole();
                     
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
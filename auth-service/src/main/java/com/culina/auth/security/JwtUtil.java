@@ -1,6 +1,5 @@
 package com.culina.auth.security;
 
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -15,15 +14,18 @@ import java.util.Date;
 public class JwtUtil {
 
     private final SecretKey secretKey;
+    private final JwtVerifier jwtVerifier;
     private final long accessTokenExpirationMillis;
     private final long refreshTokenExpirationMillis;
 
     public JwtUtil(
             @Value("${security.jwt.secret}") String secret,
+            JwtVerifier jwtVerifier,
             @Value("${security.jwt.access-token-expiration:1800000}") long accessTokenExpirationMillis,  // 30 min
             @Value("${security.jwt.refresh-token-expiration:604800000}") long refreshTokenExpirationMillis  // 7 days
     ) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtVerifier = jwtVerifier;
         this.accessTokenExpirationMillis = accessTokenExpirationMillis;
         this.refreshTokenExpirationMillis = refreshTokenExpirationMillis;
     }
@@ -57,7 +59,7 @@ public class JwtUtil {
     // Validate token
     public boolean isTokenValid(String token) {
         try {
-            getClaims(token);
+            jwtVerifier.verify(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -67,7 +69,7 @@ public class JwtUtil {
     // Check if token is expired
     public boolean isTokenExpired(String token) {
         try {
-            return getClaims(token).getExpiration().before(new Date());
+            return jwtVerifier.verify(token).getExpiresAtMillis() <= System.currentTimeMillis();
         } catch (Exception e) {
             return true;
         }
@@ -75,28 +77,28 @@ public class JwtUtil {
 
     // Extract User ID
     public Long extractUserId(String token) {
-        return Long.parseLong(getClaims(token).getSubject());
+        return jwtVerifier.verify(token).getUserId();
     }
 
     // Extract Email
     public String extractEmail(String token) {
-        return getClaims(token).get("email", String.class);
+        return jwtVerifier.verify(token).getEmail();
     }
 
     // Extract Role
     public String extractRole(String token) {
-        return getClaims(token).get("role", String.class);
+        return jwtVerifier.verify(token).getRole();
     }
 
     // Extract Token Type
     public String extractTokenType(String token) {
-        return getClaims(token).get("tokenType", String.class);
+        return jwtVerifier.verify(token).getTokenType();
     }
 
     // Validate that token is a refresh token
     public boolean isRefreshToken(String token) {
         try {
-            return "REFRESH".equals(extractTokenType(token));
+            return jwtVerifier.verify(token).isRefreshToken();
         } catch (Exception e) {
             return false;
         }
@@ -105,7 +107,7 @@ public class JwtUtil {
     // Validate that token is an access token
     public boolean isAccessToken(String token) {
         try {
-            return "ACCESS".equals(extractTokenType(token));
+            return jwtVerifier.verify(token).isAccessToken();
         } catch (Exception e) {
             return false;
         }
@@ -119,13 +121,4 @@ public class JwtUtil {
     public long getRefreshTokenExpirationSeconds() {
         return refreshTokenExpirationMillis / 1000;
     }
-
-    // Parse claims
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.culina.auth.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies tokens with one parser built at startup, and remembers verified
+ * claims until the token expires so a client's repeated requests skip the
+ * HMAC check and JSON parsing. Entries are keyed by a SHA-256 of the token,
+ * so the cache never holds usable credentials.
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwtParser parser;
+    private final int maxEntries;
+
+    private final Map<String, VerifiedToken> verified = new ConcurrentHashMap<>();
+
+    public JwtVerifier(
+            @Value("${security.jwt.secret}") String secret,
+            @Value("${security.jwt.cache.max-entries:10000}") int maxEntries) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, badly
+     *                                      signed or expired
+     */
+    public VerifiedToken verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = verified.get(key);
+        if (cached != null) {
+            if (cached.getExpiresAtMillis() > System.currentTimeMillis()) {
+                return cached;
+            }
+            // Parsed again below, which throws the usual ExpiredJwtException
+            verified.remove(key, cached);
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        Date expiration = claims.getExpiration();
+        VerifiedToken result = new VerifiedToken(
+                Long.parseLong(claims.getSubject()),
+                claims.get("email", String.class),
+                claims.get("role", String.class),
+                claims.get("tokenType", String.class),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE);
+
+        // Tokens without an expiry are verified every time
+        if (expiration != null && maxEntries > 0) {
+            if (verified.size() >= maxEntries) {
+                makeRoom();
+            }
+            verified.put(key, result);
+        }
+        return result;
+    }
+
+    int cachedTokens() {
+        return verified.size();
+    }
+
+    // Drop expired entries, then arbitrary ones until a tenth of the space is free
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        verified.values().removeIf(token -> token.getExpiresAtMillis() <= now);
+
+        Iterator<String> keys = verified.keySet().iterator();
+        while (verified.size() > maxEntries * 9 / 10 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
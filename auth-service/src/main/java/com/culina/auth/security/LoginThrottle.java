@@ -0,0 +1,152 @@
+package com.culina.auth.security;
+
+import com.culina.auth.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token buckets per client IP and per email for login and signup, so one
+ * source cannot queue up password hashing for everyone else. Checked before
+ * any BCrypt work is done.
+ *
+ * Every attempt costs its IP a token. Only failed attempts cost the email
+ * one: otherwise a user logging in from several devices would lock their
+ * own account, and anyone knowing an email could keep it locked with
+ * correct-looking traffic.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Limit ipLimit;
+    private final Limit emailLimit;
+    private final int maxTrackedKeys;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final Counter ipThrottled;
+    private final Counter emailThrottled;
+
+    public LoginThrottle(
+            MeterRegistry meterRegistry,
+            @Value("${auth.throttle.ip.capacity:30}") int ipCapacity,
+            @Value("${auth.throttle.ip.refill-per-minute:60}") int ipRefillPerMinute,
+            @Value("${auth.throttle.email.capacity:5}") int emailCapacity,
+            @Value("${auth.throttle.email.refill-per-minute:5}") int emailRefillPerMinute,
+            @Value("${auth.throttle.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.ipLimit = new Limit(ipCapacity, ipRefillPerMinute);
+        this.emailLimit = new Limit(emailCapacity, emailRefillPerMinute);
+        this.maxTrackedKeys = maxTrackedKeys;
+
+        this.ipThrottled = Counter.builder("auth.throttled").tag("key", "ip").register(meterRegistry);
+        this.emailThrottled = Counter.builder("auth.throttled").tag("key", "email").register(meterRegistry);
+    }
+
+    /**
+     * Take one attempt from the IP's bucket, and check that the email has
+     * failed attempts left without using one
+     *
+     * @throws TooManyRequestsException when either bucket is empty
+     */
+    public void acquire(String clientIp, String email) {
+        long now = System.nanoTime();
+
+        long ipWait = take("ip:" + clientIp, ipLimit, now);
+        if (ipWait > 0) {
+            ipThrottled.increment();
+            throw new TooManyRequestsException("TOO_MANY_ATTEMPTS", toRetryAfter(ipWait));
+        }
+
+        if (email != null) {
+            Bucket bucket = buckets.get(emailKey(email));
+            long emailWait = bucket == null ? 0 : bucket.waitFor(now);
+            if (emailWait > 0) {
+                emailThrottled.increment();
+                throw new TooManyRequestsException("TOO_MANY_ATTEMPTS", toRetryAfter(emailWait));
+            }
+        }
+    }
+
+    /**
+     * Charge a failed attempt (wrong password, taken email) to the email's bucket
+     */
+    public void recordFailure(String email) {
+        if (email != null) {
+            take(emailKey(email), emailLimit, System.nanoTime());
+        }
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise nanos until one is available
+     */
+    private long take(String key, Limit limit, long now) {
+        if (buckets.size() >= maxTrackedKeys) {
+            // Full buckets carry no state worth keeping
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket(limit, now)).take(now);
+    }
+
+    private static long toRetryAfter(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static final class Limit {
+
+        private final double capacity;
+        private final double nanosPerToken;
+
+        private Limit(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.nanosPerToken = (double) TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        }
+    }
+
+    private static final class Bucket {
+
+        private final Limit limit;
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(Limit limit, long now) {
+            this.limit = limit;
+            this.tokens = limit.capacity;
+            this.refilledAt = now;
+        }
+
+        private synchronized long take(long now) {
+            long wait = waitFor(now);
+            if (wait == 0) {
+                tokens -= 1;
+            }
+            return wait;
+        }
+
+        private synchronized long waitFor(long now) {
+            refill(now);
+            return tokens >= 1 ? 0 : (long) ((1 - tokens) * limit.nanosPerToken);
+        }
+
+        private synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= limit.capacity;
+        }
+
+        private void refill(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(limit.capacity, tokens + (now - refilledAt) / limit.nanosPerToken);
+                refilledAt = now;
+            }
+        }
+    }
+}
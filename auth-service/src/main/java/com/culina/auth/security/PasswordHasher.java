@@ -0,0 +1,124 @@
+package com.culina.auth.security;
+
+import com.culina.auth.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt on a fixed pool sized to the CPU instead of on request threads,
+ * so a login storm queues here rather than occupying every Tomcat thread.
+ * When the queue is full the caller gets a 429 straight away, with a
+ * Retry-After based on how long the queue would take to drain.
+ */
+@Component
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(
+            BCryptPasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "bcrypt-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("auth.password.hash")
+                .description("BCrypt time per password")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("auth.password.hash")
+                .description("BCrypt time per password")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time a password waited for a BCrypt thread")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.password.rejected")
+                .description("Passwords turned away because the BCrypt queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return run(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T run(Timer timer, Callable<T> work) {
+        long submittedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("AUTH_BUSY", retryAfterSeconds());
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Time for the queue ahead to drain at the current hashing speed, at least a second
+    private long retryAfterSeconds() {
+        double hashSeconds = Math.max(encodeTimer.mean(TimeUnit.SECONDS), matchesTimer.mean(TimeUnit.SECONDS));
+        double drainSeconds = executor.getQueue().size() * hashSeconds / executor.getMaximumPoolSize();
+        return Math.max(1, (long) Math.ceil(drainSeconds));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
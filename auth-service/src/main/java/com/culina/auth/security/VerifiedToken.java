@@ -0,0 +1,49 @@
+package com.culina.auth.security;
+
+/**
+ * Claims of a token whose signature and expiry have been checked.
+ */
+public class VerifiedToken {
+
+    private final Long userId;
+    private final String email;
+    private final String role;
+    private final String tokenType;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(Long userId, String email, String role, String tokenType, long expiresAtMillis) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.tokenType = tokenType;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isAccessToken() {
+        return "ACCESS".equals(tokenType);
+    }
+
+    public boolean isRefreshToken() {
+        return "REFRESH".equals(tokenType);
+    }
+}
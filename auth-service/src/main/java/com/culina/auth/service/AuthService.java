@@ -7,21 +7,21 @@ import com.culina.auth.dto.SignupRequest;
 import com.culina.auth.model.User;
 import com.culina.auth.repository.UserRepository;
 import com.culina.auth.security.JwtUtil;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import com.culina.auth.security.PasswordHasher;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
 
     public AuthService(UserRepository userRepository,
-                       BCryptPasswordEncoder passwordEncoder,
+                       PasswordHasher passwordHasher,
                        JwtUtil jwtUtil) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
     }
 
@@ -33,7 +33,7 @@ public class AuthService {
 
         User user = new User();
         user.setEmail(request.getEmail());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHasher.encode(request.getPassword()));
         user.setName(request.getName());
         user.setRole(request.getRole());
         user.setActive(true);
@@ -46,7 +46,7 @@ public class AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
 
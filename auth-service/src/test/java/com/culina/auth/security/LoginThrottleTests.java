@@ -0,0 +1,63 @@
+package com.culina.auth.security;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.culina.auth.exception.TooManyRequestsException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginThrottleTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // 3 attempts per IP and 2 failures per email, refilled once a minute
+    private final LoginThrottle throttle = new LoginThrottle(meterRegistry, 3, 1, 2, 1, 1_000);
+
+    @Test
+    void successfulLoginsDoNotUseUpTheEmail() {
+        for (int i = 0; i < 10; i++) {
+            String ip = "10.0.0." + i;
+            assertDoesNotThrow(() -> throttle.acquire(ip, "cook@example.com"));
+        }
+    }
+
+    @Test
+    void failedAttemptsThrottleTheEmailFromEveryIp() {
+        throttle.acquire("10.0.0.1", "cook@example.com");
+        throttle.recordFailure("cook@example.com");
+        throttle.acquire("10.0.0.2", "Cook@Example.com ");
+        throttle.recordFailure("Cook@Example.com ");
+
+        TooManyRequestsException e = assertThrows(TooManyRequestsException.class,
+                () -> throttle.acquire("10.0.0.3", "cook@example.com"));
+        assertEquals("TOO_MANY_ATTEMPTS", e.getMessage());
+        assertTrue(e.getRetryAfterSeconds() > 0 && e.getRetryAfterSeconds() <= 60);
+        assertEquals(1.0, meterRegistry.get("auth.throttled").tag("key", "email").counter().count());
+
+        // Other accounts are not affected
+        assertDoesNotThrow(() -> throttle.acquire("10.0.0.4", "chef@example.com"));
+    }
+
+    @Test
+    void everyAttemptCountsAgainstTheIp() {
+        for (int i = 0; i < 3; i++) {
+            String email = "user" + i + "@example.com";
+            assertDoesNotThrow(() -> throttle.acquire("10.0.0.1", email));
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> throttle.acquire("10.0.0.1", "other@example.com"));
+        assertEquals(1.0, meterRegistry.get("auth.throttled").tag("key", "ip").counter().count());
+        assertDoesNotThrow(() -> throttle.acquire("10.0.0.2", "other@example.com"));
+    }
+
+    @Test
+    void attemptsWithoutEmailOnlyUseTheIp() {
+        throttle.recordFailure(null);
+        assertDoesNotThrow(() -> throttle.acquire("10.0.0.1", null));
+    }
+}
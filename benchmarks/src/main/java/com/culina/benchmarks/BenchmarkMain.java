@@ -0,0 +1,34 @@
+package com.culina.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line and always
+ * adds the GC profiler, so every result comes with its allocation rate
+ * (gc.alloc.rate.norm is bytes allocated per operation).
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar                      # everything
+ * java -jar target/benchmarks.jar CartSerialization    # benchmarks matching a regex
+ * java -jar target/benchmarks.jar -rf json -rff base.json
+ * </pre>
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.culina.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+import com.culina.cart.serialization.CartSerializer;
+
+/**
+ * A whole cart value as cart-service stores it with cart.storage=value (and
+ * reads it from carts not yet moved into a hash): the binary CartSerializer
+ * configured in RedisConfig, against the GenericJackson2JsonRedisSerializer
+ * it replaced. 100 items is past the LZ4 threshold; the sizes are checked in
+ * cart-service's CartSerializerTests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartSerializationBenchmark {
+
+    @Param({ "1", "5", "20", "100" })
+    private int items;
+
+    @Param({ "json", "binary" })
+    private String codec;
+
+    private RedisSerializer<Object> serializer;
+
+    private Cart cart;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void setUp() {
+        serializer = codec.equals("binary")
+                ? (RedisSerializer) new CartSerializer()
+                : new GenericJackson2JsonRedisSerializer();
+
+        cart = new Cart();
+        cart.setUserId(42L);
+        for (int i = 0; i < items; i++) {
+            CartItem item = new CartItem();
+            item.setMenuItemId(100L + i);
+            item.setChefId(7L);
+            item.setChefName("Asha's Kitchen");
+            item.setName("Dish " + i);
+            item.setPriceCents(24_900L);
+            item.setQuantity(2);
+            cart.addOrUpdateItem(item);
+        }
+        serialized = serializer.serialize(cart);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(cart);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+
+    /**
+     * What every cart change costs: read, modify, write back
+     */
+    @Benchmark
+    public byte[] readModifyWrite() {
+        Cart read = (Cart) serializer.deserialize(serialized);
+        read.updateQuantity(100L, 3);
+        return serializer.serialize(read);
+    }
+}
@@ -0,0 +1,203 @@
+package com.culina.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.culina.order.chef.model.Chef;
+import com.culina.order.chef.repository.ChefRepository;
+import com.culina.order.domain.model.Order;
+import com.culina.order.dto.CreateOrderItemRequest;
+import com.culina.order.dto.CreateOrderRequest;
+import com.culina.order.event.MenuItemEventPublisher;
+import com.culina.order.event.OrderEventPublisher;
+import com.culina.order.feed.service.OrderFeedService;
+import com.culina.order.menu.dto.InventoryLine;
+import com.culina.order.menu.dto.StockLevel;
+import com.culina.order.menu.model.Menu;
+import com.culina.order.menu.model.MenuItem;
+import com.culina.order.menu.repository.InventoryRepository;
+import com.culina.order.menu.repository.MenuItemRepository;
+import com.culina.order.menu.service.HotInventorySequencer;
+import com.culina.order.menu.service.MenuItemCache;
+import com.culina.order.outbox.repository.OutboxEventRepository;
+import com.culina.order.outbox.service.OutboxService;
+import com.culina.order.repository.OrderItemRepository;
+import com.culina.order.repository.OrderRepository;
+import com.culina.order.service.ChefOrderStatsCounters;
+import com.culina.order.service.OrderService;
+import com.culina.order.service.OrderValidator;
+import com.culina.order.timeline.model.OrderTransition;
+import com.culina.order.timeline.repository.OrderTimelineRepository;
+import com.culina.order.timeline.service.OrderTimelineService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * OrderService.createOrder with the database replaced by in-memory stand-ins:
+ * the menu item lookup, validation, pricing loop, outbox serialization and
+ * event fan-out all run for real, stock reservation and saves are no-ops.
+ * validate measures OrderValidator on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CreateOrderBenchmark {
+
+    private static final long CHEF_ID = 7L;
+    private static final long PRICE_CENTS = 24_900L;
+
+    @Param({ "1", "5", "20" })
+    private int lines;
+
+    private OrderService orderService;
+    private OrderValidator orderValidator;
+    private OrderFeedService orderFeedService;
+    private HotInventorySequencer hotInventorySequencer;
+    private CreateOrderRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        Menu menu = new Menu();
+        menu.setId(1L);
+        menu.setChefId(CHEF_ID);
+
+        Map<Long, MenuItem> menuItems = new HashMap<>();
+        List<CreateOrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            MenuItem item = new MenuItem();
+            item.setId(100L + i);
+            item.setMenuId(1L);
+            item.setName("Dish " + i);
+            item.setPriceCents(PRICE_CENTS);
+            item.setAvailableQty(1_000_000);
+            Stubs.setField(item, "menu", menu);
+            menuItems.put(item.getId(), item);
+
+            CreateOrderItemRequest line = new CreateOrderItemRequest();
+            line.setMenuItemId(item.getId());
+            line.setQuantity(2);
+            line.setPriceCents(PRICE_CENTS);
+            items.add(line);
+        }
+
+        request = new CreateOrderRequest();
+        request.setChefId(CHEF_ID);
+        request.setItems(items);
+        request.setTotalAmountCents(PRICE_CENTS * 2 * lines);
+
+        Chef chef = new Chef();
+        Stubs.setField(chef, "id", CHEF_ID);
+
+        AtomicLong orderIds = new AtomicLong();
+        OrderRepository orderRepository = Stubs.repository(OrderRepository.class, Map.of(
+                "save", args -> {
+                    Order order = (Order) args[0];
+                    order.setId(orderIds.incrementAndGet());
+                    return order;
+                }));
+        ChefRepository chefRepository = Stubs.repository(ChefRepository.class, Map.of(
+                "findById", args -> Optional.of(chef)));
+        MenuItemRepository menuItemRepository = Stubs.repository(MenuItemRepository.class, Map.of(
+                "findAllByIdWithMenu", args -> {
+                    @SuppressWarnings("unchecked")
+                    List<Long> ids = (List<Long>) args[0];
+                    return ids.stream().map(menuItems::get).toList();
+                }));
+        OutboxEventRepository outboxEventRepository = Stubs.repository(OutboxEventRepository.class, Map.of(
+                "save", args -> args[0],
+                "saveAll", args -> args[0]));
+
+        OutboxService outboxService = new OutboxService(outboxEventRepository, objectMapper);
+        orderFeedService = new OrderFeedService(meterRegistry, 64, 1000, 1_800_000, 1);
+        hotInventorySequencer = new HotInventorySequencer(null, null, meterRegistry, 1024, 1000);
+        orderValidator = new OrderValidator(menuItemRepository);
+
+        InventoryRepository inventoryRepository = new InventoryRepository(new JdbcTemplate()) {
+            @Override
+            public List<InventoryLine> reserve(List<InventoryLine> reserved) {
+                return List.of();
+            }
+
+            @Override
+            public List<StockLevel> findStock(Collection<Long> menuItemIds) {
+                return menuItemIds.stream().map(id -> new StockLevel(id, 1_000, true)).toList();
+            }
+        };
+        OrderTimelineRepository timelineRepository = new OrderTimelineRepository(new JdbcTemplate()) {
+            @Override
+            public void append(List<OrderTransition> transitions) {
+            }
+        };
+
+        orderService = new OrderService(
+                orderRepository,
+                Stubs.repository(OrderItemRepository.class, Map.of()),
+                chefRepository,
+                new OrderEventPublisher(outboxService),
+                inventoryRepository,
+                orderValidator,
+                new ChefOrderStatsCounters(orderRepository, meterRegistry, 500, 10_000, 900_000),
+                orderFeedService,
+                new MenuItemCache(outboxService, meterRegistry, 10_000, 2_000, 300),
+                new MenuItemEventPublisher(outboxService, inventoryRepository),
+                hotInventorySequencer,
+                new OrderTimelineService(timelineRepository, chefRepository, meterRegistry, 2, 90),
+                20, 100, 100, 15);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        orderFeedService.shutdown();
+        hotInventorySequencer.shutdown();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        // Stands in for the transaction createOrder runs in, whose commit evicts the cached items
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Order order = orderService.createOrder(42L, request);
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            return order;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Benchmark
+    public Map<Long, MenuItem> validate() {
+        return orderValidator.validate(CHEF_ID, request.getItems());
+    }
+}
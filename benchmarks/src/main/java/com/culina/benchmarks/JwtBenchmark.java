@@ -0,0 +1,107 @@
+package com.culina.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.culina.order.security.JwtVerifier;
+import com.culina.order.security.VerifiedToken;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request auth overhead in the services' JwtAuthenticationFilter.
+ * separateParses is how the filters used to do it: isTokenValid,
+ * isAccessToken, extractUserId and extractRole, each building a parser and
+ * verifying the token. singleParse is JwtVerifier with its cache off, and
+ * cachedVerify is a repeat request from the same client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    // The local default from auth-service's application.properties
+    private static final String SECRET = "MyVerySecureSecretKeyThatIsAtLeast256BitsLong12345678901234567890";
+
+    private SecretKey secretKey;
+    private JwtVerifier uncachedVerifier;
+    private JwtVerifier cachedVerifier;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+        // Same claims as auth-service issues for an access token
+        token = Jwts.builder()
+                .setSubject("42")
+                .claim("email", "customer@example.com")
+                .claim("role", "customer")
+                .claim("tokenType", "ACCESS")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(secretKey, SignatureAlgorithm.HS256)
+                .compact();
+
+        uncachedVerifier = new JwtVerifier(SECRET, 0);
+        cachedVerifier = new JwtVerifier(SECRET, 10_000);
+    }
+
+    @Benchmark
+    public void separateParses(Blackhole blackhole) {
+        parse(token);
+        if ("ACCESS".equals(parse(token).get("tokenType", String.class))) {
+            blackhole.consume(Long.parseLong(parse(token).getSubject()));
+            blackhole.consume(parse(token).get("role", String.class));
+        }
+    }
+
+    @Benchmark
+    public void singleParse(Blackhole blackhole) {
+        authenticate(uncachedVerifier, blackhole);
+    }
+
+    @Benchmark
+    public void cachedVerify(Blackhole blackhole) {
+        authenticate(cachedVerifier, blackhole);
+    }
+
+    private void authenticate(JwtVerifier verifier, Blackhole blackhole) {
+        VerifiedToken verified = verifier.verify(token);
+        if (verified.isAccessToken()) {
+            blackhole.consume(verified.getUserId());
+            blackhole.consume(verified.getRole());
+        }
+    }
+
+    // JwtUtil.getClaims before JwtVerifier
+    private Claims parse(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+}
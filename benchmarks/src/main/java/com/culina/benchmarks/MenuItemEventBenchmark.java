@@ -0,0 +1,76 @@
+package com.culina.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.culina.order.event.MenuItemEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A menu.item.updated event on its way to search-service: written to the
+ * outbox as a JSON string and read back by the consumer's JSON deserializer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuItemEventBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MenuItemEvent event;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        event = new MenuItemEvent();
+        event.setMenuItemId(100L);
+        event.setName("Slow cooked lamb curry");
+        event.setDescription("Slow cooked, served with rice and salad");
+        event.setPriceCents(24_900L);
+        event.setIsAvailable(true);
+        event.setChefId(7L);
+        event.setChefName("Asha's Kitchen");
+        event.setMenuId(1L);
+        event.setMenuName("Dinner");
+        event.setTags(new String[] { "curry", "spicy", "lamb" });
+
+        bytes = objectMapper.writeValueAsBytes(event);
+    }
+
+    /**
+     * OutboxService stores the payload as a string
+     */
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    /**
+     * The consumer reads the record value from bytes
+     */
+    @Benchmark
+    public MenuItemEvent deserialize() throws IOException {
+        return objectMapper.readValue(bytes, MenuItemEvent.class);
+    }
+
+    @Benchmark
+    public MenuItemEvent roundTrip() throws IOException {
+        return objectMapper.readValue(objectMapper.writeValueAsString(event), MenuItemEvent.class);
+    }
+}
@@ -0,0 +1,72 @@
+package com.culina.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.culina.order.menu.dto.MenuItemResponse;
+import com.culina.order.menu.model.Menu;
+import com.culina.order.menu.model.MenuItem;
+
+/**
+ * MenuItemResponse.from for list responses (image URL only) and for clients
+ * that ask for inline image data, where the base64 encoding dominates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuItemResponseBenchmark {
+
+    @Param({ "20", "150" })
+    private int imageKb;
+
+    private MenuItem item;
+    private byte[] image;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Menu menu = new Menu();
+        menu.setId(1L);
+        menu.setChefId(7L);
+
+        item = new MenuItem();
+        item.setId(100L);
+        item.setMenuId(1L);
+        item.setName("Slow cooked lamb curry");
+        item.setDescription("Slow cooked, served with rice and salad");
+        item.setPriceCents(24_900L);
+        item.setAvailableQty(20);
+        item.setPreparationTimeMinutes(30);
+        item.setTags(new String[] { "curry", "spicy" });
+        item.setImageId(500L);
+        Stubs.setField(item, "menu", menu);
+
+        image = new byte[imageKb * 1024];
+        new Random(42).nextBytes(image);
+    }
+
+    @Benchmark
+    public MenuItemResponse withoutImage() {
+        return MenuItemResponse.from(item);
+    }
+
+    @Benchmark
+    public MenuItemResponse withImage() {
+        return MenuItemResponse.from(item, image);
+    }
+}
@@ -0,0 +1,87 @@
+package com.culina.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.culina.order.menu.dto.MenuItemResponse;
+import com.culina.order.menu.model.MenuItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * A whole menu page built and serialized, with inline base64 images (the old
+ * default, now opt-in) and with image URLs. The payload sizes are asserted in
+ * order-service's MenuItemResponsePayloadTests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuPageBenchmark {
+
+    private static final int ITEMS = 48;
+    private static final int IMAGE_BYTES = 150 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private List<MenuItem> items;
+    private List<byte[]> images;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        items = new ArrayList<>(ITEMS);
+        images = new ArrayList<>(ITEMS);
+        Random random = new Random(42);
+        for (int i = 0; i < ITEMS; i++) {
+            MenuItem item = new MenuItem();
+            item.setId((long) i + 1);
+            item.setMenuId(1L);
+            item.setName("Item " + i);
+            item.setDescription("Slow cooked, served with rice and salad");
+            item.setPriceCents(25_000L);
+            item.setAvailableQty(20);
+            item.setPreparationTimeMinutes(30);
+            item.setTags(new String[] { "curry", "spicy" });
+            item.setImageId((long) i + 100);
+            items.add(item);
+
+            byte[] image = new byte[IMAGE_BYTES];
+            random.nextBytes(image);
+            images.add(image);
+        }
+    }
+
+    @Benchmark
+    public byte[] inlineImages() throws JsonProcessingException {
+        List<MenuItemResponse> page = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            page.add(MenuItemResponse.from(items.get(i), images.get(i)));
+        }
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] imageUrls() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(items.stream().map(MenuItemResponse::from).toList());
+    }
+}
@@ -0,0 +1,60 @@
+package com.culina.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.culina.order.domain.OrderStateMachine;
+import com.culina.order.domain.model.OrderStatus;
+
+/**
+ * OrderStateMachine.canTransition over every (from, to) pair, including the
+ * terminal states that fall through to the default set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderStateMachineBenchmark {
+
+    private final OrderStatus[] statuses = OrderStatus.values();
+
+    // Fields rather than constants so the JIT cannot fold the lookups away
+    private OrderStatus paid = OrderStatus.PAID;
+    private OrderStatus confirmed = OrderStatus.CONFIRMED;
+    private OrderStatus delivered = OrderStatus.DELIVERED;
+    private OrderStatus cancelled = OrderStatus.CANCELLED;
+
+    /**
+     * One operation checks all statuses.length squared pairs
+     */
+    @Benchmark
+    public void allPairs(Blackhole blackhole) {
+        for (OrderStatus from : statuses) {
+            for (OrderStatus to : statuses) {
+                blackhole.consume(OrderStateMachine.canTransition(from, to));
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean allowed() {
+        return OrderStateMachine.canTransition(paid, confirmed);
+    }
+
+    @Benchmark
+    public boolean rejected() {
+        return OrderStateMachine.canTransition(delivered, cancelled);
+    }
+}
@@ -0,0 +1,49 @@
+package com.culina.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for Spring Data repositories and access to fields the
+ * services only let JPA set.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * A repository whose methods are answered by the given handlers, keyed by
+     * method name. Anything else throws, so a benchmark cannot silently skip
+     * work it relies on.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    Function<Object[], Object> handler = handlers.get(method.getName());
+                    if (handler != null) {
+                        return handler.apply(args);
+                    }
+                    return switch (method.getName()) {
+                        case "toString" -> type.getSimpleName() + " stub";
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        default -> throw new UnsupportedOperationException(
+                                type.getSimpleName() + "." + method.getName() + " is not stubbed");
+                    };
+                });
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass(), e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.culina.cart.client;
+
+/**
+ * Count-based circuit breaker. Opens once at least failureRate percent of
+ * the last windowSize calls failed (counting from minCalls calls), turns
+ * calls away while open, then lets a single trial call through whose
+ * outcome closes or reopens it.
+ *
+ * Every state change starts a new epoch; outcomes of calls let through in
+ * an earlier epoch are ignored.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int minCalls;
+    private final int failureRate;
+    private final long openNanos;
+
+    // Ring of the last outcomes, true for a failure
+    private final boolean[] window;
+    private int next;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long epoch;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int windowSize, int minCalls, int failureRate, long openMillis) {
+        this.window = new boolean[windowSize];
+        this.minCalls = Math.min(minCalls, windowSize);
+        this.failureRate = failureRate;
+        this.openNanos = openMillis * 1_000_000;
+    }
+
+    /**
+     * @return the epoch to report the outcome under, or -1 if the call may
+     *         not go ahead
+     */
+    synchronized long tryAcquire(long now) {
+        switch (state) {
+            case CLOSED:
+                return epoch;
+            case OPEN:
+                if (now - openedAt < openNanos) {
+                    return -1;
+                }
+                transition(State.HALF_OPEN);
+                trialInFlight = true;
+                return epoch;
+            default:
+                if (trialInFlight) {
+                    return -1;
+                }
+                trialInFlight = true;
+                return epoch;
+        }
+    }
+
+    synchronized void record(long callEpoch, boolean failed, long now) {
+        if (callEpoch != epoch) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            if (failed) {
+                open(now);
+            } else {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+
+        if (recorded >= minCalls && failures * 100 >= failureRate * recorded) {
+            open(now);
+        }
+    }
+
+    /**
+     * The call let through never went out: frees the trial slot, if it held
+     * it, without counting an outcome
+     */
+    synchronized void release(long callEpoch) {
+        if (callEpoch == epoch && state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * @return nanos until a trial call may be let through, 0 if calls are
+     *         let through now
+     */
+    synchronized long retryAfterNanos(long now) {
+        if (state == State.OPEN) {
+            return Math.max(0, openNanos - (now - openedAt));
+        }
+        return state == State.HALF_OPEN && trialInFlight ? openNanos : 0;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void open(long now) {
+        transition(State.OPEN);
+        openedAt = now;
+    }
+
+    private void transition(State to) {
+        state = to;
+        epoch++;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        trialInFlight = false;
+    }
+}
@@ -0,0 +1,266 @@
+package com.culina.cart.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.culina.cart.dto.CreateOrderRequest;
+import com.culina.cart.exception.OrderServiceException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Places orders with order-service without holding a request thread while
+ * it answers.
+ *
+ * Calls go over a bounded pool of keep-alive connections, and every wait
+ * (for a pooled connection, for the response, for the whole call) is cut
+ * off at the caller's deadline. A bulkhead caps the calls in flight and a
+ * circuit breaker stops calling an order-service that keeps failing, so
+ * when order-service slows down checkouts are turned away with a 503 at
+ * once instead of queueing up.
+ */
+@Component
+public class OrderServiceClient {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceClient.class);
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final String createOrderUrl;
+    private final ObjectMapper objectMapper;
+
+    private final PoolingAsyncClientConnectionManager connectionManager;
+    private final CloseableHttpAsyncClient httpClient;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker breaker;
+
+    private final Timer callTimer;
+    private final Counter succeeded;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter timedOut;
+    private final Counter shortCircuited;
+    private final Counter bulkheadFull;
+
+    public OrderServiceClient(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cart.order-client.base-url:http://culina-order:8081}") String baseUrl,
+            @Value("${cart.order-client.max-connections:50}") int maxConnections,
+            @Value("${cart.order-client.max-concurrent-calls:50}") int maxConcurrentCalls,
+            @Value("${cart.order-client.connect-timeout-ms:500}") long connectTimeoutMs,
+            @Value("${cart.order-client.keep-alive-ms:30000}") long keepAliveMs,
+            @Value("${cart.order-client.breaker.window-size:20}") int breakerWindowSize,
+            @Value("${cart.order-client.breaker.min-calls:10}") int breakerMinCalls,
+            @Value("${cart.order-client.breaker.failure-rate:50}") int breakerFailureRate,
+            @Value("${cart.order-client.breaker.open-ms:10000}") long breakerOpenMs) {
+        this.createOrderUrl = stripTrailingSlash(baseUrl) + "/order/createOrder";
+        this.objectMapper = objectMapper;
+
+        this.connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .build())
+                .build();
+        // Idle connections are dropped before order-service's Tomcat would close them
+        TimeValue keepAlive = TimeValue.ofMilliseconds(keepAliveMs);
+        this.httpClient = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictIdleConnections(keepAlive)
+                .disableAutomaticRetries()
+                .build();
+        this.httpClient.start();
+
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.breaker = new CircuitBreaker(breakerWindowSize, breakerMinCalls, breakerFailureRate, breakerOpenMs);
+
+        this.callTimer = Timer.builder("cart.order-client.calls.latency")
+                .description("Time of calls to order-service that were made")
+                .register(meterRegistry);
+        this.succeeded = outcome(meterRegistry, "success");
+        this.rejected = outcome(meterRegistry, "rejected");
+        this.failed = outcome(meterRegistry, "error");
+        this.timedOut = outcome(meterRegistry, "timeout");
+        this.shortCircuited = outcome(meterRegistry, "short-circuited");
+        this.bulkheadFull = outcome(meterRegistry, "bulkhead-full");
+        Gauge.builder("cart.order-client.in-flight", bulkhead, b -> maxConcurrentCalls - b.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("cart.order-client.breaker.open", breaker,
+                b -> b.state() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .register(meterRegistry);
+        Gauge.builder("cart.order-client.pool.leased", connectionManager, m -> m.getTotalStats().getLeased())
+                .register(meterRegistry);
+        Gauge.builder("cart.order-client.pool.pending", connectionManager, m -> m.getTotalStats().getPending())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+    }
+
+    /**
+     * Create the order, finishing by the given deadline
+     *
+     * @param deadline System.nanoTime() by which the call must be done
+     * @return the new order's id; fails with {@link OrderServiceException}
+     */
+    public CompletableFuture<Long> createOrder(CreateOrderRequest request, String bearerToken,
+            String idempotencyKey, long deadline) {
+        long now = System.nanoTime();
+        long remaining = deadline - now;
+        if (remaining <= 0) {
+            timedOut.increment();
+            return CompletableFuture.failedFuture(new OrderServiceException("ORDER_SERVICE_TIMEOUT", 504, 0));
+        }
+
+        if (!bulkhead.tryAcquire()) {
+            bulkheadFull.increment();
+            return CompletableFuture.failedFuture(new OrderServiceException("ORDER_SERVICE_BUSY", 503, 1));
+        }
+        long epoch = breaker.tryAcquire(now);
+        if (epoch < 0) {
+            bulkhead.release();
+            shortCircuited.increment();
+            return CompletableFuture.failedFuture(new OrderServiceException("ORDER_SERVICE_UNAVAILABLE", 503,
+                    toRetryAfter(breaker.retryAfterNanos(now))));
+        }
+
+        SimpleHttpRequest http;
+        try {
+            Timeout timeout = Timeout.ofMilliseconds(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+            http = SimpleRequestBuilder.post(createOrderUrl)
+                    .setBody(objectMapper.writeValueAsBytes(request), ContentType.APPLICATION_JSON)
+                    .setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + bearerToken)
+                    .setHeader(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
+                    .setRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(timeout)
+                            .setResponseTimeout(timeout)
+                            .build())
+                    .build();
+        } catch (JsonProcessingException | RuntimeException e) {
+            bulkhead.release();
+            breaker.release(epoch);
+            throw new IllegalStateException("Could not build the order request", e);
+        }
+
+        CompletableFuture<SimpleHttpResponse> exchange = new CompletableFuture<>();
+        Future<SimpleHttpResponse> call = httpClient.execute(http, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                exchange.complete(response);
+            }
+
+            @Override
+            public void failed(Exception e) {
+                exchange.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                exchange.completeExceptionally(new TimeoutException("Call cancelled"));
+            }
+        });
+
+        return exchange.orTimeout(remaining, TimeUnit.NANOSECONDS)
+                .handle((response, error) -> {
+                    bulkhead.release();
+                    long finished = System.nanoTime();
+                    callTimer.record(finished - now, TimeUnit.NANOSECONDS);
+                    if (error != null) {
+                        call.cancel(true);
+                    }
+
+                    OrderServiceException failure = toFailure(response, error);
+                    // Answers order-service chose to give mean it is working
+                    breaker.record(epoch, failure != null && failure.getStatus() >= 500, finished);
+                    if (failure != null) {
+                        throw failure;
+                    }
+                    succeeded.increment();
+                    return readOrderId(response);
+                });
+    }
+
+    private OrderServiceException toFailure(SimpleHttpResponse response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            if (cause instanceof TimeoutException || cause instanceof InterruptedIOException) {
+                timedOut.increment();
+                return new OrderServiceException("ORDER_SERVICE_TIMEOUT", 504, 0);
+            }
+            failed.increment();
+            log.warn("Order-service call failed: {}", cause.toString());
+            return new OrderServiceException("ORDER_SERVICE_ERROR", 502, 0);
+        }
+
+        int status = response.getCode();
+        if (status >= 500) {
+            failed.increment();
+            log.warn("Order-service answered {}", status);
+            return new OrderServiceException("ORDER_SERVICE_ERROR", 502, response.getBodyText());
+        }
+        if (status >= 300) {
+            rejected.increment();
+            return new OrderServiceException("ORDER_REJECTED", status, response.getBodyText());
+        }
+        return null;
+    }
+
+    private Long readOrderId(SimpleHttpResponse response) {
+        try {
+            return objectMapper.readValue(response.getBodyBytes(), Long.class);
+        } catch (IOException e) {
+            throw new OrderServiceException("ORDER_SERVICE_ERROR", 502, response.getBodyText());
+        }
+    }
+
+    private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("cart.order-client.calls").tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private static long toRetryAfter(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
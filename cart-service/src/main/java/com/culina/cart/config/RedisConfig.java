@@ -4,11 +4,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
-import org.springframework.web.client.RestTemplate;
 
 import com.culina.cart.model.Cart;
+import com.culina.cart.serialization.CartSerializer;
 
 @Configuration
 public class RedisConfig {
@@ -17,13 +16,8 @@ public class RedisConfig {
     public RedisTemplate<String, Cart> redisTemplate(RedisConnectionFactory factory) {
         RedisTemplate<String, Cart> template = new RedisTemplate<>();
         template.setConnectionFactory(factory);
-        template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        template.setValueSerializer(new CartSerializer());
         template.setKeySerializer(new StringRedisSerializer());
         return template;
     }
-
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
 }
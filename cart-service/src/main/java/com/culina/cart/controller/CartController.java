@@ -1,6 +1,7 @@
 package com.culina.cart.controller;
 
 import org.springframework.security.core.Authentication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,7 +15,9 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.culina.cart.dto.CheckoutRequest;
 import com.culina.cart.dto.UpdateCartItemRequest;
+import com.culina.cart.exception.CartValidationException;
 import com.culina.cart.exception.ChefConflictException;
+import com.culina.cart.exception.OrderServiceException;
 import com.culina.cart.model.Cart;
 import com.culina.cart.model.CartItem;
 import com.culina.cart.service.CartService;
@@ -23,6 +26,7 @@ import jakarta.servlet.http.HttpServletRequest;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/cart")
@@ -59,6 +63,18 @@ public class CartController {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
+    /**
+     * Items the menu item view knows to be unavailable, sold out or repriced
+     */
+    @ExceptionHandler(CartValidationException.class)
+    public ResponseEntity<Map<String, Object>> handleCartValidation(CartValidationException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "CART_VALIDATION_FAILED");
+        response.put("message", ex.getMessage());
+        response.put("errors", ex.getErrors());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @PostMapping("/add")
     public ResponseEntity<Void> add(Authentication authentication, @RequestBody CartItem item) {
         Long userId = getUserId(authentication);
@@ -104,14 +120,34 @@ public class CartController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Order-service failures and load shedding; 503s carry a Retry-After
+     */
+    @ExceptionHandler(OrderServiceException.class)
+    public ResponseEntity<Map<String, Object>> handleOrderService(OrderServiceException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", ex.getMessage());
+        if (ex.getDetail() != null) {
+            response.put("message", ex.getDetail());
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(ex.getStatus());
+        if (ex.getRetryAfterSeconds() > 0) {
+            response.put("retryAfterSeconds", ex.getRetryAfterSeconds());
+            builder.header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+        }
+        return builder.body(response);
+    }
+
     @PostMapping("/checkout")
-    public ResponseEntity<Long> checkout(
+    public CompletableFuture<ResponseEntity<Long>> checkout(
             HttpServletRequest request,
             Authentication authentication,
             @RequestBody CheckoutRequest body) {
         String authHeader = request.getHeader("Authorization");
-        Long orderId = cartService.checkout(authentication, authHeader, body);
-        return ResponseEntity.ok(orderId);
+        // Optional; clients that retry on their own can pin the key themselves
+        String idempotencyKey = request.getHeader("Idempotency-Key");
+        return cartService.checkout(authentication, authHeader, idempotencyKey, body)
+                .thenApply(ResponseEntity::ok);
     }
 
 }
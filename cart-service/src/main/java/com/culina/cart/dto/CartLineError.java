@@ -0,0 +1,29 @@
+package com.culina.cart.dto;
+
+/**
+ * Why a cart line cannot be ordered; codes match order-service's
+ */
+public class CartLineError {
+
+    private Long menuItemId;
+    private String code;
+    private String message;
+
+    public CartLineError(Long menuItemId, String code, String message) {
+        this.menuItemId = menuItemId;
+        this.code = code;
+        this.message = message;
+    }
+
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
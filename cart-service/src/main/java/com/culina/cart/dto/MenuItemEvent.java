@@ -0,0 +1,44 @@
+package com.culina.cart.dto;
+
+/**
+ * The parts of order-service's menu.item.upsert event the cart needs
+ */
+public class MenuItemEvent {
+
+    private Long menuItemId;
+    private String name;
+    private Long priceCents;
+    private Long chefId;
+
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getPriceCents() {
+        return priceCents;
+    }
+
+    public void setPriceCents(Long priceCents) {
+        this.priceCents = priceCents;
+    }
+
+    public Long getChefId() {
+        return chefId;
+    }
+
+    public void setChefId(Long chefId) {
+        this.chefId = chefId;
+    }
+}
@@ -0,0 +1,36 @@
+package com.culina.cart.dto;
+
+/**
+ * order-service's menu.item.stock event; a null availableQty means
+ * unlimited stock
+ */
+public class MenuItemStockEvent {
+
+    private Long menuItemId;
+    private Integer availableQty;
+    private Boolean isAvailable;
+
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+
+    public Integer getAvailableQty() {
+        return availableQty;
+    }
+
+    public void setAvailableQty(Integer availableQty) {
+        this.availableQty = availableQty;
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+}
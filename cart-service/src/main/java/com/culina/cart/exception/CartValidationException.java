@@ -0,0 +1,23 @@
+package com.culina.cart.exception;
+
+import java.util.List;
+
+import com.culina.cart.dto.CartLineError;
+
+/**
+ * Thrown when cart lines fail the checks against the menu item view, before
+ * order-service is called
+ */
+public class CartValidationException extends RuntimeException {
+
+    private final List<CartLineError> errors;
+
+    public CartValidationException(List<CartLineError> errors) {
+        super("Cart has items that cannot be ordered");
+        this.errors = errors;
+    }
+
+    public List<CartLineError> getErrors() {
+        return errors;
+    }
+}
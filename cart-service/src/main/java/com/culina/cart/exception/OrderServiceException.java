@@ -0,0 +1,45 @@
+package com.culina.cart.exception;
+
+/**
+ * Thrown when a checkout could not be placed with order-service. Carries
+ * the HTTP status to answer with and, when cart-service is shedding load,
+ * how long the client should wait before retrying.
+ */
+public class OrderServiceException extends RuntimeException {
+
+    private final int status;
+    private final long retryAfterSeconds;
+    private final String detail;
+
+    public OrderServiceException(String code, int status, long retryAfterSeconds) {
+        super(code);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.detail = null;
+    }
+
+    public OrderServiceException(String code, int status, String detail) {
+        super(code);
+        this.status = status;
+        this.retryAfterSeconds = 0;
+        this.detail = detail;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return 0 if the client need not back off
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * @return what order-service answered, if it answered
+     */
+    public String getDetail() {
+        return detail;
+    }
+}
@@ -0,0 +1,93 @@
+package com.culina.cart.kafka;
+
+import java.util.Map;
+
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.culina.cart.dto.MenuItemEvent;
+import com.culina.cart.dto.MenuItemStockEvent;
+import com.culina.cart.service.MenuItemView;
+
+/**
+ * Feeds the menu item view. Every instance has a group of its own, named
+ * after its instance id so restarts reuse it. The view lives in memory, so
+ * on assignment the consumer goes back to the start of both topics and
+ * each instance builds the whole view again.
+ *
+ * The listeners are started once the application is ready, and a Kafka
+ * that cannot be reached only leaves the view empty: carts are then passed
+ * on to order-service unchecked, as before the view existed.
+ */
+@Component
+public class MenuItemViewConsumer extends AbstractConsumerSeekAware {
+
+    private static final Logger log = LoggerFactory.getLogger(MenuItemViewConsumer.class);
+
+    private static final String UPSERT_LISTENER = "menu-view-upsert";
+    private static final String STOCK_LISTENER = "menu-view-stock";
+
+    private final MenuItemView view;
+    private final KafkaListenerEndpointRegistry registry;
+    private final boolean enabled;
+
+    public MenuItemViewConsumer(MenuItemView view,
+            KafkaListenerEndpointRegistry registry,
+            @Value("${cart.menu-view.enabled:true}") boolean enabled) {
+        this.view = view;
+        this.registry = registry;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        for (String id : new String[] { UPSERT_LISTENER, STOCK_LISTENER }) {
+            MessageListenerContainer container = registry.getListenerContainer(id);
+            try {
+                container.start();
+            } catch (RuntimeException e) {
+                log.warn("Could not start {}, carts are not checked against it: {}", id, e.toString());
+            }
+        }
+    }
+
+    @KafkaListener(
+        id = UPSERT_LISTENER,
+        topics = "menu.item.upsert",
+        groupId = "cart-service-menu-view-${cart.instance-id:local}",
+        autoStartup = "false",
+        properties = "spring.json.value.default.type=com.culina.cart.dto.MenuItemEvent"
+    )
+    public void consumeUpsert(MenuItemEvent event) {
+        view.apply(event);
+    }
+
+    @KafkaListener(
+        id = STOCK_LISTENER,
+        topics = "menu.item.stock",
+        groupId = "cart-service-menu-view-${cart.instance-id:local}",
+        autoStartup = "false",
+        properties = "spring.json.value.default.type=com.culina.cart.dto.MenuItemStockEvent"
+    )
+    public void consumeStock(MenuItemStockEvent event) {
+        view.apply(event);
+    }
+}
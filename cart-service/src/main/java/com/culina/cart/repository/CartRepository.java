@@ -0,0 +1,50 @@
+package com.culina.cart.repository;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+
+/**
+ * Where carts live in Redis. Every write also drops the user's checkout
+ * idempotency key, since the next checkout is for different contents.
+ */
+public interface CartRepository {
+
+    Duration CART_TTL = Duration.ofDays(7);
+
+    /**
+     * @return the user's cart, or null if there is none
+     */
+    Cart find(Long userId);
+
+    /**
+     * Add the item's quantity to what is already in the cart
+     *
+     * @throws com.culina.cart.exception.ChefConflictException if the cart
+     *         holds items from another chef
+     */
+    void addItem(Long userId, CartItem item);
+
+    /**
+     * Set an item's quantity; zero or less removes it
+     *
+     * @return false if the user has no cart
+     */
+    boolean updateQuantity(Long userId, Long menuItemId, int quantity);
+
+    void removeItem(Long userId, Long menuItemId);
+
+    /**
+     * Replace the price of the given items, leaving their quantities alone;
+     * items no longer in the cart are skipped
+     */
+    void reprice(Long userId, Collection<CartItem> items);
+
+    void delete(Long userId);
+
+    static String checkoutKey(Long userId) {
+        return "checkout-key:" + userId;
+    }
+}
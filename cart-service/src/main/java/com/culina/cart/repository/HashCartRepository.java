@@ -0,0 +1,257 @@
+package com.culina.cart.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import com.culina.cart.exception.ChefConflictException;
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Each cart as a Redis hash under cart:{userId}:items, so a change touches
+ * one field in one round trip (cart.storage=hash, the default).
+ *
+ * Fields: "chef" holds the cart's chef, "q:{menuItemId}" the quantity
+ * (changed with HINCRBY, so concurrent adds all count) and
+ * "i:{menuItemId}" the item's name and price as JSON. Writes run as Lua
+ * scripts that also check the chef, refresh the TTL and drop the checkout
+ * key. Carts still stored whole under cart:{userId} are moved into a hash
+ * the first time they are touched.
+ */
+@Repository
+@ConditionalOnProperty(name = "cart.storage", havingValue = "hash", matchIfMissing = true)
+public class HashCartRepository implements CartRepository {
+
+    private static final String QUANTITY_PREFIX = "q:";
+    private static final String ITEM_PREFIX = "i:";
+    private static final String LEGACY_MARKER = "legacy";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> READ_SCRIPT = script("cart-read.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADD_SCRIPT = script("cart-add.lua", List.class);
+    private static final RedisScript<Long> UPDATE_SCRIPT = script("cart-update.lua", Long.class);
+    private static final RedisScript<Long> REPRICE_SCRIPT = script("cart-reprice.lua", Long.class);
+    private static final RedisScript<Long> MIGRATE_SCRIPT = script("cart-migrate.lua", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisSerializer<?> legacySerializer;
+    private final ObjectMapper objectMapper;
+
+    public HashCartRepository(StringRedisTemplate stringRedisTemplate,
+            RedisTemplate<String, Cart> redisTemplate,
+            ObjectMapper objectMapper) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.legacySerializer = redisTemplate.getValueSerializer();
+        this.objectMapper = objectMapper;
+    }
+
+    private static String hashKey(Long userId) {
+        return "cart:" + userId + ":items";
+    }
+
+    private static String legacyKey(Long userId) {
+        return "cart:" + userId;
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Cart find(Long userId) {
+        // Raw bytes back, as the legacy value may not be text
+        List<byte[]> reply = stringRedisTemplate.execute(READ_SCRIPT,
+                RedisSerializer.string(), (RedisSerializer) RedisSerializer.byteArray(),
+                List.of(hashKey(userId), legacyKey(userId)));
+        if (reply == null || reply.isEmpty()) {
+            return null;
+        }
+
+        if (reply.size() == 2 && LEGACY_MARKER.equals(text(reply.get(0)))) {
+            Cart legacy = (Cart) legacySerializer.deserialize(reply.get(1));
+            migrate(userId, legacy);
+            if (legacy != null) {
+                legacy.setUserId(userId);
+            }
+            return legacy;
+        }
+
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i + 1 < reply.size(); i += 2) {
+            fields.put(text(reply.get(i)), text(reply.get(i + 1)));
+        }
+        return toCart(userId, fields);
+    }
+
+    @Override
+    public void addItem(Long userId, CartItem item) {
+        String details = details(item);
+        String chefId = item.getChefId() != null ? item.getChefId().toString() : "";
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            List<?> reply = stringRedisTemplate.execute(ADD_SCRIPT, keys(userId),
+                    item.getMenuItemId().toString(), chefId, details,
+                    Integer.toString(item.getQuantity()), ttlSeconds());
+
+            long status = ((Number) reply.get(0)).longValue();
+            if (status == 1) {
+                return;
+            }
+            if (status == -1) {
+                throw new ChefConflictException(
+                        "Cart contains items from a different chef",
+                        ((Number) reply.get(1)).longValue());
+            }
+            migrateLegacy(userId);
+        }
+        throw new IllegalStateException("Cart of user " + userId + " could not be migrated");
+    }
+
+    @Override
+    public boolean updateQuantity(Long userId, Long menuItemId, int quantity) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Long status = stringRedisTemplate.execute(UPDATE_SCRIPT, keys(userId),
+                    menuItemId.toString(), Integer.toString(quantity), ttlSeconds());
+            if (status != null && status != 0) {
+                return status == 1;
+            }
+            migrateLegacy(userId);
+        }
+        throw new IllegalStateException("Cart of user " + userId + " could not be migrated");
+    }
+
+    @Override
+    public void removeItem(Long userId, Long menuItemId) {
+        updateQuantity(userId, menuItemId, 0);
+    }
+
+    @Override
+    public void reprice(Long userId, Collection<CartItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>();
+        args.add(ttlSeconds());
+        for (CartItem item : items) {
+            args.add(item.getMenuItemId().toString());
+            args.add(details(item));
+        }
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Long status = stringRedisTemplate.execute(REPRICE_SCRIPT, keys(userId), args.toArray());
+            if (status != null && status != 0) {
+                return;
+            }
+            migrateLegacy(userId);
+        }
+        throw new IllegalStateException("Cart of user " + userId + " could not be migrated");
+    }
+
+    @Override
+    public void delete(Long userId) {
+        stringRedisTemplate.delete(List.of(hashKey(userId), legacyKey(userId), CartRepository.checkoutKey(userId)));
+    }
+
+    // MIGRATION
+
+    private void migrateLegacy(Long userId) {
+        // find() migrates a legacy cart as it reads it, but reads the hash when
+        // there is one: a legacy value written next to it (by an instance still
+        // storing whole carts) is then dropped, as migration drops it
+        find(userId);
+        migrate(userId, null);
+    }
+
+    private void migrate(Long userId, Cart legacy) {
+        String chefId = "";
+        List<String> fields = new ArrayList<>();
+        if (legacy != null) {
+            for (CartItem item : legacy.getItems()) {
+                if (item.getMenuItemId() == null || item.getQuantity() <= 0) {
+                    continue;
+                }
+                if (chefId.isEmpty() && item.getChefId() != null) {
+                    chefId = item.getChefId().toString();
+                }
+                fields.add(QUANTITY_PREFIX + item.getMenuItemId());
+                fields.add(Integer.toString(item.getQuantity()));
+                fields.add(ITEM_PREFIX + item.getMenuItemId());
+                fields.add(details(item));
+            }
+        }
+
+        List<String> args = new ArrayList<>();
+        args.add(ttlSeconds());
+        args.add(chefId);
+        args.addAll(fields);
+        stringRedisTemplate.execute(MIGRATE_SCRIPT, List.of(hashKey(userId), legacyKey(userId)), args.toArray());
+    }
+
+    // MAPPING
+
+    private Cart toCart(Long userId, Map<String, String> fields) {
+        Cart cart = new Cart();
+        cart.setUserId(userId);
+
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (!field.getKey().startsWith(QUANTITY_PREFIX)) {
+                continue;
+            }
+            String menuItemId = field.getKey().substring(QUANTITY_PREFIX.length());
+            String details = fields.get(ITEM_PREFIX + menuItemId);
+            if (details == null) {
+                continue;
+            }
+
+            CartItem item = readDetails(details);
+            item.setMenuItemId(Long.valueOf(menuItemId));
+            item.setQuantity(Integer.parseInt(field.getValue()));
+            cart.getItemsMap().put(item.getMenuItemId(), item);
+        }
+        return cart;
+    }
+
+    private String details(CartItem item) {
+        try {
+            return objectMapper.writeValueAsString(item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private CartItem readDetails(String details) {
+        try {
+            return objectMapper.readValue(details, CartItem.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> keys(Long userId) {
+        return List.of(hashKey(userId), legacyKey(userId), CartRepository.checkoutKey(userId));
+    }
+
+    private static String ttlSeconds() {
+        return Long.toString(CART_TTL.toSeconds());
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <T> RedisScript<T> script(String name, Class<T> resultType) {
+        return RedisScript.of(new ClassPathResource("scripts/" + name), resultType);
+    }
+}
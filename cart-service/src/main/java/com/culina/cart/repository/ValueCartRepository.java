@@ -0,0 +1,120 @@
+package com.culina.cart.repository;
+
+import java.util.Collection;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.culina.cart.exception.ChefConflictException;
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+
+/**
+ * Each cart as one value under cart:{userId}, read and written whole on
+ * every change (cart.storage=value).
+ */
+@Repository
+@ConditionalOnProperty(name = "cart.storage", havingValue = "value")
+public class ValueCartRepository implements CartRepository {
+
+    private final RedisTemplate<String, Cart> redisTemplate;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public ValueCartRepository(RedisTemplate<String, Cart> redisTemplate,
+            StringRedisTemplate stringRedisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    private String key(Long userId) {
+        return "cart:" + userId;
+    }
+
+    @Override
+    public Cart find(Long userId) {
+        return redisTemplate.opsForValue().get(key(userId));
+    }
+
+    @Override
+    public void addItem(Long userId, CartItem item) {
+        Cart cart = find(userId);
+        if (cart == null) {
+            cart = new Cart();
+        }
+
+        // Check if cart has items from a different chef
+        if (!cart.isEmpty()) {
+            CartItem firstItem = cart.getItems().iterator().next();
+            Long currentChefId = firstItem.getChefId();
+
+            if (currentChefId != null && item.getChefId() != null &&
+                    !currentChefId.equals(item.getChefId())) {
+                throw new ChefConflictException(
+                        "Cart contains items from a different chef",
+                        currentChefId);
+            }
+        }
+
+        cart.setUserId(userId);
+        cart.addOrUpdateItem(item);
+
+        redisTemplate.opsForValue().set(key(userId), cart, CART_TTL);
+        stringRedisTemplate.delete(CartRepository.checkoutKey(userId));
+    }
+
+    @Override
+    public boolean updateQuantity(Long userId, Long menuItemId, int quantity) {
+        Cart cart = find(userId);
+        if (cart == null || cart.isEmpty()) {
+            return false;
+        }
+
+        cart.updateQuantity(menuItemId, quantity);
+        save(userId, cart);
+        return true;
+    }
+
+    @Override
+    public void removeItem(Long userId, Long menuItemId) {
+        Cart cart = find(userId);
+        if (cart == null) {
+            cart = new Cart();
+        }
+
+        cart.removeItem(menuItemId);
+        save(userId, cart);
+    }
+
+    @Override
+    public void reprice(Long userId, Collection<CartItem> items) {
+        Cart cart = find(userId);
+        if (cart == null || cart.isEmpty()) {
+            return;
+        }
+
+        for (CartItem item : items) {
+            CartItem stored = cart.getItemsMap().get(item.getMenuItemId());
+            if (stored != null) {
+                stored.setPriceCents(item.getPriceCents());
+            }
+        }
+        save(userId, cart);
+    }
+
+    @Override
+    public void delete(Long userId) {
+        redisTemplate.delete(key(userId));
+        stringRedisTemplate.delete(CartRepository.checkoutKey(userId));
+    }
+
+    private void save(Long userId, Cart cart) {
+        if (cart.isEmpty()) {
+            redisTemplate.delete(key(userId));
+        } else {
+            redisTemplate.opsForValue().set(key(userId), cart, CART_TTL);
+        }
+        stringRedisTemplate.delete(CartRepository.checkoutKey(userId));
+    }
+}
@@ -1,26 +1,17 @@
 package com.culina.cart.security;
 
-import java.nio.charset.StandardCharsets;
-
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-
 @Component
 public class JwtUtil {
 
-    @Value("${security.jwt.secret}")
-    private String secret;
+    private final JwtVerifier jwtVerifier;
 
-    public Long extractUserId(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secret.getBytes(StandardCharsets.UTF_8))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public JwtUtil(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
+    }
 
-        return Long.parseLong(claims.getSubject());
+    public Long extractUserId(String token) {
+        return jwtVerifier.verify(token).getUserId();
     }
 }
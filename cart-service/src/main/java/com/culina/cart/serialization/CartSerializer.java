@@ -0,0 +1,287 @@
+package com.culina.cart.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Carts in Redis as a compact binary value instead of JSON with type
+ * metadata and field names.
+ *
+ * Layout: a version byte, a flags byte, then the body. With FLAG_LZ4 the
+ * body is the uncompressed length as a varint followed by the LZ4 block.
+ * The body is the userId and the item count, then per item a flags byte,
+ * menuItemId, chefId, name, chefName, priceCents and quantity. Numbers are
+ * varints; nullable ones are stored +1 so 0 means null. Strings are their
+ * UTF-8 length +1 and bytes. An item with the same chef as the one before
+ * it leaves out chefId and chefName.
+ *
+ * Values written as JSON before this format existed start with '{' and
+ * are still read with GenericJackson2JsonRedisSerializer.
+ */
+public class CartSerializer implements RedisSerializer<Cart> {
+
+    static final byte VERSION = 1;
+
+    private static final int FLAG_LZ4 = 1;
+    private static final int ITEM_SAME_CHEF = 1;
+
+    /** Bodies smaller than this gain too little from LZ4 to be worth it */
+    private static final int DEFAULT_COMPRESS_THRESHOLD = 512;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final int compressThreshold;
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    public CartSerializer() {
+        this(DEFAULT_COMPRESS_THRESHOLD);
+    }
+
+    /**
+     * @param compressThreshold body size in bytes from which LZ4 is tried
+     */
+    public CartSerializer(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Cart cart) {
+        if (cart == null) {
+            return new byte[0];
+        }
+
+        Output body = new Output(64);
+        writeCart(body, cart);
+
+        if (body.size >= compressThreshold) {
+            byte[] compressed = compress(body);
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+
+        byte[] value = new byte[body.size + 2];
+        value[0] = VERSION;
+        value[1] = 0;
+        System.arraycopy(body.bytes, 0, value, 2, body.size);
+        return value;
+    }
+
+    @Override
+    public Cart deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] == '{') {
+            return (Cart) jsonSerializer.deserialize(bytes);
+        }
+        if (bytes[0] != VERSION || bytes.length < 2) {
+            throw new SerializationException("Unknown cart format " + bytes[0]);
+        }
+
+        try {
+            Input input = new Input(bytes, 2);
+            if ((bytes[1] & FLAG_LZ4) != 0) {
+                int length = input.readVarInt();
+                byte[] body = new byte[length];
+                decompressor.decompress(bytes, input.position, body, 0, length);
+                input = new Input(body, 0);
+            }
+            return readCart(input);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Malformed cart value", e);
+        }
+    }
+
+    // ENCODING
+
+    private byte[] compress(Output body) {
+        int maxLength = compressor.maxCompressedLength(body.size);
+        Output value = new Output(maxLength + 7);
+        value.writeByte(VERSION);
+        value.writeByte(FLAG_LZ4);
+        value.writeVarLong(body.size);
+        value.ensure(maxLength);
+        int written = compressor.compress(body.bytes, 0, body.size, value.bytes, value.size, maxLength);
+        value.size += written;
+
+        // Incompressible carts are kept as they are
+        if (value.size >= body.size + 2) {
+            return null;
+        }
+        return Arrays.copyOf(value.bytes, value.size);
+    }
+
+    private static void writeCart(Output out, Cart cart) {
+        out.writeNullable(cart.getUserId());
+
+        Collection<CartItem> items = cart.getItemsMap().values();
+        out.writeVarLong(items.size());
+
+        CartItem previous = null;
+        for (CartItem item : items) {
+            boolean sameChef = previous != null
+                    && Objects.equals(previous.getChefId(), item.getChefId())
+                    && Objects.equals(previous.getChefName(), item.getChefName());
+
+            out.writeByte(sameChef ? ITEM_SAME_CHEF : 0);
+            out.writeNullable(item.getMenuItemId());
+            if (!sameChef) {
+                out.writeNullable(item.getChefId());
+                out.writeString(item.getChefName());
+            }
+            out.writeString(item.getName());
+            out.writeNullable(item.getPriceCents());
+            out.writeVarLong(zigZag(item.getQuantity()));
+            previous = item;
+        }
+    }
+
+    // DECODING
+
+    private static Cart readCart(Input in) {
+        Cart cart = new Cart();
+        cart.setUserId(in.readNullable());
+
+        int count = in.readVarInt();
+        CartItem previous = null;
+        for (int i = 0; i < count; i++) {
+            int flags = in.readByte();
+            CartItem item = new CartItem();
+            item.setMenuItemId(in.readNullable());
+            if ((flags & ITEM_SAME_CHEF) != 0 && previous != null) {
+                item.setChefId(previous.getChefId());
+                item.setChefName(previous.getChefName());
+            } else {
+                item.setChefId(in.readNullable());
+                item.setChefName(in.readString());
+            }
+            item.setName(in.readString());
+            item.setPriceCents(in.readNullable());
+            item.setQuantity((int) unZigZag(in.readVarLong()));
+
+            cart.getItemsMap().put(item.getMenuItemId(), item);
+            previous = item;
+        }
+        return cart;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Output {
+
+        private byte[] bytes;
+        private int size;
+
+        private Output(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensure(1);
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeNullable(Long value) {
+            // Ids and cents are never negative, so only null needs room
+            if (value != null && value < 0) {
+                throw new SerializationException("Negative id or amount cannot be stored: " + value);
+            }
+            writeVarLong(value == null ? 0 : value + 1);
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(utf8.length + 1L);
+            ensure(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+        private int position;
+
+        private Input(byte[] bytes, int position) {
+            this.bytes = bytes;
+            this.position = position;
+        }
+
+        private int readByte() {
+            return bytes[position++] & 0xFF;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalStateException("Varint too long");
+        }
+
+        private int readVarInt() {
+            return Math.toIntExact(readVarLong());
+        }
+
+        private Long readNullable() {
+            long value = readVarLong();
+            return value == 0 ? null : value - 1;
+        }
+
+        private String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(bytes, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+    }
+}
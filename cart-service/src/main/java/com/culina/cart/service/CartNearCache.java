@@ -0,0 +1,345 @@
+package com.culina.cart.service;
+
+import java.net.SocketAddress;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import com.culina.cart.model.Cart;
+import com.culina.cart.serialization.CartSerializer;
+
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.StatefulRedisConnectionImpl;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Carts read recently, kept in memory so repeated reads of the cart page
+ * skip Redis. Off unless cart.near-cache.max-entries is set.
+ *
+ * A dedicated RESP3 connection has Redis client tracking on in broadcast
+ * mode for keys starting with "cart:", so Redis pushes an invalidation for
+ * every cart written by any instance and the cart is evicted as it arrives.
+ * Writes from this instance evict straight away as well. While the tracking
+ * connection is down no invalidations arrive, so the cache is emptied and
+ * bypassed until tracking is back. Entries are kept serialized, so every
+ * read hands out its own copy.
+ */
+@Component
+public class CartNearCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CartNearCache.class);
+
+    private static final String KEY_PREFIX = "cart:";
+    private static final TrackingArgs TRACKING = TrackingArgs.Builder.enabled().bcast().prefixes(KEY_PREFIX);
+
+    private final RedisConnectionFactory connectionFactory;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final CartSerializer serializer = new CartSerializer();
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Loads in flight per user; an eviction drops the token, so that load is returned but not cached
+    private final Map<Long, Object> loads = new HashMap<>();
+
+    // Only while invalidations are arriving may entries be served
+    private volatile boolean tracking;
+
+    // When this instance wrote each cart, until Redis reports the invalidation
+    private final Map<Long, Long> pendingWrites = new ConcurrentHashMap<>();
+
+    private RedisClient client;
+    private volatile StatefulRedisConnection<String, String> connection;
+    private final RedisConnectionStateListener connectionListener = new ConnectionListener();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private final Timer invalidationLag;
+
+    public CartNearCache(
+            RedisConnectionFactory connectionFactory,
+            MeterRegistry meterRegistry,
+            @Value("${cart.near-cache.max-entries:0}") int maxEntries,
+            @Value("${cart.near-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.connectionFactory = connectionFactory;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+
+        this.hits = Counter.builder("cart.near-cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cart.near-cache.requests").tag("result", "miss").register(meterRegistry);
+        this.invalidations = Counter.builder("cart.near-cache.invalidations")
+                .description("Cart invalidations pushed by Redis")
+                .register(meterRegistry);
+        this.invalidationLag = Timer.builder("cart.near-cache.invalidation.lag")
+                .description("Time from a cart write on this instance until Redis pushed its invalidation")
+                .register(meterRegistry);
+        Gauge.builder("cart.near-cache.hit.ratio", this, CartNearCache::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("cart.near-cache.size", this, CartNearCache::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (!(connectionFactory instanceof LettuceConnectionFactory)
+                || !(((LettuceConnectionFactory) connectionFactory).getNativeClient() instanceof RedisClient)) {
+            log.warn("Cart near cache needs a standalone Lettuce connection to Redis, leaving it off");
+            return;
+        }
+
+        client = (RedisClient) ((LettuceConnectionFactory) connectionFactory).getNativeClient();
+        try {
+            connection = client.connect();
+            ProtocolVersion protocol = ((StatefulRedisConnectionImpl<?, ?>) connection)
+                    .getConnectionState().getNegotiatedProtocolVersion();
+            if (protocol != ProtocolVersion.RESP3) {
+                // Without RESP3 Redis has nowhere to push invalidations
+                log.warn("Redis does not speak RESP3, leaving the cart near cache off");
+                close();
+                return;
+            }
+
+            connection.addListener(this::onPush);
+            client.addListener(connectionListener);
+            connection.sync().clientTracking(TRACKING);
+            tracking = true;
+            log.info("Cart near cache on, up to {} carts", maxEntries);
+        } catch (RuntimeException e) {
+            log.warn("Could not turn on Redis client tracking, leaving the cart near cache off", e);
+            close();
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        tracking = false;
+        if (client != null) {
+            client.removeListener(connectionListener);
+        }
+        if (connection != null) {
+            connection.close();
+            connection = null;
+        }
+    }
+
+    /**
+     * The user's cart, loaded with the given function unless it is cached
+     */
+    public Cart get(Long userId, Function<Long, Cart> loader) {
+        if (!tracking) {
+            return loader.apply(userId);
+        }
+
+        Object load = new Object();
+        byte[] cached = null;
+        synchronized (this) {
+            Entry entry = entries.get(userId);
+            if (entry != null && System.nanoTime() - entry.loadedAt <= ttlNanos) {
+                cached = entry.cart;
+            } else {
+                entries.remove(userId);
+                loads.put(userId, load);
+            }
+        }
+        if (cached != null) {
+            hits.increment();
+            return serializer.deserialize(cached);
+        }
+        misses.increment();
+
+        Cart loaded;
+        try {
+            loaded = loader.apply(userId);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                loads.remove(userId, load);
+            }
+            throw e;
+        }
+
+        // No cart is cached too, as an empty value
+        byte[] serialized = serializer.serialize(loaded);
+        synchronized (this) {
+            if (loads.remove(userId, load) && tracking) {
+                put(userId, serialized);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop the user's cart after this instance changed it. The push from
+     * Redis that follows evicts it again and times the round trip.
+     */
+    public void evict(Long userId) {
+        if (!tracking) {
+            return;
+        }
+        if (pendingWrites.size() >= maxEntries) {
+            // Writes whose invalidation was lost
+            pendingWrites.clear();
+        }
+        pendingWrites.put(userId, System.nanoTime());
+        remove(userId);
+    }
+
+    // INVALIDATION
+
+    void onPush(PushMessage message) {
+        if (!"invalidate".equals(message.getType())) {
+            return;
+        }
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        Object keys = content.size() > 1 ? content.get(1) : null;
+
+        if (!(keys instanceof List)) {
+            // A null key list means Redis was flushed
+            clear();
+            return;
+        }
+        for (Object key : (List<?>) keys) {
+            Long userId = userId(String.valueOf(key));
+            if (userId == null) {
+                continue;
+            }
+            invalidations.increment();
+            Long wroteAt = pendingWrites.remove(userId);
+            if (wroteAt != null) {
+                invalidationLag.record(System.nanoTime() - wroteAt, TimeUnit.NANOSECONDS);
+            }
+            remove(userId);
+        }
+    }
+
+    /**
+     * @return the user of cart:{userId} or cart:{userId}:items, or null
+     */
+    private static Long userId(String key) {
+        if (!key.startsWith(KEY_PREFIX)) {
+            return null;
+        }
+        int end = key.indexOf(':', KEY_PREFIX.length());
+        try {
+            return Long.valueOf(key.substring(KEY_PREFIX.length(), end < 0 ? key.length() : end));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void put(Long userId, byte[] serialized) {
+        entries.put(userId, new Entry(serialized, System.nanoTime()));
+        Iterator<Long> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private synchronized void remove(Long userId) {
+        loads.remove(userId);
+        entries.remove(userId);
+    }
+
+    private synchronized void clear() {
+        loads.clear();
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * The tracking connection dropped: invalidations sent until it is back
+     * are lost, so nothing cached may be served
+     */
+    void trackingLost() {
+        tracking = false;
+        pendingWrites.clear();
+        clear();
+    }
+
+    /**
+     * Tracking is on again; what was cached before may have changed meanwhile
+     */
+    void trackingRestored() {
+        clear();
+        tracking = true;
+    }
+
+    /**
+     * Tracking does not survive a reconnect, and invalidations sent while
+     * the connection was down are lost
+     */
+    private final class ConnectionListener implements RedisConnectionStateListener {
+
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+            if (handler != connection) {
+                return;
+            }
+            trackingLost();
+            log.warn("Cart near cache bypassed until its Redis connection is back");
+        }
+
+        @Override
+        public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+            if (handler != connection) {
+                return;
+            }
+            // Called on the connection's event loop, which must not block
+            connection.async().clientTracking(TRACKING).whenComplete((reply, error) -> {
+                if (error != null) {
+                    log.warn("Could not turn Redis client tracking back on, cart near cache stays bypassed", error);
+                    return;
+                }
+                trackingRestored();
+                log.info("Cart near cache tracking restored");
+            });
+        }
+    }
+
+    private static final class Entry {
+
+        private final byte[] cart;
+        private final long loadedAt;
+
+        private Entry(byte[] cart, long loadedAt) {
+            this.cart = cart;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -1,43 +1,83 @@
 package com.culina.cart.service;
 
-import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
-
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import com.culina.cart.client.OrderServiceClient;
+import com.culina.cart.dto.CartLineError;
 import com.culina.cart.dto.CheckoutRequest;
 import com.culina.cart.dto.CreateOrderRequest;
 import com.culina.cart.dto.OrderItemRequest;
 import com.culina.cart.dto.UpdateCartItemRequest;
+import com.culina.cart.exception.CartValidationException;
 import com.culina.cart.model.Cart;
 import com.culina.cart.model.CartItem;
+import com.culina.cart.repository.CartRepository;
 
 @Service
 public class CartService {
 
-    private final RedisTemplate<String, Cart> redisTemplate;
-    private final RestTemplate restTemplate;
-    private static final Duration CART_TTL = Duration.ofDays(7);
+    private final CartRepository cartRepository;
+    private final CartNearCache nearCache;
+    private final CartValidator cartValidator;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OrderServiceClient orderServiceClient;
+    private final Executor taskExecutor;
+    private final long checkoutDeadlineNanos;
+
+    public CartService(CartRepository cartRepository,
+            CartNearCache nearCache,
+            CartValidator cartValidator,
+            StringRedisTemplate stringRedisTemplate,
+            OrderServiceClient orderServiceClient,
+            @Qualifier("applicationTaskExecutor") Executor taskExecutor,
+            @Value("${cart.checkout.deadline-ms:3000}") long checkoutDeadlineMs) {
+        this.cartRepository = cartRepository;
+        this.nearCache = nearCache;
+        this.cartValidator = cartValidator;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.orderServiceClient = orderServiceClient;
+        this.taskExecutor = taskExecutor;
+        this.checkoutDeadlineNanos = TimeUnit.MILLISECONDS.toNanos(checkoutDeadlineMs);
+    }
 
-    public CartService(RedisTemplate<String, Cart> redisTemplate, RestTemplate restTemplate) {
-        this.redisTemplate = redisTemplate;
-        this.restTemplate = restTemplate;
+    private String checkoutKey(Long userId) {
+        return CartRepository.checkoutKey(userId);
     }
 
-    private String key(Long userId) {
-        return "cart:" + userId;
+    /**
+     * Idempotency key for checking out the current cart contents. It survives
+     * failed or timed-out checkouts, so a retry maps to the same order, and is
+     * dropped whenever the cart changes or an order is placed.
+     */
+    private String checkoutIdempotencyKey(Long userId) {
+        String existing = stringRedisTemplate.opsForValue().get(checkoutKey(userId));
+        if (existing != null) {
+            return existing;
+        }
+
+        String generated = UUID.randomUUID().toString();
+        Boolean stored = stringRedisTemplate.opsForValue().setIfAbsent(checkoutKey(userId), generated,
+                CartRepository.CART_TTL);
+        if (Boolean.TRUE.equals(stored)) {
+            return generated;
+        }
+        // A concurrent checkout stored its key first
+        return stringRedisTemplate.opsForValue().get(checkoutKey(userId));
     }
 
     public Cart getCart(Long userId) {
-        Cart cart = redisTemplate.opsForValue().get(key(userId));
+        Cart cart = nearCache.get(userId, cartRepository::find);
         if (cart == null) {
             cart = new Cart();
             cart.setUserId(userId);
@@ -49,51 +89,40 @@ public class CartService {
         if (item.getQuantity() <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
-
-        Cart cart = getCart(userId);
-
-        // Check if cart has items from a different chef
-        if (!cart.isEmpty()) {
-            CartItem firstItem = cart.getItems().iterator().next();
-            Long currentChefId = firstItem.getChefId();
-
-            if (currentChefId != null && item.getChefId() != null &&
-                    !currentChefId.equals(item.getChefId())) {
-                throw new com.culina.cart.exception.ChefConflictException(
-                        "Cart contains items from a different chef",
-                        currentChefId);
-            }
+        // Price and chef as order-service last published them; stock against the whole line
+        CartItem existing = getCart(userId).getItemsMap().get(item.getMenuItemId());
+        cartValidator.checkAdd(item, existing != null ? existing.getQuantity() : 0);
+
+        // Chef conflicts are checked by the repository, atomically with the add
+        try {
+            cartRepository.addItem(userId, item);
+        } finally {
+            nearCache.evict(userId);
         }
-
-        cart.setUserId(userId);
-
-        // Use the Cart's built-in method to properly add/update items
-        cart.addOrUpdateItem(item);
-
-        redisTemplate.opsForValue().set(key(userId), cart, CART_TTL);
     }
 
     public void removeItem(Long userId, Long menuItemId) {
-        Cart cart = getCart(userId);
-
-        cart.removeItem(menuItemId);
-
-        if (cart.isEmpty()) {
-            redisTemplate.delete(key(userId));
-        } else {
-            redisTemplate.opsForValue().set(key(userId), cart, CART_TTL);
-        }
+        cartRepository.removeItem(userId, menuItemId);
+        nearCache.evict(userId);
     }
 
     public void clear(Long userId) {
-        redisTemplate.delete(key(userId));
+        cartRepository.delete(userId);
+        nearCache.evict(userId);
     }
 
-    public Long checkout(Authentication authentication, String authHeader, CheckoutRequest request) {
+    /**
+     * Place the cart as an order. The order-service call does not hold the
+     * caller's thread; the whole checkout must finish within the configured
+     * deadline.
+     */
+    public CompletableFuture<Long> checkout(Authentication authentication, String authHeader, String idempotencyKey,
+            CheckoutRequest request) {
+        long deadline = System.nanoTime() + checkoutDeadlineNanos;
         Long userId = Long.valueOf(authentication.getName());
-        String key = "cart:" + userId;
 
-        Cart cart = redisTemplate.opsForValue().get(key);
+        // Straight from Redis, never the near cache
+        Cart cart = cartRepository.find(userId);
         if (cart == null || cart.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
@@ -105,6 +134,14 @@ public class CartService {
             }
         }
 
+        // Carts order-service would turn away are stopped here, with new prices saved
+        List<CartLineError> errors = cartValidator.checkCheckout(cart, request.getChefId());
+        if (!errors.isEmpty()) {
+            cartRepository.reprice(userId, cart.getItems());
+            nearCache.evict(userId);
+            throw new CartValidationException(errors);
+        }
+
         CreateOrderRequest orderRequest = new CreateOrderRequest();
         orderRequest.setChefId(request.getChefId());
         orderRequest.setCurrency(request.getCurrency());
@@ -127,34 +164,25 @@ public class CartService {
 
         String token = authHeader.replace("Bearer ", "");
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setBearerAuth(token);
-
-        HttpEntity<CreateOrderRequest> entity = new HttpEntity<>(orderRequest, headers);
-
-        ResponseEntity<Long> response = restTemplate.postForEntity(
-                "http://culina-order:8081/order/createOrder",
-                entity,
-                Long.class);
-
-        redisTemplate.delete(key);
-        return response.getBody();
+        // Retries of this checkout must not create a second order
+        String key = idempotencyKey != null && !idempotencyKey.isBlank()
+                ? idempotencyKey
+                : checkoutIdempotencyKey(userId);
+
+        // Redis work stays off the HTTP client's I/O threads
+        return orderServiceClient.createOrder(orderRequest, token, key, deadline)
+                .thenApplyAsync(orderId -> {
+                    cartRepository.delete(userId);
+                    nearCache.evict(userId);
+                    return orderId;
+                }, taskExecutor);
     }
 
     public void updateQuantity(Long userId, UpdateCartItemRequest request) {
-        Cart cart = getCart(userId);
-
-        if (cart.isEmpty()) {
+        boolean updated = cartRepository.updateQuantity(userId, request.getMenuItemId(), request.getQuantity());
+        nearCache.evict(userId);
+        if (!updated) {
             throw new RuntimeException("Cart not found");
         }
-
-        cart.updateQuantity(request.getMenuItemId(), request.getQuantity());
-
-        if (cart.isEmpty()) {
-            redisTemplate.delete(key(userId));
-        } else {
-            redisTemplate.opsForValue().set(key(userId), cart, CART_TTL);
-        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.culina.cart.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.stereotype.Component;
+
+import com.culina.cart.dto.CartLineError;
+import com.culina.cart.exception.CartValidationException;
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Checks cart lines against the menu item view, so carts order-service
+ * would turn away are stopped here. Items the view does not know yet pass.
+ */
+@Component
+public class CartValidator {
+
+    private final MenuItemView view;
+
+    private final Counter passed;
+    private final Counter repriced;
+    private final Counter rejected;
+    private final Counter unknown;
+
+    public CartValidator(MenuItemView view, MeterRegistry meterRegistry) {
+        this.view = view;
+        this.passed = lines(meterRegistry, "passed");
+        this.repriced = lines(meterRegistry, "repriced");
+        this.rejected = lines(meterRegistry, "rejected");
+        this.unknown = lines(meterRegistry, "unknown");
+    }
+
+    /**
+     * Check an item being added and take its price and chef from the view
+     * rather than from the client
+     *
+     * @param inCart how many of the item the cart already holds; the add is
+     *               checked against the quantity the cart ends up with
+     * @throws CartValidationException if it is switched off or sold out
+     */
+    public void checkAdd(CartItem item, int inCart) {
+        MenuItemView.Item known = view.find(item.getMenuItemId());
+        if (known == null) {
+            unknown.increment();
+            return;
+        }
+
+        CartLineError error = stockError(item, inCart + item.getQuantity(), known);
+        if (error != null) {
+            rejected.increment();
+            throw new CartValidationException(List.of(error));
+        }
+
+        if (known.getChefId() != null) {
+            item.setChefId(known.getChefId());
+        }
+        if (known.getPriceCents() != null && !known.getPriceCents().equals(item.getPriceCents())) {
+            item.setPriceCents(known.getPriceCents());
+            repriced.increment();
+        } else {
+            passed.increment();
+        }
+    }
+
+    /**
+     * Check every line before checkout. Lines whose price changed get the
+     * new price in the given cart and a PRICE_CHANGED error, so the client
+     * confirms the new total before it is ordered.
+     *
+     * @param chefId the chef the order is for, or null if not given
+     * @return what is wrong with the cart, empty if it may be ordered
+     */
+    public List<CartLineError> checkCheckout(Cart cart, Long chefId) {
+        List<CartLineError> errors = new ArrayList<>();
+        for (CartItem item : cart.getItems()) {
+            MenuItemView.Item known = view.find(item.getMenuItemId());
+            if (known == null) {
+                unknown.increment();
+                continue;
+            }
+
+            CartLineError error = stockError(item, item.getQuantity(), known);
+            if (error == null && chefId != null && known.getChefId() != null
+                    && !chefId.equals(known.getChefId())) {
+                error = new CartLineError(item.getMenuItemId(), "ITEM_NOT_FROM_CHEF",
+                        item.getName() + " is not on this chef's menu");
+            }
+
+            // Repriced even when the line fails for another reason
+            boolean priceChanged = known.getPriceCents() != null
+                    && !Objects.equals(known.getPriceCents(), item.getPriceCents());
+            if (priceChanged) {
+                item.setPriceCents(known.getPriceCents());
+                repriced.increment();
+                if (error == null) {
+                    error = new CartLineError(item.getMenuItemId(), "PRICE_CHANGED",
+                            item.getName() + " now costs " + known.getPriceCents());
+                }
+            }
+
+            if (error != null) {
+                errors.add(error);
+                rejected.increment();
+            } else {
+                passed.increment();
+            }
+        }
+        return errors;
+    }
+
+    private static CartLineError stockError(CartItem item, int quantity, MenuItemView.Item known) {
+        if (!known.isAvailable()) {
+            return new CartLineError(item.getMenuItemId(), "ITEM_NOT_AVAILABLE",
+                    item.getName() + " is not available");
+        }
+        if (!known.hasStock(quantity)) {
+            return new CartLineError(item.getMenuItemId(), "INSUFFICIENT_STOCK",
+                    item.getName() + " (" + known.getAvailableQty() + " left, requested " + quantity + ")");
+        }
+        return null;
+    }
+
+    private static Counter lines(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("cart.validation.lines").tag("result", result).register(meterRegistry);
+    }
+}
@@ -0,0 +1,134 @@
+package com.culina.cart.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.culina.cart.dto.MenuItemEvent;
+import com.culina.cart.dto.MenuItemStockEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Price, chef and stock of every menu item, kept in memory from
+ * order-service's events so carts can be checked without calling it.
+ *
+ * Price and chef come from menu.item.upsert, stock and availability from
+ * menu.item.stock; each topic is ordered per item, so neither overwrites
+ * the other's fields with older values. An item seen on only one topic has
+ * the other half unknown. The view may lag order-service, which stays the
+ * authority at checkout.
+ */
+@Component
+public class MenuItemView {
+
+    private final Map<Long, Item> items = new ConcurrentHashMap<>();
+
+    private final Counter upserts;
+    private final Counter stockChanges;
+
+    public MenuItemView(MeterRegistry meterRegistry) {
+        this.upserts = Counter.builder("cart.menu-view.events").tag("topic", "menu.item.upsert")
+                .register(meterRegistry);
+        this.stockChanges = Counter.builder("cart.menu-view.events").tag("topic", "menu.item.stock")
+                .register(meterRegistry);
+        Gauge.builder("cart.menu-view.size", items, Map::size)
+                .description("Menu items known to the view")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return what is known of the item, or null if nothing is
+     */
+    public Item find(Long menuItemId) {
+        return menuItemId == null ? null : items.get(menuItemId);
+    }
+
+    public void apply(MenuItemEvent event) {
+        if (event == null || event.getMenuItemId() == null) {
+            return;
+        }
+        long priceCents = event.getPriceCents() != null ? event.getPriceCents() : Item.UNKNOWN;
+        long chefId = event.getChefId() != null ? event.getChefId() : Item.UNKNOWN;
+        items.compute(event.getMenuItemId(), (id, item) -> item == null
+                ? new Item(priceCents, chefId, Item.STOCK_UNKNOWN, false)
+                : new Item(priceCents, chefId, item.stock, item.available));
+        upserts.increment();
+    }
+
+    public void apply(MenuItemStockEvent event) {
+        if (event == null || event.getMenuItemId() == null) {
+            return;
+        }
+        int stock = event.getAvailableQty() != null ? Math.max(0, event.getAvailableQty()) : Item.UNLIMITED;
+        boolean available = Boolean.TRUE.equals(event.getIsAvailable());
+        items.compute(event.getMenuItemId(), (id, item) -> item == null
+                ? new Item(Item.UNKNOWN, Item.UNKNOWN, stock, available)
+                : new Item(item.priceCents, item.chefId, stock, available));
+        stockChanges.increment();
+    }
+
+    /**
+     * One item, immutable; replaced whole on every event
+     */
+    public static final class Item {
+
+        private static final long UNKNOWN = -1;
+        private static final int UNLIMITED = -1;
+        private static final int STOCK_UNKNOWN = -2;
+
+        private final long priceCents;
+        private final long chefId;
+        private final int stock;
+        private final boolean available;
+
+        private Item(long priceCents, long chefId, int stock, boolean available) {
+            this.priceCents = priceCents;
+            this.chefId = chefId;
+            this.stock = stock;
+            this.available = available;
+        }
+
+        /**
+         * @return null if no upsert was seen
+         */
+        public Long getPriceCents() {
+            return priceCents == UNKNOWN ? null : priceCents;
+        }
+
+        /**
+         * @return null if no upsert was seen
+         */
+        public Long getChefId() {
+            return chefId == UNKNOWN ? null : chefId;
+        }
+
+        public boolean isStockKnown() {
+            return stock != STOCK_UNKNOWN;
+        }
+
+        /**
+         * @return false only if the item is known to be switched off
+         */
+        public boolean isAvailable() {
+            return !isStockKnown() || available;
+        }
+
+        /**
+         * @return null if unlimited or unknown
+         */
+        public Integer getAvailableQty() {
+            return stock < 0 ? null : stock;
+        }
+
+        /**
+         * @return false only if the item is known to have less in stock
+         */
+        public boolean hasStock(int quantity) {
+            return stock < 0 || quantity <= stock;
+        }
+    }
+}
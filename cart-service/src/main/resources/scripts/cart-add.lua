@@ -0,0 +1,25 @@
+-- Adds to an item's quantity, refusing items from a second chef.
+-- KEYS[1] cart hash, KEYS[2] legacy cart, KEYS[3] checkout idempotency key
+-- ARGV[1] menu item id, ARGV[2] chef id ('' if unknown), ARGV[3] item details,
+-- ARGV[4] quantity to add, ARGV[5] TTL in seconds
+-- Returns {1, new quantity}, {-1, cart's chef id} on a chef conflict, or {0}
+-- when the legacy cart has to be migrated first.
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return {0}
+end
+
+local chef = redis.call('HGET', KEYS[1], 'chef')
+if chef and ARGV[2] ~= '' and chef ~= ARGV[2] then
+    return {-1, tonumber(chef)}
+end
+if not chef and ARGV[2] ~= '' then
+    redis.call('HSET', KEYS[1], 'chef', ARGV[2])
+end
+
+-- The first add of an item decides its name and price, as before
+redis.call('HSETNX', KEYS[1], 'i:' .. ARGV[1], ARGV[3])
+local quantity = redis.call('HINCRBY', KEYS[1], 'q:' .. ARGV[1], ARGV[4])
+
+redis.call('EXPIRE', KEYS[1], ARGV[5])
+redis.call('DEL', KEYS[3])
+return {1, quantity}
@@ -0,0 +1,14 @@
+-- Moves a legacy cart into a hash, unless a concurrent request already did.
+-- KEYS[1] cart hash, KEYS[2] legacy cart
+-- ARGV[1] TTL in seconds, ARGV[2] chef id ('' if unknown), then field/value pairs
+if redis.call('EXISTS', KEYS[1]) == 0 and #ARGV > 2 then
+    if ARGV[2] ~= '' then
+        redis.call('HSET', KEYS[1], 'chef', ARGV[2])
+    end
+    for i = 3, #ARGV, 2 do
+        redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+    end
+    redis.call('EXPIRE', KEYS[1], ARGV[1])
+end
+redis.call('DEL', KEYS[2])
+return 1
@@ -0,0 +1,12 @@
+-- Reads a cart hash as field/value pairs. When there is none but a cart is
+-- still stored in the old single-value format, returns {'legacy', value}.
+-- KEYS[1] cart hash, KEYS[2] legacy cart
+local fields = redis.call('HGETALL', KEYS[1])
+if #fields > 0 then
+    return fields
+end
+local legacy = redis.call('GET', KEYS[2])
+if legacy then
+    return {'legacy', legacy}
+end
+return fields
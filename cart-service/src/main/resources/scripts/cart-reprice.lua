@@ -0,0 +1,22 @@
+-- Replaces the name and price of items still in the cart.
+-- KEYS[1] cart hash, KEYS[2] legacy cart, KEYS[3] checkout idempotency key
+-- ARGV[1] TTL in seconds, then pairs of menu item id and item details
+-- Returns 1, -1 when there is no cart, or 0 when the legacy cart has to be
+-- migrated first.
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return 0
+end
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -1
+end
+
+for i = 2, #ARGV, 2 do
+    -- Items removed meanwhile stay removed
+    if redis.call('HEXISTS', KEYS[1], 'q:' .. ARGV[i]) == 1 then
+        redis.call('HSET', KEYS[1], 'i:' .. ARGV[i], ARGV[i + 1])
+    end
+end
+
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+redis.call('DEL', KEYS[3])
+return 1
@@ -0,0 +1,26 @@
+-- Sets an item's quantity; zero or less removes the item.
+-- KEYS[1] cart hash, KEYS[2] legacy cart, KEYS[3] checkout idempotency key
+-- ARGV[1] menu item id, ARGV[2] quantity, ARGV[3] TTL in seconds
+-- Returns 1, -1 when there is no cart, or 0 when the legacy cart has to be
+-- migrated first.
+if redis.call('EXISTS', KEYS[2]) == 1 then
+    return 0
+end
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -1
+end
+
+if tonumber(ARGV[2]) <= 0 then
+    redis.call('HDEL', KEYS[1], 'q:' .. ARGV[1], 'i:' .. ARGV[1])
+elseif redis.call('HEXISTS', KEYS[1], 'q:' .. ARGV[1]) == 1 then
+    redis.call('HSET', KEYS[1], 'q:' .. ARGV[1], ARGV[2])
+end
+
+-- Nothing but the chef left means the cart is empty
+if redis.call('HLEN', KEYS[1]) <= 1 then
+    redis.call('DEL', KEYS[1])
+else
+    redis.call('EXPIRE', KEYS[1], ARGV[3])
+end
+redis.call('DEL', KEYS[3])
+return 1
@@ -0,0 +1,116 @@
+package com.culina.cart.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.culina.cart.client.CircuitBreaker.State;
+
+class CircuitBreakerTests {
+
+    private static final long OPEN_MS = 1_000;
+    private static final long OPEN_NANOS = TimeUnit.MILLISECONDS.toNanos(OPEN_MS);
+
+    // Window of 4, opening from 4 calls at 50% failures
+    private final CircuitBreaker breaker = new CircuitBreaker(4, 4, 50, OPEN_MS);
+
+    @Test
+    void staysClosedBelowMinCallsAndFailureRate() {
+        long now = 0;
+        for (int i = 0; i < 3; i++) {
+            breaker.record(breaker.tryAcquire(now), true, now);
+        }
+        assertEquals(State.CLOSED, breaker.state());
+
+        breaker.record(breaker.tryAcquire(now), false, now);
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void failuresSlideOutOfTheWindow() {
+        long now = 0;
+        record(now, true, false, false, false);
+        assertEquals(State.CLOSED, breaker.state());
+
+        // The first failure is dropped as the fifth outcome comes in
+        record(now, false, true);
+        assertEquals(State.CLOSED, breaker.state());
+        record(now, true);
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void closedOpenHalfOpenAndClosedAgain() {
+        long now = 0;
+        record(now, true, true, true, true);
+        assertEquals(State.OPEN, breaker.state());
+
+        assertEquals(-1, breaker.tryAcquire(now + OPEN_NANOS - 1));
+        assertEquals(1, breaker.retryAfterNanos(now + OPEN_NANOS - 1));
+
+        long trial = breaker.tryAcquire(now + OPEN_NANOS);
+        assertTrue(trial >= 0);
+        assertEquals(State.HALF_OPEN, breaker.state());
+        // One trial at a time
+        assertEquals(-1, breaker.tryAcquire(now + OPEN_NANOS));
+
+        breaker.record(trial, false, now + OPEN_NANOS);
+        assertEquals(State.CLOSED, breaker.state());
+        assertEquals(0, breaker.retryAfterNanos(now + OPEN_NANOS));
+
+        // The window starts over: three failures are not enough again
+        record(now + OPEN_NANOS, true, true, true);
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void failedTrialReopensForAnotherPeriod() {
+        record(0, true, true, true, true);
+
+        long trial = breaker.tryAcquire(OPEN_NANOS);
+        breaker.record(trial, true, OPEN_NANOS);
+
+        assertEquals(State.OPEN, breaker.state());
+        assertEquals(-1, breaker.tryAcquire(2 * OPEN_NANOS - 1));
+        assertTrue(breaker.tryAcquire(2 * OPEN_NANOS) >= 0);
+    }
+
+    @Test
+    void releasedTrialLeavesTheBreakerHalfOpen() {
+        record(0, true, true, true, true);
+        long trial = breaker.tryAcquire(OPEN_NANOS);
+
+        breaker.release(trial);
+
+        assertEquals(State.HALF_OPEN, breaker.state());
+        long next = breaker.tryAcquire(OPEN_NANOS);
+        assertEquals(trial, next);
+        breaker.record(next, true, OPEN_NANOS);
+        assertEquals(State.OPEN, breaker.state());
+    }
+
+    @Test
+    void outcomesFromAnEarlierEpochAreIgnored() {
+        long now = 0;
+        long stale = breaker.tryAcquire(now);
+        record(now, true, true, true, true);
+
+        long trial = breaker.tryAcquire(OPEN_NANOS);
+        breaker.record(stale, false, OPEN_NANOS);
+        breaker.release(stale);
+
+        assertEquals(State.HALF_OPEN, breaker.state());
+        assertEquals(-1, breaker.tryAcquire(OPEN_NANOS));
+        breaker.record(trial, false, OPEN_NANOS);
+        assertEquals(State.CLOSED, breaker.state());
+    }
+
+    private void record(long now, boolean... failures) {
+        for (boolean failed : failures) {
+            breaker.record(breaker.tryAcquire(now), failed, now);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.culina.cart.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.culina.cart.dto.CreateOrderRequest;
+import com.culina.cart.dto.OrderItemRequest;
+import com.culina.cart.exception.OrderServiceException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The client against a stub order-service on a local port
+ */
+class OrderServiceClientTests {
+
+    private static final long OPEN_MS = 300;
+    private static final int MAX_CONCURRENT_CALLS = 2;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicReference<Responder> responder = new AtomicReference<>(ok("42"));
+    private final AtomicReference<String> idempotencyKey = new AtomicReference<>();
+    private volatile boolean failWrites;
+
+    private ExecutorService serverThreads;
+    private HttpServer server;
+    private OrderServiceClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/order/createOrder", exchange -> {
+            calls.incrementAndGet();
+            idempotencyKey.set(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+            exchange.getRequestBody().readAllBytes();
+            responder.get().respond(exchange);
+        });
+        server.start();
+
+        ObjectMapper objectMapper = new ObjectMapper() {
+            @Override
+            public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+                if (failWrites) {
+                    throw JsonMappingException.from((JsonGenerator) null, "Cannot write " + value);
+                }
+                return super.writeValueAsBytes(value);
+            }
+        };
+        // Opens after two calls of which one failed
+        client = new OrderServiceClient(objectMapper, new SimpleMeterRegistry(),
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/",
+                MAX_CONCURRENT_CALLS, MAX_CONCURRENT_CALLS, 500, 30_000, 2, 2, 50, OPEN_MS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void returnsTheNewOrderId() throws Exception {
+        assertEquals(42L, call().get(5, TimeUnit.SECONDS));
+        assertEquals("key-1", idempotencyKey.get());
+    }
+
+    @Test
+    void rejectionIsPassedOnWithoutOpeningTheBreaker() {
+        responder.set(status(409, "{\"error\":\"OUT_OF_STOCK\"}"));
+
+        for (int i = 0; i < 3; i++) {
+            OrderServiceException e = failure(call());
+            assertEquals("ORDER_REJECTED", e.getMessage());
+            assertEquals(409, e.getStatus());
+            assertEquals("{\"error\":\"OUT_OF_STOCK\"}", e.getDetail());
+        }
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void expiredDeadlineFailsWithoutCalling() {
+        OrderServiceException e = failure(client.createOrder(request(), "token", "key-1", System.nanoTime() - 1));
+
+        assertEquals(504, e.getStatus());
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void slowAnswerIsCutOffAtTheDeadline() {
+        CountDownLatch answer = new CountDownLatch(1);
+        responder.set(blocked(answer));
+        try {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+            OrderServiceException e = failure(client.createOrder(request(), "token", "key-1", deadline));
+
+            assertEquals("ORDER_SERVICE_TIMEOUT", e.getMessage());
+            assertEquals(504, e.getStatus());
+        } finally {
+            answer.countDown();
+        }
+    }
+
+    @Test
+    void callsBeyondTheBulkheadAreTurnedAway() throws Exception {
+        CountDownLatch answer = new CountDownLatch(1);
+        responder.set(blocked(answer));
+        List<CompletableFuture<Long>> inFlight = List.of(call(), call());
+        try {
+            OrderServiceException e = failure(call());
+            assertEquals("ORDER_SERVICE_BUSY", e.getMessage());
+            assertEquals(503, e.getStatus());
+            assertEquals(1, e.getRetryAfterSeconds());
+        } finally {
+            answer.countDown();
+        }
+        for (CompletableFuture<Long> call : inFlight) {
+            assertEquals(42L, call.get(5, TimeUnit.SECONDS));
+        }
+
+        // Permits come back once the calls are done
+        assertEquals(42L, call().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void openBreakerShortCircuitsUntilATrialSucceeds() throws Exception {
+        openBreaker();
+
+        OrderServiceException e = failure(call());
+        assertEquals("ORDER_SERVICE_UNAVAILABLE", e.getMessage());
+        assertEquals(503, e.getStatus());
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(2, calls.get());
+
+        Thread.sleep(OPEN_MS + 50);
+        CountDownLatch answer = new CountDownLatch(1);
+        responder.set(blocked(answer));
+        CompletableFuture<Long> trial = call();
+        try {
+            // Nothing else goes out while the trial is in flight
+            assertEquals("ORDER_SERVICE_UNAVAILABLE", failure(call()).getMessage());
+        } finally {
+            answer.countDown();
+        }
+        assertEquals(42L, trial.get(5, TimeUnit.SECONDS));
+
+        responder.set(ok("43"));
+        assertEquals(43L, call().get(5, TimeUnit.SECONDS));
+        assertEquals(43L, call().get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failedTrialReopensTheBreaker() throws Exception {
+        openBreaker();
+        Thread.sleep(OPEN_MS + 50);
+
+        assertEquals(502, failure(call()).getStatus());
+
+        responder.set(ok("42"));
+        assertEquals("ORDER_SERVICE_UNAVAILABLE", failure(call()).getMessage());
+    }
+
+    @Test
+    void trialThatCouldNotBeSentLeavesTheBreakerHalfOpen() throws Exception {
+        openBreaker();
+        Thread.sleep(OPEN_MS + 50);
+
+        failWrites = true;
+        assertThrows(IllegalStateException.class, this::call);
+        failWrites = false;
+
+        // Still half open: the next trial goes out, and one failure reopens
+        int before = calls.get();
+        assertEquals(502, failure(call()).getStatus());
+        assertEquals(before + 1, calls.get());
+        assertEquals("ORDER_SERVICE_UNAVAILABLE", failure(call()).getMessage());
+    }
+
+    private void openBreaker() {
+        responder.set(status(500, "boom"));
+        assertEquals(502, failure(call()).getStatus());
+        assertEquals(502, failure(call()).getStatus());
+    }
+
+    private CompletableFuture<Long> call() {
+        return client.createOrder(request(), "token", "key-1",
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+    }
+
+    private static OrderServiceException failure(CompletableFuture<Long> call) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+        return assertInstanceOf(OrderServiceException.class, e.getCause());
+    }
+
+    private static CreateOrderRequest request() {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setMenuItemId(10L);
+        item.setQuantity(2);
+        CreateOrderRequest request = new CreateOrderRequest();
+        request.setChefId(1L);
+        request.setItems(List.of(item));
+        request.setTotalAmountCents(49_800L);
+        request.setCurrency("INR");
+        return request;
+    }
+
+    private interface Responder {
+        void respond(HttpExchange exchange) throws IOException;
+    }
+
+    private static Responder ok(String body) {
+        return status(200, body);
+    }
+
+    private static Responder status(int status, String body) {
+        return exchange -> {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        };
+    }
+
+    private static Responder blocked(CountDownLatch answer) {
+        return exchange -> {
+            try {
+                answer.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ok("42").respond(exchange);
+        };
+    }
+}
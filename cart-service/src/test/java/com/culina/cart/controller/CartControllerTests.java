@@ -0,0 +1,71 @@
+package com.culina.cart.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.culina.cart.dto.CartLineError;
+import com.culina.cart.exception.CartValidationException;
+import com.culina.cart.model.CartItem;
+import com.culina.cart.service.CartService;
+
+/**
+ * How failed cart checks are answered
+ */
+class CartControllerTests {
+
+    private final CartService cartService = mock(CartService.class);
+    private final UsernamePasswordAuthenticationToken user = new UsernamePasswordAuthenticationToken("7", null);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new CartController(cartService)).build();
+    }
+
+    @Test
+    void repricedCheckoutIsAnsweredWith409AndTheLines() throws Exception {
+        when(cartService.checkout(any(), any(), any(), any())).thenThrow(new CartValidationException(List.of(
+                new CartLineError(10L, "PRICE_CHANGED", "Item 10 now costs 27500"),
+                new CartLineError(20L, "INSUFFICIENT_STOCK", "Item 20 (1 left, requested 2)"))));
+
+        mockMvc.perform(post("/cart/checkout")
+                        .principal(user)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"chefId\":3,\"currency\":\"INR\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("CART_VALIDATION_FAILED"))
+                .andExpect(jsonPath("$.errors[0].menuItemId").value(10))
+                .andExpect(jsonPath("$.errors[0].code").value("PRICE_CHANGED"))
+                .andExpect(jsonPath("$.errors[1].code").value("INSUFFICIENT_STOCK"));
+    }
+
+    @Test
+    void rejectedAddIsAnsweredWith409() throws Exception {
+        doThrow(new CartValidationException(List.of(
+                new CartLineError(10L, "ITEM_NOT_AVAILABLE", "Item 10 is not available"))))
+                .when(cartService).addItem(eq(7L), any(CartItem.class));
+
+        mockMvc.perform(post("/cart/add")
+                        .principal(user)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"menuItemId\":10,\"quantity\":1}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errors[0].code").value("ITEM_NOT_AVAILABLE"));
+    }
+}
@@ -0,0 +1,232 @@
+package com.culina.cart.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import com.culina.cart.exception.ChefConflictException;
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+import com.culina.cart.serialization.CartSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+
+/**
+ * The cart Lua scripts, run by a Redis-protocol server with a Lua engine
+ */
+class HashCartRepositoryTests {
+
+    private static final Long USER = 1L;
+    private static final String HASH = "cart:1:items";
+    private static final String LEGACY = "cart:1";
+    private static final String CHECKOUT = "checkout-key:1";
+
+    private static RedisServer redis;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate stringRedisTemplate;
+    private RedisTemplate<String, Cart> redisTemplate;
+    private HashCartRepository repository;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = RedisServer.newRedisServer();
+        redis.start();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        redis.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getBindPort()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new CartSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        stringRedisTemplate.getConnectionFactory().getConnection().serverCommands().flushAll();
+        repository = new HashCartRepository(stringRedisTemplate, redisTemplate, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    // cart-add.lua
+
+    @Test
+    void addCreatesTheCartAndAddsUpQuantities() {
+        stringRedisTemplate.opsForValue().set(CHECKOUT, "key-1");
+
+        repository.addItem(USER, item(10L, 7L, 2, 25_000L));
+        // The first add decides name and price
+        repository.addItem(USER, item(10L, 7L, 3, 99_000L));
+
+        Cart cart = repository.find(USER);
+        CartItem line = cart.getItemsMap().get(10L);
+        assertEquals(5, line.getQuantity());
+        assertEquals(25_000L, line.getPriceCents());
+        assertEquals("7", stringRedisTemplate.opsForHash().get(HASH, "chef"));
+        assertTrue(stringRedisTemplate.getExpire(HASH) > 0);
+        assertFalse(stringRedisTemplate.hasKey(CHECKOUT));
+    }
+
+    @Test
+    void addFromAnotherChefIsRefused() {
+        repository.addItem(USER, item(10L, 7L, 1, 25_000L));
+
+        ChefConflictException e = assertThrows(ChefConflictException.class,
+                () -> repository.addItem(USER, item(20L, 8L, 1, 15_000L)));
+        assertEquals(7L, e.getConflictingChefId());
+        assertNull(repository.find(USER).getItemsMap().get(20L));
+
+        // Items without a known chef are not checked
+        repository.addItem(USER, item(30L, null, 1, 5_000L));
+        assertEquals(2, repository.find(USER).getItems().size());
+    }
+
+    // cart-update.lua
+
+    @Test
+    void updateSetsQuantityAndRemovesAtZero() {
+        repository.addItem(USER, item(10L, 7L, 1, 25_000L));
+        repository.addItem(USER, item(20L, 7L, 1, 15_000L));
+        stringRedisTemplate.opsForValue().set(CHECKOUT, "key-1");
+
+        assertTrue(repository.updateQuantity(USER, 10L, 4));
+        assertEquals(4, repository.find(USER).getItemsMap().get(10L).getQuantity());
+        assertFalse(stringRedisTemplate.hasKey(CHECKOUT));
+
+        // Items not in the cart are not added by an update
+        assertTrue(repository.updateQuantity(USER, 30L, 2));
+        assertNull(repository.find(USER).getItemsMap().get(30L));
+
+        repository.removeItem(USER, 20L);
+        assertEquals(List.of(10L), List.copyOf(repository.find(USER).getItemsMap().keySet()));
+        assertFalse(stringRedisTemplate.opsForHash().hasKey(HASH, "i:20"));
+    }
+
+    @Test
+    void removingTheLastItemDeletesTheCart() {
+        repository.addItem(USER, item(10L, 7L, 1, 25_000L));
+
+        assertTrue(repository.updateQuantity(USER, 10L, 0));
+
+        assertFalse(stringRedisTemplate.hasKey(HASH));
+        assertFalse(repository.updateQuantity(USER, 10L, 1));
+    }
+
+    // cart-migrate.lua
+
+    @Test
+    void legacyCartIsMovedIntoAHashOnFirstWrite() {
+        Cart legacy = new Cart();
+        legacy.setUserId(USER);
+        legacy.addOrUpdateItem(item(10L, 7L, 2, 25_000L));
+        legacy.addOrUpdateItem(item(20L, 7L, 1, 15_000L));
+        redisTemplate.opsForValue().set(LEGACY, legacy);
+
+        repository.addItem(USER, item(10L, 7L, 1, 25_000L));
+
+        assertFalse(stringRedisTemplate.hasKey(LEGACY));
+        Cart cart = repository.find(USER);
+        assertEquals(3, cart.getItemsMap().get(10L).getQuantity());
+        assertEquals(1, cart.getItemsMap().get(20L).getQuantity());
+        assertEquals(15_000L, cart.getItemsMap().get(20L).getPriceCents());
+        assertEquals("7", stringRedisTemplate.opsForHash().get(HASH, "chef"));
+        assertTrue(stringRedisTemplate.getExpire(HASH) > 0);
+    }
+
+    @Test
+    void legacyCartIsMovedWhenRead() {
+        Cart legacy = new Cart();
+        legacy.addOrUpdateItem(item(10L, 7L, 2, 25_000L));
+        redisTemplate.opsForValue().set(LEGACY, legacy);
+
+        Cart read = repository.find(USER);
+
+        assertEquals(USER, read.getUserId());
+        assertEquals(2, read.getItemsMap().get(10L).getQuantity());
+        assertFalse(stringRedisTemplate.hasKey(LEGACY));
+        assertEquals("2", stringRedisTemplate.opsForHash().get(HASH, "q:10"));
+    }
+
+    @Test
+    void legacyCartNextToAHashIsDropped() {
+        repository.addItem(USER, item(10L, 7L, 1, 25_000L));
+        // Written by an instance still storing whole carts
+        Cart legacy = new Cart();
+        legacy.addOrUpdateItem(item(20L, 7L, 5, 15_000L));
+        redisTemplate.opsForValue().set(LEGACY, legacy);
+
+        assertTrue(repository.updateQuantity(USER, 10L, 2));
+
+        assertFalse(stringRedisTemplate.hasKey(LEGACY));
+        Cart cart = repository.find(USER);
+        assertEquals(2, cart.getItemsMap().get(10L).getQuantity());
+        assertNull(cart.getItemsMap().get(20L));
+    }
+
+    // cart-reprice.lua
+
+    @Test
+    void repriceReplacesDetailsOfItemsStillInTheCart() {
+        repository.addItem(USER, item(10L, 7L, 2, 25_000L));
+        repository.addItem(USER, item(20L, 7L, 1, 15_000L));
+        repository.removeItem(USER, 20L);
+        stringRedisTemplate.opsForValue().set(CHECKOUT, "key-1");
+
+        repository.reprice(USER, List.of(item(10L, 7L, 2, 27_500L), item(20L, 7L, 1, 16_000L)));
+
+        Cart cart = repository.find(USER);
+        assertEquals(27_500L, cart.getItemsMap().get(10L).getPriceCents());
+        assertEquals(2, cart.getItemsMap().get(10L).getQuantity());
+        // Removed meanwhile, stays removed
+        assertNull(cart.getItemsMap().get(20L));
+        assertFalse(stringRedisTemplate.opsForHash().hasKey(HASH, "i:20"));
+        assertFalse(stringRedisTemplate.hasKey(CHECKOUT));
+    }
+
+    @Test
+    void repriceOfAMissingCartCreatesNothing() {
+        repository.reprice(USER, List.of(item(10L, 7L, 2, 27_500L)));
+
+        assertFalse(stringRedisTemplate.hasKey(HASH));
+    }
+
+    private static CartItem item(Long menuItemId, Long chefId, int quantity, Long priceCents) {
+        CartItem item = new CartItem();
+        item.setMenuItemId(menuItemId);
+        item.setChefId(chefId);
+        item.setName("Item " + menuItemId);
+        item.setPriceCents(priceCents);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,144 @@
+package com.culina.cart.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+
+class CartSerializerTests {
+
+    private final CartSerializer serializer = new CartSerializer();
+
+    @Test
+    void smallCartRoundTripsUncompressed() {
+        Cart cart = new Cart();
+        cart.setUserId(42L);
+        cart.addOrUpdateItem(item(100L, 7L, "Asha's Kitchen", "Dal makhani", 24_900L, 2));
+        cart.addOrUpdateItem(item(101L, 7L, "Asha's Kitchen", "Jeera rice", 9_900L, 1));
+        // Nulls, another chef after a run of the same one, non-ASCII text
+        cart.addOrUpdateItem(item(102L, null, null, "Crème brûlée", null, 3));
+        cart.addOrUpdateItem(item(103L, 8L, "Ravi's", "Masala dosa", 0L, 1));
+
+        byte[] value = serializer.serialize(cart);
+
+        assertEquals(CartSerializer.VERSION, value[0]);
+        assertEquals(0, value[1]);
+        assertSameCart(cart, serializer.deserialize(value));
+    }
+
+    @Test
+    void largeCartRoundTripsThroughLz4() {
+        Cart cart = new Cart();
+        cart.setUserId(42L);
+        for (int i = 0; i < 100; i++) {
+            cart.addOrUpdateItem(item(100L + i, 7L, "Asha's Kitchen", "Dish " + i, 24_900L, 2));
+        }
+
+        byte[] value = serializer.serialize(cart);
+        byte[] uncompressed = new CartSerializer(Integer.MAX_VALUE).serialize(cart);
+
+        assertEquals(1, value[1]);
+        assertTrue(value.length < uncompressed.length,
+                value.length + " bytes compressed, " + uncompressed.length + " uncompressed");
+        assertSameCart(cart, serializer.deserialize(value));
+        assertSameCart(cart, serializer.deserialize(uncompressed));
+    }
+
+    @Test
+    void incompressibleCartIsStoredPlain() {
+        Random random = new Random(42);
+        Cart cart = new Cart();
+        for (int i = 0; i < 20; i++) {
+            StringBuilder name = new StringBuilder();
+            for (int c = 0; c < 40; c++) {
+                name.append((char) ('!' + random.nextInt(90)));
+            }
+            cart.addOrUpdateItem(item((long) i, (long) random.nextInt(1000), null, name.toString(),
+                    (long) random.nextInt(100_000), 1));
+        }
+
+        byte[] value = serializer.serialize(cart);
+
+        assertEquals(0, value[1]);
+        assertSameCart(cart, serializer.deserialize(value));
+    }
+
+    @Test
+    void legacyJsonValuesAreStillRead() {
+        Cart cart = new Cart();
+        cart.setUserId(42L);
+        cart.addOrUpdateItem(item(100L, 7L, "Asha's Kitchen", "Dal makhani", 24_900L, 2));
+
+        byte[] json = new GenericJackson2JsonRedisSerializer().serialize(cart);
+
+        assertEquals('{', json[0]);
+        assertSameCart(cart, serializer.deserialize(json));
+    }
+
+    @Test
+    void emptyValuesAreNoCart() {
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    void unknownAndTruncatedValuesAreRejected() {
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[] { 9, 0 }));
+
+        Cart cart = new Cart();
+        cart.addOrUpdateItem(item(100L, 7L, "Asha's Kitchen", "Dal makhani", 24_900L, 2));
+        byte[] value = serializer.serialize(cart);
+        byte[] truncated = Arrays.copyOf(value, value.length - 3);
+        assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+    }
+
+    @Test
+    void negativeIdsAndAmountsAreRejected() {
+        Cart cart = new Cart();
+        cart.addOrUpdateItem(item(100L, 7L, null, "Refund", -500L, 1));
+
+        assertThrows(SerializationException.class, () -> serializer.serialize(cart));
+    }
+
+    private static void assertSameCart(Cart expected, Cart actual) {
+        assertEquals(expected.getUserId(), actual.getUserId());
+        List<CartItem> expectedItems = new ArrayList<>(expected.getItems());
+        List<CartItem> actualItems = new ArrayList<>(actual.getItems());
+        assertEquals(expectedItems.size(), actualItems.size());
+        for (int i = 0; i < expectedItems.size(); i++) {
+            CartItem e = expectedItems.get(i);
+            CartItem a = actualItems.get(i);
+            assertEquals(e.getMenuItemId(), a.getMenuItemId());
+            assertEquals(e.getChefId(), a.getChefId());
+            assertEquals(e.getChefName(), a.getChefName());
+            assertEquals(e.getName(), a.getName());
+            assertEquals(e.getPriceCents(), a.getPriceCents());
+            assertEquals(e.getQuantity(), a.getQuantity());
+        }
+    }
+
+    private static CartItem item(Long menuItemId, Long chefId, String chefName, String name,
+            Long priceCents, int quantity) {
+        CartItem item = new CartItem();
+        item.setMenuItemId(menuItemId);
+        item.setChefId(chefId);
+        item.setChefName(chefName);
+        item.setName(name);
+        item.setPriceCents(priceCents);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
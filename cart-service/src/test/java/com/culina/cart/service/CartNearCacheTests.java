@@ -0,0 +1,185 @@
+package com.culina.cart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+
+import io.lettuce.core.api.push.PushMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The cache around its Redis connection: pushes and connection events are
+ * delivered by hand, as Lettuce would deliver them
+ */
+class CartNearCacheTests {
+
+    private static final int MAX_ENTRIES = 3;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Function<Long, Cart> loader = userId -> {
+        loads.incrementAndGet();
+        Cart cart = new Cart();
+        cart.setUserId(userId);
+        CartItem item = new CartItem();
+        item.setMenuItemId(10L);
+        item.setName("Dal makhani");
+        item.setPriceCents(24_900L);
+        item.setQuantity(loads.get());
+        cart.addOrUpdateItem(item);
+        return cart;
+    };
+
+    private CartNearCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CartNearCache(null, new SimpleMeterRegistry(), MAX_ENTRIES, 60);
+        cache.trackingRestored();
+    }
+
+    @Test
+    void repeatedReadsAreServedFromMemoryAsCopies() {
+        Cart first = cache.get(1L, loader);
+        Cart second = cache.get(1L, loader);
+
+        assertEquals(1, loads.get());
+        assertNotSame(first, second);
+        assertEquals(first.getItemsMap().get(10L).getQuantity(), second.getItemsMap().get(10L).getQuantity());
+    }
+
+    @Test
+    void invalidationPushEvictsTheCart() {
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        cache.onPush(invalidate("cart:1:items"));
+
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+        assertEquals(3, loads.get());
+
+        // Carts still stored whole are tracked too
+        cache.onPush(invalidate("cart:2"));
+        cache.get(2L, loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void flushPushEmptiesTheCache() {
+        cache.get(1L, loader);
+        cache.get(2L, loader);
+
+        cache.onPush(invalidate((String[]) null));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidationDuringALoadKeepsItsResultOutOfTheCache() {
+        Function<Long, Cart> racingLoader = userId -> {
+            Cart cart = loader.apply(userId);
+            // Written by another instance after this load read it
+            cache.onPush(invalidate("cart:" + userId + ":items"));
+            return cart;
+        };
+
+        cache.get(1L, racingLoader);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void lostConnectionBypassesAndReconnectFlushesTheCache() {
+        cache.get(1L, loader);
+
+        cache.trackingLost();
+        assertEquals(0, cache.size());
+        cache.get(1L, loader);
+        cache.get(1L, loader);
+        assertEquals(3, loads.get());
+        assertEquals(0, cache.size());
+
+        cache.trackingRestored();
+        cache.get(1L, loader);
+        cache.get(1L, loader);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void leastRecentlyReadCartsGoBeyondMaxEntries() {
+        for (long userId = 1; userId <= MAX_ENTRIES; userId++) {
+            cache.get(userId, loader);
+        }
+        // Read again, so user 2 is now the least recent
+        cache.get(1L, loader);
+
+        cache.get(4L, loader);
+        cache.get(5L, loader);
+
+        assertEquals(MAX_ENTRIES, cache.size());
+        int before = loads.get();
+        cache.get(1L, loader);
+        cache.get(4L, loader);
+        cache.get(5L, loader);
+        assertEquals(before, loads.get());
+        cache.get(2L, loader);
+        assertEquals(before + 1, loads.get());
+    }
+
+    @Test
+    void missingCartIsCachedAsWell() {
+        assertNull(cache.get(1L, userId -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get(1L, loader));
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * An invalidation push as Redis sends it: ["invalidate", [keys]], or a
+     * null key list after FLUSHALL
+     */
+    private static PushMessage invalidate(String... keys) {
+        return new PushMessage() {
+            @Override
+            public String getType() {
+                return "invalidate";
+            }
+
+            @Override
+            public List<Object> getContent() {
+                return getContent(buffer -> buffer);
+            }
+
+            @Override
+            public List<Object> getContent(Function<ByteBuffer, Object> decoder) {
+                List<Object> content = new ArrayList<>();
+                content.add(decoder.apply(bytes("invalidate")));
+                content.add(keys == null
+                        ? null
+                        : Arrays.stream(keys).map(key -> decoder.apply(bytes(key))).toList());
+                return content;
+            }
+        };
+    }
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
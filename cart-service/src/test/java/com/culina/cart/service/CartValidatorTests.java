@@ -0,0 +1,163 @@
+package com.culina.cart.service;
+
+import static com.culina.cart.service.MenuItemViewTests.stock;
+import static com.culina.cart.service.MenuItemViewTests.upsert;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.culina.cart.dto.CartLineError;
+import com.culina.cart.exception.CartValidationException;
+import com.culina.cart.model.Cart;
+import com.culina.cart.model.CartItem;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CartValidatorTests {
+
+    private static final long CHEF_ID = 3L;
+
+    private MenuItemView view;
+    private CartValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        view = new MenuItemView(meterRegistry);
+        validator = new CartValidator(view, meterRegistry);
+
+        view.apply(upsert(10L, 24_900L, CHEF_ID));
+        view.apply(stock(10L, 5, true));
+    }
+
+    @Test
+    void addTakesPriceAndChefFromTheView() {
+        CartItem item = item(10L, 1L, 2);
+        item.setChefId(99L);
+
+        validator.checkAdd(item, 0);
+
+        assertEquals(24_900L, item.getPriceCents());
+        assertEquals(CHEF_ID, item.getChefId());
+    }
+
+    @Test
+    void addOfUnknownItemPassesUnchecked() {
+        CartItem item = item(11L, 1L, 1_000);
+        item.setChefId(99L);
+
+        validator.checkAdd(item, 0);
+
+        assertEquals(1L, item.getPriceCents());
+        assertEquals(99L, item.getChefId());
+    }
+
+    @Test
+    void addBeyondStockIsRejected() {
+        CartValidationException e = assertThrows(CartValidationException.class,
+                () -> validator.checkAdd(item(10L, 24_900L, 6), 0));
+
+        assertCodes(e.getErrors(), "INSUFFICIENT_STOCK");
+    }
+
+    @Test
+    void addIsCheckedAgainstWhatTheCartAlreadyHolds() {
+        validator.checkAdd(item(10L, 24_900L, 2), 3);
+
+        CartValidationException e = assertThrows(CartValidationException.class,
+                () -> validator.checkAdd(item(10L, 24_900L, 2), 4));
+
+        assertCodes(e.getErrors(), "INSUFFICIENT_STOCK");
+        assertTrue(e.getErrors().get(0).getMessage().contains("requested 6"));
+    }
+
+    @Test
+    void addOfSwitchedOffItemIsRejected() {
+        view.apply(stock(10L, 5, false));
+
+        CartValidationException e = assertThrows(CartValidationException.class,
+                () -> validator.checkAdd(item(10L, 24_900L, 1), 0));
+
+        assertCodes(e.getErrors(), "ITEM_NOT_AVAILABLE");
+    }
+
+    @Test
+    void checkoutOfMatchingCartPasses() {
+        Cart cart = cart(item(10L, 24_900L, 5));
+
+        assertTrue(validator.checkCheckout(cart, CHEF_ID).isEmpty());
+    }
+
+    @Test
+    void checkoutOfUnknownItemsPassesUnchecked() {
+        Cart cart = cart(item(11L, 1L, 1_000), item(12L, 2L, 1));
+
+        assertTrue(validator.checkCheckout(cart, 99L).isEmpty());
+        assertEquals(1L, cart.getItemsMap().get(11L).getPriceCents());
+    }
+
+    @Test
+    void checkoutRepricesChangedLines() {
+        view.apply(upsert(10L, 27_500L, CHEF_ID));
+        Cart cart = cart(item(10L, 24_900L, 2));
+
+        List<CartLineError> errors = validator.checkCheckout(cart, CHEF_ID);
+
+        assertCodes(errors, "PRICE_CHANGED");
+        assertEquals(10L, errors.get(0).getMenuItemId());
+        assertEquals(27_500L, cart.getItemsMap().get(10L).getPriceCents());
+
+        // Once the client has seen the new price the cart goes through
+        assertTrue(validator.checkCheckout(cart, CHEF_ID).isEmpty());
+    }
+
+    @Test
+    void checkoutRejectsItemsOfAnotherChef() {
+        Cart cart = cart(item(10L, 24_900L, 1));
+
+        assertCodes(validator.checkCheckout(cart, 99L), "ITEM_NOT_FROM_CHEF");
+        // Without a chef to order from only the items themselves are checked
+        assertTrue(validator.checkCheckout(cart, null).isEmpty());
+    }
+
+    @Test
+    void checkoutRejectsLinesBeyondStockAndStillReprices() {
+        view.apply(upsert(10L, 27_500L, CHEF_ID));
+        view.apply(upsert(20L, 9_900L, CHEF_ID));
+        view.apply(stock(20L, 1, true));
+        Cart cart = cart(item(10L, 24_900L, 6), item(20L, 9_900L, 1));
+
+        List<CartLineError> errors = validator.checkCheckout(cart, CHEF_ID);
+
+        assertCodes(errors, "INSUFFICIENT_STOCK");
+        assertEquals(10L, errors.get(0).getMenuItemId());
+        assertEquals(27_500L, cart.getItemsMap().get(10L).getPriceCents());
+    }
+
+    private static void assertCodes(List<CartLineError> errors, String... codes) {
+        assertEquals(List.of(codes), errors.stream().map(CartLineError::getCode).toList());
+    }
+
+    private static Cart cart(CartItem... items) {
+        Cart cart = new Cart();
+        cart.setUserId(1L);
+        for (CartItem item : items) {
+            cart.addOrUpdateItem(item);
+        }
+        return cart;
+    }
+
+    private static CartItem item(Long menuItemId, Long priceCents, int quantity) {
+        CartItem item = new CartItem();
+        item.setMenuItemId(menuItemId);
+        item.setName("Item " + menuItemId);
+        item.setPriceCents(priceCents);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,108 @@
+package com.culina.cart.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.culina.cart.dto.MenuItemEvent;
+import com.culina.cart.dto.MenuItemStockEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MenuItemViewTests {
+
+    private final MenuItemView view = new MenuItemView(new SimpleMeterRegistry());
+
+    @Test
+    void upsertThenStockKeepsBothHalves() {
+        view.apply(upsert(10L, 24_900L, 3L));
+        view.apply(stock(10L, 5, true));
+
+        assertItem(view.find(10L), 24_900L, 3L, 5, true);
+    }
+
+    @Test
+    void stockThenUpsertKeepsBothHalves() {
+        view.apply(stock(10L, 5, true));
+        view.apply(upsert(10L, 24_900L, 3L));
+
+        assertItem(view.find(10L), 24_900L, 3L, 5, true);
+    }
+
+    @Test
+    void laterEventsOnlyReplaceTheirOwnHalf() {
+        view.apply(upsert(10L, 24_900L, 3L));
+        view.apply(stock(10L, 5, true));
+
+        view.apply(upsert(10L, 27_500L, 3L));
+        assertItem(view.find(10L), 27_500L, 3L, 5, true);
+
+        view.apply(stock(10L, 0, false));
+        assertItem(view.find(10L), 27_500L, 3L, 0, false);
+    }
+
+    @Test
+    void itemSeenOnOneTopicHasTheOtherHalfUnknown() {
+        view.apply(upsert(10L, 24_900L, 3L));
+        MenuItemView.Item priced = view.find(10L);
+        assertFalse(priced.isStockKnown());
+        assertTrue(priced.isAvailable());
+        assertTrue(priced.hasStock(1_000));
+        assertNull(priced.getAvailableQty());
+
+        view.apply(stock(11L, 2, true));
+        MenuItemView.Item stocked = view.find(11L);
+        assertNull(stocked.getPriceCents());
+        assertNull(stocked.getChefId());
+        assertTrue(stocked.hasStock(2));
+        assertFalse(stocked.hasStock(3));
+    }
+
+    @Test
+    void stockWithoutQuantityIsUnlimited() {
+        view.apply(stock(10L, null, true));
+
+        MenuItemView.Item item = view.find(10L);
+        assertTrue(item.isStockKnown());
+        assertNull(item.getAvailableQty());
+        assertTrue(item.hasStock(1_000));
+    }
+
+    @Test
+    void unknownItemsAndEventsWithoutIdAreIgnored() {
+        view.apply(upsert(null, 24_900L, 3L));
+        view.apply(stock(null, 5, true));
+        view.apply((MenuItemEvent) null);
+
+        assertNull(view.find(10L));
+        assertNull(view.find(null));
+    }
+
+    private static void assertItem(MenuItemView.Item item, long priceCents, long chefId, int stock,
+            boolean available) {
+        assertEquals(priceCents, item.getPriceCents());
+        assertEquals(chefId, item.getChefId());
+        assertEquals(stock, item.getAvailableQty());
+        assertEquals(available, item.isAvailable());
+    }
+
+    static MenuItemEvent upsert(Long menuItemId, Long priceCents, Long chefId) {
+        MenuItemEvent event = new MenuItemEvent();
+        event.setMenuItemId(menuItemId);
+        event.setName("Item " + menuItemId);
+        event.setPriceCents(priceCents);
+        event.setChefId(chefId);
+        return event;
+    }
+
+    static MenuItemStockEvent stock(Long menuItemId, Integer availableQty, boolean available) {
+        MenuItemStockEvent event = new MenuItemStockEvent();
+        event.setMenuItemId(menuItemId);
+        event.setAvailableQty(availableQty);
+        event.setIsAvailable(available);
+        return event;
+    }
+}
@@ -5,6 +5,7 @@ import { useApi } from '@/utils/ApiClient';
 import { addToCart as addToCartAPI, clearCart } from '@/utils/cartService';
 import { showToast } from '@/utils/toast';
 import { useRouter } from 'next/navigation';
+import { menuItemImageSrc } from "@/utils/menuImage";
 
 type Chef = {
   id: number;
@@ -24,6 +25,7 @@ type MenuItem = {
   kitchenName: string;
   chefName: string;
   chefId?: number;
+  imageUrl?: string;
   imageBase64?: string;
   tags?: string[];
   availableQty?: number;
@@ -219,9 +221,9 @@ function MenuItemCard({ item, onAddToCart }: { item: MenuItem; onAddToCart: (ite
       >
         <div className="flex gap-3 p-3">
           <div className="w-20 h-20 rounded-lg overflow-hidden bg-gray-200 flex-shrink-0">
-            {item.imageBase64 ? (
+            {menuItemImageSrc(item) ? (
               <img
-                src={`data:image/jpeg;base64,${item.imageBase64}`}
+                src={menuItemImageSrc(item)}
                 alt={item.name}
                 className="w-full h-full object-cover"
               />
@@ -270,8 +272,8 @@ function MenuItemCard({ item, onAddToCart }: { item: MenuItem; onAddToCart: (ite
         <div className="fixed inset-0 bg-black bg-opacity-50 flex items-center justify-center p-4 z-50" onClick={() => setShowModal(false)}>
           <div className="bg-white rounded-2xl max-w-lg w-full max-h-[90vh] overflow-y-auto" onClick={(e) => e.stopPropagation()}>
             <div className="h-56 bg-gray-200 overflow-hidden relative">
-              {item.imageBase64 ? (
-                <img src={`data:image/jpeg;base64,${item.imageBase64}`} alt={item.name} className="w-full h-full object-cover" />
+              {menuItemImageSrc(item) ? (
+                <img src={menuItemImageSrc(item)} alt={item.name} className="w-full h-full object-cover" />
               ) : (
                 <div className="flex items-center justify-center h-full text-gray-400">
                   <svg className="w-20 h-20" fill="none" stroke="currentColor" viewBox="0 0 24 24">
@@ -15,6 +15,7 @@ type SearchItem = {
   kitchenName: string;
   chefName: string;
   chefId?: number;
+  imageUrl?: string;
   imageBase64?: string;
   tags?: string[];
   availableQty?: number;
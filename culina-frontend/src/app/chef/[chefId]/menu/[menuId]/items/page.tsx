@@ -6,6 +6,7 @@ import { useAuth } from "@/context/AuthContext";
 import { useApi } from "@/utils/ApiClient";
 import { addToCart as addToCartAPI, clearCart } from "@/utils/cartService";
 import { showToast } from "@/utils/toast";
+import { menuItemImageSrc } from "@/utils/menuImage";
 
 type MenuItem = {
   id: number;
@@ -16,6 +17,7 @@ type MenuItem = {
   preparationTimeMinutes: number;
   availableQty: number;
   isAvailable: boolean;
+  imageUrl?: string;
   imageBase64?: string;
   tags?: string[];
 };
@@ -161,9 +163,9 @@ export default function UserMenuItemsPage() {
               >
                 {/* Image Section */}
                 <div className="h-48 bg-gray-200 overflow-hidden relative">
-                  {item.imageBase64 ? (
+                  {menuItemImageSrc(item) ? (
                     <img
-                      src={`data:image/jpeg;base64,${item.imageBase64}`}
+                      src={menuItemImageSrc(item)}
                       alt={item.name}
                       className="w-full h-full object-cover"
                     />
@@ -258,9 +260,9 @@ export default function UserMenuItemsPage() {
           >
             {/* Modal Image */}
             <div className="h-64 md:h-80 bg-gray-200 overflow-hidden relative">
-              {selectedItem.imageBase64 ? (
+              {menuItemImageSrc(selectedItem) ? (
                 <img
-                  src={`data:image/jpeg;base64,${selectedItem.imageBase64}`}
+                  src={menuItemImageSrc(selectedItem)}
                   alt={selectedItem.name}
                   className="w-full h-full object-cover"
                 />
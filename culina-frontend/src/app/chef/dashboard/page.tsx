@@ -6,6 +6,7 @@ import { useRouter } from "next/navigation";
 import { useAuth } from "@/context/AuthContext";
 import { useApi } from "@/utils/ApiClient";
 import { showToast } from "@/utils/toast";
+import { openOrderFeed } from "@/utils/orderFeed";
 
 // ============================================================================
 // TYPES
@@ -160,12 +161,8 @@ export default function ChefDashboard() {
 
     loadChefData();
 
-    // Real-time polling every 3 seconds
-    const interval = setInterval(() => {
-      fetchStats();
-    }, 3000);
-
-    return () => clearInterval(interval);
+    // Stats change with the kitchen's orders
+    return openOrderFeed(api, "chef", fetchStats);
   }, [authLoading, user, router]);
 
   async function loadChefData() {
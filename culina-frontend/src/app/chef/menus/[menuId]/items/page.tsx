@@ -6,6 +6,7 @@ import { useAuth } from "@/context/AuthContext";
 import Modal from "@/components/Modal";
 import { useApi } from "@/utils/ApiClient";
 import { showToast } from "@/utils/toast";
+import { menuItemImageSrc } from "@/utils/menuImage";
 
 type MenuItem = {
     id: number;
@@ -15,6 +16,7 @@ type MenuItem = {
     preparationTimeMinutes: number;
     availableQty: number;
     isAvailable: boolean;
+    imageUrl?: string;
     imageBase64?: string;
     tags?: string[];
 };
@@ -63,11 +65,7 @@ export default function ChefMenuItemsPage() {
         setQty(String(item.availableQty));
         setPrep(String(item.preparationTimeMinutes));
         setTags(item.tags?.join(", ") || "");
-        setImagePreview(
-            item.imageBase64
-                ? `data:image/jpeg;base64,${item.imageBase64}`
-                : null
-        );
+        setImagePreview(menuItemImageSrc(item) ?? null);
         setImageFile(null);
         setShowModal(true);
     }
@@ -181,9 +179,9 @@ export default function ChefMenuItemsPage() {
                             >
                                 {/* Image Section */}
                                 <div className="h-48 bg-gray-200 overflow-hidden relative">
-                                    {item.imageBase64 ? (
+                                    {menuItemImageSrc(item) ? (
                                         <img
-                                            src={`data:image/jpeg;base64,${item.imageBase64}`}
+                                            src={menuItemImageSrc(item)}
                                             alt={item.name}
                                             className="w-full h-full object-cover"
                                         />
@@ -4,6 +4,7 @@ import { useEffect, useState } from "react";
 import { useAuth } from "@/context/AuthContext";
 import { useApi } from "@/utils/ApiClient";
 import { showToast } from "@/utils/toast";
+import { openOrderFeed } from "@/utils/orderFeed";
 
 type OrderItem = {
     itemName: string;
@@ -36,12 +37,11 @@ export default function ChefOrdersPage() {
         fetchOrders();
         fetchStats();
 
-        const interval = setInterval(() => {
+        // Reload when the kitchen's order feed reports a change
+        return openOrderFeed(api, "chef", () => {
             fetchOrders();
             fetchStats();
-        }, 3000); // every 3 seconds for real-time updates
-
-        return () => clearInterval(interval);
+        });
     }, [api]);
 
 
@@ -5,6 +5,7 @@ import { useAuth } from "@/context/AuthContext";
 import { useApi } from "@/utils/ApiClient";
 import { useRouter } from "next/navigation";
 import { showToast } from "@/utils/toast";
+import { openOrderFeed } from "@/utils/orderFeed";
 
 interface OrderItem {
   menuItemId: number;
@@ -26,8 +27,15 @@ export default function MyOrdersPage() {
   const { user } = useAuth();
   const api = useApi();
   const router = useRouter();
-  const [orders, setOrders] = useState<Order[]>([]);
+  // Pages loaded so far, and the cursor of the next one (null once the oldest order is shown)
+  const [history, setHistory] = useState<{ orders: Order[]; nextCursor: string | null; pages: number }>({
+    orders: [],
+    nextCursor: null,
+    pages: 0,
+  });
+  const { orders, nextCursor } = history;
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   const statusColors: Record<string, string> = {
     CREATED: "bg-gray-200 text-gray-800",
@@ -72,14 +80,32 @@ export default function MyOrdersPage() {
     return progressMap[status] || 0;
   };
 
+  // GET /order returns one page, newest first; X-Next-Cursor points at the next one
+  async function fetchPage(cursor: string | null) {
+    const res = await api.get(cursor ? `/order?cursor=${encodeURIComponent(cursor)}` : "/order");
+    if (!res.ok) return null;
+    const data = await res.json();
+    return {
+      orders: (Array.isArray(data) ? data : []) as Order[],
+      nextCursor: res.headers.get("X-Next-Cursor"),
+    };
+  }
+
+  // Refreshes the newest page and keeps the older pages already loaded
   async function fetchOrders() {
     if (!user) return;
 
     try {
-      const res = await api.get("/order");
-      if (res.ok) {
-        const data = await res.json();
-        setOrders(Array.isArray(data) ? data : []);
+      const page = await fetchPage(null);
+      if (page) {
+        setHistory((previous) => {
+          if (previous.pages <= 1 || page.orders.length === 0) {
+            return { orders: page.orders, nextCursor: page.nextCursor, pages: 1 };
+          }
+          const oldestOnPage = page.orders[page.orders.length - 1].id;
+          const older = previous.orders.filter((order) => order.id < oldestOnPage);
+          return { ...previous, orders: [...page.orders, ...older] };
+        });
       }
     } catch (error) {
       console.error("Failed to fetch orders:", error);
@@ -88,13 +114,35 @@ export default function MyOrdersPage() {
     }
   }
 
+  async function loadMore() {
+    if (!nextCursor || loadingMore) return;
+
+    setLoadingMore(true);
+    try {
+      const page = await fetchPage(nextCursor);
+      if (page) {
+        setHistory((previous) => {
+          const seen = new Set(previous.orders.map((order) => order.id));
+          return {
+            orders: [...previous.orders, ...page.orders.filter((order) => !seen.has(order.id))],
+            nextCursor: page.nextCursor,
+            pages: previous.pages + 1,
+          };
+        });
+      }
+    } catch (error) {
+      console.error("Failed to load more orders:", error);
+      showToast("Failed to load more orders", "error");
+    } finally {
+      setLoadingMore(false);
+    }
+  }
+
   useEffect(() => {
     fetchOrders();
 
-    // Poll for updates every 3 seconds
-    const interval = setInterval(fetchOrders, 3000);
-
-    return () => clearInterval(interval);
+    // Reload when the order feed reports a change
+    return openOrderFeed(api, "customer", fetchOrders);
   }, [user]);
 
   const cancelOrder = async (orderId: number) => {
@@ -268,6 +316,16 @@ export default function MyOrdersPage() {
                 </div>
               ))}
             </div>
+
+            {nextCursor && (
+              <button
+                onClick={loadMore}
+                disabled={loadingMore}
+                className="w-full mt-6 bg-white hover:bg-gray-50 disabled:text-gray-400 text-gray-700 border border-gray-300 py-3 rounded-lg font-semibold transition-colors"
+              >
+                {loadingMore ? "Loading..." : "Load older orders"}
+              </button>
+            )}
           </>
         )}
       </div>
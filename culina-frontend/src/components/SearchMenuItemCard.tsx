@@ -7,6 +7,7 @@ import { useApi } from "@/utils/ApiClient";
 import { addToCart as addToCartAPI, clearCart } from "@/utils/cartService";
 import { showToast } from "@/utils/toast";
 import Modal from "@/components/Modal";
+import { menuItemImageSrc } from "@/utils/menuImage";
 
 export type SearchItem = {
   menuItemId: number;
@@ -17,6 +18,7 @@ export type SearchItem = {
   kitchenName: string;
   chefName: string;
   chefId?: number;
+  imageUrl?: string;
   imageBase64?: string;
   tags?: string[];
   availableQty?: number;
@@ -134,9 +136,9 @@ export default function SearchMenuItemCard({ item }: Props) {
         <div className="flex gap-4 p-4">
           {/* IMAGE */}
           <div className="w-32 h-32 rounded-lg overflow-hidden bg-gray-200 flex-shrink-0">
-            {item.imageBase64 ? (
+            {menuItemImageSrc(item) ? (
               <img
-                src={`data:image/jpeg;base64,${item.imageBase64}`}
+                src={menuItemImageSrc(item)}
                 alt={item.name}
                 className="w-full h-full object-cover"
               />
@@ -0,0 +1,18 @@
+// Menu item images are served by order-service and cached by the browser
+const ORDER_SERVICE_URL = 'http://localhost:8081';
+
+type WithImage = {
+  imageUrl?: string;
+  imageBase64?: string;
+};
+
+// Prefer the image URL; inline base64 is only present when explicitly requested
+export function menuItemImageSrc(item: WithImage): string | undefined {
+  if (item.imageUrl) {
+    return `${ORDER_SERVICE_URL}${item.imageUrl}`;
+  }
+  if (item.imageBase64) {
+    return `data:image/jpeg;base64,${item.imageBase64}`;
+  }
+  return undefined;
+}
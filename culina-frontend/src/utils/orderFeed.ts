@@ -0,0 +1,114 @@
+// utils/orderFeed.ts
+import { useApi } from './ApiClient';
+
+const ORDER_SERVICE_URL = 'http://localhost:8081';
+
+const ORDER_EVENTS = [
+  'order.created',
+  'order.paid',
+  'order.confirmed',
+  'order.preparing',
+  'order.ready',
+  'order.delivered',
+  'order.cancelled',
+];
+
+// Polling only while the feed is down
+const FALLBACK_POLL_MS = 30000;
+const MAX_RECONNECT_MS = 30000;
+// A burst of events for one order reloads once
+const RELOAD_DEBOUNCE_MS = 250;
+
+/**
+ * Calls reload whenever one of the caller's orders changes (the kitchen's
+ * orders for role "chef"), and each time the feed connects, so the page
+ * fetches whatever it missed meanwhile.
+ *
+ * EventSource cannot send an Authorization header, so every connect fetches
+ * a short-lived ticket first. The browser's own reconnect would reuse an
+ * expired ticket, so on error the feed is closed and reopened with a new one.
+ *
+ * Returns a function that closes the feed.
+ */
+export function openOrderFeed(
+  api: ReturnType<typeof useApi>,
+  role: 'customer' | 'chef',
+  reload: () => void
+): () => void {
+  let source: EventSource | null = null;
+  let closed = false;
+  let attempts = 0;
+  let reconnectTimer: ReturnType<typeof setTimeout> | null = null;
+  let reloadTimer: ReturnType<typeof setTimeout> | null = null;
+  let pollTimer: ReturnType<typeof setInterval> | null = null;
+
+  const scheduleReload = () => {
+    if (reloadTimer) return;
+    reloadTimer = setTimeout(() => {
+      reloadTimer = null;
+      if (!closed) reload();
+    }, RELOAD_DEBOUNCE_MS);
+  };
+
+  const startPolling = () => {
+    if (!pollTimer) pollTimer = setInterval(reload, FALLBACK_POLL_MS);
+  };
+
+  const stopPolling = () => {
+    if (pollTimer) clearInterval(pollTimer);
+    pollTimer = null;
+  };
+
+  const scheduleReconnect = () => {
+    if (closed || reconnectTimer) return;
+    const delay = Math.min(1000 * 2 ** attempts, MAX_RECONNECT_MS);
+    attempts++;
+    reconnectTimer = setTimeout(() => {
+      reconnectTimer = null;
+      connect();
+    }, delay);
+  };
+
+  async function connect() {
+    if (closed) return;
+    try {
+      const res = await api.post('/order/stream/ticket', {});
+      if (!res.ok) throw new Error(`Stream ticket request failed: ${res.status}`);
+      const { ticket } = await res.json();
+      if (closed) return;
+
+      const params = new URLSearchParams({ ticket });
+      if (role === 'chef') params.set('role', 'chef');
+      source = new EventSource(`${ORDER_SERVICE_URL}/order/stream?${params}`);
+
+      source.onopen = () => {
+        attempts = 0;
+        stopPolling();
+        scheduleReload();
+      };
+      ORDER_EVENTS.forEach((name) => source?.addEventListener(name, scheduleReload));
+      // Events were missed and are gone from the server's buffer
+      source.addEventListener('resync', scheduleReload);
+      source.onerror = () => {
+        source?.close();
+        source = null;
+        startPolling();
+        scheduleReconnect();
+      };
+    } catch (error) {
+      console.error('Order feed unavailable, polling instead:', error);
+      startPolling();
+      scheduleReconnect();
+    }
+  }
+
+  connect();
+
+  return () => {
+    closed = true;
+    source?.close();
+    stopPolling();
+    if (reconnectTimer) clearTimeout(reconnectTimer);
+    if (reloadTimer) clearTimeout(reloadTimer);
+  };
+}
@@ -0,0 +1,31 @@
+package com.culina.loadtest;
+
+import java.util.List;
+
+/**
+ * A chef set up before the run: logged in, approved, with a menu.
+ */
+public class ChefAccount {
+
+    private final long chefId;
+    private final String token;
+    private final List<MenuEntry> menu;
+
+    public ChefAccount(long chefId, String token, List<MenuEntry> menu) {
+        this.chefId = chefId;
+        this.token = token;
+        this.menu = menu;
+    }
+
+    public long getChefId() {
+        return chefId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public List<MenuEntry> getMenu() {
+        return menu;
+    }
+}
@@ -0,0 +1,167 @@
+package com.culina.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Non-blocking calls to the endpoints the checkout journey goes through.
+ * Any non-2xx answer fails the returned future with a {@link CallFailedException}.
+ */
+public class CulinaClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String authUrl;
+    private final String orderUrl;
+    private final String cartUrl;
+
+    public CulinaClient(String authUrl, String orderUrl, String cartUrl, Executor executor) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        this.authUrl = authUrl;
+        this.orderUrl = orderUrl;
+        this.cartUrl = cartUrl;
+    }
+
+    public CompletableFuture<JsonNode> signup(String email, String password, String role) {
+        return post(authUrl + "/auth/signup", null, Map.of(
+                "email", email,
+                "password", password,
+                "name", email.substring(0, email.indexOf('@')),
+                "role", role));
+    }
+
+    /**
+     * @return the auth response, with accessToken and userId
+     */
+    public CompletableFuture<JsonNode> login(String email, String password) {
+        return post(authUrl + "/auth/login", null, Map.of("email", email, "password", password));
+    }
+
+    public CompletableFuture<JsonNode> onboardChef(String token, String kitchenName) {
+        return post(orderUrl + "/chefs/onboard", token, Map.of(
+                "displayName", kitchenName,
+                "kitchenName", kitchenName,
+                "description", "Load test kitchen",
+                "cuisineType", "Indian"));
+    }
+
+    public CompletableFuture<JsonNode> approveChef(String adminToken, long chefId) {
+        return post(orderUrl + "/admin/chefs/" + chefId + "/approve", adminToken, null);
+    }
+
+    public CompletableFuture<JsonNode> createMenu(String token, String title) {
+        return post(orderUrl + "/chefs/menu/createMenu", token, Map.of("title", title));
+    }
+
+    /**
+     * Menu items are created through the multipart form the chef dashboard uses
+     */
+    public CompletableFuture<JsonNode> createMenuItem(String token, long menuId, String name, long priceCents) {
+        String boundary = "----culina" + UUID.randomUUID();
+        StringBuilder body = new StringBuilder();
+        Map.of("menuId", Long.toString(menuId),
+                "name", name,
+                "priceCents", Long.toString(priceCents),
+                "description", "Load test dish",
+                "preparationTimeMinutes", "20")
+                .forEach((field, value) -> body.append("--").append(boundary).append("\r\n")
+                        .append("Content-Disposition: form-data; name=\"").append(field).append("\"\r\n\r\n")
+                        .append(value).append("\r\n"));
+        body.append("--").append(boundary).append("--\r\n");
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(orderUrl + "/chefs/menu/createItem"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))
+                .build();
+        return send(request);
+    }
+
+    public CompletableFuture<JsonNode> addToCart(String token, MenuEntry item, int quantity) {
+        return post(cartUrl + "/cart/add", token, Map.of(
+                "menuItemId", item.getMenuItemId(),
+                "chefId", item.getChefId(),
+                "chefName", item.getChefName(),
+                "name", item.getName(),
+                "priceCents", item.getPriceCents(),
+                "quantity", quantity));
+    }
+
+    /**
+     * @return the created order id
+     */
+    public CompletableFuture<JsonNode> checkout(String token, long chefId) {
+        return post(cartUrl + "/cart/checkout", token, Map.of("chefId", chefId, "currency", "INR"));
+    }
+
+    public CompletableFuture<JsonNode> confirmOrder(String chefToken, long orderId) {
+        return post(orderUrl + "/order/" + orderId + "/confirm", chefToken, null);
+    }
+
+    private CompletableFuture<JsonNode> post(String url, String token, Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        try {
+            request.POST(body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(request.build());
+    }
+
+    private CompletableFuture<JsonNode> send(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new CallFailedException(request.uri().getPath(), response.statusCode(), response.body());
+                    }
+                    if (response.body() == null || response.body().isBlank()) {
+                        return objectMapper.nullNode();
+                    }
+                    try {
+                        return objectMapper.readTree(response.body());
+                    } catch (JsonProcessingException e) {
+                        // Some endpoints answer with plain text
+                        return objectMapper.getNodeFactory().textNode(response.body());
+                    }
+                });
+    }
+
+    public static class CallFailedException extends RuntimeException {
+
+        private final int status;
+
+        public CallFailedException(String path, int status, String body) {
+            super(path + " answered " + status + ": " + body);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.culina.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Sets up what the journeys need before the clock starts: an admin, and
+ * approved chefs with a menu of dishes. Runs once, one call at a time.
+ */
+public class Fixtures {
+
+    private static final Logger log = LoggerFactory.getLogger(Fixtures.class);
+
+    static final String PASSWORD = "LoadTest#2024";
+
+    private final CulinaClient client;
+    private final String runId;
+
+    public Fixtures(CulinaClient client, String runId) {
+        this.client = client;
+        this.runId = runId;
+    }
+
+    public List<ChefAccount> createChefs(int chefs, int itemsPerChef) {
+        String adminToken = signupAndLogin("admin-" + runId + "@loadtest.culina", "ADMIN")
+                .get("accessToken").asText();
+
+        List<ChefAccount> accounts = new ArrayList<>();
+        for (int c = 0; c < chefs; c++) {
+            String kitchenName = "Kitchen " + runId + "-" + c;
+            String token = signupAndLogin("chef-" + runId + "-" + c + "@loadtest.culina", "chef")
+                    .get("accessToken").asText();
+
+            long chefId = client.onboardChef(token, kitchenName).join().get("id").asLong();
+            client.approveChef(adminToken, chefId).join();
+            long menuId = client.createMenu(token, kitchenName + " menu").join().get("id").asLong();
+
+            List<MenuEntry> menu = new ArrayList<>();
+            for (int i = 0; i < itemsPerChef; i++) {
+                String name = "Dish " + c + "-" + i;
+                // 99.00 to 499.00, so totals vary across carts
+                long priceCents = 9_900 + (i * 10_000L) % 40_000;
+                long itemId = client.createMenuItem(token, menuId, name, priceCents).join().get("id").asLong();
+                menu.add(new MenuEntry(itemId, chefId, kitchenName, name, priceCents));
+            }
+
+            accounts.add(new ChefAccount(chefId, token, menu));
+            log.info("Chef {} ready with {} dishes", chefId, menu.size());
+        }
+        return accounts;
+    }
+
+    private JsonNode signupAndLogin(String email, String role) {
+        client.signup(email, PASSWORD, role).join();
+        return client.login(email, PASSWORD).join();
+    }
+}
@@ -0,0 +1,134 @@
+package com.culina.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The harness's side of Kafka. It stands in for the payment gateway by
+ * publishing payment.success for each checked out order, and watches
+ * order.paid to tell when order-service has applied it.
+ */
+public class KafkaBridge implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaBridge.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final KafkaProducer<String, String> producer;
+    private final KafkaConsumer<String, String> consumer;
+    private final Thread watcher;
+
+    // Order id -> System.nanoTime() when order.paid was seen. Created by
+    // whichever side comes first: the journey waiting or the event arriving.
+    private final Map<Long, CompletableFuture<Long>> paid = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    public KafkaBridge(String bootstrapServers) {
+        this.producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ProducerConfig.CLIENT_ID_CONFIG, "load-test-payments",
+                ProducerConfig.LINGER_MS_CONFIG, 1,
+                ProducerConfig.ACKS_CONFIG, "all"),
+                new StringSerializer(), new StringSerializer());
+
+        this.consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.GROUP_ID_CONFIG, "load-test-" + UUID.randomUUID(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest",
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false),
+                new StringDeserializer(), new StringDeserializer());
+        this.consumer.subscribe(List.of("order.paid"));
+
+        // Join the group before any order is placed, or early events are missed
+        while (consumer.assignment().isEmpty()) {
+            consumer.poll(Duration.ofMillis(200));
+        }
+
+        this.watcher = new Thread(this::watch, "order-paid-watcher");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * Publish the payment result the way payment-service does, keyed by order id
+     */
+    public CompletableFuture<Void> publishPaymentSuccess(long orderId, long userId, long amountCents) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(Map.of(
+                    "orderId", orderId,
+                    "userId", userId,
+                    "status", "SUCCESS",
+                    "amountCents", amountCents));
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<Void> sent = new CompletableFuture<>();
+        producer.send(new ProducerRecord<>("payment.success", Long.toString(orderId), payload),
+                (metadata, exception) -> {
+                    if (exception != null) {
+                        sent.completeExceptionally(exception);
+                    } else {
+                        sent.complete(null);
+                    }
+                });
+        return sent;
+    }
+
+    /**
+     * Completes with the System.nanoTime() at which order.paid was seen
+     */
+    public CompletableFuture<Long> paidAt(long orderId) {
+        return paid.computeIfAbsent(orderId, id -> new CompletableFuture<>())
+                .whenComplete((at, e) -> paid.remove(orderId));
+    }
+
+    private void watch() {
+        try {
+            while (running) {
+                for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(200))) {
+                    long seenAt = System.nanoTime();
+                    if (record.key() == null) {
+                        continue;
+                    }
+                    paid.computeIfAbsent(Long.parseLong(record.key()), id -> new CompletableFuture<>())
+                            .complete(seenAt);
+                }
+            }
+        } catch (WakeupException e) {
+            // Closing
+        } catch (RuntimeException e) {
+            log.error("order.paid watcher stopped", e);
+        } finally {
+            consumer.close();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        consumer.wakeup();
+        watcher.join(5_000);
+        producer.close(Duration.ofSeconds(5));
+    }
+}
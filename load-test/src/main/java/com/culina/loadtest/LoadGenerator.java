@@ -0,0 +1,193 @@
+package com.culina.loadtest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.culina.loadtest.Metrics.Step;
+
+/**
+ * Starts customer journeys at a fixed rate, whether or not earlier ones
+ * have finished (an open model), so a slow system sees a growing queue
+ * instead of a politely slower client. Each journey is
+ * signup → login → add to cart → checkout → PAID → chef confirms.
+ */
+public class LoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final CulinaClient client;
+    private final KafkaBridge kafka;
+    private final List<ChefAccount> chefs;
+    private final Metrics metrics;
+    private final LoadTestOptions options;
+    private final String runId;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong customers = new AtomicLong();
+
+    public LoadGenerator(
+            CulinaClient client,
+            KafkaBridge kafka,
+            List<ChefAccount> chefs,
+            Metrics metrics,
+            LoadTestOptions options,
+            String runId) {
+        this.client = client;
+        this.kafka = kafka;
+        this.chefs = chefs;
+        this.metrics = metrics;
+        this.options = options;
+        this.runId = runId;
+    }
+
+    /**
+     * Runs the warmup and the measured period, then waits for the journeys
+     * still in flight.
+     */
+    public void run() throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + options.warmup().toNanos();
+        long endNanos = measureFromNanos + options.duration().toNanos();
+
+        log.info("Warming up for {}s, then measuring for {}s at {} journeys/s",
+                options.warmup().toSeconds(), options.duration().toSeconds(), options.rate());
+
+        for (long n = 0; ; n++) {
+            long scheduledNanos = startNanos + n * intervalNanos;
+            if (scheduledNanos >= endNanos) {
+                break;
+            }
+            long wait = scheduledNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = scheduledNanos >= measureFromNanos;
+            if (inFlight.get() >= options.maxInFlight()) {
+                if (measured) {
+                    metrics.drop();
+                }
+                continue;
+            }
+            inFlight.incrementAndGet();
+            journey(scheduledNanos, measured).whenComplete((ignored, e) -> inFlight.decrementAndGet());
+        }
+
+        long drainUntil = System.nanoTime() + options.paidTimeout().plusSeconds(30).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(100);
+        }
+        if (inFlight.get() > 0) {
+            log.warn("{} journeys still running at the end of the drain", inFlight.get());
+        }
+    }
+
+    /**
+     * @param scheduledNanos when the journey should have started; the JOURNEY
+     *                       time is counted from here, so time spent waiting
+     *                       on a backed up generator is not hidden
+     */
+    private CompletableFuture<Void> journey(long scheduledNanos, boolean measured) {
+        String email = "customer-" + runId + "-" + customers.incrementAndGet() + "@loadtest.culina";
+        ChefAccount chef = chefs.get(ThreadLocalRandom.current().nextInt(chefs.size()));
+        List<MenuEntry> lines = pickLines(chef.getMenu());
+        long amountCents = lines.stream().mapToLong(MenuEntry::getPriceCents).sum();
+
+        return timed(Step.SIGNUP, measured, () -> client.signup(email, Fixtures.PASSWORD, "customer"))
+                .thenCompose(signedUp -> timed(Step.LOGIN, measured, () -> client.login(email, Fixtures.PASSWORD)))
+                .thenCompose(auth -> {
+                    String token = auth.get("accessToken").asText();
+                    long userId = auth.get("userId").asLong();
+
+                    CompletableFuture<?> cart = CompletableFuture.completedFuture(null);
+                    for (MenuEntry line : lines) {
+                        cart = cart.thenCompose(previous ->
+                                timed(Step.CART_ADD, measured, () -> client.addToCart(token, line, 1)));
+                    }
+                    return cart
+                            .thenCompose(added -> timed(Step.CHECKOUT, measured,
+                                    () -> client.checkout(token, chef.getChefId())))
+                            .thenCompose(checkedOut -> pay(checkedOut.asLong(), userId, amountCents, measured));
+                })
+                .thenCompose(orderId -> timed(Step.CONFIRM, measured,
+                        () -> client.confirmOrder(chef.getToken(), orderId)))
+                .thenAccept(confirmed -> {
+                    if (measured) {
+                        metrics.record(Step.JOURNEY, scheduledNanos, System.nanoTime());
+                    }
+                })
+                .exceptionally(e -> {
+                    if (measured) {
+                        metrics.error(Step.JOURNEY);
+                    }
+                    log.debug("Journey for {} failed", email, e);
+                    return null;
+                });
+    }
+
+    /**
+     * Plays the payment gateway, then waits for order-service to mark the
+     * order PAID. ORDER_TO_PAID runs from the end of checkout to order.paid.
+     */
+    private CompletableFuture<Long> pay(long orderId, long userId, long amountCents, boolean measured) {
+        long checkedOutNanos = System.nanoTime();
+        CompletableFuture<Long> paid = kafka.paidAt(orderId);
+
+        Duration delay = options.paymentDelay();
+        CompletableFuture<Void> published = delay.isZero()
+                ? kafka.publishPaymentSuccess(orderId, userId, amountCents)
+                : CompletableFuture.supplyAsync(() -> null,
+                        CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS))
+                        .thenCompose(ignored -> kafka.publishPaymentSuccess(orderId, userId, amountCents));
+
+        return published
+                .thenCompose(sent -> paid.orTimeout(options.paidTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .handle((paidNanos, e) -> {
+                    if (e != null) {
+                        if (measured) {
+                            metrics.error(Step.ORDER_TO_PAID);
+                        }
+                        throw new IllegalStateException("Order " + orderId + " not paid", e);
+                    }
+                    if (measured) {
+                        metrics.record(Step.ORDER_TO_PAID, checkedOutNanos, paidNanos);
+                    }
+                    return orderId;
+                });
+    }
+
+    private <T> CompletableFuture<T> timed(Step step, boolean measured, Supplier<CompletableFuture<T>> call) {
+        long startNanos = System.nanoTime();
+        return call.get().whenComplete((result, e) -> {
+            if (!measured) {
+                return;
+            }
+            if (e != null) {
+                metrics.error(step);
+            } else {
+                metrics.record(step, startNanos, System.nanoTime());
+            }
+        });
+    }
+
+    // Distinct dishes from one chef, as checkout is per chef
+    private List<MenuEntry> pickLines(List<MenuEntry> menu) {
+        int count = Math.min(options.cartItems(), menu.size());
+        int first = ThreadLocalRandom.current().nextInt(menu.size());
+        return IntStream.range(0, count)
+                .mapToObj(i -> menu.get((first + i) % menu.size()))
+                .toList();
+    }
+}
@@ -0,0 +1,112 @@
+package com.culina.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Entry point: optionally brings up the stand-ins and the services, sets up
+ * chefs, drives checkout journeys and reports latencies per step.
+ */
+public class LoadTestMain {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestMain.class);
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1 && (args[0].equals("--help") || args[0].equals("-h"))) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Path outputDir = options.outputDir();
+        Files.createDirectories(outputDir);
+
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        StandIns standIns = null;
+        List<ServiceProcess> services = new ArrayList<>();
+        ExecutorService httpExecutor = Executors.newFixedThreadPool(
+                Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+        try {
+            String authUrl = options.authUrl();
+            String orderUrl = options.orderUrl();
+            String cartUrl = options.cartUrl();
+            String kafkaServers = options.kafka();
+
+            if (options.embedded()) {
+                standIns = StandIns.start();
+                kafkaServers = standIns.kafkaBootstrapServers();
+                startServices(options, standIns, outputDir, services);
+                authUrl = "http://localhost:8080";
+                orderUrl = "http://localhost:8081";
+                cartUrl = "http://localhost:8083";
+            }
+
+            CulinaClient client = new CulinaClient(authUrl, orderUrl, cartUrl, httpExecutor);
+            List<ChefAccount> chefs = new Fixtures(client, runId).createChefs(options.chefs(), options.itemsPerChef());
+
+            Metrics metrics = new Metrics();
+            try (KafkaBridge kafka = new KafkaBridge(kafkaServers)) {
+                new LoadGenerator(client, kafka, chefs, metrics, options, runId).run();
+            }
+
+            Report report = new Report(metrics, options);
+            report.print(System.out);
+            report.writeHistograms(outputDir);
+            log.info("Histograms written to {}", outputDir);
+        } finally {
+            for (ServiceProcess service : services) {
+                service.close();
+            }
+            if (standIns != null) {
+                standIns.close();
+            }
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    private static void startServices(
+            LoadTestOptions options,
+            StandIns standIns,
+            Path outputDir,
+            List<ServiceProcess> services) throws Exception {
+        Path servicesDir = options.servicesDir();
+        Path logDir = outputDir.resolve("logs");
+        String datasourceUrl = "jdbc:postgresql://localhost:" + standIns.postgresPort() + "/postgres";
+
+        // Every journey comes from this one address, so the per-IP login throttle is lifted
+        services.add(ServiceProcess.start("auth-service", 8080, servicesDir, logDir, List.of(), Map.of(
+                "spring.datasource.url", datasourceUrl,
+                "spring.datasource.username", "postgres",
+                "spring.datasource.password", "",
+                "auth.throttle.ip.capacity", "1000000",
+                "auth.throttle.ip.refill-per-minute", "1000000")));
+
+        services.add(ServiceProcess.start("order-service", 8081, servicesDir, logDir, List.of(), Map.of(
+                "spring.datasource.url", datasourceUrl + "?reWriteBatchedInserts=true",
+                "spring.datasource.username", "postgres",
+                "spring.datasource.password", "",
+                "spring.kafka.bootstrap-servers", standIns.kafkaBootstrapServers())));
+
+        services.add(ServiceProcess.start("cart-service", 8083, servicesDir, logDir, List.of(), Map.of(
+                "spring.data.redis.host", "localhost",
+                "spring.data.redis.port", Integer.toString(standIns.redisPort()),
+                "spring.kafka.bootstrap-servers", standIns.kafkaBootstrapServers(),
+                "cart.order-client.base-url", "http://localhost:8081")));
+
+        for (ServiceProcess service : services) {
+            service.awaitReady(STARTUP_TIMEOUT);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.culina.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, all given as --name=value.
+ */
+public class LoadTestOptions {
+
+    static final String USAGE = """
+            java -jar target/load-test.jar [--name=value ...]
+
+              --rate=10              new customer journeys started per second
+              --duration=60          seconds of measured load
+              --warmup=10            seconds of load before measuring starts
+              --chefs=3              chefs set up before the run, each with a menu
+              --items-per-chef=5     dishes on each chef's menu
+              --cart-items=2         dishes each customer puts in the cart
+              --payment-delay-ms=0   time between checkout and the payment.success event
+              --max-in-flight=2000   journeys running at once; arrivals beyond it are dropped
+              --paid-timeout=30      seconds to wait for an order to reach PAID
+              --embedded=true        start Postgres, Kafka, Redis stand-ins and the services
+              --services-dir=..      repository root holding the built service jars
+              --output-dir=target/load-test  histograms (.hgrm) and service logs
+
+            With --embedded=false the services must already be running:
+              --auth-url=http://localhost:8080 --order-url=http://localhost:8081
+              --cart-url=http://localhost:8083 --kafka=localhost:9092
+            """;
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unknown argument " + arg + "\n\n" + USAGE);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    public double rate() {
+        return Double.parseDouble(values.getOrDefault("rate", "10"));
+    }
+
+    public Duration duration() {
+        return Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60")));
+    }
+
+    public Duration warmup() {
+        return Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10")));
+    }
+
+    public int chefs() {
+        return Integer.parseInt(values.getOrDefault("chefs", "3"));
+    }
+
+    public int itemsPerChef() {
+        return Integer.parseInt(values.getOrDefault("items-per-chef", "5"));
+    }
+
+    public int cartItems() {
+        return Integer.parseInt(values.getOrDefault("cart-items", "2"));
+    }
+
+    public Duration paymentDelay() {
+        return Duration.ofMillis(Long.parseLong(values.getOrDefault("payment-delay-ms", "0")));
+    }
+
+    public int maxInFlight() {
+        return Integer.parseInt(values.getOrDefault("max-in-flight", "2000"));
+    }
+
+    public Duration paidTimeout() {
+        return Duration.ofSeconds(Long.parseLong(values.getOrDefault("paid-timeout", "30")));
+    }
+
+    public boolean embedded() {
+        return Boolean.parseBoolean(values.getOrDefault("embedded", "true"));
+    }
+
+    public Path servicesDir() {
+        return Path.of(values.getOrDefault("services-dir", "..")).toAbsolutePath().normalize();
+    }
+
+    public Path outputDir() {
+        return Path.of(values.getOrDefault("output-dir", "target/load-test")).toAbsolutePath().normalize();
+    }
+
+    public String authUrl() {
+        return values.getOrDefault("auth-url", "http://localhost:8080");
+    }
+
+    public String orderUrl() {
+        return values.getOrDefault("order-url", "http://localhost:8081");
+    }
+
+    public String cartUrl() {
+        return values.getOrDefault("cart-url", "http://localhost:8083");
+    }
+
+    public String kafka() {
+        return values.getOrDefault("kafka", "localhost:9092");
+    }
+}
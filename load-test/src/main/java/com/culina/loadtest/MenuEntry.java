@@ -0,0 +1,41 @@
+package com.culina.loadtest;
+
+/**
+ * A dish set up before the run, as a customer adds it to the cart.
+ */
+public class MenuEntry {
+
+    private final long menuItemId;
+    private final long chefId;
+    private final String chefName;
+    private final String name;
+    private final long priceCents;
+
+    public MenuEntry(long menuItemId, long chefId, String chefName, String name, long priceCents) {
+        this.menuItemId = menuItemId;
+        this.chefId = chefId;
+        this.chefName = chefName;
+        this.name = name;
+        this.priceCents = priceCents;
+    }
+
+    public long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public long getChefId() {
+        return chefId;
+    }
+
+    public String getChefName() {
+        return chefName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+}
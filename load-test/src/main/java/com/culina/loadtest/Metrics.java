@@ -0,0 +1,69 @@
+package com.culina.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms (in microseconds) and error counts per journey step.
+ * Only journeys scheduled after the warmup are recorded here.
+ */
+public class Metrics {
+
+    public enum Step {
+        SIGNUP,
+        LOGIN,
+        CART_ADD,
+        CHECKOUT,
+        ORDER_TO_PAID,
+        CONFIRM,
+        // Whole journey, from when it was scheduled to start
+        JOURNEY
+    }
+
+    // Anything slower than a minute is recorded as a minute
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Step, Histogram> latencies = new EnumMap<>(Step.class);
+    private final Map<Step, LongAdder> errors = new EnumMap<>(Step.class);
+    private final LongAdder dropped = new LongAdder();
+
+    public Metrics() {
+        for (Step step : Step.values()) {
+            latencies.put(step, new ConcurrentHistogram(HIGHEST_MICROS, 3));
+            errors.put(step, new LongAdder());
+        }
+    }
+
+    public void record(Step step, long startNanos, long endNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos);
+        latencies.get(step).recordValue(Math.min(Math.max(micros, 0), HIGHEST_MICROS));
+    }
+
+    public void error(Step step) {
+        errors.get(step).increment();
+    }
+
+    /**
+     * An arrival that was not started because max-in-flight journeys were running
+     */
+    public void drop() {
+        dropped.increment();
+    }
+
+    public Histogram latency(Step step) {
+        return latencies.get(step);
+    }
+
+    public long errors(Step step) {
+        return errors.get(step).sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
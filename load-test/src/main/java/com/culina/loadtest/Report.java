@@ -0,0 +1,63 @@
+package com.culina.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import org.HdrHistogram.Histogram;
+
+import com.culina.loadtest.Metrics.Step;
+
+/**
+ * Prints the percentile table and writes one .hgrm file per step, which
+ * can be plotted with the HdrHistogram plotter to compare runs.
+ */
+public class Report {
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final Metrics metrics;
+    private final LoadTestOptions options;
+
+    public Report(Metrics metrics, LoadTestOptions options) {
+        this.metrics = metrics;
+        this.options = options;
+    }
+
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%nCheckout load test: %.1f journeys/s for %ds (after %ds warmup)%n",
+                options.rate(), options.duration().toSeconds(), options.warmup().toSeconds());
+        out.printf(Locale.ROOT, "%-14s %8s %7s %9s %9s %9s %9s %9s%n",
+                "step (ms)", "count", "errors", "p50", "p90", "p99", "p99.9", "max");
+
+        for (Step step : Step.values()) {
+            Histogram histogram = metrics.latency(step);
+            out.printf(Locale.ROOT, "%-14s %8d %7d", step, histogram.getTotalCount(), metrics.errors(step));
+            for (double percentile : PERCENTILES) {
+                out.printf(Locale.ROOT, " %9.1f", millis(histogram.getValueAtPercentile(percentile)));
+            }
+            out.printf(Locale.ROOT, " %9.1f%n", millis(histogram.getMaxValue()));
+        }
+
+        long completed = metrics.latency(Step.JOURNEY).getTotalCount();
+        out.printf(Locale.ROOT, "%nCompleted %.1f journeys/s; %d arrivals dropped at max-in-flight=%d%n",
+                completed / (double) options.duration().toSeconds(), metrics.dropped(), options.maxInFlight());
+    }
+
+    public void writeHistograms(Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        for (Step step : Step.values()) {
+            Path file = outputDir.resolve(step.name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // Recorded in microseconds, written in milliseconds
+                metrics.latency(step).outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
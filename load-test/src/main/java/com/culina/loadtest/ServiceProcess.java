@@ -0,0 +1,103 @@
+package com.culina.loadtest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One service started from its packaged jar as a child process, with its
+ * infrastructure settings pointed at the stand-ins.
+ */
+public class ServiceProcess implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceProcess.class);
+
+    private final String name;
+    private final int port;
+    private final Process process;
+
+    private ServiceProcess(String name, int port, Process process) {
+        this.name = name;
+        this.port = port;
+        this.process = process;
+    }
+
+    /**
+     * @param jvmArgs    extra JVM options, e.g. system properties
+     * @param properties Spring properties passed as --key=value
+     */
+    public static ServiceProcess start(
+            String name,
+            int port,
+            Path servicesDir,
+            Path logDir,
+            List<String> jvmArgs,
+            Map<String, String> properties) throws IOException {
+        Path jar = servicesDir.resolve(name).resolve("target").resolve(name + "-0.0.1-SNAPSHOT.jar");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException(jar + " not found; build it with: cd " + name
+                    + " && mvn -B package -DskipTests");
+        }
+        Files.createDirectories(logDir);
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        // Keep request logging out of the measurement
+        command.add("--spring.jpa.show-sql=false");
+        command.add("--logging.level.com.culina=INFO");
+        command.add("--logging.level.org.hibernate.SQL=INFO");
+        command.add("--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO");
+        command.add("--logging.file.name=" + logDir.resolve(name + ".log"));
+        properties.forEach((key, value) -> command.add("--" + key + "=" + value));
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve(name + ".out").toFile())
+                .start();
+        log.info("Started {} (pid {}) on port {}", name, process.pid(), port);
+        return new ServiceProcess(name, port, process);
+    }
+
+    /**
+     * Wait until the service accepts connections on its port
+     */
+    public void awaitReady(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with code " + process.exitValue()
+                        + "; see its .out file in the output directory");
+            }
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("localhost", port), 200);
+                log.info("{} is up", name);
+                return;
+            } catch (IOException e) {
+                Thread.sleep(250);
+            }
+        }
+        throw new IllegalStateException(name + " did not open port " + port + " within " + timeout);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(20, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
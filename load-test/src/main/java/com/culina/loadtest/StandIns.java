@@ -0,0 +1,71 @@
+package com.culina.loadtest;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import com.github.fppt.jedismock.RedisServer;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * In-process replacements for the Postgres, Kafka and Redis containers of
+ * docker-compose: a real Postgres from embedded binaries (the services use
+ * Postgres-only SQL, so H2 would not do), a single-node KRaft Kafka broker
+ * and a Redis-protocol server.
+ */
+public class StandIns implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(StandIns.class);
+
+    // Topics with more than one partition; the rest are auto-created
+    private static final String[] PARTITIONED_TOPICS = {
+            "order.created", "order.paid", "order.confirmed", "payment.success", "payment.failed" };
+
+    private final EmbeddedPostgres postgres;
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final RedisServer redis;
+
+    private StandIns(EmbeddedPostgres postgres, EmbeddedKafkaKraftBroker kafka, RedisServer redis) {
+        this.postgres = postgres;
+        this.kafka = kafka;
+        this.redis = redis;
+    }
+
+    public static StandIns start() throws IOException {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        log.info("Postgres listening on port {}", postgres.getPort());
+
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 3, PARTITIONED_TOPICS);
+        kafka.brokerProperty("auto.create.topics.enable", "true");
+        kafka.afterPropertiesSet();
+        log.info("Kafka listening on {}", kafka.getBrokersAsString());
+
+        RedisServer redis = RedisServer.newRedisServer();
+        redis.start();
+        log.info("Redis stand-in listening on port {}", redis.getBindPort());
+
+        return new StandIns(postgres, kafka, redis);
+    }
+
+    public int postgresPort() {
+        return postgres.getPort();
+    }
+
+    public String kafkaBootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    public int redisPort() {
+        return redis.getBindPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        redis.stop();
+        kafka.destroy();
+        postgres.close();
+    }
+}
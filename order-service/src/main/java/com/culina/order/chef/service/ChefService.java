@@ -4,10 +4,11 @@ import com.culina.order.chef.dto.ChefOrderStatsResponse;
 import com.culina.order.chef.model.Chef;
 import com.culina.order.chef.repository.ChefRepository;
 import com.culina.order.domain.model.OrderStatus;
-import com.culina.order.repository.OrderRepository;
+import com.culina.order.service.ChefOrderStatsCounters;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,11 +17,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class ChefService {
 
     private final ChefRepository chefRepository;
-    private final OrderRepository orderRepository;
+    private final ChefOrderStatsCounters statsCounters;
 
-    public ChefService(ChefRepository chefRepository, OrderRepository orderRepository) {
+    public ChefService(ChefRepository chefRepository, ChefOrderStatsCounters statsCounters) {
         this.chefRepository = chefRepository;
-        this.orderRepository = orderRepository;
+        this.statsCounters = statsCounters;
     }
 
     public List<Chef> getAllChefs() {
@@ -90,12 +91,12 @@ public class ChefService {
         Chef chef = chefRepository.findByUserId(chefUserId)
                 .orElseThrow(() -> new RuntimeException("Chef not found"));
 
-        Long chefId = chef.getId();
+        Map<OrderStatus, Long> counts = statsCounters.countsFor(chef.getId());
 
-        long total = orderRepository.countByChefId(chefId);
-        long pending = orderRepository.countByChefIdAndStatus(chefId, OrderStatus.CONFIRMED);
-        long preparing = orderRepository.countByChefIdAndStatus(chefId, OrderStatus.PREPARING);
-        long ready = orderRepository.countByChefIdAndStatus(chefId, OrderStatus.READY);
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        long pending = counts.get(OrderStatus.CONFIRMED);
+        long preparing = counts.get(OrderStatus.PREPARING);
+        long ready = counts.get(OrderStatus.READY);
 
         return new ChefOrderStatsResponse(
                 total,
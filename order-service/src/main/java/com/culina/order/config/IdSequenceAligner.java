@@ -0,0 +1,58 @@
+package com.culina.order.config;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Moves the id sequences past ids already in their tables. Orders and order
+ * items used identity columns before; their new sequences start at 1 and
+ * would hand out ids that are taken.
+ *
+ * Runs once the schema has been updated and before the web server or any
+ * listener starts. A sequence is only moved while it is behind its table, so
+ * instances that are already allocating from it are not disturbed.
+ */
+@Component
+public class IdSequenceAligner {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceAligner.class);
+
+    // Sequence name -> table whose ids it generates
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_items_seq", "order_items");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Taken only so the schema update has run before alignment
+    public IdSequenceAligner(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void align() {
+        SEQUENCES.forEach((sequence, table) -> {
+            long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            Map<String, Object> state = jdbcTemplate.queryForMap(
+                    "SELECT last_value, increment_by FROM pg_sequences "
+                            + "WHERE schemaname = current_schema() AND sequencename = ?",
+                    sequence);
+            long lastValue = state.get("last_value") != null ? ((Number) state.get("last_value")).longValue() : 0;
+            long increment = ((Number) state.get("increment_by")).longValue();
+
+            if (lastValue < maxId) {
+                // The next block handed out starts right after the highest id in use
+                jdbcTemplate.queryForObject("SELECT setval(?, ?, false)", Long.class, sequence, maxId + increment);
+                log.info("Moved sequence {} past existing {} ids (max id {})", sequence, table, maxId);
+            }
+        });
+    }
+}
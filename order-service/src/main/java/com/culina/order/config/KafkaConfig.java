@@ -0,0 +1,66 @@
+package com.culina.order.config;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.culina.order.event.MenuItemEventPublisher;
+
+@Configuration
+public class KafkaConfig {
+
+    /**
+     * Template used by the outbox relay. Payloads are already JSON, so they
+     * are sent as plain strings; the bytes on the wire are the same as with
+     * the JsonSerializer configured for the default producer.
+     */
+    @Bean
+    public KafkaTemplate<String, String> outboxKafkaTemplate(KafkaProperties kafkaProperties) {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        props.put(ProducerConfig.CLIENT_ID_CONFIG, "order-service-outbox");
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+
+    /**
+     * Payment topics with enough partitions for the listener threads. Only
+     * creates missing topics or adds partitions; adding partitions moves
+     * order keys, so do it while payment traffic is drained.
+     */
+    @Bean
+    public NewTopic paymentSuccessTopic(@Value("${order.payment-events.partitions:3}") int partitions) {
+        return TopicBuilder.name("payment.success").partitions(partitions).build();
+    }
+
+    @Bean
+    public NewTopic paymentFailedTopic(@Value("${order.payment-events.partitions:3}") int partitions) {
+        return TopicBuilder.name("payment.failed").partitions(partitions).build();
+    }
+
+    /**
+     * Only the latest details and stock of each item matter, so both topics
+     * are compacted and consumers that keep a view of them can replay them
+     * from the start. A topic that already exists keeps its cleanup policy;
+     * switch it with kafka-configs --alter --add-config cleanup.policy=compact.
+     */
+    @Bean
+    public NewTopic menuItemUpsertTopic() {
+        return TopicBuilder.name(MenuItemEventPublisher.UPSERT_TOPIC).compact().build();
+    }
+
+    @Bean
+    public NewTopic menuItemStockTopic() {
+        return TopicBuilder.name(MenuItemEventPublisher.STOCK_TOPIC).compact().build();
+    }
+}
@@ -2,38 +2,143 @@ package com.culina.order.controller;
 
 import com.culina.order.domain.model.Order;
 import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.dto.BulkStatusRequest;
 import com.culina.order.dto.CreateOrderRequest;
+import com.culina.order.dto.OrderPage;
 import com.culina.order.dto.OrderStats;
+import com.culina.order.dto.OrderStatusResult;
+import com.culina.order.dto.OrderSummary;
+import com.culina.order.exception.IdempotencyKeyConflictException;
+import com.culina.order.exception.InvalidCursorException;
+import com.culina.order.exception.OrderValidationException;
+import com.culina.order.idempotency.service.IdempotencyService;
+import com.culina.order.security.StreamTicketIssuer;
 import com.culina.order.service.OrderService;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/order")
 public class OrderController {
 
+        public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+        public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
         private final OrderService orderService;
+        private final IdempotencyService idempotencyService;
+        private final StreamTicketIssuer streamTicketIssuer;
 
-        public OrderController(OrderService orderService) {
+        public OrderController(OrderService orderService, IdempotencyService idempotencyService,
+                        StreamTicketIssuer streamTicketIssuer) {
                 this.orderService = orderService;
+                this.idempotencyService = idempotencyService;
+                this.streamTicketIssuer = streamTicketIssuer;
+        }
+
+        /**
+         * Report every failing order line at once
+         */
+        @ExceptionHandler(OrderValidationException.class)
+        public ResponseEntity<Map<String, Object>> handleOrderValidation(OrderValidationException ex) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("error", "ORDER_VALIDATION_FAILED");
+                response.put("message", ex.getMessage());
+                response.put("errors", ex.getErrors());
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+
+        @ExceptionHandler(IdempotencyKeyConflictException.class)
+        public ResponseEntity<Map<String, Object>> handleIdempotencyConflict(IdempotencyKeyConflictException ex) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("error", ex.getMessage());
+                response.put("message", "Idempotency-Key was already used for a different order");
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(response);
+        }
+
+        @ExceptionHandler(InvalidCursorException.class)
+        public ResponseEntity<Map<String, Object>> handleInvalidCursor(InvalidCursorException ex) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("error", ex.getMessage());
+                response.put("message", "cursor must be a value returned by an earlier page");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
 
+        /**
+         * Newest orders first, one page at a time. The cursor for the next
+         * page is returned in the X-Next-Cursor header (absent on the last page).
+         */
         @GetMapping
-        public ResponseEntity<List<Order>> getOrders(
+        public ResponseEntity<List<OrderSummary>> getOrders(
+                        Authentication authentication,
+                        @RequestParam(required = false) String role,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer size) {
+
+                Long userId = Long.valueOf(authentication.getName());
+
+                OrderPage page = "chef".equalsIgnoreCase(role)
+                                ? orderService.getOrdersForChef(userId, cursor, size)
+                                : orderService.getOrdersByUser(userId, cursor, size);
+
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                if (page.getNextCursor() != null) {
+                        response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+                }
+                return response.body(page.getOrders());
+        }
+
+        @GetMapping("/history")
+        public ResponseEntity<OrderPage> getOrderHistory(
                         Authentication authentication,
-                        @RequestParam(required = false) String role) {
+                        @RequestParam(required = false) String role,
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(required = false) Integer size) {
 
                 Long userId = Long.valueOf(authentication.getName());
 
                 if ("chef".equalsIgnoreCase(role)) {
-                        return ResponseEntity.ok(orderService.getOrdersForChef(userId));
+                        return ResponseEntity.ok(orderService.getOrdersForChef(userId, cursor, size));
                 }
 
-                return ResponseEntity.ok(orderService.getOrdersByUser(userId));
+                return ResponseEntity.ok(orderService.getOrdersByUser(userId, cursor, size));
+        }
+
+        /**
+         * A short-lived ticket for opening the stream below, which EventSource
+         * cannot send an Authorization header to. Fetch a new one per connect.
+         */
+        @PostMapping("/stream/ticket")
+        public ResponseEntity<Map<String, Object>> streamTicket(Authentication authentication) {
+                Long userId = Long.valueOf(authentication.getName());
+                String role = authentication.getAuthorities().iterator().next()
+                                .getAuthority().substring("ROLE_".length());
+                Map<String, Object> body = new HashMap<>();
+                body.put("ticket", streamTicketIssuer.issue(userId, role));
+                body.put("expiresInSeconds", streamTicketIssuer.getTtlSeconds());
+                return ResponseEntity.ok(body);
+        }
+
+        /**
+         * Server-sent order updates for the caller (role=chef for the kitchen
+         * feed), opened with ?ticket= from the endpoint above. Browsers resend
+         * Last-Event-ID on reconnect to resume.
+         */
+        @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+        public SseEmitter streamOrders(
+                        Authentication authentication,
+                        @RequestParam(required = false) String role,
+                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+                Long userId = Long.valueOf(authentication.getName());
+                return orderService.subscribeToFeed(userId, "chef".equalsIgnoreCase(role), lastEventId);
         }
 
         @GetMapping("/chef/pending")
@@ -48,12 +153,35 @@ public class OrderController {
                 return ResponseEntity.ok(orderService.getStatsForChef(chefUserId));
         }
 
+        // CHEF → move many orders at once (CONFIRMED, PREPARING or READY)
+        @PostMapping("/chef/bulk-status")
+        public ResponseEntity<List<OrderStatusResult>> bulkUpdateStatus(
+                        Authentication authentication,
+                        @RequestBody BulkStatusRequest request) {
+                Long chefUserId = Long.valueOf(authentication.getName());
+                return ResponseEntity.ok(orderService.updateStatuses(
+                                chefUserId,
+                                request.getOrderIds(),
+                                request.getStatus()));
+        }
+
+        /**
+         * A retry carrying the same Idempotency-Key gets the original order id
+         * back instead of creating a second order.
+         */
         @PostMapping("/createOrder")
         public ResponseEntity<Long> createOrder(Authentication authentication,
+                        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
                         @RequestBody CreateOrderRequest request) {
                 Long userId = Long.valueOf(authentication.getName());
-                Order order = orderService.createOrder(userId, request);
-                return ResponseEntity.ok(order.getId());
+
+                if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                        return ResponseEntity.ok(orderService.createOrder(userId, request).getId());
+                }
+
+                Long orderId = idempotencyService.execute(userId, idempotencyKey, request,
+                                () -> orderService.createOrder(userId, request).getId());
+                return ResponseEntity.ok(orderId);
         }
 
         // USER → cancel order
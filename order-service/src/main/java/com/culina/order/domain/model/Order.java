@@ -7,11 +7,16 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_orders_chef_created", columnList = "chef_id, created_at, id"),
+        @Index(name = "idx_orders_hold_expires", columnList = "hold_expires_at")
+})
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -36,6 +41,10 @@ public class Order {
     @Column(name = "updated_at")
     private OffsetDateTime updatedAt;
 
+    // Stock is held for an unpaid order until this time, null once it leaves CREATED
+    @Column(name = "hold_expires_at")
+    private OffsetDateTime holdExpiresAt;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     private List<OrderItem> items;
@@ -50,6 +59,9 @@ public class Order {
     @PreUpdate
     void preUpdate() {
         this.updatedAt = OffsetDateTime.now();
+        if (this.status != OrderStatus.CREATED) {
+            this.holdExpiresAt = null;
+        }
     }
 
     public Long getId() {
@@ -112,6 +124,14 @@ public class Order {
         this.updatedAt = updatedAt;
     }
 
+    public OffsetDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(OffsetDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+
     public List<OrderItem> getItems() {
         return items;
     }
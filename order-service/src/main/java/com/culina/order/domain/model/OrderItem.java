@@ -4,13 +4,18 @@ import jakarta.persistence.*;
 import java.time.OffsetDateTime;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        @Index(name = "idx_order_items_order", columnList = "order_id"),
+        @Index(name = "idx_order_items_stock_pending", columnList = "stock_pending, menu_item_id")
+})
 public class OrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,6 +35,11 @@ public class OrderItem {
     @Column(nullable = false)
     private Integer quantity;
 
+    // Hot inventory reservation not yet subtracted from menu_items.available_qty
+    @Column(name = "stock_pending")
+    @JsonIgnore
+    private Boolean stockPending = false;
+
     @Column(name = "created_at", updatable = false)
     private OffsetDateTime createdAt;
 
@@ -75,6 +85,12 @@ public class OrderItem {
     public void setQuantity(Integer quantity) {
         this.quantity = quantity;
     }
+    public Boolean getStockPending() {
+        return stockPending;
+    }
+    public void setStockPending(Boolean stockPending) {
+        this.stockPending = stockPending;
+    }
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
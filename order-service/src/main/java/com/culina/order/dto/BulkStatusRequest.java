@@ -0,0 +1,27 @@
+package com.culina.order.dto;
+
+import java.util.List;
+
+import com.culina.order.domain.model.OrderStatus;
+
+public class BulkStatusRequest {
+
+    private List<Long> orderIds;
+    private OrderStatus status;
+
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderStatus status) {
+        this.status = status;
+    }
+}
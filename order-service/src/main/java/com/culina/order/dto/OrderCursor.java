@@ -0,0 +1,55 @@
+package com.culina.order.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+
+import com.culina.order.exception.InvalidCursorException;
+
+/**
+ * Keyset position in an order history listing: the (created_at, id) of the
+ * last order on the previous page, encoded as an opaque URL-safe string.
+ */
+public class OrderCursor {
+
+    private final OffsetDateTime createdAt;
+    private final Long id;
+
+    public OrderCursor(OffsetDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static OrderCursor after(OrderSummary order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    /**
+     * @throws InvalidCursorException if the cursor was not made by encode
+     */
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new OrderCursor(
+                    OffsetDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,48 @@
+package com.culina.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+public class OrderItemSummary {
+
+    private Long id;
+    private Long orderId;
+    private Long menuItemId;
+    private String itemName;
+    private Long itemPriceCents;
+    private Integer quantity;
+
+    public OrderItemSummary(Long id, Long orderId, Long menuItemId,
+            String itemName, Long itemPriceCents, Integer quantity) {
+        this.id = id;
+        this.orderId = orderId;
+        this.menuItemId = menuItemId;
+        this.itemName = itemName;
+        this.itemPriceCents = itemPriceCents;
+        this.quantity = quantity;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @JsonIgnore
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public Long getItemPriceCents() {
+        return itemPriceCents;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+}
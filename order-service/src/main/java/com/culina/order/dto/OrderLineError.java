@@ -0,0 +1,26 @@
+package com.culina.order.dto;
+
+public class OrderLineError {
+
+    private Long menuItemId;
+    private String code;
+    private String message;
+
+    public OrderLineError(Long menuItemId, String code, String message) {
+        this.menuItemId = menuItemId;
+        this.code = code;
+        this.message = message;
+    }
+
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,23 @@
+package com.culina.order.dto;
+
+import java.util.List;
+
+public class OrderPage {
+
+    private List<OrderSummary> orders;
+    private String nextCursor;
+
+    public OrderPage(List<OrderSummary> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderSummary> getOrders() {
+        return orders;
+    }
+
+    // null when there are no older orders
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
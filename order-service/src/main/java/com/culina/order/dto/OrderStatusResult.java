@@ -0,0 +1,46 @@
+package com.culina.order.dto;
+
+import com.culina.order.domain.model.OrderStatus;
+
+/**
+ * Outcome of one order in a bulk status update. On failure, status is the
+ * order's unchanged status (null if not found) and error holds the reason.
+ */
+public class OrderStatusResult {
+
+    private Long orderId;
+    private boolean updated;
+    private OrderStatus status;
+    private String error;
+
+    public OrderStatusResult(Long orderId, boolean updated, OrderStatus status, String error) {
+        this.orderId = orderId;
+        this.updated = updated;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static OrderStatusResult updated(Long orderId, OrderStatus status) {
+        return new OrderStatusResult(orderId, true, status, null);
+    }
+
+    public static OrderStatusResult failed(Long orderId, OrderStatus status, String error) {
+        return new OrderStatusResult(orderId, false, status, error);
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public boolean isUpdated() {
+        return updated;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,77 @@
+package com.culina.order.dto;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.culina.order.domain.model.OrderStatus;
+
+/**
+ * Read-only view of an order for history listings. Serializes with the same
+ * field names as the Order entity.
+ */
+public class OrderSummary {
+
+    private Long id;
+    private Long userId;
+    private Long chefId;
+    private OrderStatus status;
+    private Long totalAmountCents;
+    private String currency;
+    private OffsetDateTime createdAt;
+    private OffsetDateTime updatedAt;
+    private List<OrderItemSummary> items = new ArrayList<>();
+
+    public OrderSummary(Long id, Long userId, Long chefId, OrderStatus status,
+            Long totalAmountCents, String currency,
+            OffsetDateTime createdAt, OffsetDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.chefId = chefId;
+        this.status = status;
+        this.totalAmountCents = totalAmountCents;
+        this.currency = currency;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getChefId() {
+        return chefId;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public Long getTotalAmountCents() {
+        return totalAmountCents;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public List<OrderItemSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderItemSummary> items) {
+        this.items = items;
+    }
+}
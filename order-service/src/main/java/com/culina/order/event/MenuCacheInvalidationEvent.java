@@ -0,0 +1,48 @@
+package com.culina.order.event;
+
+import java.util.List;
+
+/**
+ * Broadcast to every order-service instance when menu items change, so each
+ * one drops its cached copies
+ */
+public class MenuCacheInvalidationEvent {
+
+    private String origin;
+    private List<Long> menuItemIds;
+    private List<Long> menuIds;
+
+    public MenuCacheInvalidationEvent() {
+    }
+
+    public MenuCacheInvalidationEvent(String origin, List<Long> menuItemIds, List<Long> menuIds) {
+        this.origin = origin;
+        this.menuItemIds = menuItemIds;
+        this.menuIds = menuIds;
+    }
+
+    // getters & setters
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public List<Long> getMenuItemIds() {
+        return menuItemIds;
+    }
+
+    public void setMenuItemIds(List<Long> menuItemIds) {
+        this.menuItemIds = menuItemIds;
+    }
+
+    public List<Long> getMenuIds() {
+        return menuIds;
+    }
+
+    public void setMenuIds(List<Long> menuIds) {
+        this.menuIds = menuIds;
+    }
+}
@@ -0,0 +1,44 @@
+package com.culina.order.event;
+
+import java.util.Map;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import com.culina.order.menu.service.MenuItemCache;
+
+/**
+ * Every instance joins with its own consumer group, named after its instance
+ * id so restarts reuse it, so each one sees every invalidation. Only messages
+ * sent after startup matter, an empty cache has nothing stale in it, so on
+ * assignment the consumer skips whatever the group left behind.
+ */
+@Component
+public class MenuCacheInvalidationListener extends AbstractConsumerSeekAware {
+
+    private final MenuItemCache menuItemCache;
+
+    public MenuCacheInvalidationListener(MenuItemCache menuItemCache) {
+        this.menuItemCache = menuItemCache;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToEnd(assignments.keySet());
+    }
+
+    @KafkaListener(
+        topics = MenuItemCache.INVALIDATION_TOPIC,
+        groupId = "order-service-menu-cache-${order.instance-id:local}",
+        properties = {
+            "auto.offset.reset=latest",
+            "spring.json.value.default.type=com.culina.order.event.MenuCacheInvalidationEvent"
+        }
+    )
+    public void handleInvalidation(MenuCacheInvalidationEvent event) {
+        menuItemCache.evictRemote(event);
+    }
+}
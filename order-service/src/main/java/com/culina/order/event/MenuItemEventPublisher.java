@@ -1,19 +1,29 @@
 package com.culina.order.event;
 
-import org.springframework.kafka.core.KafkaTemplate;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
 import com.culina.order.chef.model.Chef;
+import com.culina.order.menu.dto.StockLevel;
 import com.culina.order.menu.model.Menu;
 import com.culina.order.menu.model.MenuItem;
+import com.culina.order.menu.repository.InventoryRepository;
+import com.culina.order.outbox.service.OutboxService;
 
 @Component
 public class MenuItemEventPublisher {
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    public static final String UPSERT_TOPIC = "menu.item.upsert";
+    public static final String STOCK_TOPIC = "menu.item.stock";
+
+    private final OutboxService outboxService;
+    private final InventoryRepository inventoryRepository;
 
-    public MenuItemEventPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public MenuItemEventPublisher(OutboxService outboxService, InventoryRepository inventoryRepository) {
+        this.outboxService = outboxService;
+        this.inventoryRepository = inventoryRepository;
     }
 
     public void publishUpsert(MenuItem menuItem, Chef chef, Menu menu) {
@@ -33,6 +43,33 @@ public class MenuItemEventPublisher {
 
         event.setTags(menuItem.getTags());
 
-        kafkaTemplate.send("menu.item.upsert", event);
+        outboxService.enqueue(UPSERT_TOPIC, menuItem.getId().toString(), event);
+    }
+
+    /**
+     * Stock of an item changed through the entity; must run in the
+     * transaction that changed it
+     */
+    public void publishStock(MenuItem menuItem) {
+        outboxService.enqueue(STOCK_TOPIC, menuItem.getId().toString(), new MenuItemStockEvent(
+                menuItem.getId(), menuItem.getAvailableQty(), menuItem.getIsAvailable()));
+    }
+
+    /**
+     * Stock of the items changed through SQL; reads it back in the
+     * transaction that changed it. For items in hot inventory mode this is
+     * the stock before pending reservations are flushed.
+     */
+    public void publishStock(Collection<Long> menuItemIds) {
+        List<StockLevel> levels = inventoryRepository.findStock(menuItemIds);
+        if (levels.isEmpty()) {
+            return;
+        }
+        outboxService.enqueueAll(STOCK_TOPIC,
+                levels.stream()
+                        .map(level -> new MenuItemStockEvent(
+                                level.getMenuItemId(), level.getAvailableQty(), level.isAvailable()))
+                        .toList(),
+                event -> event.getMenuItemId().toString());
     }
 }
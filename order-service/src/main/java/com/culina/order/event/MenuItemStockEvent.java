@@ -0,0 +1,45 @@
+package com.culina.order.event;
+
+/**
+ * Stock and availability of a menu item after it changed, published on
+ * menu.item.stock. A null availableQty means unlimited stock.
+ */
+public class MenuItemStockEvent {
+
+    private Long menuItemId;
+    private Integer availableQty;
+    private Boolean isAvailable;
+
+    public MenuItemStockEvent() {
+    }
+
+    public MenuItemStockEvent(Long menuItemId, Integer availableQty, Boolean isAvailable) {
+        this.menuItemId = menuItemId;
+        this.availableQty = availableQty;
+        this.isAvailable = isAvailable;
+    }
+
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public void setMenuItemId(Long menuItemId) {
+        this.menuItemId = menuItemId;
+    }
+
+    public Integer getAvailableQty() {
+        return availableQty;
+    }
+
+    public void setAvailableQty(Integer availableQty) {
+        this.availableQty = availableQty;
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+}
@@ -1,6 +1,8 @@
 package com.culina.order.event;
 
 import com.culina.order.domain.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class OrderEvent {
 
@@ -10,8 +12,13 @@ public class OrderEvent {
     private OrderStatus status;
     private Long totalAmountCents;
 
-    public OrderEvent(Long orderId, Long userId, Long chefId,
-            OrderStatus status, Long totalAmountCents) {
+    @JsonCreator
+    public OrderEvent(
+            @JsonProperty("orderId") Long orderId,
+            @JsonProperty("userId") Long userId,
+            @JsonProperty("chefId") Long chefId,
+            @JsonProperty("status") OrderStatus status,
+            @JsonProperty("totalAmountCents") Long totalAmountCents) {
         this.orderId = orderId;
         this.userId = userId;
         this.chefId = chefId;
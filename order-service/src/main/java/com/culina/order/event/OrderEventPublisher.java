@@ -1,18 +1,25 @@
 package com.culina.order.event;
 
-import org.springframework.kafka.core.KafkaTemplate;
+import java.util.List;
+
 import org.springframework.stereotype.Component;
 
+import com.culina.order.outbox.service.OutboxService;
+
 @Component
 public class OrderEventPublisher {
 
-    private final KafkaTemplate<String, OrderEvent> kafkaTemplate;
+    private final OutboxService outboxService;
 
-    public OrderEventPublisher(KafkaTemplate<String, OrderEvent> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public OrderEventPublisher(OutboxService outboxService) {
+        this.outboxService = outboxService;
     }
 
     public void publish(String topic, OrderEvent event) {
-        kafkaTemplate.send(topic, event.getOrderId().toString(), event);
+        outboxService.enqueue(topic, event.getOrderId().toString(), event);
+    }
+
+    public void publishAll(String topic, List<OrderEvent> events) {
+        outboxService.enqueueAll(topic, events, event -> event.getOrderId().toString());
     }
 }
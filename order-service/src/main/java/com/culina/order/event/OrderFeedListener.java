@@ -0,0 +1,58 @@
+package com.culina.order.event;
+
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import com.culina.order.feed.service.OrderFeedService;
+
+/**
+ * Feeds the live order feed from the order topics, so a client connected to
+ * any instance sees transitions handled by every instance.
+ *
+ * Each instance has a consumer group of its own, named after its instance
+ * id so restarts reuse it. Feed event ids are only valid within one process,
+ * so on assignment the consumer skips to the end instead of replaying what
+ * was published before it started.
+ */
+@Component
+public class OrderFeedListener extends AbstractConsumerSeekAware {
+
+    private final OrderFeedService orderFeedService;
+
+    public OrderFeedListener(OrderFeedService orderFeedService) {
+        this.orderFeedService = orderFeedService;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToEnd(assignments.keySet());
+    }
+
+    @KafkaListener(
+        topics = {
+            "order.created",
+            "order.paid",
+            "order.confirmed",
+            "order.preparing",
+            "order.ready",
+            "order.delivered",
+            "order.cancelled"
+        },
+        groupId = "order-service-feed-${order.instance-id:local}",
+        properties = {
+            "auto.offset.reset=latest",
+            "spring.json.value.default.type=com.culina.order.event.OrderEvent"
+        }
+    )
+    public void handle(ConsumerRecord<String, OrderEvent> record) {
+        if (record.value() != null) {
+            orderFeedService.publish(record.topic(), record.value());
+        }
+    }
+}
@@ -1,32 +1,111 @@
 package com.culina.order.event;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 import com.culina.order.service.OrderService;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Applies payment results a poll at a time, one transaction per batch.
+ *
+ * Payment events are keyed by order id, so all events for an order sit on
+ * one partition and reach one listener thread in order; the batch keeps that
+ * order. If a batch fails it is replayed record by record, and the first
+ * record that still fails is reported to the error handler, which commits
+ * the records before it and retries from there.
+ */
 @Component
 public class PaymentEventListener {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentEventListener.class);
+
     private final OrderService orderService;
+    private final DistributionSummary batchSize;
 
-    public PaymentEventListener(OrderService orderService) {
+    public PaymentEventListener(OrderService orderService, MeterRegistry meterRegistry) {
         this.orderService = orderService;
+        this.batchSize = DistributionSummary.builder("order.payment_events.batch.size")
+                .description("Payment events applied per listener transaction")
+                .register(meterRegistry);
     }
 
     @KafkaListener(
         topics = "payment.success",
-        groupId = "order-service"
+        groupId = "order-service",
+        batch = "true",
+        concurrency = "${order.payment-events.concurrency:3}"
     )
-    public void handlePaymentSuccess(PaymentEvent event) {
-        System.out.println("markpaid: "+event.getOrderId());
-        orderService.markPaid(event.getOrderId());
+    public void handlePaymentSuccess(List<ConsumerRecord<String, PaymentEvent>> records) {
+        apply(records, orderService::markPaidAll);
     }
 
     @KafkaListener(
         topics = "payment.failed",
-        groupId = "order-service"
+        groupId = "order-service",
+        batch = "true",
+        concurrency = "${order.payment-events.concurrency:3}"
     )
-    public void handlePaymentFailure(PaymentEvent event) {
-        orderService.cancelAfterPaymentFailure(event.getOrderId());
+    public void handlePaymentFailure(List<ConsumerRecord<String, PaymentEvent>> records) {
+        apply(records, orderService::cancelAllAfterPaymentFailure);
+    }
+
+    private void apply(List<ConsumerRecord<String, PaymentEvent>> records, Function<List<Long>, Integer> action) {
+        List<Long> orderIds = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, PaymentEvent> record : records) {
+            Long orderId = orderId(record);
+            if (orderId != null) {
+                orderIds.add(orderId);
+            }
+        }
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        batchSize.record(orderIds.size());
+
+        try {
+            action.apply(orderIds);
+        } catch (RuntimeException e) {
+            log.warn("Payment event batch of {} from {} failed, retrying one by one",
+                    orderIds.size(), records.get(0).topic(), e);
+            applyOneByOne(records, action);
+        }
+    }
+
+    private void applyOneByOne(List<ConsumerRecord<String, PaymentEvent>> records,
+            Function<List<Long>, Integer> action) {
+        for (int i = 0; i < records.size(); i++) {
+            Long orderId = orderId(records.get(i));
+            if (orderId == null) {
+                continue;
+            }
+            try {
+                action.apply(List.of(orderId));
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Payment event for order " + orderId + " failed", e, i);
+            }
+        }
+    }
+
+    /**
+     * Order id of the record, or null for a value that could not be read
+     */
+    private static Long orderId(ConsumerRecord<String, PaymentEvent> record) {
+        if (record.value() == null || record.value().getOrderId() == null) {
+            // The ErrorHandlingDeserializer leaves null for unreadable payloads
+            log.warn("Skipping unreadable payment event at {}-{}@{}",
+                    record.topic(), record.partition(), record.offset());
+            return null;
+        }
+        return record.value().getOrderId();
     }
 }
@@ -0,0 +1,11 @@
+package com.culina.order.exception;
+
+/**
+ * Thrown when an Idempotency-Key is sent again with a different request body
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException() {
+        super("IDEMPOTENCY_KEY_REUSED");
+    }
+}
@@ -0,0 +1,12 @@
+package com.culina.order.exception;
+
+/**
+ * Thrown when an order history cursor cannot be decoded, e.g. because the
+ * client made it up or cut it short
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException() {
+        super("INVALID_CURSOR");
+    }
+}
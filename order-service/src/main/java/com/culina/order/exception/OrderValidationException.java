@@ -0,0 +1,27 @@
+package com.culina.order.exception;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.culina.order.dto.OrderLineError;
+
+/**
+ * Thrown when one or more lines of an order fail validation. Carries every
+ * failing line so the client can fix the whole cart in one go.
+ */
+public class OrderValidationException extends RuntimeException {
+
+    private final List<OrderLineError> errors;
+
+    public OrderValidationException(List<OrderLineError> errors) {
+        super(errors.stream()
+                .map(OrderLineError::getCode)
+                .distinct()
+                .collect(Collectors.joining(",")));
+        this.errors = List.copyOf(errors);
+    }
+
+    public List<OrderLineError> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,50 @@
+package com.culina.order.feed.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.culina.order.event.OrderEvent;
+
+/**
+ * One queued item of a live order feed: an order event or a control message
+ */
+class OrderFeedEntry {
+
+    static final OrderFeedEntry HEARTBEAT = new OrderFeedEntry(0, null, null);
+    static final OrderFeedEntry RESYNC = new OrderFeedEntry(0, "resync", null);
+
+    private final long sequence;
+    private final String type;
+    private final OrderEvent event;
+
+    OrderFeedEntry(long sequence, String type, OrderEvent event) {
+        this.sequence = sequence;
+        this.type = type;
+        this.event = event;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    OrderEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Builders are not reusable, so every connection gets its own
+     */
+    SseEmitter.SseEventBuilder toSseEvent(String epoch) {
+        if (this == HEARTBEAT) {
+            return SseEmitter.event().comment("heartbeat");
+        }
+        if (this == RESYNC) {
+            // Missed events are gone; the client should reload through the REST endpoints
+            return SseEmitter.event().name(type).data("{}", MediaType.APPLICATION_JSON);
+        }
+        return SseEmitter.event()
+                .id(epoch + ":" + sequence)
+                .name(type)
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+}
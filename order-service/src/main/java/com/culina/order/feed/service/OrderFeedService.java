@@ -0,0 +1,235 @@
+package com.culina.order.feed.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.culina.order.event.OrderEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes order state changes to the owning customer and chef over SSE.
+ *
+ * Changes come from the order topics on Kafka (see OrderFeedListener), so
+ * every instance sees the transitions handled by all of them, not only its
+ * own. Every change gets a sequence number and is kept in a bounded
+ * replay buffer, so a client reconnecting with Last-Event-ID receives what it
+ * missed. Event ids carry an epoch of this process; if the id is from another
+ * instance or older than the buffer, the client gets a "resync" event and
+ * should reload through the REST endpoints.
+ */
+@Service
+public class OrderFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderFeedService.class);
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final int bufferSize;
+    private final int replaySize;
+    private final long timeoutMs;
+    private final ExecutorService sender;
+
+    // Guarded by itself; sequence, replay buffer and fan-out move together
+    private final Deque<OrderFeedEntry> recent = new ArrayDeque<>();
+    private long sequence;
+
+    private final Map<Long, Set<OrderFeedSubscription>> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<OrderFeedSubscription>> byChef = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Counter overflowCounter;
+
+    public OrderFeedService(
+            MeterRegistry meterRegistry,
+            @Value("${order.feed.buffer-size:64}") int bufferSize,
+            @Value("${order.feed.replay-size:1000}") int replaySize,
+            @Value("${order.feed.timeout-ms:1800000}") long timeoutMs,
+            @Value("${order.feed.sender-threads:4}") int senderThreads) {
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.timeoutMs = timeoutMs;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.overflowCounter = Counter.builder("order.feed.overflow")
+                .description("Connections closed because their send buffer filled up")
+                .register(meterRegistry);
+        Gauge.builder("order.feed.connections", connections, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a feed for a customer (chefId null) or for a chef's kitchen
+     */
+    public SseEmitter subscribe(Long userId, Long chefId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        OrderFeedSubscription subscription = new OrderFeedSubscription(
+                emitter, userId, chefId, epoch, sender, bufferSize);
+
+        emitter.onCompletion(() -> unregister(subscription));
+        emitter.onTimeout(() -> unregister(subscription));
+        emitter.onError(e -> unregister(subscription));
+
+        synchronized (recent) {
+            // Replay and registration under one lock so nothing slips in between
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                replay(subscription, lastEventId);
+            } else {
+                subscription.offer(OrderFeedEntry.HEARTBEAT);
+            }
+
+            Map<Long, Set<OrderFeedSubscription>> index = chefId != null ? byChef : byUser;
+            index.computeIfAbsent(chefId != null ? chefId : userId, id -> ConcurrentHashMap.newKeySet())
+                    .add(subscription);
+            connections.incrementAndGet();
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Fan out an event read from the order topic it was published on
+     */
+    public void publish(String topic, OrderEvent event) {
+        dispatch(topic, event);
+    }
+
+    /**
+     * Keeps idle connections open through proxies and detects dead clients
+     */
+    @Scheduled(fixedRateString = "${order.feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        forEachSubscription(subscription -> {
+            if (subscription.isClosed()) {
+                unregister(subscription);
+            } else if (subscription.remainingCapacity() > 0) {
+                // A full buffer already has traffic queued, no need to add more
+                subscription.offer(OrderFeedEntry.HEARTBEAT);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        forEachSubscription(OrderFeedSubscription::close);
+        sender.shutdownNow();
+    }
+
+    private void forEachSubscription(Consumer<OrderFeedSubscription> action) {
+        byUser.values().forEach(subscriptions -> subscriptions.forEach(action));
+        byChef.values().forEach(subscriptions -> subscriptions.forEach(action));
+    }
+
+    private void dispatch(String topic, OrderEvent event) {
+        synchronized (recent) {
+            OrderFeedEntry entry = new OrderFeedEntry(++sequence, topic, event);
+            recent.addLast(entry);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+
+            deliver(byUser.get(event.getUserId()), entry);
+            deliver(byChef.get(event.getChefId()), entry);
+        }
+    }
+
+    private void deliver(Set<OrderFeedSubscription> subscriptions, OrderFeedEntry entry) {
+        if (subscriptions == null) {
+            return;
+        }
+        for (OrderFeedSubscription subscription : subscriptions) {
+            if (!subscription.offer(entry)) {
+                // Too far behind: drop it, the client reconnects with Last-Event-ID
+                overflowCounter.increment();
+                log.debug("Order feed buffer full for user {}, closing connection", subscription.getUserId());
+                unregister(subscription);
+            }
+        }
+    }
+
+    private void replay(OrderFeedSubscription subscription, String lastEventId) {
+        long lastSeen = parseSequence(lastEventId);
+        long oldest = recent.isEmpty() ? sequence + 1 : recent.peekFirst().getSequence();
+
+        if (lastSeen < 0 || lastSeen > sequence || lastSeen < oldest - 1) {
+            subscription.offer(OrderFeedEntry.RESYNC);
+            return;
+        }
+
+        List<OrderFeedEntry> missed = new ArrayList<>();
+        for (OrderFeedEntry entry : recent) {
+            if (entry.getSequence() > lastSeen && matches(subscription, entry.getEvent())) {
+                missed.add(entry);
+            }
+        }
+
+        if (missed.size() > bufferSize) {
+            subscription.offer(OrderFeedEntry.RESYNC);
+            return;
+        }
+        subscription.offer(OrderFeedEntry.HEARTBEAT);
+        missed.forEach(subscription::offer);
+    }
+
+    /**
+     * Sequence from an id of this process ("epoch:sequence"), or -1
+     */
+    private long parseSequence(String lastEventId) {
+        int separator = lastEventId.indexOf(':');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean matches(OrderFeedSubscription subscription, OrderEvent event) {
+        return subscription.getChefId() != null
+                ? subscription.getChefId().equals(event.getChefId())
+                : subscription.getUserId().equals(event.getUserId());
+    }
+
+    private void unregister(OrderFeedSubscription subscription) {
+        Map<Long, Set<OrderFeedSubscription>> index = subscription.getChefId() != null ? byChef : byUser;
+        Long key = subscription.getChefId() != null ? subscription.getChefId() : subscription.getUserId();
+
+        synchronized (recent) {
+            Set<OrderFeedSubscription> subscriptions = index.get(key);
+            if (subscriptions != null && subscriptions.remove(subscription)) {
+                connections.decrementAndGet();
+                if (subscriptions.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+        subscription.close();
+    }
+}
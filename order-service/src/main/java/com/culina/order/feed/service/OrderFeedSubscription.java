@@ -0,0 +1,106 @@
+package com.culina.order.feed.service;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * A single SSE connection with its own bounded send queue.
+ *
+ * Producers only offer to the queue; one sender task at a time drains it, so
+ * a slow client never blocks the thread that committed the order change.
+ */
+class OrderFeedSubscription {
+
+    private final SseEmitter emitter;
+    private final Long userId;
+    private final Long chefId;
+    private final String epoch;
+    private final Executor sender;
+    private final BlockingQueue<OrderFeedEntry> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private volatile boolean closed;
+
+    OrderFeedSubscription(SseEmitter emitter, Long userId, Long chefId,
+            String epoch, Executor sender, int bufferSize) {
+        this.emitter = emitter;
+        this.userId = userId;
+        this.chefId = chefId;
+        this.epoch = epoch;
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Chef id for a kitchen feed, null for a customer feed
+     */
+    Long getChefId() {
+        return chefId;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    /**
+     * Queue an entry for sending. Returns false if the buffer is full.
+     */
+    boolean offer(OrderFeedEntry entry) {
+        if (closed) {
+            return true;
+        }
+        if (!queue.offer(entry)) {
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        queue.clear();
+        try {
+            emitter.complete();
+        } catch (IllegalStateException ignored) {
+            // Already completed by the container
+        }
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            sender.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            OrderFeedEntry entry;
+            while (!closed && (entry = queue.poll()) != null) {
+                emitter.send(entry.toSseEvent(epoch));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks remove the subscription
+            close();
+        } finally {
+            draining.set(false);
+            if (!closed && !queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
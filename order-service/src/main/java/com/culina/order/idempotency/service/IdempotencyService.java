@@ -0,0 +1,184 @@
+package com.culina.order.idempotency.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.exception.IdempotencyKeyConflictException;
+import com.culina.order.idempotency.model.IdempotencyRecord;
+import com.culina.order.idempotency.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs an order-creating operation at most once per (user, Idempotency-Key).
+ *
+ * Recent keys are answered from a bounded in-memory cache; older ones and
+ * keys seen by other instances come from the idempotency_keys table. Cached
+ * keys expire on the same retention as the rows, so a key the cleanup has
+ * purged is never answered from memory. The key
+ * row is inserted before the operation runs, so a concurrent duplicate
+ * blocks on the unique index and then returns the winner's order id.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+
+    private final Map<String, CachedResult> cache;
+    private final Counter replayedCounter;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository repository,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${order.idempotency.cache-size:10000}") int cacheSize,
+            @Value("${order.idempotency.retention-hours:24}") long retentionHours) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofHours(retentionHours);
+
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > cacheSize;
+            }
+        });
+        this.replayedCounter = Counter.builder("order.idempotency.replayed")
+                .description("Requests answered with the result of an earlier request")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the order id stored for this key, or run the operation and
+     * store its result. The same key with a different request is rejected.
+     */
+    public Long execute(Long userId, String key, Object request, Supplier<Long> operation) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("INVALID_IDEMPOTENCY_KEY");
+        }
+
+        String requestHash = hash(request);
+
+        Long existing = lookup(userId, key, requestHash);
+        if (existing != null) {
+            return existing;
+        }
+
+        IdempotencyRecord saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setUserId(userId);
+                record.setIdempotencyKey(key);
+                record.setRequestHash(requestHash);
+                repository.saveAndFlush(record);
+
+                record.setOrderId(operation.get());
+                return record;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first
+            existing = lookup(userId, key, requestHash);
+            if (existing != null) {
+                return existing;
+            }
+            throw e;
+        }
+
+        cache.put(cacheKey(userId, key), new CachedResult(saved));
+        return saved.getOrderId();
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(retention);
+        synchronized (cache) {
+            cache.values().removeIf(cached -> cached.createdAt.isBefore(cutoff));
+        }
+
+        Integer deleted = transactionTemplate.execute(status -> repository.deleteCreatedBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Long lookup(Long userId, String key, String requestHash) {
+        String cacheKey = cacheKey(userId, key);
+
+        CachedResult cached = cache.get(cacheKey);
+        if (cached != null && cached.createdAt.isBefore(OffsetDateTime.now().minus(retention))) {
+            // The row goes with the next cleanup; until then it still holds the key
+            cache.remove(cacheKey, cached);
+            cached = null;
+        }
+        if (cached == null) {
+            cached = repository.findByUserIdAndIdempotencyKey(userId, key)
+                    .filter(record -> record.getOrderId() != null)
+                    .map(CachedResult::new)
+                    .orElse(null);
+            if (cached == null) {
+                return null;
+            }
+            cache.put(cacheKey, cached);
+        }
+
+        if (!cached.requestHash.equals(requestHash)) {
+            throw new IdempotencyKeyConflictException();
+        }
+        replayedCounter.increment();
+        return cached.orderId;
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to fingerprint request", e);
+        }
+    }
+
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+
+    private static final class CachedResult {
+
+        private final String requestHash;
+        private final Long orderId;
+        private final OffsetDateTime createdAt;
+
+        private CachedResult(IdempotencyRecord record) {
+            this.requestHash = record.getRequestHash();
+            this.orderId = record.getOrderId();
+            this.createdAt = record.getCreatedAt();
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.culina.order.menu.controller;
 
+import java.time.Duration;
 import java.util.List;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -10,12 +15,15 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.culina.order.menu.dto.CreateMenuItemRequest;
 import com.culina.order.menu.dto.CreateMenuRequest;
+import com.culina.order.menu.dto.ImageInfo;
 import com.culina.order.menu.dto.MenuItemResponse;
 import com.culina.order.menu.model.Menu;
 import com.culina.order.menu.model.MenuItem;
@@ -26,6 +34,8 @@ import com.culina.order.menu.service.MenuService;
 @RequestMapping("chefs")
 public class MenuController {
 
+    private static final Duration IMAGE_MAX_AGE = Duration.ofDays(365);
+
     private final MenuService menuService;
     private final MenuItemService menuItemService;
 
@@ -47,11 +57,88 @@ public class MenuController {
         return ResponseEntity.ok(menuService.getMenusByChef(chefId));
     }
 
+    /**
+     * Items carry an imageUrl; inline base64 image data only with
+     * includeImageData=true
+     */
     @GetMapping("/menu/{menuId}/items")
     public ResponseEntity<List<MenuItemResponse>> getMenuItems(
-            @PathVariable Long menuId) {
+            @PathVariable Long menuId,
+            @RequestParam(defaultValue = "false") boolean includeImageData) {
+
+        return ResponseEntity.ok(menuItemService.getMenuItemsByMenuId(menuId, includeImageData));
+    }
+
+    /**
+     * Image bytes, streamed from the image store. Images never change under
+     * an id, so clients and CDNs may cache them for good. Supports
+     * conditional GET and a single byte range.
+     */
+    @GetMapping("/menu/images/{imageId}")
+    public ResponseEntity<StreamingResponseBody> getImage(
+            @PathVariable Long imageId,
+            @RequestHeader HttpHeaders requestHeaders) {
+        ImageInfo image = menuItemService.getImageInfo(imageId).orElse(null);
+        if (image == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String etag = "\"" + image.getSha256() + "\"";
+        long size = image.getSizeBytes();
+
+        HttpRange range = requestedRange(requestHeaders, etag);
+        if (range != null) {
+            long start = range.getRangeStart(size);
+            long end = range.getRangeEnd(size);
+            if (start >= size || end < start) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+
+            long length = end - start + 1;
+            return imageHeaders(ResponseEntity.status(HttpStatus.PARTIAL_CONTENT), image, etag)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size)
+                    .contentLength(length)
+                    .body(out -> menuItemService.writeImage(imageId, start, length, out));
+        }
+
+        // A matching If-None-Match or If-Modified-Since is answered with 304 before the body is written
+        return imageHeaders(ResponseEntity.ok(), image, etag)
+                .contentLength(size)
+                .body(out -> menuItemService.writeImage(imageId, out));
+    }
+
+    private static ResponseEntity.BodyBuilder imageHeaders(
+            ResponseEntity.BodyBuilder builder, ImageInfo image, String etag) {
+        return builder
+                .eTag(etag)
+                .lastModified(image.getCreatedAt().toInstant())
+                .cacheControl(CacheControl.maxAge(IMAGE_MAX_AGE).cachePublic().immutable())
+                .contentType(MediaType.parseMediaType(image.getContentType()))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+    }
 
-        return ResponseEntity.ok(menuItemService.getMenuItemsByMenuId(menuId));
+    /**
+     * The one range to serve, or null for the whole image. Multiple ranges,
+     * malformed headers and a stale If-Range all fall back to a full response.
+     */
+    private static HttpRange requestedRange(HttpHeaders requestHeaders, String etag) {
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (ranges.size() != 1) {
+            return null;
+        }
+
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            return null;
+        }
+        return ranges.get(0);
     }
 
     @PostMapping("/menu/createMenu")
@@ -82,12 +169,24 @@ public class MenuController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/menu/item/{itemId}/hot-inventory")
+    public ResponseEntity<Void> setItemHotInventory(
+            Authentication authentication,
+            @PathVariable Long itemId,
+            @RequestParam boolean enabled) {
+
+        Long chefUserId = (Long) authentication.getPrincipal();
+        menuItemService.setHotInventory(chefUserId, itemId, enabled);
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/menu/items/by-ids")
     public ResponseEntity<List<MenuItemResponse>> getItemsByIds(
-            @RequestBody List<Long> menuItemIds) {
+            @RequestBody List<Long> menuItemIds,
+            @RequestParam(defaultValue = "false") boolean includeImageData) {
 
         return ResponseEntity.ok(
-                menuItemService.getMenuItemsByIdsOrdered(menuItemIds));
+                menuItemService.getMenuItemsByIdsOrdered(menuItemIds, includeImageData));
     }
 
 }
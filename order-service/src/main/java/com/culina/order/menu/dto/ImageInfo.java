@@ -0,0 +1,43 @@
+package com.culina.order.menu.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Everything about a stored image except its bytes
+ */
+public class ImageInfo {
+
+    private final Long id;
+    private final String contentType;
+    private final long sizeBytes;
+    private final String sha256;
+    private final OffsetDateTime createdAt;
+
+    public ImageInfo(Long id, String contentType, Long sizeBytes, String sha256, OffsetDateTime createdAt) {
+        this.id = id;
+        this.contentType = contentType;
+        this.sizeBytes = sizeBytes;
+        this.sha256 = sha256;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
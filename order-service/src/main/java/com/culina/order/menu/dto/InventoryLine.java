@@ -0,0 +1,28 @@
+package com.culina.order.menu.dto;
+
+public class InventoryLine {
+
+    private final Long menuItemId;
+    private final int quantity;
+
+    public InventoryLine(Long menuItemId, int quantity) {
+        this.menuItemId = menuItemId;
+        this.quantity = quantity;
+    }
+
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryLine{" +
+                "menuItemId=" + menuItemId +
+                ", quantity=" + quantity +
+                '}';
+    }
+}
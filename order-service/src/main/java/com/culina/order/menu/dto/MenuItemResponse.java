@@ -4,10 +4,13 @@ import java.time.OffsetDateTime;
 import java.util.Base64;
 
 import com.culina.order.menu.model.MenuItem;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.JsonNode;
 
 public class MenuItemResponse {
 
+    public static final String IMAGE_PATH = "/chefs/menu/images/";
+
     private Long id;
     private Long menuId;
     private Long chefId;
@@ -20,11 +23,20 @@ public class MenuItemResponse {
     private Integer preparationTimeMinutes;
     private String[] tags;
     private JsonNode metadata;
+    private String imageUrl;
     private String imageBase64;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
 
     public static MenuItemResponse from(MenuItem item) {
+        return from(item, null);
+    }
+
+    /**
+     * @param image the item's image bytes when the client asked for inline
+     *              image data, otherwise null
+     */
+    public static MenuItemResponse from(MenuItem item, byte[] image) {
         MenuItemResponse dto = new MenuItemResponse();
 
         dto.id = item.getId();
@@ -42,8 +54,11 @@ public class MenuItemResponse {
         dto.createdAt = item.getCreatedAt();
         dto.updatedAt = item.getUpdatedAt();
 
-        if (item.getImage() != null && item.getImage().length > 0) {
-            dto.imageBase64 = Base64.getEncoder().encodeToString(item.getImage());
+        if (item.getImageId() != null) {
+            dto.imageUrl = IMAGE_PATH + item.getImageId();
+        }
+        if (image != null && image.length > 0) {
+            dto.imageBase64 = Base64.getEncoder().encodeToString(image);
         }
 
         return dto;
@@ -103,6 +118,12 @@ public class MenuItemResponse {
         return metadata;
     }
 
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    // Only set when requested with includeImageData=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String getImageBase64() {
         return imageBase64;
     }
@@ -0,0 +1,38 @@
+package com.culina.order.menu.dto;
+
+/**
+ * Stock of a menu item as stored; a null availableQty means unlimited
+ */
+public class StockLevel {
+
+    private final Long menuItemId;
+    private final Integer availableQty;
+    private final boolean available;
+
+    public StockLevel(Long menuItemId, Integer availableQty, boolean available) {
+        this.menuItemId = menuItemId;
+        this.availableQty = availableQty;
+        this.available = available;
+    }
+
+    public Long getMenuItemId() {
+        return menuItemId;
+    }
+
+    public Integer getAvailableQty() {
+        return availableQty;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    @Override
+    public String toString() {
+        return "StockLevel{" +
+                "menuItemId=" + menuItemId +
+                ", availableQty=" + availableQty +
+                ", available=" + available +
+                '}';
+    }
+}
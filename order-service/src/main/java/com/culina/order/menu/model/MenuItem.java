@@ -44,12 +44,16 @@ public class MenuItem {
     @Column(name = "is_available", nullable = false)
     private Boolean isAvailable = true;
 
+    // Flash-sale mode: stock reserved through HotInventorySequencer instead of row updates
+    @Column(name = "hot_inventory")
+    private Boolean hotInventory = false;
+
     @Column(name = "preparation_time_minutes")
     private Integer preparationTimeMinutes;
 
-    // FIXED: Remove @Lob and use @Column with columnDefinition for PostgreSQL
-    @Column(name = "image", columnDefinition = "bytea")
-    private byte[] image;
+    // Bytes live in menu_item_images; see ImageStore
+    @Column(name = "image_id")
+    private Long imageId;
 
     @Column(columnDefinition = "text[]")
     private String[] tags;
@@ -138,6 +142,14 @@ public class MenuItem {
         this.isAvailable = isAvailable;
     }
 
+    public boolean isHotInventory() {
+        return Boolean.TRUE.equals(hotInventory);
+    }
+
+    public void setHotInventory(Boolean hotInventory) {
+        this.hotInventory = hotInventory;
+    }
+
     public Integer getPreparationTimeMinutes() {
         return preparationTimeMinutes;
     }
@@ -146,12 +158,12 @@ public class MenuItem {
         this.preparationTimeMinutes = preparationTimeMinutes;
     }
 
-    public byte[] getImage() {
-        return image;
+    public Long getImageId() {
+        return imageId;
     }
 
-    public void setImage(byte[] image) {
-        this.image = image;
+    public void setImageId(Long imageId) {
+        this.imageId = imageId;
     }
 
     public String[] getTags() {
@@ -0,0 +1,79 @@
+package com.culina.order.menu.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+
+/**
+ * Image bytes for a menu item, kept apart from menu_items so that reads for
+ * pricing and stock never pull them. Rows are immutable: a new upload gets a
+ * new row and the old one is deleted.
+ */
+@Entity
+@Table(name = "menu_item_images")
+public class MenuItemImage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    // Hex SHA-256 of the content, served as the ETag
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] content;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @PrePersist
+    void prePersist() {
+        createdAt = OffsetDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
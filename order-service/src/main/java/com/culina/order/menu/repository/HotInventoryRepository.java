@@ -0,0 +1,115 @@
+package com.culina.order.menu.repository;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Stock queries for items in hot inventory mode. Their reservations are
+ * recorded as order_items rows with stock_pending set, and only folded into
+ * menu_items.available_qty by {@link #flushPending()}, so the stock left is
+ * always available_qty minus the pending quantities.
+ */
+@Repository
+public class HotInventoryRepository {
+
+    private static final String LOCK_SQL = "SELECT available_qty FROM menu_items WHERE id = ? FOR UPDATE";
+
+    private static final String PENDING_SQL = """
+            SELECT COALESCE(SUM(quantity), 0)
+              FROM order_items
+             WHERE menu_item_id = ?
+               AND stock_pending = TRUE
+            """;
+
+    // One statement, so pending rows and the stock they move into commit together
+    private static final String FLUSH_SQL = """
+            WITH flushed AS (
+                UPDATE order_items
+                   SET stock_pending = FALSE
+                 WHERE stock_pending = TRUE
+                RETURNING menu_item_id, quantity
+            ), totals AS (
+                SELECT menu_item_id, SUM(quantity) AS quantity
+                  FROM flushed
+                 GROUP BY menu_item_id
+            )
+            UPDATE menu_items m
+               SET available_qty = GREATEST(m.available_qty - t.quantity, 0),
+                   is_available = CASE WHEN m.available_qty <= t.quantity THEN FALSE ELSE m.is_available END,
+                   updated_at = CURRENT_TIMESTAMP
+              FROM totals t
+             WHERE m.id = t.menu_item_id
+               AND m.available_qty IS NOT NULL
+            RETURNING m.id
+            """;
+
+    private static final String FLUSH_ITEM_SQL = """
+            WITH flushed AS (
+                UPDATE order_items
+                   SET stock_pending = FALSE
+                 WHERE menu_item_id = ?
+                   AND stock_pending = TRUE
+                RETURNING quantity
+            )
+            UPDATE menu_items
+               SET available_qty = GREATEST(available_qty - (SELECT COALESCE(SUM(quantity), 0) FROM flushed), 0),
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE id = ?
+               AND available_qty IS NOT NULL
+            """;
+
+    private static final String DISCARD_PENDING_SQL = """
+            UPDATE order_items
+               SET stock_pending = FALSE
+             WHERE menu_item_id = ?
+               AND stock_pending = TRUE
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public HotInventoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stock left for the item, or null when its stock is unlimited. Waits for
+     * transactions that are changing the item's row; must run in a transaction.
+     */
+    public Long loadAvailable(Long menuItemId) {
+        List<Integer> stored = jdbcTemplate.queryForList(LOCK_SQL, Integer.class, menuItemId);
+        if (stored.isEmpty()) {
+            return 0L;
+        }
+        if (stored.get(0) == null) {
+            return null;
+        }
+        Long pending = jdbcTemplate.queryForObject(PENDING_SQL, Long.class, menuItemId);
+        return stored.get(0) - pending;
+    }
+
+    /**
+     * Fold every pending reservation into menu_items.
+     *
+     * @return ids of the items whose stock changed
+     */
+    public List<Long> flushPending() {
+        return jdbcTemplate.queryForList(FLUSH_SQL, Long.class);
+    }
+
+    /**
+     * Fold one item's pending reservations into menu_items
+     */
+    public void flushPending(Long menuItemId) {
+        jdbcTemplate.update(FLUSH_ITEM_SQL, menuItemId, menuItemId);
+    }
+
+    /**
+     * Forget pending reservations of an item whose stock is being set to an
+     * absolute value
+     */
+    public void discardPending(Long menuItemId) {
+        jdbcTemplate.update(DISCARD_PENDING_SQL, menuItemId);
+    }
+}
@@ -0,0 +1,127 @@
+package com.culina.order.menu.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.culina.order.menu.dto.InventoryLine;
+import com.culina.order.menu.dto.StockLevel;
+
+/**
+ * Stock changes for menu items, applied as conditional UPDATE statements so
+ * the check and the decrement happen atomically in the database.
+ *
+ * All lines of an order are sent as a single JDBC batch, ordered by menu item
+ * id so two orders touching the same items always lock rows in the same order.
+ * Items with a NULL available_qty have unlimited stock and are never blocked.
+ */
+@Repository
+public class InventoryRepository {
+
+    private static final String RESERVE_SQL = """
+            UPDATE menu_items
+               SET available_qty = available_qty - ?,
+                   is_available = CASE WHEN available_qty = ? THEN FALSE ELSE is_available END,
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE id = ?
+               AND (available_qty IS NULL OR available_qty >= ?)
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE menu_items
+               SET available_qty = available_qty + ?,
+                   is_available = CASE WHEN available_qty + ? > 0 THEN TRUE ELSE is_available END,
+                   updated_at = CURRENT_TIMESTAMP
+             WHERE id = ?
+               AND available_qty IS NOT NULL
+            """;
+
+    private static final String STOCK_SQL = "SELECT id, available_qty, is_available FROM menu_items WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Decrement stock for every line, but only where enough stock is left.
+     *
+     * @return the lines that could not be reserved; empty when all succeeded.
+     *         The caller must roll back the transaction if this is not empty.
+     */
+    public List<InventoryLine> reserve(List<InventoryLine> lines) {
+        List<InventoryLine> sorted = sortedById(lines);
+
+        List<Object[]> args = new ArrayList<>(sorted.size());
+        for (InventoryLine line : sorted) {
+            args.add(new Object[] {
+                    line.getQuantity(),
+                    line.getQuantity(),
+                    line.getMenuItemId(),
+                    line.getQuantity() });
+        }
+
+        int[] updated = execute(RESERVE_SQL, args);
+
+        List<InventoryLine> failed = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                failed.add(sorted.get(i));
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Return stock for every line and re-enable items that come back in stock.
+     */
+    public void release(List<InventoryLine> lines) {
+        execute(RELEASE_SQL, quantityArgs(sortedById(lines)));
+    }
+
+    /**
+     * Stock of the items as this transaction sees it, after its own changes
+     */
+    public List<StockLevel> findStock(Collection<Long> menuItemIds) {
+        if (menuItemIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(menuItemIds.size(), "?"));
+        return jdbcTemplate.query(String.format(STOCK_SQL, placeholders),
+                (rs, rowNum) -> new StockLevel(
+                        rs.getLong("id"),
+                        (Integer) rs.getObject("available_qty"),
+                        rs.getBoolean("is_available")),
+                menuItemIds.toArray());
+    }
+
+    private int[] execute(String sql, List<Object[]> args) {
+        if (args.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(sql, args);
+    }
+
+    private static List<Object[]> quantityArgs(List<InventoryLine> lines) {
+        List<Object[]> args = new ArrayList<>(lines.size());
+        for (InventoryLine line : lines) {
+            args.add(new Object[] {
+                    line.getQuantity(),
+                    line.getQuantity(),
+                    line.getMenuItemId() });
+        }
+        return args;
+    }
+
+    private static List<InventoryLine> sortedById(List<InventoryLine> lines) {
+        List<InventoryLine> sorted = new ArrayList<>(lines);
+        sorted.sort(Comparator.comparing(InventoryLine::getMenuItemId));
+        return sorted;
+    }
+}
@@ -0,0 +1,18 @@
+package com.culina.order.menu.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.culina.order.menu.dto.ImageInfo;
+import com.culina.order.menu.model.MenuItemImage;
+
+public interface MenuItemImageRepository extends JpaRepository<MenuItemImage, Long> {
+
+    // Metadata only; the bytes are streamed separately
+    @Query("SELECT new com.culina.order.menu.dto.ImageInfo(i.id, i.contentType, i.sizeBytes, i.sha256, i.createdAt) "
+            + "FROM MenuItemImage i WHERE i.id = :id")
+    Optional<ImageInfo> findInfoById(@Param("id") Long id);
+}
@@ -0,0 +1,102 @@
+package com.culina.order.menu.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * LRU map with a size bound and a time-to-live per entry. Expired entries are
+ * dropped when they are next read or pushed out by newer ones. The removal
+ * listener runs under the cache lock for every entry that leaves the map.
+ */
+final class BoundedTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final BiConsumer<K, V> onRemoval;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    BoundedTtlCache(String name, int maxSize, long ttlMillis, BiConsumer<K, V> onRemoval,
+            MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.onRemoval = onRemoval;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        this.sizeEvictions = Counter.builder("menu.cache.evictions")
+                .tag("cache", name)
+                .tag("cause", "size")
+                .register(meterRegistry);
+        this.expiredEvictions = Counter.builder("menu.cache.evictions")
+                .tag("cache", name)
+                .tag("cause", "expired")
+                .register(meterRegistry);
+        Gauge.builder("menu.cache.size", this, BoundedTtlCache::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.loadedAt > ttlNanos) {
+            entries.remove(key);
+            onRemoval.accept(key, entry.value);
+            expiredEvictions.increment();
+            return null;
+        }
+        return entry.value;
+    }
+
+    synchronized void put(K key, V value) {
+        Entry<V> replaced = entries.put(key, new Entry<>(value, System.nanoTime()));
+        if (replaced != null) {
+            onRemoval.accept(key, replaced.value);
+        }
+
+        while (entries.size() > maxSize) {
+            Map.Entry<K, Entry<V>> eldest = entries.entrySet().iterator().next();
+            entries.remove(eldest.getKey());
+            onRemoval.accept(eldest.getKey(), eldest.getValue().value);
+            if (System.nanoTime() - eldest.getValue().loadedAt > ttlNanos) {
+                expiredEvictions.increment();
+            } else {
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    synchronized V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        onRemoval.accept(key, entry.value);
+        return entry.value;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
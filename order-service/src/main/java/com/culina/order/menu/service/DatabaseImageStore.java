@@ -0,0 +1,157 @@
+package com.culina.order.menu.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.culina.order.menu.dto.ImageInfo;
+import com.culina.order.menu.model.MenuItemImage;
+import com.culina.order.menu.repository.MenuItemImageRepository;
+
+/**
+ * Keeps images in the menu_item_images table. Metadata goes through JPA; the
+ * bytes are read with plain JDBC so they never enter the persistence context.
+ */
+@Component
+public class DatabaseImageStore implements ImageStore {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    // Leading bytes of the formats we accept
+    private static final Map<String, byte[]> SIGNATURES = Map.of(
+            "image/jpeg", new byte[] { (byte) 0xFF, (byte) 0xD8, (byte) 0xFF },
+            "image/png", new byte[] { (byte) 0x89, 'P', 'N', 'G' },
+            "image/gif", new byte[] { 'G', 'I', 'F', '8' },
+            "image/webp", new byte[] { 'R', 'I', 'F', 'F' });
+
+    private final MenuItemImageRepository imageRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public DatabaseImageStore(MenuItemImageRepository imageRepository,
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.imageRepository = imageRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @Override
+    public ImageInfo save(byte[] content, String declaredContentType) {
+        MenuItemImage image = new MenuItemImage();
+        image.setContent(content);
+        image.setSizeBytes((long) content.length);
+        image.setContentType(detectContentType(content, declaredContentType));
+        image.setSha256(sha256(content));
+
+        MenuItemImage saved = imageRepository.save(image);
+        return new ImageInfo(saved.getId(), saved.getContentType(), saved.getSizeBytes(),
+                saved.getSha256(), saved.getCreatedAt());
+    }
+
+    @Override
+    public Optional<ImageInfo> findInfo(Long id) {
+        return imageRepository.findInfoById(id);
+    }
+
+    @Override
+    public void copyTo(Long id, OutputStream out) throws IOException {
+        stream(out, "SELECT content FROM menu_item_images WHERE id = ?", id);
+    }
+
+    @Override
+    public void copyRangeTo(Long id, long offset, long length, OutputStream out) throws IOException {
+        // Only the requested slice leaves the database
+        stream(out, "SELECT substring(content FROM ? FOR ?) FROM menu_item_images WHERE id = ?",
+                offset + 1, length, id);
+    }
+
+    private void stream(OutputStream out, String sql, Object... args) throws IOException {
+        try {
+            jdbcTemplate.query(sql, rs -> {
+                try (InputStream in = rs.getBinaryStream(1)) {
+                    in.transferTo(out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Map<Long, byte[]> loadAll(Collection<Long> ids) {
+        Map<Long, byte[]> images = new HashMap<>();
+        if (ids.isEmpty()) {
+            return images;
+        }
+        namedJdbcTemplate.query("SELECT id, content FROM menu_item_images WHERE id IN (:ids)",
+                Map.of("ids", ids),
+                rs -> {
+                    images.put(rs.getLong("id"), rs.getBytes("content"));
+                });
+        return images;
+    }
+
+    @Override
+    public void delete(Long id) {
+        imageRepository.deleteById(id);
+    }
+
+    /**
+     * Trust the bytes over the client: uploads often arrive as
+     * application/octet-stream or with a wrong extension-based type
+     */
+    static String detectContentType(byte[] content, String declared) {
+        for (Entry<String, byte[]> signature : SIGNATURES.entrySet()) {
+            if (startsWith(content, signature.getValue())) {
+                if (signature.getKey().equals("image/webp")) {
+                    // RIFF container; WEBP marker at offset 8
+                    return content.length >= 12 && content[8] == 'W' && content[9] == 'E'
+                            && content[10] == 'B' && content[11] == 'P'
+                                    ? "image/webp"
+                                    : DEFAULT_CONTENT_TYPE;
+                }
+                return signature.getKey();
+            }
+        }
+        if (declared != null && declared.startsWith("image/")) {
+            return declared;
+        }
+        return DEFAULT_CONTENT_TYPE;
+    }
+
+    private static boolean startsWith(byte[] content, byte[] prefix) {
+        if (content.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (content[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.culina.order.menu.service;
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.event.MenuItemEventPublisher;
+import com.culina.order.menu.repository.HotInventoryRepository;
+
+/**
+ * Folds pending hot inventory reservations into menu_items, one statement
+ * per run however many orders came in since the last one.
+ */
+@Component
+public class HotInventoryFlusher {
+
+    private final HotInventoryRepository hotInventoryRepository;
+    private final HotInventorySequencer sequencer;
+    private final MenuItemCache menuItemCache;
+    private final MenuItemEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public HotInventoryFlusher(
+            HotInventoryRepository hotInventoryRepository,
+            HotInventorySequencer sequencer,
+            MenuItemCache menuItemCache,
+            MenuItemEventPublisher eventPublisher,
+            TransactionTemplate transactionTemplate) {
+        this.hotInventoryRepository = hotInventoryRepository;
+        this.sequencer = sequencer;
+        this.menuItemCache = menuItemCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${menu.hot-inventory.flush-interval-ms:200}")
+    public void flush() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> flushed = hotInventoryRepository.flushPending();
+            if (!flushed.isEmpty()) {
+                menuItemCache.invalidate(flushed, List.of());
+                eventPublisher.publishStock(flushed);
+                // Corrects counters a racing commit left too low
+                sequencer.reload(flushed);
+            }
+        });
+    }
+}
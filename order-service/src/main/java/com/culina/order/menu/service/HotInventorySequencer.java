@@ -0,0 +1,434 @@
+package com.culina.order.menu.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.menu.dto.InventoryLine;
+import com.culina.order.menu.repository.HotInventoryRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reserves stock for items in hot inventory mode without touching their
+ * menu_items row, so a flash sale does not queue every order on one row lock.
+ *
+ * All reservations go through a ring buffer to a single writer thread that
+ * owns the stock counters, checks and decrements them in memory and answers
+ * the caller. The caller's transaction records the reservation as pending
+ * order_items rows, which {@link HotInventoryFlusher} folds into menu_items in
+ * batches. A rolled back reservation is handed back to the writer.
+ *
+ * An item's counter is loaded on first use as available_qty minus the pending
+ * rows, and reloaded whenever its stock changes outside the writer (releases,
+ * chef edits, flushes). Loads lock the item's row, so they run on a loader
+ * thread and hand their result back through the ring; meanwhile the writer
+ * keeps serving other items and parks reservations for the one being loaded.
+ * Reservations the writer has handed out but not yet seen committed are
+ * subtracted on reload; a commit racing a reload can only make the counter
+ * too low until the next reload, never too high.
+ *
+ * The counters live in this process: hot items must be sold through a single
+ * order-service instance.
+ */
+@Component
+public class HotInventorySequencer {
+
+    private static final Logger log = LoggerFactory.getLogger(HotInventorySequencer.class);
+
+    private static final int SPIN_LIMIT = 200;
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final HotInventoryRepository hotInventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long reserveTimeoutMs;
+
+    private final SequencerRing<Command> ring;
+    private final Thread writer;
+    private final ExecutorService loader;
+    private volatile boolean running = true;
+
+    // Owned by the writer thread
+    private final Map<Long, ItemStock> stock = new HashMap<>();
+    private final List<Ticket> parked = new ArrayList<>();
+    private volatile int trackedItems;
+
+    private final Timer reserveTimer;
+
+    public HotInventorySequencer(
+            HotInventoryRepository hotInventoryRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${menu.hot-inventory.ring-size:4096}") int ringSize,
+            @Value("${menu.hot-inventory.reserve-timeout-ms:1000}") long reserveTimeoutMs) {
+        this.hotInventoryRepository = hotInventoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.reserveTimeoutMs = reserveTimeoutMs;
+
+        this.ring = new SequencerRing<>(ringSize);
+        this.writer = new Thread(this::run, "hot-inventory-writer");
+        this.writer.setDaemon(true);
+        this.ring.bindConsumer(writer);
+        this.writer.start();
+        this.loader = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "hot-inventory-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.reserveTimer = Timer.builder("menu.hot_inventory.reserve")
+                .description("Time from submitting a hot reservation to its answer")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("menu.hot_inventory.backlog", ring, SequencerRing::backlog)
+                .register(meterRegistry);
+        Gauge.builder("menu.hot_inventory.items", this, sequencer -> sequencer.trackedItems)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserve every line or none of them. Inside a transaction the
+     * reservation is returned to stock if that transaction rolls back.
+     *
+     * @return the lines that could not be reserved; empty when all succeeded
+     */
+    public List<InventoryLine> reserve(List<InventoryLine> lines) {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        Ticket ticket = new Ticket(lines, !inTransaction);
+        long start = System.nanoTime();
+        ring.publish(Command.reserve(ticket));
+
+        // Registered before waiting: a timed out reservation may still be applied later
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ring.publish(Command.complete(ticket, status == STATUS_COMMITTED));
+                }
+            });
+        }
+
+        try {
+            return ticket.result.get(reserveTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new RuntimeException("INVENTORY_BUSY");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("INVENTORY_BUSY");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Hot inventory reservation failed", e.getCause());
+        } finally {
+            reserveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Reload the items' counters from the database once the current
+     * transaction commits. Items the writer does not track are ignored.
+     */
+    public void reload(Collection<Long> menuItemIds) {
+        List<Long> ids = List.copyOf(menuItemIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ring.publish(Command.reload(ids));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ring.publish(Command.reload(ids));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        writer.interrupt();
+        loader.shutdownNow();
+    }
+
+    private void run() {
+        int idle = 0;
+        while (running) {
+            Command command = ring.poll();
+            if (command == null) {
+                if (++idle < SPIN_LIMIT) {
+                    Thread.onSpinWait();
+                } else {
+                    ring.await(PARK_NANOS);
+                    idle = 0;
+                }
+                continue;
+            }
+            idle = 0;
+
+            try {
+                switch (command.kind) {
+                    case RESERVE -> handleReserve(command.ticket);
+                    case COMPLETE -> handleComplete(command.ticket, command.committed);
+                    case RELOAD -> handleReload(command.menuItemIds);
+                    case LOADED -> handleLoaded(command.load);
+                }
+            } catch (RuntimeException e) {
+                log.error("Hot inventory command {} failed", command.kind, e);
+                if (command.ticket != null) {
+                    command.ticket.result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private void handleReserve(Ticket ticket) {
+        // Its transaction already ended, e.g. after the caller timed out while it was parked
+        if (ticket.settled) {
+            return;
+        }
+
+        List<ItemStock> counters = new ArrayList<>(ticket.quantities.size());
+        boolean ready = true;
+        for (Long menuItemId : ticket.quantities.keySet()) {
+            ItemStock item = stock.get(menuItemId);
+            if (item == null) {
+                item = new ItemStock(menuItemId);
+                stock.put(menuItemId, item);
+                trackedItems = stock.size();
+                startLoad(item);
+            }
+            counters.add(item);
+            ready &= !item.loading;
+        }
+        if (!ready) {
+            parked.add(ticket);
+            return;
+        }
+
+        List<InventoryLine> failed = new ArrayList<>();
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : ticket.quantities.entrySet()) {
+            ItemStock item = counters.get(i++);
+            if (!item.unlimited && item.available < entry.getValue()) {
+                failed.add(new InventoryLine(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        if (failed.isEmpty()) {
+            i = 0;
+            for (int quantity : ticket.quantities.values()) {
+                ItemStock item = counters.get(i++);
+                item.available -= quantity;
+                item.inFlight += quantity;
+            }
+            ticket.applied = true;
+        }
+        ticket.result.complete(failed);
+
+        if (ticket.completeWhenAnswered) {
+            handleComplete(ticket, true);
+        }
+    }
+
+    private void handleComplete(Ticket ticket, boolean committed) {
+        ticket.settled = true;
+        if (!ticket.applied) {
+            return;
+        }
+        ticket.quantities.forEach((menuItemId, quantity) -> {
+            ItemStock item = stock.get(menuItemId);
+            item.inFlight -= quantity;
+            if (!committed) {
+                item.available += quantity;
+                // Was subtracted from the load under way, and is not in the database either
+                if (item.loading) {
+                    item.releasedWhileLoading += quantity;
+                }
+            }
+        });
+    }
+
+    private void handleReload(List<Long> menuItemIds) {
+        for (Long menuItemId : menuItemIds) {
+            ItemStock item = stock.get(menuItemId);
+            if (item == null) {
+                continue;
+            }
+            if (item.loading) {
+                // The running load may have read the row before this change
+                item.reloadRequested = true;
+            } else {
+                startLoad(item);
+            }
+        }
+    }
+
+    private void startLoad(ItemStock item) {
+        item.loading = true;
+        item.reloadRequested = false;
+        item.inFlightAtLoad = item.inFlight;
+        item.releasedWhileLoading = 0;
+
+        Long menuItemId = item.menuItemId;
+        loader.execute(() -> {
+            Load load;
+            try {
+                load = new Load(menuItemId, transactionTemplate.execute(status ->
+                        hotInventoryRepository.loadAvailable(menuItemId)), null);
+            } catch (RuntimeException e) {
+                load = new Load(menuItemId, null, e);
+            }
+            ring.publish(Command.loaded(load));
+        });
+    }
+
+    private void handleLoaded(Load load) {
+        ItemStock item = stock.get(load.menuItemId);
+        item.loading = false;
+
+        if (load.error != null) {
+            if (!item.loaded) {
+                stock.remove(load.menuItemId);
+                trackedItems = stock.size();
+                failParked(load.menuItemId, load.error);
+            } else {
+                // Keeps serving from the counter it has
+                log.error("Reloading hot inventory item {} failed", load.menuItemId, load.error);
+            }
+        } else {
+            item.unlimited = load.available == null;
+            // No reservation was handed out for the item while it loaded
+            item.available = load.available == null
+                    ? 0
+                    : load.available - item.inFlightAtLoad + item.releasedWhileLoading;
+            item.loaded = true;
+        }
+
+        if (item.reloadRequested && stock.containsKey(load.menuItemId)) {
+            startLoad(item);
+        }
+
+        List<Ticket> retry = new ArrayList<>(parked);
+        parked.clear();
+        retry.forEach(this::handleReserve);
+    }
+
+    private void failParked(Long menuItemId, RuntimeException error) {
+        parked.removeIf(ticket -> {
+            if (!ticket.quantities.containsKey(menuItemId)) {
+                return false;
+            }
+            ticket.result.completeExceptionally(error);
+            return true;
+        });
+    }
+
+    private static final class ItemStock {
+
+        private final Long menuItemId;
+        private boolean unlimited;
+        private long available;
+        // Reserved by this writer, not yet committed or rolled back
+        private long inFlight;
+
+        private boolean loaded;
+        private boolean loading;
+        private boolean reloadRequested;
+        // What the load under way must subtract from, and give back to, the stock it reads
+        private long inFlightAtLoad;
+        private long releasedWhileLoading;
+
+        private ItemStock(Long menuItemId) {
+            this.menuItemId = menuItemId;
+        }
+    }
+
+    private static final class Ticket {
+
+        private final Map<Long, Integer> quantities = new LinkedHashMap<>();
+        private final CompletableFuture<List<InventoryLine>> result = new CompletableFuture<>();
+        // Without a transaction there is nothing to roll back
+        private final boolean completeWhenAnswered;
+        // Written and read by the writer thread only
+        private boolean applied;
+        private boolean settled;
+
+        private Ticket(List<InventoryLine> lines, boolean completeWhenAnswered) {
+            this.completeWhenAnswered = completeWhenAnswered;
+            for (InventoryLine line : lines) {
+                quantities.merge(line.getMenuItemId(), line.getQuantity(), Integer::sum);
+            }
+        }
+    }
+
+    private static final class Load {
+
+        private final Long menuItemId;
+        // Null when unlimited
+        private final Long available;
+        private final RuntimeException error;
+
+        private Load(Long menuItemId, Long available, RuntimeException error) {
+            this.menuItemId = menuItemId;
+            this.available = available;
+            this.error = error;
+        }
+    }
+
+    private enum Kind {
+        RESERVE, COMPLETE, RELOAD, LOADED
+    }
+
+    private static final class Command {
+
+        private final Kind kind;
+        private final Ticket ticket;
+        private final boolean committed;
+        private final List<Long> menuItemIds;
+        private final Load load;
+
+        private Command(Kind kind, Ticket ticket, boolean committed, List<Long> menuItemIds, Load load) {
+            this.kind = kind;
+            this.ticket = ticket;
+            this.committed = committed;
+            this.menuItemIds = menuItemIds;
+            this.load = load;
+        }
+
+        static Command reserve(Ticket ticket) {
+            return new Command(Kind.RESERVE, ticket, false, null, null);
+        }
+
+        static Command complete(Ticket ticket, boolean committed) {
+            return new Command(Kind.COMPLETE, ticket, committed, null, null);
+        }
+
+        static Command reload(List<Long> menuItemIds) {
+            return new Command(Kind.RELOAD, null, false, menuItemIds, null);
+        }
+
+        static Command loaded(Load load) {
+            return new Command(Kind.LOADED, null, false, null, load);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.culina.order.menu.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import com.culina.order.menu.dto.ImageInfo;
+
+/**
+ * Storage for menu item images, addressed by id
+ */
+public interface ImageStore {
+
+    /**
+     * Store new content. The declared content type is only used when the
+     * bytes are not a recognised image format.
+     */
+    ImageInfo save(byte[] content, String declaredContentType);
+
+    Optional<ImageInfo> findInfo(Long id);
+
+    /**
+     * Write the image bytes to the stream without buffering them all first
+     */
+    void copyTo(Long id, OutputStream out) throws IOException;
+
+    /**
+     * Write length bytes starting at offset (zero-based)
+     */
+    void copyRangeTo(Long id, long offset, long length, OutputStream out) throws IOException;
+
+    /**
+     * Bytes for several images in one round trip, keyed by id
+     */
+    Map<Long, byte[]> loadAll(Collection<Long> ids);
+
+    void delete(Long id);
+}
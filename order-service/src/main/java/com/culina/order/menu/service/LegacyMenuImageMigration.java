@@ -0,0 +1,106 @@
+package com.culina.order.menu.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.menu.dto.ImageInfo;
+
+/**
+ * Moves images still stored in the old menu_items.image column into the
+ * image store, one item per transaction, then clears the old column.
+ *
+ * Safe to run on every start and on several instances at once: an item is
+ * only switched over if it has no image_id yet, otherwise the copy is rolled
+ * back. Once the log reports nothing left, the column can be dropped with
+ * ALTER TABLE menu_items DROP COLUMN image.
+ */
+@Component
+public class LegacyMenuImageMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacyMenuImageMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ImageStore imageStore;
+    private final MenuItemCache menuItemCache;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public LegacyMenuImageMigration(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ImageStore imageStore,
+            MenuItemCache menuItemCache,
+            @Value("${menu.images.migrate-legacy:true}") boolean enabled,
+            @Value("${menu.images.migrate-batch-size:20}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.imageStore = imageStore;
+        this.menuItemCache = menuItemCache;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled || !hasLegacyColumn()) {
+            return;
+        }
+
+        int migrated = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = jdbcTemplate.queryForList(
+                    "SELECT id FROM menu_items WHERE image IS NOT NULL AND image_id IS NULL ORDER BY id LIMIT ?",
+                    Long.class, batchSize);
+
+            for (Long itemId : itemIds) {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> migrate(itemId, status)))) {
+                    migrated++;
+                }
+            }
+        } while (itemIds.size() == batchSize);
+
+        if (migrated > 0) {
+            log.info("Moved {} menu item images to the image store; menu_items.image can now be dropped",
+                    migrated);
+        }
+    }
+
+    private boolean migrate(Long itemId, TransactionStatus status) {
+        List<byte[]> content = jdbcTemplate.queryForList(
+                "SELECT image FROM menu_items WHERE id = ? AND image_id IS NULL", byte[].class, itemId);
+        if (content.isEmpty() || content.get(0) == null) {
+            return false;
+        }
+
+        ImageInfo image = imageStore.save(content.get(0), null);
+        int updated = jdbcTemplate.update(
+                "UPDATE menu_items SET image_id = ?, image = NULL WHERE id = ? AND image_id IS NULL",
+                image.getId(), itemId);
+        if (updated == 0) {
+            // Another instance got there first
+            status.setRollbackOnly();
+            return false;
+        }
+        menuItemCache.invalidate(List.of(itemId), List.of());
+        return true;
+    }
+
+    private boolean hasLegacyColumn() {
+        Boolean exists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM information_schema.columns "
+                        + "WHERE table_name = 'menu_items' AND column_name = 'image')",
+                Boolean.class);
+        return Boolean.TRUE.equals(exists);
+    }
+}
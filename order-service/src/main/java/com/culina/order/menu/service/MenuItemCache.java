@@ -0,0 +1,232 @@
+package com.culina.order.menu.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.culina.order.event.MenuCacheInvalidationEvent;
+import com.culina.order.menu.dto.MenuItemResponse;
+import com.culina.order.outbox.service.OutboxService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Read-through cache of menu item responses, by item id for search
+ * hydration and by menu id for menu pages.
+ *
+ * Entries leave after a TTL or when the cache is full. Changes to items are
+ * evicted here once their transaction commits and broadcast through the
+ * outbox, so other instances evict them as soon as the relay sends the
+ * message. The TTL bounds staleness if a broadcast is lost.
+ */
+@Component
+public class MenuItemCache {
+
+    public static final String INVALIDATION_TOPIC = "menu.cache.invalidate";
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final OutboxService outboxService;
+
+    private final BoundedTtlCache<Long, MenuItemResponse> items;
+    private final BoundedTtlCache<Long, List<MenuItemResponse>> menus;
+
+    // Menu of every item in a cached menu page, so item changes reach the page
+    private final Map<Long, Long> menuByItem = new ConcurrentHashMap<>();
+
+    // Bumped by every eviction; a load that overlapped one is returned but not cached
+    private long generation;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+    private final Timer loadTimer;
+
+    public MenuItemCache(
+            OutboxService outboxService,
+            MeterRegistry meterRegistry,
+            @Value("${menu.cache.max-items:10000}") int maxItems,
+            @Value("${menu.cache.max-menus:2000}") int maxMenus,
+            @Value("${menu.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.outboxService = outboxService;
+
+        this.items = new BoundedTtlCache<>("items", maxItems, ttlSeconds * 1000,
+                (id, item) -> { }, meterRegistry);
+        this.menus = new BoundedTtlCache<>("menus", maxMenus, ttlSeconds * 1000,
+                (menuId, page) -> page.forEach(item -> menuByItem.remove(item.getId(), menuId)),
+                meterRegistry);
+
+        this.hits = Counter.builder("menu.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("menu.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.localInvalidations = Counter.builder("menu.cache.invalidations")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("menu.cache.invalidations")
+                .tag("source", "remote")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("menu.cache.load")
+                .description("Time spent loading menu items on cache misses")
+                .register(meterRegistry);
+        Gauge.builder("menu.cache.hit.ratio", this, MenuItemCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    /**
+     * All items of a menu, loaded with the given function on a miss
+     */
+    public List<MenuItemResponse> getMenu(Long menuId, Function<Long, List<MenuItemResponse>> loader) {
+        List<MenuItemResponse> cached = menus.get(menuId);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        long loadedAt = currentGeneration();
+        List<MenuItemResponse> loaded = List.copyOf(loadTimer.record(() -> loader.apply(menuId)));
+
+        synchronized (this) {
+            if (generation == loadedAt) {
+                menus.put(menuId, loaded);
+                for (MenuItemResponse item : loaded) {
+                    menuByItem.put(item.getId(), menuId);
+                    items.put(item.getId(), item);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Items in the order of the ids, skipping unknown ids. Only the ids not
+     * in the cache are passed to the loader, in a single call.
+     */
+    public List<MenuItemResponse> getItems(List<Long> orderedIds,
+            Function<List<Long>, List<MenuItemResponse>> loader) {
+        Map<Long, MenuItemResponse> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+
+        for (Long id : new LinkedHashSet<>(orderedIds)) {
+            MenuItemResponse cached = items.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.increment(found.size());
+        misses.increment(missing.size());
+
+        if (!missing.isEmpty()) {
+            long loadedAt = currentGeneration();
+            List<MenuItemResponse> loaded = loadTimer.record(() -> loader.apply(missing));
+
+            synchronized (this) {
+                boolean current = generation == loadedAt;
+                for (MenuItemResponse item : loaded) {
+                    found.put(item.getId(), item);
+                    if (current) {
+                        items.put(item.getId(), item);
+                    }
+                }
+            }
+        }
+
+        List<MenuItemResponse> result = new ArrayList<>(orderedIds.size());
+        for (Long id : orderedIds) {
+            MenuItemResponse item = found.get(id);
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Evict the items and menus once the current transaction commits, here
+     * and on every other instance. Must run inside the transaction that
+     * changed them: the broadcast goes through the outbox, which refuses to
+     * enqueue without one.
+     *
+     * @throws org.springframework.transaction.IllegalTransactionStateException
+     *         if no transaction is active
+     */
+    public void invalidate(Collection<Long> menuItemIds, Collection<Long> menuIds) {
+        if (menuItemIds.isEmpty() && menuIds.isEmpty()) {
+            return;
+        }
+        List<Long> itemIdList = List.copyOf(new LinkedHashSet<>(menuItemIds));
+        List<Long> menuIdList = List.copyOf(new LinkedHashSet<>(menuIds));
+
+        outboxService.enqueue(INVALIDATION_TOPIC, instanceId,
+                new MenuCacheInvalidationEvent(instanceId, itemIdList, menuIdList));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(itemIdList, menuIdList);
+                localInvalidations.increment();
+            }
+        });
+    }
+
+    /**
+     * Apply an invalidation broadcast by another instance
+     */
+    public void evictRemote(MenuCacheInvalidationEvent event) {
+        if (instanceId.equals(event.getOrigin())) {
+            return;
+        }
+        evict(nullToEmpty(event.getMenuItemIds()), nullToEmpty(event.getMenuIds()));
+        remoteInvalidations.increment();
+    }
+
+    private synchronized void evict(List<Long> menuItemIds, List<Long> menuIds) {
+        generation++;
+
+        Set<Long> affectedMenus = new HashSet<>(menuIds);
+        for (Long id : menuItemIds) {
+            MenuItemResponse removed = items.remove(id);
+            if (removed != null && removed.getMenuId() != null) {
+                affectedMenus.add(removed.getMenuId());
+            }
+            Long menuId = menuByItem.get(id);
+            if (menuId != null) {
+                affectedMenus.add(menuId);
+            }
+        }
+        for (Long menuId : affectedMenus) {
+            menus.remove(menuId);
+        }
+    }
+
+    private synchronized long currentGeneration() {
+        return generation;
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private static List<Long> nullToEmpty(List<Long> ids) {
+        return ids != null ? ids : List.of();
+    }
+}
@@ -1,9 +1,12 @@
 package com.culina.order.menu.service;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -13,9 +16,11 @@ import com.culina.order.chef.model.Chef;
 import com.culina.order.chef.repository.ChefRepository;
 import com.culina.order.event.MenuItemEventPublisher;
 import com.culina.order.menu.dto.CreateMenuItemRequest;
+import com.culina.order.menu.dto.ImageInfo;
 import com.culina.order.menu.dto.MenuItemResponse;
 import com.culina.order.menu.model.Menu;
 import com.culina.order.menu.model.MenuItem;
+import com.culina.order.menu.repository.HotInventoryRepository;
 import com.culina.order.menu.repository.MenuItemRepository;
 import com.culina.order.menu.repository.MenuRepository;
 
@@ -28,20 +33,46 @@ public class MenuItemService {
     private final MenuRepository menuRepository;
     private final ChefRepository chefRepository;
     private final MenuItemEventPublisher eventPublisher;
+    private final ImageStore imageStore;
+    private final MenuItemCache menuItemCache;
+    private final HotInventoryRepository hotInventoryRepository;
+    private final HotInventorySequencer hotInventorySequencer;
 
     public MenuItemService(
             MenuItemRepository menuItemRepository,
             MenuRepository menuRepository,
             ChefRepository chefRepository,
-            MenuItemEventPublisher eventPublisher) {
+            MenuItemEventPublisher eventPublisher,
+            ImageStore imageStore,
+            MenuItemCache menuItemCache,
+            HotInventoryRepository hotInventoryRepository,
+            HotInventorySequencer hotInventorySequencer) {
         this.menuItemRepository = menuItemRepository;
         this.menuRepository = menuRepository;
         this.chefRepository = chefRepository;
         this.eventPublisher = eventPublisher;
+        this.imageStore = imageStore;
+        this.menuItemCache = menuItemCache;
+        this.hotInventoryRepository = hotInventoryRepository;
+        this.hotInventorySequencer = hotInventorySequencer;
     }
 
-    public List<MenuItemResponse> getMenuItemsByMenuId(Long menuId) {
-        return menuItemRepository.findByMenuId(menuId).stream().map(MenuItemResponse::from).toList();
+    /**
+     * Served from the menu item cache unless inline image data is requested
+     */
+    public List<MenuItemResponse> getMenuItemsByMenuId(Long menuId, boolean includeImageData) {
+        if (!includeImageData) {
+            return menuItemCache.getMenu(menuId, id -> menuItemRepository.findByMenuId(id).stream()
+                    .map(MenuItemResponse::from)
+                    .toList());
+        }
+
+        List<MenuItem> items = menuItemRepository.findByMenuId(menuId);
+        Map<Long, byte[]> images = loadImages(items);
+
+        return items.stream()
+                .map(item -> MenuItemResponse.from(item, images.get(item.getImageId())))
+                .toList();
     }
 
     @Transactional
@@ -68,6 +99,7 @@ public class MenuItemService {
             menuItem = new MenuItem();
         }
 
+        Long previousMenuId = menuItem.getMenuId();
         menuItem.setMenuId(menu.getId());
         menuItem.setName(request.getName());
         menuItem.setDescription(request.getDescription());
@@ -78,25 +110,38 @@ public class MenuItemService {
         menuItem.setTags(request.getTags());
         menuItem.setMetadata(request.getMetadata());
 
-        // CRITICAL FIX: Handle image upload
+        // IMAGE: stored separately; a new upload replaces the previous image
+        Long replacedImageId = null;
         if (request.getImage() != null && !request.getImage().isEmpty()) {
             try {
-                byte[] imageBytes = request.getImage().getBytes();
-                menuItem.setImage(imageBytes);
-                System.out.println("Image saved: " + imageBytes.length + " bytes");
+                ImageInfo image = imageStore.save(
+                        request.getImage().getBytes(),
+                        request.getImage().getContentType());
+                replacedImageId = menuItem.getImageId();
+                menuItem.setImageId(image.getId());
             } catch (IOException e) {
-                System.err.println("Error reading image file: " + e.getMessage());
                 throw new RuntimeException("Failed to process image", e);
             }
-        } else {
-            System.out.println("No image provided in request");
-            // If updating and no new image provided, keep the existing image
-            // (it won't be overwritten since we're not calling setImage)
+        }
+        // If updating and no new image provided, the existing image is kept
+
+        // HOT INVENTORY: the new quantity replaces whatever reservations were still pending
+        if (menuItem.isHotInventory()) {
+            hotInventoryRepository.discardPending(menuItem.getId());
         }
 
         MenuItem saved = menuItemRepository.save(menuItem);
 
+        if (replacedImageId != null) {
+            imageStore.delete(replacedImageId);
+        }
+
         eventPublisher.publishUpsert(saved, chef, menu);
+        eventPublisher.publishStock(saved);
+        menuItemCache.invalidate(List.of(saved.getId()), previousMenuId != null
+                ? List.of(previousMenuId, menu.getId())
+                : List.of(menu.getId()));
+        hotInventorySequencer.reload(List.of(saved.getId()));
 
         return saved;
     }
@@ -119,26 +164,98 @@ public class MenuItemService {
 
         item.setIsAvailable(available);
         menuItemRepository.save(item);
+        // Stock read back from the row: orders may have taken some since the item was loaded
+        menuItemRepository.flush();
+        eventPublisher.publishStock(List.of(item.getId()));
+        menuItemCache.invalidate(List.of(item.getId()), List.of(item.getMenuId()));
     }
 
-    public List<MenuItemResponse> getMenuItemsByIdsOrdered(List<Long> orderedIds) {
+    /**
+     * Switch flash-sale mode for an item. Turning it off folds pending
+     * reservations into the stored quantity first, so the row-lock path
+     * starts from the right stock.
+     */
+    @Transactional
+    public void setHotInventory(Long chefUserId, Long menuItemId, boolean enabled) {
 
-        Map<Long, MenuItem> itemMap = menuItemRepository.findAllByIdWithMenu(orderedIds)
+        Chef chef = chefRepository.findByUserId(chefUserId)
+                .orElseThrow(() -> new RuntimeException("Chef not found"));
+
+        MenuItem item = menuItemRepository.findById(menuItemId)
+                .orElseThrow(() -> new RuntimeException("Menu item not found"));
+
+        Menu menu = menuRepository.findById(item.getMenuId())
+                .orElseThrow(() -> new RuntimeException("Menu not found"));
+
+        if (!menu.getChefId().equals(chef.getId())) {
+            throw new RuntimeException("Chef not authorized for this item");
+        }
+
+        if (!enabled) {
+            hotInventoryRepository.flushPending(item.getId());
+        }
+        item.setHotInventory(enabled);
+        menuItemRepository.save(item);
+        if (!enabled) {
+            menuItemRepository.flush();
+            eventPublisher.publishStock(List.of(item.getId()));
+        }
+        menuItemCache.invalidate(List.of(item.getId()), List.of(item.getMenuId()));
+        hotInventorySequencer.reload(List.of(item.getId()));
+    }
+
+    /**
+     * Served from the menu item cache unless inline image data is requested
+     */
+    public List<MenuItemResponse> getMenuItemsByIdsOrdered(List<Long> orderedIds, boolean includeImageData) {
+        if (!includeImageData) {
+            return menuItemCache.getItems(orderedIds, ids -> menuItemRepository.findAllByIdWithMenu(ids).stream()
+                    .map(MenuItemResponse::from)
+                    .toList());
+        }
+
+        List<MenuItem> items = menuItemRepository.findAllByIdWithMenu(orderedIds);
+        Map<Long, MenuItem> itemMap = items
                 .stream()
                 .collect(Collectors.toMap(
                         MenuItem::getId,
                         Function.identity()));
+        Map<Long, byte[]> images = loadImages(items);
 
         List<MenuItemResponse> result = new ArrayList<>();
 
         for (Long id : orderedIds) {
             MenuItem item = itemMap.get(id);
             if (item != null) {
-                result.add(MenuItemResponse.from(item));
+                result.add(MenuItemResponse.from(item, images.get(item.getImageId())));
             }
         }
 
         return result;
     }
 
-}
\ No newline at end of file
+    public Optional<ImageInfo> getImageInfo(Long imageId) {
+        return imageStore.findInfo(imageId);
+    }
+
+    public void writeImage(Long imageId, OutputStream out) throws IOException {
+        imageStore.copyTo(imageId, out);
+    }
+
+    public void writeImage(Long imageId, long offset, long length, OutputStream out) throws IOException {
+        imageStore.copyRangeTo(imageId, offset, length, out);
+    }
+
+    /**
+     * Images for a page of items in one query, for clients that opt in to
+     * inline image data
+     */
+    private Map<Long, byte[]> loadImages(List<MenuItem> items) {
+        List<Long> imageIds = items.stream()
+                .map(MenuItem::getImageId)
+                .filter(Objects::nonNull)
+                .toList();
+        return imageStore.loadAll(imageIds);
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.culina.order.menu.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-allocated ring of commands with many producers and a single consumer.
+ *
+ * Producers claim a sequence with one atomic increment, fill the slot and
+ * publish it by storing the sequence in the slot's marker. The consumer
+ * reads slots strictly in sequence order, so commands are handled in the
+ * order they were claimed. Producers wait while the ring is full.
+ */
+final class SequencerRing<T> {
+
+    private final Object[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+
+    private final AtomicLong claimed = new AtomicLong(-1);
+    // Written by the consumer only
+    private volatile long consumed = -1;
+
+    private volatile Thread consumer;
+    private volatile boolean consumerParked;
+
+    SequencerRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two: " + capacity);
+        }
+        this.slots = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    void bindConsumer(Thread thread) {
+        this.consumer = thread;
+    }
+
+    void publish(T command) {
+        long sequence = claimed.incrementAndGet();
+        while (sequence - consumed > slots.length) {
+            LockSupport.parkNanos(1_000);
+        }
+
+        int index = (int) (sequence & mask);
+        slots[index] = command;
+        published.set(index, sequence);
+
+        if (consumerParked) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    /**
+     * Next command, or null if the next slot has not been published yet.
+     * Consumer thread only.
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long next = consumed + 1;
+        int index = (int) (next & mask);
+        if (published.get(index) != next) {
+            return null;
+        }
+        T command = (T) slots[index];
+        slots[index] = null;
+        consumed = next;
+        return command;
+    }
+
+    /**
+     * Park the consumer until a producer publishes or the timeout passes
+     */
+    void await(long timeoutNanos) {
+        consumerParked = true;
+        try {
+            long next = consumed + 1;
+            if (published.get((int) (next & mask)) != next) {
+                LockSupport.parkNanos(this, timeoutNanos);
+            }
+        } finally {
+            consumerParked = false;
+        }
+    }
+
+    long backlog() {
+        return Math.max(claimed.get() - consumed, 0);
+    }
+}
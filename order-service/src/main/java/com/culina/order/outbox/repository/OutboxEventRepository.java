@@ -0,0 +1,19 @@
+package com.culina.order.outbox.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.culina.order.outbox.model.OutboxEvent;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@Param("limit") int limit);
+
+    // Held until the surrounding transaction ends, so only one replica relays at a time
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockId)", nativeQuery = true)
+    boolean tryRelayLock(@Param("lockId") long lockId);
+}
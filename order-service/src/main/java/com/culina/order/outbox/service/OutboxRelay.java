@@ -0,0 +1,139 @@
+package com.culina.order.outbox.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.outbox.model.OutboxEvent;
+import com.culina.order.outbox.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Drains the outbox table to Kafka in id order.
+ *
+ * Each batch is sent without waiting between records and acknowledged as a
+ * whole. If a send fails, nothing after it is deleted, so the failed record
+ * and everything behind it are retried on the next run. Together with the
+ * idempotent producer this keeps per-key ordering, at the cost of possible
+ * duplicates (delivery is at-least-once).
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private static final long RELAY_LOCK_ID = 0x6f7574626f78L; // "outbox"
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+
+    private final Timer lagTimer;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            KafkaTemplate<String, String> outboxKafkaTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:200}") int batchSize,
+            @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = outboxKafkaTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        this.lagTimer = Timer.builder("outbox.relay.lag")
+                .description("Time from outbox write to broker acknowledgement")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("outbox.relay.published")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.relay.failed")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.oldest.age", oldestPendingAgeMs, AtomicLong::get)
+                .description("Age in ms of the oldest event seen in the last relay batch")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.linger-ms:100}")
+    public void relay() {
+        // Keep going while batches come back full so a burst drains in one run
+        boolean full;
+        do {
+            full = Boolean.TRUE.equals(transactionTemplate.execute(status -> relayBatch()));
+        } while (full);
+    }
+
+    private boolean relayBatch() {
+        if (!outboxEventRepository.tryRelayLock(RELAY_LOCK_ID)) {
+            return false;
+        }
+
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            oldestPendingAgeMs.set(0);
+            return false;
+        }
+
+        oldestPendingAgeMs.set(ageOf(batch.get(0)).toMillis());
+
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            futures.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()));
+        }
+        kafkaTemplate.flush();
+
+        List<Long> published = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEvent event = batch.get(i);
+            try {
+                futures.get(i).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                published.add(event.getId());
+                lagTimer.record(ageOf(event));
+            } catch (ExecutionException | TimeoutException e) {
+                failedCounter.increment();
+                log.warn("Outbox relay failed on event {} ({}), retrying later: {}",
+                        event.getId(), event.getTopic(), e.getMessage());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        outboxEventRepository.deleteAllByIdInBatch(published);
+        publishedCounter.increment(published.size());
+
+        return published.size() == batchSize;
+    }
+
+    private static Duration ageOf(OutboxEvent event) {
+        return Duration.between(event.getCreatedAt(), OffsetDateTime.now());
+    }
+}
@@ -0,0 +1,62 @@
+package com.culina.order.outbox.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.culina.order.outbox.model.OutboxEvent;
+import com.culina.order.outbox.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Record an event for publishing. Must run inside the business transaction
+     * so the event is only sent if that transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String topic, String key, Object event) {
+        outboxEventRepository.save(toOutboxEvent(topic, key, event));
+    }
+
+    /**
+     * Record several events for one topic, keyed by the given function.
+     * Outbox ids come from an identity column, so each row is still its own
+     * INSERT; the relay sends them on together.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> void enqueueAll(String topic, List<T> events, Function<T, String> key) {
+        List<OutboxEvent> outboxEvents = new ArrayList<>(events.size());
+        for (T event : events) {
+            outboxEvents.add(toOutboxEvent(topic, key.apply(event), event));
+        }
+        outboxEventRepository.saveAll(outboxEvents);
+    }
+
+    private OutboxEvent toOutboxEvent(String topic, String key, Object event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setTopic(topic);
+        outboxEvent.setMessageKey(key);
+
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize event for " + topic, e);
+        }
+        return outboxEvent;
+    }
+}
@@ -1,11 +1,21 @@
 package com.culina.order.repository;
 
 import com.culina.order.domain.model.OrderItem;
+import com.culina.order.dto.OrderItemSummary;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
     List<OrderItem> findByOrderId(Long orderId);
+
+    @Query("SELECT new com.culina.order.dto.OrderItemSummary(i.id, i.order.id, i.menuItemId, "
+            + "i.itemName, i.itemPriceCents, i.quantity) "
+            + "FROM OrderItem i WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemSummary> findSummariesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -2,10 +2,20 @@ package com.culina.order.repository;
 
 import com.culina.order.domain.model.Order;
 import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.dto.OrderSummary;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.LockModeType;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
@@ -13,16 +23,71 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 
     List<Order> findByChefId(Long chefId);
 
-    List<Order> findByUserIdOrderByCreatedAtDesc(Long userId);
-
     List<Order> findByChefIdAndStatus(Long chefUserId, OrderStatus status);
 
-    List<Order> findByChefIdOrderByCreatedAtDesc(Long chefId);
-
     List<Order> findByChefIdAndStatusInOrderByCreatedAtDesc(Long chefId, List<OrderStatus> statuses);
 
     long countByChefId(Long chefId);
 
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
     long countByChefIdAndStatus(Long chefId, OrderStatus status);
 
+    // PAYMENT RESULTS: the row stays locked until the result is applied, so the
+    // hold expiry sweep (which skips locked rows) cannot cancel it meanwhile
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    // PAYMENT RESULTS, batch form: locked in id order, so two batches sharing
+    // orders cannot deadlock
+    @Query(value = "SELECT id FROM orders WHERE id IN :ids ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("ids") Collection<Long> ids);
+
+    // HOLD EXPIRY: oldest expired holds first, skipping rows another instance has locked
+    @Query(value = "SELECT id FROM orders "
+            + "WHERE hold_expires_at <= :now AND status = 'CREATED' "
+            + "ORDER BY hold_expires_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockExpiredHolds(@Param("now") OffsetDateTime now, @Param("limit") int limit);
+
+    // CHEF STATS: rows of (chefId, status, count) for counter loading and reconciliation
+    @Query("SELECT o.chefId, o.status, COUNT(o) FROM Order o "
+            + "WHERE o.chefId IN :chefIds GROUP BY o.chefId, o.status")
+    List<Object[]> countByChefIdInGroupByStatus(@Param("chefIds") Collection<Long> chefIds);
+
+    // ORDER HISTORY: keyset pagination on (created_at, id), newest first
+
+    @Query("SELECT new com.culina.order.dto.OrderSummary(o.id, o.userId, o.chefId, o.status, "
+            + "o.totalAmountCents, o.currency, o.createdAt, o.updatedAt) "
+            + "FROM Order o WHERE o.userId = :userId "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.culina.order.dto.OrderSummary(o.id, o.userId, o.chefId, o.status, "
+            + "o.totalAmountCents, o.currency, o.createdAt, o.updatedAt) "
+            + "FROM Order o WHERE o.userId = :userId "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesByUserIdBefore(@Param("userId") Long userId,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query("SELECT new com.culina.order.dto.OrderSummary(o.id, o.userId, o.chefId, o.status, "
+            + "o.totalAmountCents, o.currency, o.createdAt, o.updatedAt) "
+            + "FROM Order o WHERE o.chefId = :chefId "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesByChefId(@Param("chefId") Long chefId, Pageable pageable);
+
+    @Query("SELECT new com.culina.order.dto.OrderSummary(o.id, o.userId, o.chefId, o.status, "
+            + "o.totalAmountCents, o.currency, o.createdAt, o.updatedAt) "
+            + "FROM Order o WHERE o.chefId = :chefId "
+            + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) "
+            + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findSummariesByChefIdBefore(@Param("chefId") Long chefId,
+            @Param("createdAt") OffsetDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
 }
@@ -16,10 +16,12 @@ import java.util.List;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private static final String STREAM_PATH = "/order/stream";
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    private final JwtVerifier jwtVerifier;
+
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
     }
 
     @Override
@@ -29,18 +31,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             FilterChain filterChain) throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
+        String token = null;
+        boolean ticket = false;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
+            token = authHeader.substring(7);
+        } else if (STREAM_PATH.equals(request.getServletPath())) {
+            // Browser EventSource cannot set headers; the order feed takes a short-lived ticket instead
+            token = request.getParameter("ticket");
+            ticket = true;
+        }
 
+        if (token != null) {
             try {
-                // Validate token and ensure it's an ACCESS token (not REFRESH token)
-                if (jwtUtil.isTokenValid(token) 
-                        && jwtUtil.isAccessToken(token)
+                // One verification (usually a cache hit) for all the claims below
+                VerifiedToken verified = jwtVerifier.verify(token);
+
+                // An ACCESS token in the header, or a feed ticket on the feed URL
+                if ((ticket ? verified.isStreamTicket() : verified.isAccessToken())
                         && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                    Long userId = jwtUtil.extractUserId(token);
-                    String role = jwtUtil.extractRole(token);
+                    Long userId = verified.getUserId();
+                    String role = verified.getRole();
 
                     // Create authentication with ROLE_ prefix
                     UsernamePasswordAuthenticationToken authentication = 
@@ -1,27 +1,19 @@
 package com.culina.order.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Date;
-
 @Component
 public class JwtUtil {
 
-    private final SecretKey secretKey;
+    private final JwtVerifier jwtVerifier;
 
-    public JwtUtil(@Value("${security.jwt.secret}") String secret) {
-        this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public JwtUtil(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
     }
 
     public boolean isTokenValid(String token) {
         try {
-            getClaims(token);
+            jwtVerifier.verify(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -30,32 +22,32 @@ public class JwtUtil {
 
     public boolean isTokenExpired(String token) {
         try {
-            return getClaims(token).getExpiration().before(new Date());
+            return jwtVerifier.verify(token).getExpiresAtMillis() <= System.currentTimeMillis();
         } catch (Exception e) {
             return true;
         }
     }
 
     public Long extractUserId(String token) {
-        return Long.parseLong(getClaims(token).getSubject());
+        return jwtVerifier.verify(token).getUserId();
     }
 
     public String extractEmail(String token) {
-        return getClaims(token).get("email", String.class);
+        return jwtVerifier.verify(token).getEmail();
     }
 
     public String extractRole(String token) {
-        return getClaims(token).get("role", String.class);
+        return jwtVerifier.verify(token).getRole();
     }
 
     public String extractTokenType(String token) {
-        return getClaims(token).get("tokenType", String.class);
+        return jwtVerifier.verify(token).getTokenType();
     }
 
     // Validate that token is an ACCESS token (not REFRESH token)
     public boolean isAccessToken(String token) {
         try {
-            return "ACCESS".equals(extractTokenType(token));
+            return jwtVerifier.verify(token).isAccessToken();
         } catch (Exception e) {
             return false;
         }
@@ -64,17 +56,9 @@ public class JwtUtil {
     // Validate that token is a REFRESH token
     public boolean isRefreshToken(String token) {
         try {
-            return "REFRESH".equals(extractTokenType(token));
+            return jwtVerifier.verify(token).isRefreshToken();
         } catch (Exception e) {
             return false;
         }
     }
-
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-}
\ No newline at end of file
+}
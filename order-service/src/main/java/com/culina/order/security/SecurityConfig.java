@@ -1,5 +1,7 @@
 package com.culina.order.security;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -25,9 +27,12 @@ public class SecurityConfig {
                 .cors(Customizer.withDefaults())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // SSE completion is an async dispatch; the stream was authorized when opened
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/chefs/active",
-                                "/chefs/menu/**")
+                                "/chefs/menu/**",
+                                "/actuator/health")
                         .permitAll()
                         .requestMatchers(
                     "/chefs/me",
@@ -36,7 +41,7 @@ public class SecurityConfig {
                                 "/chefs/menus/**",
                                 "/chefs/onboard")
                         .hasRole("CHEF")
-                        .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/admin/**", "/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/order/**").authenticated()
                         .anyRequest().denyAll())
                         .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,51 @@
+package com.culina.order.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Tickets for opening the order feed. Browser EventSource cannot send an
+ * Authorization header, so the feed URL carries a ticket instead of the
+ * access token: it is only accepted by GET /order/stream and expires within
+ * seconds, so one that ends up in an access or proxy log is of no use.
+ * Tickets are signed like access tokens, so any instance accepts them.
+ */
+@Component
+public class StreamTicketIssuer {
+
+    static final String TOKEN_TYPE = "STREAM";
+
+    private final Key key;
+    private final long ttlMillis;
+
+    public StreamTicketIssuer(
+            @Value("${security.jwt.secret}") String secret,
+            @Value("${order.feed.ticket-ttl-seconds:30}") long ttlSeconds) {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public String issue(Long userId, String role) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(userId.toString())
+                .claim("role", role)
+                .claim("tokenType", TOKEN_TYPE)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMillis))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public long getTtlSeconds() {
+        return ttlMillis / 1000;
+    }
+}
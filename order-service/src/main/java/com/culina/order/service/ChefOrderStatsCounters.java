@@ -0,0 +1,292 @@
+package com.culina.order.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.repository.OrderRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-chef order counts by status, kept in memory so the dashboard stats
+ * endpoints do not hit the database on every poll.
+ *
+ * A chef's counters are loaded with one GROUP BY query the first time they are
+ * read and then moved along by every status change committed on this instance.
+ * Changes made by other instances are only picked up by the periodic
+ * reconciliation, which reloads all tracked chefs and records how far the
+ * counters had drifted. Chefs not read for a while are dropped then.
+ *
+ * A load cannot tell whether a change committed meanwhile is in its result,
+ * so a load that overlapped a change of the chef's counters is thrown away:
+ * the first read is served uncached and tried again next time, and
+ * reconciliation leaves the chef to its next run.
+ */
+@Component
+public class ChefOrderStatsCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(ChefOrderStatsCounters.class);
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final OrderRepository orderRepository;
+    private final int reconcileBatchSize;
+    private final int maxChefs;
+    private final long idleNanos;
+
+    private final Map<Long, ChefCounts> counters = new ConcurrentHashMap<>();
+
+    private final AtomicLong lastDrift = new AtomicLong();
+    private final Counter driftCounter;
+
+    public ChefOrderStatsCounters(
+            OrderRepository orderRepository,
+            MeterRegistry meterRegistry,
+            @Value("${order.stats.reconcile-batch-size:500}") int reconcileBatchSize,
+            @Value("${order.stats.max-chefs:10000}") int maxChefs,
+            @Value("${order.stats.idle-expiry-ms:900000}") long idleExpiryMs) {
+        this.orderRepository = orderRepository;
+        this.reconcileBatchSize = reconcileBatchSize;
+        this.maxChefs = maxChefs;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleExpiryMs);
+
+        this.driftCounter = Counter.builder("order.stats.drift.total")
+                .description("Sum of absolute counter corrections made by reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("order.stats.drift", lastDrift, AtomicLong::get)
+                .description("Absolute drift between counters and database found by the last reconciliation")
+                .register(meterRegistry);
+        Gauge.builder("order.stats.tracked.chefs", counters, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Current order counts for the chef, loading them on first access
+     */
+    public Map<OrderStatus, Long> countsFor(Long chefId) {
+        long now = System.nanoTime();
+        ChefCounts entry = counters.get(chefId);
+        if (entry == null && counters.size() >= maxChefs) {
+            // Full: served from the database until reconciliation drops idle chefs
+            return snapshot(loadOne(chefId));
+        }
+        if (entry == null) {
+            entry = counters.computeIfAbsent(chefId, id -> new ChefCounts());
+        }
+        entry.lastReadAt = now;
+
+        if (!entry.isLoaded()) {
+            long generation = entry.generation();
+            long[] loaded = loadOne(chefId);
+            if (!entry.initialize(generation, loaded)) {
+                return snapshot(loaded);
+            }
+        }
+        return snapshot(entry.counts);
+    }
+
+    public void recordCreated(Long chefId, OrderStatus status) {
+        afterCommit(() -> adjust(chefId, null, status));
+    }
+
+    public void recordTransition(Long chefId, OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(() -> adjust(chefId, from, to));
+    }
+
+    /**
+     * Reload every tracked chef from the database and publish the drift found
+     */
+    @Scheduled(fixedDelayString = "${order.stats.reconcile-interval-ms:60000}",
+            initialDelayString = "${order.stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        reconcile(System.nanoTime());
+    }
+
+    void reconcile(long now) {
+        counters.entrySet().removeIf(e -> now - e.getValue().lastReadAt > idleNanos);
+
+        List<Long> chefIds = new ArrayList<>(counters.keySet());
+        long drift = 0;
+
+        for (int from = 0; from < chefIds.size(); from += reconcileBatchSize) {
+            List<Long> chunk = chefIds.subList(from, Math.min(from + reconcileBatchSize, chefIds.size()));
+
+            Map<Long, Long> generations = new HashMap<>();
+            for (Long chefId : chunk) {
+                ChefCounts entry = counters.get(chefId);
+                if (entry != null) {
+                    generations.put(chefId, entry.generation());
+                }
+            }
+            Map<Long, long[]> fresh = load(chunk);
+
+            for (Map.Entry<Long, Long> tracked : generations.entrySet()) {
+                ChefCounts entry = counters.get(tracked.getKey());
+                if (entry == null) {
+                    continue;
+                }
+                long[] actual = fresh.getOrDefault(tracked.getKey(), new long[STATUSES.length]);
+                drift += entry.correct(tracked.getValue(), actual);
+            }
+        }
+
+        lastDrift.set(drift);
+        driftCounter.increment(drift);
+        if (drift > 0) {
+            log.info("Order stat counters drifted by {} across {} chefs, reconciled", drift, chefIds.size());
+        }
+    }
+
+    int trackedChefs() {
+        return counters.size();
+    }
+
+    private long[] loadOne(Long chefId) {
+        return load(List.of(chefId)).getOrDefault(chefId, new long[STATUSES.length]);
+    }
+
+    private Map<Long, long[]> load(List<Long> chefIds) {
+        Map<Long, long[]> result = new HashMap<>();
+        for (Object[] row : orderRepository.countByChefIdInGroupByStatus(chefIds)) {
+            Long chefId = (Long) row[0];
+            OrderStatus status = (OrderStatus) row[1];
+            long count = (Long) row[2];
+            result.computeIfAbsent(chefId, id -> new long[STATUSES.length])[status.ordinal()] = count;
+        }
+        return result;
+    }
+
+    private void adjust(Long chefId, OrderStatus from, OrderStatus to) {
+        // Untracked chefs are loaded fresh on first read
+        ChefCounts entry = counters.get(chefId);
+        if (entry != null) {
+            entry.adjust(from, to);
+        }
+    }
+
+    private static Map<OrderStatus, Long> snapshot(long[] counts) {
+        Map<OrderStatus, Long> snapshot = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : STATUSES) {
+            snapshot.put(status, Math.max(counts[status.ordinal()], 0));
+        }
+        return snapshot;
+    }
+
+    private static Map<OrderStatus, Long> snapshot(AtomicLongArray counts) {
+        Map<OrderStatus, Long> snapshot = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : STATUSES) {
+            snapshot.put(status, Math.max(counts.get(status.ordinal()), 0));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rolled back transitions must not move the counters
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * One chef's counters. Every change bumps the generation, so a load can
+     * tell whether the counters moved while it ran. Reads are lock-free;
+     * changes and corrections take the entry's lock.
+     */
+    private static final class ChefCounts {
+
+        private final AtomicLongArray counts = new AtomicLongArray(STATUSES.length);
+        private long generation;
+        private volatile boolean loaded;
+        private volatile long lastReadAt = System.nanoTime();
+
+        boolean isLoaded() {
+            return loaded;
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized void adjust(OrderStatus from, OrderStatus to) {
+            generation++;
+            if (!loaded) {
+                return;
+            }
+            if (from != null) {
+                counts.decrementAndGet(from.ordinal());
+            }
+            counts.incrementAndGet(to.ordinal());
+        }
+
+        /**
+         * @return false if the counters moved since the load began
+         */
+        synchronized boolean initialize(long loadedAt, long[] actual) {
+            if (loaded) {
+                return true;
+            }
+            if (generation != loadedAt) {
+                return false;
+            }
+            for (int i = 0; i < actual.length; i++) {
+                counts.set(i, actual[i]);
+            }
+            loaded = true;
+            return true;
+        }
+
+        /**
+         * Move the counters to what the database holds, as deltas
+         *
+         * @return the drift corrected
+         */
+        synchronized long correct(long loadedAt, long[] actual) {
+            if (generation != loadedAt) {
+                return 0;
+            }
+            if (!loaded) {
+                initialize(loadedAt, actual);
+                return 0;
+            }
+            long drift = 0;
+            for (int i = 0; i < actual.length; i++) {
+                long delta = actual[i] - counts.get(i);
+                if (delta != 0) {
+                    counts.addAndGet(i, delta);
+                    drift += Math.abs(delta);
+                }
+            }
+            return drift;
+        }
+    }
+}
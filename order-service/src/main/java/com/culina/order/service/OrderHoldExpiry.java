@@ -0,0 +1,60 @@
+package com.culina.order.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cancels unpaid orders whose stock hold has expired, so abandoned checkouts
+ * do not keep dishes out of stock.
+ *
+ * Each run walks the hold_expires_at index from the oldest hold and stops at
+ * the first hold still running; every batch is its own transaction.
+ */
+@Component
+public class OrderHoldExpiry {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderHoldExpiry.class);
+
+    private final OrderService orderService;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final Counter expiredCounter;
+
+    public OrderHoldExpiry(
+            OrderService orderService,
+            MeterRegistry meterRegistry,
+            @Value("${order.hold.sweep-batch-size:200}") int batchSize,
+            @Value("${order.hold.sweep-max-batches:50}") int maxBatchesPerRun) {
+        this.orderService = orderService;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+
+        this.expiredCounter = Counter.builder("order.holds.expired")
+                .description("Unpaid orders cancelled because their stock hold expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${order.hold.sweep-interval-ms:10000}")
+    public void sweep() {
+        int total = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int cancelled = orderService.expireHolds(batchSize);
+            total += cancelled;
+            if (cancelled < batchSize) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            expiredCounter.increment(total);
+            log.info("Cancelled {} orders with expired stock holds", total);
+        }
+    }
+}
@@ -1,10 +1,24 @@
 package com.culina.order.service;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.culina.order.chef.model.Chef;
 import com.culina.order.chef.repository.ChefRepository;
@@ -14,33 +28,102 @@ import com.culina.order.domain.model.OrderItem;
 import com.culina.order.domain.model.OrderStatus;
 import com.culina.order.dto.CreateOrderItemRequest;
 import com.culina.order.dto.CreateOrderRequest;
+import com.culina.order.dto.OrderCursor;
+import com.culina.order.dto.OrderItemSummary;
+import com.culina.order.dto.OrderPage;
 import com.culina.order.dto.OrderStats;
+import com.culina.order.dto.OrderStatusResult;
+import com.culina.order.dto.OrderSummary;
+import com.culina.order.event.MenuItemEventPublisher;
 import com.culina.order.event.OrderEvent;
 import com.culina.order.event.OrderEventPublisher;
+import com.culina.order.feed.service.OrderFeedService;
+import com.culina.order.exception.OrderValidationException;
+import com.culina.order.menu.dto.InventoryLine;
 import com.culina.order.menu.model.MenuItem;
-import com.culina.order.menu.repository.MenuItemRepository;
+import com.culina.order.menu.repository.InventoryRepository;
+import com.culina.order.menu.service.HotInventorySequencer;
+import com.culina.order.menu.service.MenuItemCache;
+import com.culina.order.repository.OrderItemRepository;
 import com.culina.order.repository.OrderRepository;
+import com.culina.order.timeline.service.OrderTimelineService;
 
 @Service
 public class OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    // Chef actions that can be applied to many orders at once
+    private static final Set<OrderStatus> BULK_STATUSES = EnumSet.of(
+            OrderStatus.CONFIRMED,
+            OrderStatus.PREPARING,
+            OrderStatus.READY);
+
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final ChefRepository chefRepository;
     private final OrderEventPublisher eventPublisher;
-    private final MenuItemRepository menuItemRepository;
+    private final InventoryRepository inventoryRepository;
+    private final OrderValidator orderValidator;
+    private final ChefOrderStatsCounters statsCounters;
+    private final OrderFeedService orderFeedService;
+    private final MenuItemCache menuItemCache;
+    private final MenuItemEventPublisher menuItemEventPublisher;
+    private final HotInventorySequencer hotInventorySequencer;
+    private final OrderTimelineService timelineService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBulkOrders;
+    private final Duration holdTtl;
 
     public OrderService(OrderRepository orderRepository,
+            OrderItemRepository orderItemRepository,
             ChefRepository chefRepository,
             OrderEventPublisher eventPublisher,
-            MenuItemRepository menuItemRepository) {
+            InventoryRepository inventoryRepository,
+            OrderValidator orderValidator,
+            ChefOrderStatsCounters statsCounters,
+            OrderFeedService orderFeedService,
+            MenuItemCache menuItemCache,
+            MenuItemEventPublisher menuItemEventPublisher,
+            HotInventorySequencer hotInventorySequencer,
+            OrderTimelineService timelineService,
+            @Value("${order.history.default-page-size:20}") int defaultPageSize,
+            @Value("${order.history.max-page-size:100}") int maxPageSize,
+            @Value("${order.bulk.max-orders:100}") int maxBulkOrders,
+            @Value("${order.hold.ttl-minutes:15}") long holdTtlMinutes) {
         this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
         this.chefRepository = chefRepository;
         this.eventPublisher = eventPublisher;
-        this.menuItemRepository = menuItemRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.orderValidator = orderValidator;
+        this.statsCounters = statsCounters;
+        this.orderFeedService = orderFeedService;
+        this.menuItemCache = menuItemCache;
+        this.menuItemEventPublisher = menuItemEventPublisher;
+        this.hotInventorySequencer = hotInventorySequencer;
+        this.timelineService = timelineService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBulkOrders = maxBulkOrders;
+        this.holdTtl = Duration.ofMinutes(holdTtlMinutes);
     }
 
-    public List<Order> getOrdersByUser(Long userId) {
-        return orderRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    public OrderPage getOrdersByUser(Long userId, String cursor, Integer size) {
+        int limit = pageSize(size);
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        List<OrderSummary> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findSummariesByUserId(userId, page);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            orders = orderRepository.findSummariesByUserIdBefore(
+                    userId, after.getCreatedAt(), after.getId(), page);
+        }
+
+        return toPage(orders, limit);
     }
 
     @Transactional
@@ -49,7 +132,10 @@ public class OrderService {
             OrderStatus newStatus,
             Long actorUserId,
             boolean isChef) {
-        Order order = orderRepository.findById(orderId)
+        // Locked like the payment paths, so the state checked below is the one
+        // overwritten: hold expiry and payment results wait for this, or this
+        // sees what they committed
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found"));
         Chef chef = chefRepository.findById(order.getChefId())
                 .orElseThrow(() -> new RuntimeException("Chef profile not found"));
@@ -72,35 +158,87 @@ public class OrderService {
         OrderStatus oldStatus = order.getStatus();
         order.setStatus(newStatus);
         Order saved = orderRepository.save(order);
+        recordTransition(saved, oldStatus, newStatus);
 
-        // INVENTORY MANAGEMENT: Reduce quantity when order is confirmed
-        if (newStatus == OrderStatus.CONFIRMED && oldStatus != OrderStatus.CONFIRMED) {
-            reduceInventory(order);
+        // INVENTORY MANAGEMENT: stock is held from creation, give it back on cancel
+        if (newStatus == OrderStatus.CANCELLED) {
+            restoreInventory(order);
+            if (oldStatus != OrderStatus.CREATED) {
+                requestRefund(saved);
+            }
         }
 
-        // INVENTORY MANAGEMENT: Restore quantity when order is cancelled
-        if (newStatus == OrderStatus.CANCELLED && (oldStatus == OrderStatus.CONFIRMED ||
-                oldStatus == OrderStatus.PAID || oldStatus == OrderStatus.PREPARING)) {
-            restoreInventory(order);
+        publishStatusChange(List.of(saved), newStatus);
+
+        return saved;
+    }
+
+    /**
+     * Move several of a chef's orders to the same status in one transaction.
+     * Orders that cannot move are reported and skipped; the rest are updated.
+     */
+    @Transactional
+    public List<OrderStatusResult> updateStatuses(
+            Long chefUserId,
+            List<Long> orderIds,
+            OrderStatus newStatus) {
+        if (!BULK_STATUSES.contains(newStatus)) {
+            throw new RuntimeException("INVALID_BULK_STATUS");
         }
+        if (orderIds == null || orderIds.isEmpty()) {
+            return List.of();
+        }
+        if (orderIds.size() > maxBulkOrders) {
+            throw new RuntimeException("TOO_MANY_ORDERS");
+        }
+
+        Chef chef = chefRepository.findByUserId(chefUserId)
+                .orElseThrow(() -> new RuntimeException("CHEF_PROFILE_NOT_FOUND"));
 
-        OrderEvent event = new OrderEvent(
-                saved.getId(),
-                saved.getUserId(),
-                saved.getChefId(),
-                saved.getStatus(),
-                saved.getTotalAmountCents());
+        // Locked, so a customer cancel cannot commit between the checks below and the update
+        Map<Long, Order> orders = loadLocked(orderIds, false);
 
-        switch (newStatus) {
-            case CONFIRMED -> eventPublisher.publish("order.confirmed", event);
-            case CANCELLED -> eventPublisher.publish("order.cancelled", event);
-            case READY -> eventPublisher.publish("order.ready", event);
-            case DELIVERED -> eventPublisher.publish("order.delivered", event);
-            default -> {
+        List<OrderStatusResult> results = new ArrayList<>(orderIds.size());
+        Map<Long, OrderStatus> previous = new HashMap<>();
+        List<Order> changed = new ArrayList<>();
+
+        for (Long orderId : orderIds) {
+            Order order = orders.get(orderId);
+
+            // AUTHORIZATION: other chefs' orders look the same as missing ones
+            if (order == null || !order.getChefId().equals(chef.getId())) {
+                results.add(OrderStatusResult.failed(orderId, null, "ORDER_NOT_FOUND"));
+                continue;
             }
+            if (previous.containsKey(orderId)) {
+                results.add(OrderStatusResult.failed(orderId, order.getStatus(), "DUPLICATE_ORDER"));
+                continue;
+            }
+
+            // STATE VALIDATION
+            if (!OrderStateMachine.canTransition(order.getStatus(), newStatus)) {
+                results.add(OrderStatusResult.failed(orderId, order.getStatus(), "INVALID_TRANSITION"));
+                continue;
+            }
+
+            previous.put(orderId, order.getStatus());
+            order.setStatus(newStatus);
+            changed.add(order);
+            results.add(OrderStatusResult.updated(orderId, newStatus));
         }
 
-        return saved;
+        if (changed.isEmpty()) {
+            return results;
+        }
+
+        orderRepository.saveAll(changed);
+
+        for (Order order : changed) {
+            recordTransition(order, previous.get(order.getId()), newStatus);
+        }
+        publishStatusChange(changed, newStatus);
+
+        return results;
     }
 
     @Transactional
@@ -113,38 +251,25 @@ public class OrderService {
         order.setChefId(chef.getId());
         order.setStatus(OrderStatus.CREATED);
 
+        // VALIDATION: one query for all lines, every failure reported together
+        Map<Long, MenuItem> menuItems = orderValidator.validate(chef.getId(), request.getItems());
+
         List<OrderItem> items = new ArrayList<>();
+        List<InventoryLine> stockLines = new ArrayList<>();
+        List<InventoryLine> hotStockLines = new ArrayList<>();
         long total = 0;
 
         for (CreateOrderItemRequest req : request.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(req.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("MENU_ITEM_NOT_FOUND"));
-
-            if (!menuItem.getIsAvailable())
-                throw new RuntimeException("ITEM_NOT_AVAILABLE");
+            MenuItem menuItem = menuItems.get(req.getMenuItemId());
 
-            if (!menuItem.getPriceCents().equals(req.getPriceCents()))
-                throw new RuntimeException("PRICE_CHANGED");
-
-            // INVENTORY VALIDATION & QUANTITY REDUCTION
-            if (menuItem.getAvailableQty() != null) {
-                if (menuItem.getAvailableQty() < req.getQuantity()) {
-                    throw new RuntimeException("INSUFFICIENT_STOCK: " + menuItem.getName() +
-                            " (Available: " + menuItem.getAvailableQty() + ", Requested: " + req.getQuantity() + ")");
-                }
-
-                // REDUCE QUANTITY when order is booked
-                menuItem.setAvailableQty(menuItem.getAvailableQty() - req.getQuantity());
-                menuItemRepository.save(menuItem);
-
-                // Auto-disable if out of stock
-                if (menuItem.getAvailableQty() == 0) {
-                    menuItem.setIsAvailable(false);
-                    menuItemRepository.save(menuItem);
-                }
+            OrderItem item = new OrderItem();
+            if (menuItem.isHotInventory()) {
+                hotStockLines.add(new InventoryLine(menuItem.getId(), req.getQuantity()));
+                item.setStockPending(true);
+            } else {
+                stockLines.add(new InventoryLine(menuItem.getId(), req.getQuantity()));
             }
 
-            OrderItem item = new OrderItem();
             item.setOrder(order);
             item.setMenuItemId(menuItem.getId());
             item.setItemName(menuItem.getName());
@@ -158,10 +283,26 @@ public class OrderService {
         if (total != request.getTotalAmountCents())
             throw new RuntimeException("TOTAL_MISMATCH");
 
+        // REDUCE QUANTITY when order is booked (atomic, one batch for all lines)
+        List<InventoryLine> outOfStock = inventoryRepository.reserve(stockLines);
+        // Flash-sale items: reserved in memory, persisted by the pending order items
+        if (outOfStock.isEmpty() && !hotStockLines.isEmpty()) {
+            outOfStock = hotInventorySequencer.reserve(hotStockLines);
+        }
+        if (!outOfStock.isEmpty()) {
+            throw new OrderValidationException(outOfStock.stream()
+                    .map(line -> orderValidator.insufficientStock(
+                            menuItems.get(line.getMenuItemId()), line.getQuantity()))
+                    .toList());
+        }
+        evictCachedItems(stockLines);
+
         order.setItems(items);
         order.setTotalAmountCents(total);
+        order.setHoldExpiresAt(OffsetDateTime.now().plus(holdTtl));
 
         Order saved = orderRepository.save(order);
+        recordCreated(saved);
 
         eventPublisher.publish("order.created",
                 new OrderEvent(
@@ -177,16 +318,21 @@ public class OrderService {
 
     @Transactional
     public void markPaid(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow();
 
         if (!OrderStateMachine.canTransition(
                 order.getStatus(), OrderStatus.PAID)) {
+            if (order.getStatus() == OrderStatus.CANCELLED) {
+                requestRefund(order);
+            }
             return;
         }
 
+        OrderStatus oldStatus = order.getStatus();
         order.setStatus(OrderStatus.PAID);
         Order saved = orderRepository.save(order);
+        recordTransition(saved, oldStatus, OrderStatus.PAID);
 
         // Publish event so chef can see order
         eventPublisher.publish("order.paid",
@@ -200,22 +346,187 @@ public class OrderService {
 
     @Transactional
     public void cancelAfterPaymentFailure(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findByIdForUpdate(orderId)
                 .orElseThrow();
 
+        // Already cancelled, e.g. by hold expiry: its stock was released then
+        if (!OrderStateMachine.canTransition(order.getStatus(), OrderStatus.CANCELLED)) {
+            return;
+        }
+
         // Restore quantities since payment failed
         restoreInventory(order);
 
+        OrderStatus oldStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        recordTransition(saved, oldStatus, OrderStatus.CANCELLED);
+
+        eventPublisher.publish("order.cancelled",
+                new OrderEvent(
+                        saved.getId(),
+                        saved.getUserId(),
+                        saved.getChefId(),
+                        saved.getStatus(),
+                        saved.getTotalAmountCents()));
     }
 
-    public List<Order> getOrdersForChef(Long userId) {
+    /**
+     * A paid order was cancelled, or a payment arrived after its order was
+     * (typically by hold expiry): the stock is back on sale, so the payment
+     * is handed back to payment-service for a refund
+     */
+    private void requestRefund(Order order) {
+        log.warn("Requesting a refund for cancelled order {}", order.getId());
+        eventPublisher.publish("order.refund-requested",
+                new OrderEvent(
+                        order.getId(),
+                        order.getUserId(),
+                        order.getChefId(),
+                        order.getStatus(),
+                        order.getTotalAmountCents()));
+    }
+
+    /**
+     * Batch form of markPaid for the payment.success listener: one lock, one
+     * load and one flush for the whole poll. Ids are applied in the order
+     * given, so repeated events for an order behave as they would one by
+     * one. Unknown orders are skipped.
+     *
+     * @return the number of orders moved to PAID
+     */
+    @Transactional
+    public int markPaidAll(List<Long> orderIds) {
+        Map<Long, Order> orders = loadLocked(orderIds, false);
+
+        List<Order> paid = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                log.warn("Payment succeeded for unknown order {}", orderId);
+                continue;
+            }
+            if (!OrderStateMachine.canTransition(order.getStatus(), OrderStatus.PAID)) {
+                if (order.getStatus() == OrderStatus.CANCELLED) {
+                    requestRefund(order);
+                }
+                continue;
+            }
+
+            recordTransition(order, order.getStatus(), OrderStatus.PAID);
+            order.setStatus(OrderStatus.PAID);
+            paid.add(order);
+        }
+
+        if (!paid.isEmpty()) {
+            orderRepository.saveAll(paid);
+            publishStatusChange(paid, OrderStatus.PAID);
+        }
+        return paid.size();
+    }
+
+    /**
+     * Batch form of cancelAfterPaymentFailure for the payment.failed listener.
+     * Stock of all cancelled orders is released in one batch.
+     *
+     * @return the number of orders cancelled
+     */
+    @Transactional
+    public int cancelAllAfterPaymentFailure(List<Long> orderIds) {
+        Map<Long, Order> orders = loadLocked(orderIds, true);
+
+        List<Order> cancelled = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            Order order = orders.get(orderId);
+            if (order == null) {
+                log.warn("Payment failed for unknown order {}", orderId);
+                continue;
+            }
+            // Already cancelled, e.g. by hold expiry or an earlier event in this batch
+            if (!OrderStateMachine.canTransition(order.getStatus(), OrderStatus.CANCELLED)) {
+                continue;
+            }
+
+            recordTransition(order, order.getStatus(), OrderStatus.CANCELLED);
+            order.setStatus(OrderStatus.CANCELLED);
+            cancelled.add(order);
+        }
+
+        if (cancelled.isEmpty()) {
+            return 0;
+        }
+        orderRepository.saveAll(cancelled);
+        restoreInventory(cancelled);
+        publishStatusChange(cancelled, OrderStatus.CANCELLED);
+
+        return cancelled.size();
+    }
+
+    /**
+     * Lock the orders (as the single paths do) so neither the hold expiry
+     * sweep nor a customer cancel can change them while a batch is applied
+     */
+    private Map<Long, Order> loadLocked(List<Long> orderIds, boolean withItems) {
+        List<Long> ids = orderRepository.lockByIdIn(new HashSet<>(orderIds));
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<Order> loaded = withItems
+                ? orderRepository.findAllWithItemsByIdIn(ids)
+                : orderRepository.findAllById(ids);
+
+        Map<Long, Order> byId = new HashMap<>();
+        for (Order order : loaded) {
+            byId.put(order.getId(), order);
+        }
+        return byId;
+    }
+
+    /**
+     * Cancel up to limit unpaid orders whose stock hold has run out and
+     * release their stock in one batch. Rows locked by another instance's
+     * sweep are skipped.
+     *
+     * @return the number of orders cancelled
+     */
+    @Transactional
+    public int expireHolds(int limit) {
+        List<Long> expiredIds = orderRepository.lockExpiredHolds(OffsetDateTime.now(), limit);
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+
+        List<Order> expired = orderRepository.findAllWithItemsByIdIn(expiredIds);
+        for (Order order : expired) {
+            order.setStatus(OrderStatus.CANCELLED);
+            recordTransition(order, OrderStatus.CREATED, OrderStatus.CANCELLED);
+        }
+        orderRepository.saveAll(expired);
+
+        restoreInventory(expired);
+        publishStatusChange(expired, OrderStatus.CANCELLED);
+
+        return expired.size();
+    }
+
+    public OrderPage getOrdersForChef(Long userId, String cursor, Integer size) {
 
         Chef chef = chefRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("CHEF_PROFILE_NOT_FOUND"));
 
-        return orderRepository.findByChefIdOrderByCreatedAtDesc(chef.getId());
+        int limit = pageSize(size);
+        Pageable page = PageRequest.of(0, limit + 1);
+
+        List<OrderSummary> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findSummariesByChefId(chef.getId(), page);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            orders = orderRepository.findSummariesByChefIdBefore(
+                    chef.getId(), after.getCreatedAt(), after.getId(), page);
+        }
+
+        return toPage(orders, limit);
     }
 
     public List<Order> getPendingOrdersForChef(Long chefUserId) {
@@ -235,63 +546,146 @@ public class OrderService {
                 activeStatuses);
     }
 
+    /**
+     * Live feed of the caller's own orders, or of their kitchen for chefs
+     */
+    public SseEmitter subscribeToFeed(Long userId, boolean asChef, String lastEventId) {
+        Long chefId = null;
+        if (asChef) {
+            chefId = chefRepository.findByUserId(userId)
+                    .orElseThrow(() -> new RuntimeException("CHEF_PROFILE_NOT_FOUND"))
+                    .getId();
+        }
+        return orderFeedService.subscribe(userId, chefId, lastEventId);
+    }
+
     public OrderStats getStatsForChef(Long chefUserId) {
         Chef chef = chefRepository.findByUserId(chefUserId)
                 .orElseThrow(() -> new RuntimeException("CHEF_PROFILE_NOT_FOUND"));
 
+        Map<OrderStatus, Long> counts = statsCounters.countsFor(chef.getId());
+
         // Pending = PAID (awaiting acceptance) + CONFIRMED (accepted, not started)
-        long pending = orderRepository.countByChefIdAndStatus(chef.getId(), OrderStatus.PAID)
-                + orderRepository.countByChefIdAndStatus(chef.getId(), OrderStatus.CONFIRMED);
+        long pending = counts.get(OrderStatus.PAID) + counts.get(OrderStatus.CONFIRMED);
 
-        long preparing = orderRepository.countByChefIdAndStatus(chef.getId(), OrderStatus.PREPARING);
-        long ready = orderRepository.countByChefIdAndStatus(chef.getId(), OrderStatus.READY);
+        long preparing = counts.get(OrderStatus.PREPARING);
+        long ready = counts.get(OrderStatus.READY);
 
         return new OrderStats(pending, preparing, ready);
     }
 
-    // INVENTORY MANAGEMENT METHODS
+    // EVENT HELPERS
+
+    private void recordCreated(Order order) {
+        statsCounters.recordCreated(order.getChefId(), order.getStatus());
+        timelineService.recordCreated(order);
+    }
+
+    private void recordTransition(Order order, OrderStatus from, OrderStatus to) {
+        statsCounters.recordTransition(order.getChefId(), from, to);
+        timelineService.recordTransition(order, from, to);
+    }
+
+    private void publishStatusChange(List<Order> orders, OrderStatus newStatus) {
+        List<OrderEvent> events = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            events.add(new OrderEvent(
+                    order.getId(),
+                    order.getUserId(),
+                    order.getChefId(),
+                    order.getStatus(),
+                    order.getTotalAmountCents()));
+        }
+
+        switch (newStatus) {
+            case PAID -> eventPublisher.publishAll("order.paid", events);
+            case CONFIRMED -> eventPublisher.publishAll("order.confirmed", events);
+            case CANCELLED -> eventPublisher.publishAll("order.cancelled", events);
+            case READY -> eventPublisher.publishAll("order.ready", events);
+            case DELIVERED -> eventPublisher.publishAll("order.delivered", events);
+            // Only the live feed reads PREPARING
+            case PREPARING -> eventPublisher.publishAll("order.preparing", events);
+            default -> {
+            }
+        }
+    }
+
+    // ORDER HISTORY HELPERS
+
+    private int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
 
     /**
-     * Reduce inventory quantities for all items in the order
+     * Trim the look-ahead row, then attach items for the whole page in one query
      */
-    private void reduceInventory(Order order) {
-        for (OrderItem item : order.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(item.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("MENU_ITEM_NOT_FOUND"));
-
-            if (menuItem.getAvailableQty() != null) {
-                int newQty = menuItem.getAvailableQty() - item.getQuantity();
-                menuItem.setAvailableQty(Math.max(0, newQty));
-
-                // Auto-disable if out of stock
-                if (menuItem.getAvailableQty() == 0) {
-                    menuItem.setIsAvailable(false);
-                }
-
-                menuItemRepository.save(menuItem);
+    private OrderPage toPage(List<OrderSummary> orders, int limit) {
+        boolean hasMore = orders.size() > limit;
+        List<OrderSummary> pageOrders = hasMore ? orders.subList(0, limit) : orders;
+
+        if (!pageOrders.isEmpty()) {
+            Map<Long, OrderSummary> byId = new HashMap<>();
+            for (OrderSummary order : pageOrders) {
+                byId.put(order.getId(), order);
+            }
+            for (OrderItemSummary item : orderItemRepository.findSummariesByOrderIdIn(byId.keySet())) {
+                byId.get(item.getOrderId()).getItems().add(item);
             }
         }
+
+        String nextCursor = hasMore
+                ? OrderCursor.after(pageOrders.get(pageOrders.size() - 1)).encode()
+                : null;
+        return new OrderPage(pageOrders, nextCursor);
     }
 
+    // INVENTORY MANAGEMENT METHODS
+
     /**
      * Restore inventory quantities for all items in the order
      */
     private void restoreInventory(Order order) {
-        for (OrderItem item : order.getItems()) {
-            MenuItem menuItem = menuItemRepository.findById(item.getMenuItemId())
-                    .orElseThrow(() -> new RuntimeException("MENU_ITEM_NOT_FOUND"));
+        restoreInventory(List.of(order));
+    }
+
+    private void restoreInventory(List<Order> orders) {
+        List<InventoryLine> lines = toInventoryLines(orders);
+        inventoryRepository.release(lines);
+        evictCachedItems(lines);
+        hotInventorySequencer.reload(lines.stream().map(InventoryLine::getMenuItemId).toList());
+    }
 
-            if (menuItem.getAvailableQty() != null) {
-                menuItem.setAvailableQty(menuItem.getAvailableQty() + item.getQuantity());
+    /**
+     * Cached menu items show stock, so every stock change evicts them and
+     * tells the services that keep their own view of it
+     */
+    private void evictCachedItems(List<InventoryLine> lines) {
+        List<Long> menuItemIds = lines.stream().map(InventoryLine::getMenuItemId).toList();
+        menuItemCache.invalidate(menuItemIds, List.of());
+        menuItemEventPublisher.publishStock(menuItemIds);
+    }
 
-                // Re-enable if it was disabled due to stock
-                if (menuItem.getAvailableQty() > 0 && !menuItem.getIsAvailable()) {
-                    menuItem.setIsAvailable(true);
-                }
+    private List<InventoryLine> toInventoryLines(Order order) {
+        return toInventoryLines(List.of(order));
+    }
 
-                menuItemRepository.save(menuItem);
+    /**
+     * One line per menu item, quantities summed across the orders
+     */
+    private List<InventoryLine> toInventoryLines(List<Order> orders) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                quantities.merge(item.getMenuItemId(), item.getQuantity(), Integer::sum);
             }
         }
+
+        List<InventoryLine> lines = new ArrayList<>(quantities.size());
+        quantities.forEach((menuItemId, quantity) -> lines.add(new InventoryLine(menuItemId, quantity)));
+        return lines;
     }
 
 }
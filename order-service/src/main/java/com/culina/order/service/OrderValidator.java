@@ -0,0 +1,112 @@
+package com.culina.order.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.culina.order.dto.CreateOrderItemRequest;
+import com.culina.order.dto.OrderLineError;
+import com.culina.order.exception.OrderValidationException;
+import com.culina.order.menu.model.MenuItem;
+import com.culina.order.menu.repository.MenuItemRepository;
+
+/**
+ * Validates all lines of a new order against a single bulk load of the
+ * referenced menu items (and their menus), collecting every failure instead
+ * of stopping at the first one.
+ */
+@Component
+public class OrderValidator {
+
+    private final MenuItemRepository menuItemRepository;
+
+    public OrderValidator(MenuItemRepository menuItemRepository) {
+        this.menuItemRepository = menuItemRepository;
+    }
+
+    /**
+     * @return the referenced menu items keyed by id
+     * @throws OrderValidationException listing every failing line
+     */
+    public Map<Long, MenuItem> validate(Long chefId, List<CreateOrderItemRequest> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new OrderValidationException(List.of(
+                    new OrderLineError(null, "EMPTY_ORDER", "Order has no items")));
+        }
+
+        List<Long> ids = lines.stream()
+                .map(CreateOrderItemRequest::getMenuItemId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<Long, MenuItem> menuItems = menuItemRepository.findAllByIdWithMenu(ids)
+                .stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+
+        List<OrderLineError> errors = new ArrayList<>();
+        Map<Long, Integer> requestedQty = new LinkedHashMap<>();
+
+        for (CreateOrderItemRequest req : lines) {
+            Long id = req.getMenuItemId();
+            MenuItem menuItem = id == null ? null : menuItems.get(id);
+
+            if (menuItem == null) {
+                errors.add(new OrderLineError(id, "MENU_ITEM_NOT_FOUND", "Menu item not found"));
+                continue;
+            }
+
+            if (menuItem.getMenu() == null || !menuItem.getMenu().getChefId().equals(chefId)) {
+                errors.add(new OrderLineError(id, "ITEM_NOT_FROM_CHEF",
+                        menuItem.getName() + " is not on this chef's menu"));
+                continue;
+            }
+
+            if (req.getQuantity() == null || req.getQuantity() <= 0) {
+                errors.add(new OrderLineError(id, "INVALID_QUANTITY",
+                        menuItem.getName() + " has an invalid quantity"));
+                continue;
+            }
+
+            if (!menuItem.getIsAvailable()) {
+                errors.add(new OrderLineError(id, "ITEM_NOT_AVAILABLE",
+                        menuItem.getName() + " is not available"));
+                continue;
+            }
+
+            if (!menuItem.getPriceCents().equals(req.getPriceCents())) {
+                errors.add(new OrderLineError(id, "PRICE_CHANGED",
+                        menuItem.getName() + " now costs " + menuItem.getPriceCents()));
+                continue;
+            }
+
+            requestedQty.merge(id, req.getQuantity(), Integer::sum);
+        }
+
+        // Stock is checked per item, so repeated lines for one dish add up
+        for (Map.Entry<Long, Integer> entry : requestedQty.entrySet()) {
+            MenuItem menuItem = menuItems.get(entry.getKey());
+            if (menuItem.getAvailableQty() != null && menuItem.getAvailableQty() < entry.getValue()) {
+                errors.add(insufficientStock(menuItem, entry.getValue()));
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new OrderValidationException(errors);
+        }
+
+        return menuItems;
+    }
+
+    public OrderLineError insufficientStock(MenuItem menuItem, int requested) {
+        String available = menuItem.getAvailableQty() == null ? "" : "Available: " + menuItem.getAvailableQty() + ", ";
+        return new OrderLineError(menuItem.getId(), "INSUFFICIENT_STOCK",
+                menuItem.getName() + " (" + available + "Requested: " + requested + ")");
+    }
+}
@@ -0,0 +1,42 @@
+package com.culina.order.timeline.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.timeline.dto.TransitionDurations;
+import com.culina.order.timeline.service.OrderTimelineService;
+
+@RestController
+public class OrderTimelineController {
+
+    private final OrderTimelineService timelineService;
+
+    public OrderTimelineController(OrderTimelineService timelineService) {
+        this.timelineService = timelineService;
+    }
+
+    // CHEF → e.g. ?from=PREPARING&to=READY for their own kitchen's prep time
+    @GetMapping("/chefs/me/orders/durations")
+    public ResponseEntity<TransitionDurations> getChefDurations(
+            Authentication authentication,
+            @RequestParam OrderStatus from,
+            @RequestParam OrderStatus to,
+            @RequestParam(required = false) Integer days) {
+        Long chefUserId = Long.valueOf(authentication.getName());
+        return ResponseEntity.ok(timelineService.getDurationsForChef(chefUserId, from, to, days));
+    }
+
+    // ADMIN → all chefs, or one chef by profile id
+    @GetMapping("/admin/orders/durations")
+    public ResponseEntity<TransitionDurations> getDurations(
+            @RequestParam OrderStatus from,
+            @RequestParam OrderStatus to,
+            @RequestParam(required = false) Long chefId,
+            @RequestParam(required = false) Integer days) {
+        return ResponseEntity.ok(timelineService.getDurations(chefId, from, to, days));
+    }
+}
@@ -0,0 +1,70 @@
+package com.culina.order.timeline.dto;
+
+import com.culina.order.domain.model.OrderStatus;
+
+/**
+ * Time orders took to get from one status to another, in seconds.
+ * The statistics are null when no order made the transition.
+ */
+public class TransitionDurations {
+
+    private final OrderStatus from;
+    private final OrderStatus to;
+    private final int days;
+    private final long count;
+    private final Double averageSeconds;
+    private final Double p50Seconds;
+    private final Double p90Seconds;
+    private final Double maxSeconds;
+
+    public TransitionDurations(
+            OrderStatus from,
+            OrderStatus to,
+            int days,
+            long count,
+            Double averageSeconds,
+            Double p50Seconds,
+            Double p90Seconds,
+            Double maxSeconds) {
+        this.from = from;
+        this.to = to;
+        this.days = days;
+        this.count = count;
+        this.averageSeconds = averageSeconds;
+        this.p50Seconds = p50Seconds;
+        this.p90Seconds = p90Seconds;
+        this.maxSeconds = maxSeconds;
+    }
+
+    public OrderStatus getFrom() {
+        return from;
+    }
+
+    public OrderStatus getTo() {
+        return to;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public Double getAverageSeconds() {
+        return averageSeconds;
+    }
+
+    public Double getP50Seconds() {
+        return p50Seconds;
+    }
+
+    public Double getP90Seconds() {
+        return p90Seconds;
+    }
+
+    public Double getMaxSeconds() {
+        return maxSeconds;
+    }
+}
@@ -0,0 +1,50 @@
+package com.culina.order.timeline.model;
+
+import java.time.OffsetDateTime;
+
+import com.culina.order.domain.model.OrderStatus;
+
+/**
+ * One row of the order_events timeline. fromStatus is null for creation.
+ */
+public class OrderTransition {
+
+    private final Long orderId;
+    private final Long chefId;
+    private final OrderStatus fromStatus;
+    private final OrderStatus toStatus;
+    private final OffsetDateTime occurredAt;
+
+    public OrderTransition(
+            Long orderId,
+            Long chefId,
+            OrderStatus fromStatus,
+            OrderStatus toStatus,
+            OffsetDateTime occurredAt) {
+        this.orderId = orderId;
+        this.chefId = chefId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.occurredAt = occurredAt;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getChefId() {
+        return chefId;
+    }
+
+    public OrderStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public OrderStatus getToStatus() {
+        return toStatus;
+    }
+
+    public OffsetDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
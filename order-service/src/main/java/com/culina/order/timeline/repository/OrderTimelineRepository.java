@@ -0,0 +1,163 @@
+package com.culina.order.timeline.repository;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.timeline.dto.TransitionDurations;
+import com.culina.order.timeline.model.OrderTransition;
+
+/**
+ * Storage for the order timeline.
+ *
+ * order_events is append-only and range partitioned by month on occurred_at,
+ * so old months can be detached or dropped without touching recent ones.
+ * order_snapshots keeps one row per order with the time it entered each
+ * status; duration queries read only that table.
+ *
+ * Neither table is a JPA entity: Hibernate's schema update cannot create a
+ * partitioned table, so both are created here.
+ */
+@Repository
+public class OrderTimelineRepository {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private static final String APPEND_SQL = """
+            INSERT INTO order_events (order_id, chef_id, from_status, to_status, occurred_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String SNAPSHOT_SQL = snapshotSql();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderTimelineRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void createSchema() {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS order_events (
+                    order_id BIGINT NOT NULL,
+                    chef_id BIGINT NOT NULL,
+                    from_status VARCHAR(20),
+                    to_status VARCHAR(20) NOT NULL,
+                    occurred_at TIMESTAMPTZ NOT NULL
+                ) PARTITION BY RANGE (occurred_at)
+                """);
+        jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS idx_order_events_order ON order_events (order_id, occurred_at)");
+        // Catches rows outside the prepared months instead of failing the transition
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS order_events_default PARTITION OF order_events DEFAULT");
+
+        StringBuilder columns = new StringBuilder();
+        for (OrderStatus status : STATUSES) {
+            columns.append(",\n    ").append(column(status)).append(" TIMESTAMPTZ");
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS order_snapshots (\n"
+                + "    order_id BIGINT PRIMARY KEY,\n"
+                + "    chef_id BIGINT NOT NULL,\n"
+                + "    status VARCHAR(20) NOT NULL,\n"
+                + "    updated_at TIMESTAMPTZ NOT NULL"
+                + columns + "\n)");
+        for (OrderStatus status : STATUSES) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_order_snapshots_chef_" + column(status)
+                    + " ON order_snapshots (chef_id, " + column(status) + ")");
+        }
+    }
+
+    /**
+     * Create the partition for the month if it does not exist yet
+     */
+    public void createMonthPartition(YearMonth month) {
+        OffsetDateTime from = month.atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime to = month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+        jdbcTemplate.execute(String.format(Locale.ROOT,
+                "CREATE TABLE IF NOT EXISTS order_events_%04d_%02d PARTITION OF order_events "
+                        + "FOR VALUES FROM ('%s') TO ('%s')",
+                month.getYear(), month.getMonthValue(), from, to));
+    }
+
+    /**
+     * Append the transitions and move their orders' snapshots along, each as
+     * one JDBC batch in the order given
+     */
+    public void append(List<OrderTransition> transitions) {
+        List<Object[]> events = new ArrayList<>(transitions.size());
+        List<Object[]> snapshots = new ArrayList<>(transitions.size());
+
+        for (OrderTransition transition : transitions) {
+            events.add(new Object[] {
+                    transition.getOrderId(),
+                    transition.getChefId(),
+                    transition.getFromStatus() != null ? transition.getFromStatus().name() : null,
+                    transition.getToStatus().name(),
+                    transition.getOccurredAt()
+            });
+
+            Object[] snapshot = new Object[4 + STATUSES.length];
+            snapshot[0] = transition.getOrderId();
+            snapshot[1] = transition.getChefId();
+            snapshot[2] = transition.getToStatus().name();
+            snapshot[3] = transition.getOccurredAt();
+            snapshot[4 + transition.getToStatus().ordinal()] = transition.getOccurredAt();
+            snapshots.add(snapshot);
+        }
+
+        jdbcTemplate.batchUpdate(APPEND_SQL, events);
+        jdbcTemplate.batchUpdate(SNAPSHOT_SQL, snapshots);
+    }
+
+    /**
+     * Durations of orders that reached to since the given time, for one chef
+     * or for all chefs when chefId is null
+     */
+    public TransitionDurations durations(Long chefId, OrderStatus from, OrderStatus to,
+            OffsetDateTime since, int days) {
+        String elapsed = "EXTRACT(EPOCH FROM (" + column(to) + " - " + column(from) + "))::float8";
+        String sql = "SELECT COUNT(*) AS n, AVG(" + elapsed + ") AS avg_s, "
+                + "percentile_cont(0.5) WITHIN GROUP (ORDER BY " + elapsed + ") AS p50_s, "
+                + "percentile_cont(0.9) WITHIN GROUP (ORDER BY " + elapsed + ") AS p90_s, "
+                + "MAX(" + elapsed + ") AS max_s "
+                + "FROM order_snapshots WHERE " + column(to) + " >= ? AND " + column(from) + " IS NOT NULL"
+                + (chefId != null ? " AND chef_id = ?" : "");
+        Object[] args = chefId != null ? new Object[] { since, chefId } : new Object[] { since };
+
+        return jdbcTemplate.queryForObject(sql, (rs, rowNum) -> new TransitionDurations(
+                from,
+                to,
+                days,
+                rs.getLong("n"),
+                rs.getObject("avg_s", Double.class),
+                rs.getObject("p50_s", Double.class),
+                rs.getObject("p90_s", Double.class),
+                rs.getObject("max_s", Double.class)), args);
+    }
+
+    private static String column(OrderStatus status) {
+        return status.name().toLowerCase(Locale.ROOT) + "_at";
+    }
+
+    private static String snapshotSql() {
+        StringBuilder columns = new StringBuilder("order_id, chef_id, status, updated_at");
+        StringBuilder values = new StringBuilder("?, ?, ?, ?");
+        StringBuilder updates = new StringBuilder("status = EXCLUDED.status, updated_at = EXCLUDED.updated_at");
+        for (OrderStatus status : STATUSES) {
+            String column = column(status);
+            columns.append(", ").append(column);
+            values.append(", ?");
+            updates.append(", ").append(column)
+                    .append(" = COALESCE(EXCLUDED.").append(column).append(", order_snapshots.").append(column).append(")");
+        }
+        return "INSERT INTO order_snapshots (" + columns + ") VALUES (" + values + ") "
+                + "ON CONFLICT (order_id) DO UPDATE SET " + updates;
+    }
+}
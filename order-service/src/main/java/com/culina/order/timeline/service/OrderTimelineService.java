@@ -0,0 +1,159 @@
+package com.culina.order.timeline.service;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.culina.order.chef.model.Chef;
+import com.culina.order.chef.repository.ChefRepository;
+import com.culina.order.domain.model.Order;
+import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.timeline.dto.TransitionDurations;
+import com.culina.order.timeline.model.OrderTransition;
+import com.culina.order.timeline.repository.OrderTimelineRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Records every order status change in the order_events timeline and answers
+ * how long orders spend between two statuses.
+ *
+ * Transitions made in a transaction are buffered and written in one batch
+ * just before it commits, on the same connection, so the timeline commits or
+ * rolls back together with the status change.
+ */
+@Service
+public class OrderTimelineService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderTimelineService.class);
+
+    private final OrderTimelineRepository timelineRepository;
+    private final ChefRepository chefRepository;
+    private final int partitionsAhead;
+    private final int maxQueryDays;
+
+    private final Counter eventsCounter;
+
+    public OrderTimelineService(
+            OrderTimelineRepository timelineRepository,
+            ChefRepository chefRepository,
+            MeterRegistry meterRegistry,
+            @Value("${order.timeline.partitions-ahead:2}") int partitionsAhead,
+            @Value("${order.timeline.max-query-days:90}") int maxQueryDays) {
+        this.timelineRepository = timelineRepository;
+        this.chefRepository = chefRepository;
+        this.partitionsAhead = partitionsAhead;
+        this.maxQueryDays = maxQueryDays;
+
+        this.eventsCounter = Counter.builder("order.timeline.events")
+                .description("Order transitions appended to the timeline")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void createSchema() {
+        timelineRepository.createSchema();
+        preparePartitions();
+    }
+
+    /**
+     * Keeps monthly partitions created ahead of time, so rows never land in
+     * the default partition
+     */
+    @Scheduled(cron = "${order.timeline.partition-cron:0 0 3 * * *}", zone = "UTC")
+    public void preparePartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= partitionsAhead; i++) {
+            try {
+                timelineRepository.createMonthPartition(current.plusMonths(i));
+            } catch (RuntimeException e) {
+                // Usually rows for that month already sit in the default partition
+                log.warn("Could not create order_events partition for {}", current.plusMonths(i), e);
+            }
+        }
+    }
+
+    public void recordCreated(Order order) {
+        record(order, null, order.getStatus());
+    }
+
+    public void recordTransition(Order order, OrderStatus from, OrderStatus to) {
+        if (from == to) {
+            return;
+        }
+        record(order, from, to);
+    }
+
+    public TransitionDurations getDurationsForChef(Long chefUserId, OrderStatus from, OrderStatus to, Integer days) {
+        Chef chef = chefRepository.findByUserId(chefUserId)
+                .orElseThrow(() -> new RuntimeException("CHEF_PROFILE_NOT_FOUND"));
+        return getDurations(chef.getId(), from, to, days);
+    }
+
+    /**
+     * Durations of the orders that reached to in the last days, for one chef
+     * or for all chefs when chefId is null
+     */
+    public TransitionDurations getDurations(Long chefId, OrderStatus from, OrderStatus to, Integer days) {
+        if (from == null || to == null || from == to) {
+            throw new RuntimeException("INVALID_TRANSITION_RANGE");
+        }
+        int window = days == null ? 7 : days;
+        if (window < 1 || window > maxQueryDays) {
+            throw new RuntimeException("INVALID_DAYS");
+        }
+
+        OffsetDateTime since = OffsetDateTime.now().minusDays(window);
+        return timelineRepository.durations(chefId, from, to, since, window);
+    }
+
+    private void record(Order order, OrderStatus from, OrderStatus to) {
+        OrderTransition transition = new OrderTransition(
+                order.getId(), order.getChefId(), from, to, OffsetDateTime.now());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(transition));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<OrderTransition> pending = (List<OrderTransition>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<OrderTransition> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(buffer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderTimelineService.this);
+                }
+            });
+            pending = buffer;
+        }
+        pending.add(transition);
+    }
+
+    private void write(List<OrderTransition> transitions) {
+        if (transitions.isEmpty()) {
+            return;
+        }
+        timelineRepository.append(transitions);
+        eventsCounter.increment(transitions.size());
+    }
+}
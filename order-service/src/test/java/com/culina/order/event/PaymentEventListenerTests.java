@@ -0,0 +1,110 @@
+package com.culina.order.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import com.culina.order.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PaymentEventListenerTests {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final PaymentEventListener listener = new PaymentEventListener(orderService, new SimpleMeterRegistry());
+
+    @Test
+    void batchIsAppliedInOneCallInRecordOrder() {
+        listener.handlePaymentSuccess(records("payment.success", 3L, 1L, null, 3L, 2L));
+
+        verify(orderService).markPaidAll(List.of(3L, 1L, 3L, 2L));
+    }
+
+    @Test
+    void failedEventsGoToCancelAll() {
+        listener.handlePaymentFailure(records("payment.failed", 5L, 4L));
+
+        verify(orderService).cancelAllAfterPaymentFailure(List.of(5L, 4L));
+        verify(orderService, never()).markPaidAll(anyList());
+    }
+
+    @Test
+    void batchOfUnreadableRecordsIsSkipped() {
+        listener.handlePaymentSuccess(records("payment.success", null, null));
+
+        verify(orderService, never()).markPaidAll(anyList());
+    }
+
+    @Test
+    void failedBatchIsReplayedOneByOne() {
+        when(orderService.markPaidAll(List.of(1L, 2L, 3L))).thenThrow(new IllegalStateException("deadlock"));
+
+        listener.handlePaymentSuccess(records("payment.success", 1L, 2L, 3L));
+
+        InOrder order = inOrder(orderService);
+        order.verify(orderService).markPaidAll(List.of(1L, 2L, 3L));
+        order.verify(orderService).markPaidAll(List.of(1L));
+        order.verify(orderService).markPaidAll(List.of(2L));
+        order.verify(orderService).markPaidAll(List.of(3L));
+    }
+
+    @Test
+    void recordStillFailingAloneIsReportedByItsIndex() {
+        when(orderService.markPaidAll(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            if (ids.contains(7L)) {
+                throw new IllegalStateException("order 7 is broken");
+            }
+            return ids.size();
+        });
+
+        // The unreadable record still counts for the index
+        BatchListenerFailedException e = assertThrows(BatchListenerFailedException.class,
+                () -> listener.handlePaymentSuccess(records("payment.success", 5L, null, 7L, 8L)));
+
+        assertEquals(2, e.getIndex());
+        InOrder order = inOrder(orderService);
+        order.verify(orderService).markPaidAll(List.of(5L, 7L, 8L));
+        order.verify(orderService).markPaidAll(List.of(5L));
+        order.verify(orderService).markPaidAll(List.of(7L));
+        verify(orderService, never()).markPaidAll(List.of(8L));
+    }
+
+    /**
+     * One record per order id, null standing for a payload that could not be read
+     */
+    private static List<ConsumerRecord<String, PaymentEvent>> records(String topic, Long... orderIds) {
+        List<ConsumerRecord<String, PaymentEvent>> records = new ArrayList<>();
+        for (int i = 0; i < orderIds.length; i++) {
+            Long orderId = orderIds[i];
+            records.add(new ConsumerRecord<>(topic, 0, i, orderId == null ? null : orderId.toString(),
+                    orderId == null ? null : event(orderId)));
+        }
+        return records;
+    }
+
+    private static PaymentEvent event(long orderId) {
+        try {
+            return objectMapper.readValue("{\"orderId\":" + orderId + ",\"status\":\"SUCCESS\"}", PaymentEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
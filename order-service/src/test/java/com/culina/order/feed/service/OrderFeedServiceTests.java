@@ -0,0 +1,179 @@
+package com.culina.order.feed.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.event.OrderEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Feeds served through Spring MVC, so what the tests read is the
+ * text/event-stream a browser would get
+ */
+class OrderFeedServiceTests {
+
+    private static final long USER_ID = 200L;
+    private static final long CHEF_ID = 1L;
+
+    private OrderFeedService feedService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // Buffers of 4 and a replay window of 5 events
+        feedService = new OrderFeedService(new SimpleMeterRegistry(), 4, 5, 60_000, 1);
+        mockMvc = MockMvcBuilders.standaloneSetup(new FeedController(feedService)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        feedService.shutdown();
+    }
+
+    @Test
+    void eventsReachTheirCustomerAndChefOnly() throws Exception {
+        MvcResult customer = open(feed(USER_ID, null));
+        MvcResult kitchen = open(feed(USER_ID, CHEF_ID));
+        MvcResult otherCustomer = open(feed(USER_ID + 1, null));
+
+        feedService.publish("order.created", event(1L, USER_ID, CHEF_ID));
+        feedService.publish("order.created", event(2L, USER_ID + 1, CHEF_ID + 1));
+
+        String customerStream = await(customer, content -> ids(content).size() == 1);
+        assertTrue(customerStream.contains("event:order.created"));
+        assertTrue(customerStream.contains("\"orderId\":1"));
+        await(kitchen, content -> ids(content).size() == 1);
+        String otherStream = await(otherCustomer, content -> ids(content).size() == 1);
+        assertTrue(otherStream.contains("\"orderId\":2"));
+    }
+
+    @Test
+    void reconnectWithLastEventIdReplaysWhatWasMissed() throws Exception {
+        MvcResult first = open(feed(USER_ID, null));
+        feedService.publish("order.created", event(1L, USER_ID, CHEF_ID));
+        String lastEventId = ids(await(first, content -> ids(content).size() == 1)).get(0);
+
+        // Missed while disconnected, one of them for someone else
+        feedService.publish("order.paid", event(1L, USER_ID, CHEF_ID));
+        feedService.publish("order.created", event(2L, USER_ID + 1, CHEF_ID));
+        feedService.publish("order.confirmed", event(1L, USER_ID, CHEF_ID));
+
+        MvcResult resumed = open(feed(USER_ID, null).header("Last-Event-ID", lastEventId));
+        String epoch = lastEventId.substring(0, lastEventId.indexOf(':'));
+
+        String stream = await(resumed, content -> ids(content).size() == 2);
+        assertEquals(List.of(epoch + ":2", epoch + ":4"), ids(stream));
+        assertTrue(stream.indexOf("event:order.paid") < stream.indexOf("event:order.confirmed"));
+        assertFalse(stream.contains("resync"));
+
+        // And stays live afterwards
+        feedService.publish("order.preparing", event(1L, USER_ID, CHEF_ID));
+        assertEquals(epoch + ":5", ids(await(resumed, content -> ids(content).size() == 3)).get(2));
+    }
+
+    @Test
+    void idFromAnotherEpochGetsResync() throws Exception {
+        MvcResult first = open(feed(USER_ID, null));
+        feedService.publish("order.created", event(1L, USER_ID, CHEF_ID));
+        String lastEventId = ids(await(first, content -> ids(content).size() == 1)).get(0);
+        String sequence = lastEventId.substring(lastEventId.indexOf(':'));
+
+        // Same sequence, issued by an instance that has since restarted or by another one
+        MvcResult resumed = open(feed(USER_ID, null).header("Last-Event-ID", "0ld" + sequence));
+
+        String stream = await(resumed, content -> content.contains("event:resync"));
+        assertTrue(ids(stream).isEmpty());
+    }
+
+    @Test
+    void idOlderThanTheReplayWindowGetsResync() throws Exception {
+        MvcResult first = open(feed(USER_ID, null));
+        feedService.publish("order.created", event(1L, USER_ID, CHEF_ID));
+        String lastEventId = ids(await(first, content -> ids(content).size() == 1)).get(0);
+
+        for (long orderId = 2; orderId <= 7; orderId++) {
+            feedService.publish("order.created", event(orderId, USER_ID + 1, CHEF_ID + 1));
+        }
+
+        MvcResult resumed = open(feed(USER_ID, null).header("Last-Event-ID", lastEventId));
+        await(resumed, content -> content.contains("event:resync"));
+    }
+
+    private MvcResult open(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private static MockHttpServletRequestBuilder feed(Long userId, Long chefId) {
+        MockHttpServletRequestBuilder request = get("/feed").param("userId", userId.toString());
+        return chefId != null ? request.param("chefId", chefId.toString()) : request;
+    }
+
+    private static String await(MvcResult result, Predicate<String> condition) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = result.getResponse().getContentAsString();
+        while (!condition.test(content)) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("feed never got there, sent so far:\n" + content);
+            }
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    /**
+     * Ids of the events sent in full; an event ends with a blank line
+     */
+    private static List<String> ids(String stream) {
+        String complete = stream.substring(0, stream.lastIndexOf("\n\n") + 1);
+        return Arrays.stream(complete.split("\n"))
+                .filter(line -> line.startsWith("id:"))
+                .map(line -> line.substring("id:".length()))
+                .toList();
+    }
+
+    private static OrderEvent event(Long orderId, Long userId, Long chefId) {
+        return new OrderEvent(orderId, userId, chefId, OrderStatus.CREATED, 24_900L);
+    }
+
+    @RestController
+    static class FeedController {
+
+        private final OrderFeedService feedService;
+
+        FeedController(OrderFeedService feedService) {
+            this.feedService = feedService;
+        }
+
+        @GetMapping("/feed")
+        SseEmitter feed(
+                @RequestParam Long userId,
+                @RequestParam(required = false) Long chefId,
+                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+            return feedService.subscribe(userId, chefId, lastEventId);
+        }
+    }
+}
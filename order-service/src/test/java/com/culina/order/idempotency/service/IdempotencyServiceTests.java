@@ -0,0 +1,199 @@
+package com.culina.order.idempotency.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.exception.IdempotencyKeyConflictException;
+import com.culina.order.idempotency.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Keys against a real idempotency_keys table. A concurrent duplicate has to
+ * wait on the unique index, so these run on Postgres from embedded binaries.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(IdempotencyServiceTests.PostgresConfig.class)
+class IdempotencyServiceTests {
+
+    private static final long USER_ID = 200L;
+    private static final List<Object> REQUEST = List.of(7, "Dal", 2);
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        idempotencyService = service();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void sameKeyReturnsTheFirstOrder() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertEquals(501L, idempotencyService.execute(USER_ID, "k1", REQUEST, () -> 500L + runs.incrementAndGet()));
+        assertEquals(501L, idempotencyService.execute(USER_ID, "k1", REQUEST, () -> 500L + runs.incrementAndGet()));
+        // Another instance, which only has the table
+        assertEquals(501L, service().execute(USER_ID, "k1", REQUEST, () -> 500L + runs.incrementAndGet()));
+
+        assertEquals(1, runs.get());
+        // Keys belong to a user
+        assertEquals(502L, idempotencyService.execute(USER_ID + 1, "k1", REQUEST, () -> 500L + runs.incrementAndGet()));
+    }
+
+    @Test
+    void sameKeyWithADifferentRequestIsRejected() {
+        idempotencyService.execute(USER_ID, "k1", REQUEST, () -> 501L);
+        List<Object> other = List.of(7, "Dal", 3);
+
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.execute(USER_ID, "k1", other, () -> 502L));
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> service().execute(USER_ID, "k1", other, () -> 502L));
+    }
+
+    @Test
+    void failedOperationFreesTheKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(USER_ID, "k1", REQUEST, () -> {
+            throw new IllegalStateException("out of stock");
+        }));
+
+        assertEquals(502L, idempotencyService.execute(USER_ID, "k1", REQUEST, () -> 502L));
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForTheFirstAndReturnsItsOrder() throws Exception {
+        CountDownLatch firstInside = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger secondRuns = new AtomicInteger();
+        try {
+            Future<Long> first = executor.submit(() -> idempotencyService.execute(USER_ID, "k1", REQUEST, () -> {
+                firstInside.countDown();
+                await(releaseFirst);
+                return 501L;
+            }));
+            assertTrue(firstInside.await(10, TimeUnit.SECONDS));
+
+            // Blocks inserting the key until the first commits, then loses on the unique index
+            Future<Long> second = executor.submit(() -> idempotencyService.execute(USER_ID, "k1", REQUEST, () -> {
+                secondRuns.incrementAndGet();
+                return 502L;
+            }));
+            awaitLockWaiter();
+            releaseFirst.countDown();
+
+            assertEquals(501L, first.get(10, TimeUnit.SECONDS));
+            assertEquals(501L, second.get(10, TimeUnit.SECONDS));
+            assertEquals(0, secondRuns.get());
+            assertEquals(1, repository.count());
+        } finally {
+            releaseFirst.countDown();
+        }
+    }
+
+    @Test
+    void keyPastRetentionIsNotAnsweredFromMemory() {
+        jdbcTemplate.update("""
+                INSERT INTO idempotency_keys (user_id, idempotency_key, request_hash, order_id, created_at)
+                VALUES (?, 'k1', ?, 77, ?)
+                """, USER_ID, hashOf(REQUEST), OffsetDateTime.now().minusHours(30));
+
+        // Held by its row until the cleanup runs
+        assertEquals(77L, idempotencyService.execute(USER_ID, "k1", REQUEST, () -> 88L));
+
+        idempotencyService.purgeExpired();
+
+        assertEquals(88L, idempotencyService.execute(USER_ID, "k1", REQUEST, () -> 88L));
+    }
+
+    private IdempotencyService service() {
+        return new IdempotencyService(repository, new TransactionTemplate(transactionManager), new ObjectMapper(),
+                new SimpleMeterRegistry(), 100, 24);
+    }
+
+    private void awaitLockWaiter() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_stat_activity WHERE wait_event_type = 'Lock'", Integer.class) == 0) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("second request never waited on the key");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private String hashOf(Object request) {
+        // Whatever the service stores for this request
+        service().execute(-1L, "probe", request, () -> 0L);
+        return jdbcTemplate.queryForObject(
+                "SELECT request_hash FROM idempotency_keys WHERE user_id = -1", String.class);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @TestConfiguration
+    static class PostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return postgres.getPostgresDatabase();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.culina.order.menu.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.culina.order.menu.model.MenuItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Payload size of a menu page with inline base64 images (the old default,
+ * now opt-in) versus image URLs. The time to build and serialize both is
+ * measured by MenuPageBenchmark in benchmarks/.
+ */
+class MenuItemResponsePayloadTests {
+
+    private static final int ITEMS = 48;
+    private static final int IMAGE_BYTES = 150 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void imageUrlsShrinkListPayloads() throws Exception {
+        List<MenuItem> items = new ArrayList<>();
+        List<byte[]> images = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < ITEMS; i++) {
+            MenuItem item = new MenuItem();
+            item.setId((long) i + 1);
+            item.setMenuId(1L);
+            item.setName("Item " + i);
+            item.setDescription("Slow cooked, served with rice and salad");
+            item.setPriceCents(25_000L);
+            item.setAvailableQty(20);
+            item.setPreparationTimeMinutes(30);
+            item.setTags(new String[] { "curry", "spicy" });
+            item.setImageId((long) i + 100);
+            items.add(item);
+
+            byte[] image = new byte[IMAGE_BYTES];
+            random.nextBytes(image);
+            images.add(image);
+        }
+
+        // Before: every response built with its image bytes and base64-encoded
+        List<MenuItemResponse> inline = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            inline.add(MenuItemResponse.from(items.get(i), images.get(i)));
+        }
+        // After: image URL only
+        List<MenuItemResponse> byUrl = items.stream().map(MenuItemResponse::from).toList();
+
+        byte[] inlineJson = objectMapper.writeValueAsBytes(inline);
+        byte[] urlJson = objectMapper.writeValueAsBytes(byUrl);
+
+        MenuItemResponse sample = byUrl.get(0);
+        assertNotNull(sample.getImageUrl());
+        assertNull(sample.getImageBase64());
+
+        // The images are the whole difference: the rest of an item is the same either way
+        int base64Bytes = Base64.getEncoder().encodeToString(images.get(0)).length();
+        long perItemDifference = (inlineJson.length - urlJson.length) / ITEMS;
+        assertTrue(Math.abs(perItemDifference - base64Bytes) < 256,
+                "each inline item should cost its base64 image, was " + perItemDifference
+                        + " bytes more for " + base64Bytes + " bytes of base64");
+        assertTrue(urlJson.length * 100L < inlineJson.length,
+                "URL payload should be under 1% of the inline payload");
+        assertEquals(ITEMS, objectMapper.readTree(urlJson).size());
+    }
+}
@@ -0,0 +1,168 @@
+package com.culina.order.menu.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * The flush statements are data-modifying CTEs, which H2 cannot run, so
+ * these run against a real Postgres from embedded binaries.
+ */
+class HotInventoryRepositoryTests {
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbcTemplate;
+    private HotInventoryRepository hotInventoryRepository;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_items, menu_items");
+        jdbcTemplate.execute("""
+                CREATE TABLE menu_items (
+                    id BIGINT PRIMARY KEY,
+                    available_qty INT,
+                    is_available BOOLEAN NOT NULL,
+                    updated_at TIMESTAMP WITH TIME ZONE
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE order_items (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    menu_item_id BIGINT NOT NULL,
+                    quantity INT NOT NULL,
+                    stock_pending BOOLEAN
+                )
+                """);
+        hotInventoryRepository = new HotInventoryRepository(jdbcTemplate);
+    }
+
+    @Test
+    void flushPendingFoldsEveryItemsReservationsOnce() {
+        insertItem(1L, 10);
+        insertItem(2L, 3);
+        insertPending(1L, 2);
+        insertPending(1L, 3);
+        insertPending(2L, 1);
+        // Already folded in by an earlier flush
+        jdbcTemplate.update("INSERT INTO order_items (menu_item_id, quantity, stock_pending) VALUES (1, 4, FALSE)");
+
+        List<Long> flushed = hotInventoryRepository.flushPending();
+
+        assertEquals(List.of(1L, 2L), flushed.stream().sorted().toList());
+        assertEquals(5, availableQty(1L));
+        assertEquals(2, availableQty(2L));
+        assertEquals(0, pendingRows());
+        assertTrue(hotInventoryRepository.flushPending().isEmpty());
+        assertEquals(5, availableQty(1L));
+    }
+
+    @Test
+    void flushPendingSwitchesOffSoldOutItems() {
+        insertItem(1L, 3);
+        insertPending(1L, 2);
+        insertPending(1L, 2);
+
+        hotInventoryRepository.flushPending();
+
+        assertEquals(0, availableQty(1L));
+        assertFalse(isAvailable(1L));
+    }
+
+    @Test
+    void flushPendingLeavesUnlimitedStockAlone() {
+        insertItem(1L, null);
+        insertPending(1L, 5);
+
+        assertTrue(hotInventoryRepository.flushPending().isEmpty());
+
+        assertNull(availableQty(1L));
+        assertTrue(isAvailable(1L));
+        assertEquals(0, pendingRows());
+    }
+
+    @Test
+    void flushPendingOfOneItemLeavesTheOthersPending() {
+        insertItem(1L, 10);
+        insertItem(2L, 10);
+        insertPending(1L, 4);
+        insertPending(2L, 3);
+
+        hotInventoryRepository.flushPending(1L);
+
+        assertEquals(6, availableQty(1L));
+        assertEquals(10, availableQty(2L));
+        assertEquals(1, pendingRows());
+        assertEquals(7L, hotInventoryRepository.loadAvailable(2L));
+    }
+
+    @Test
+    void flushPendingOfOneItemWithoutPendingRowsKeepsItsStock() {
+        insertItem(1L, 10);
+
+        hotInventoryRepository.flushPending(1L);
+
+        assertEquals(10, availableQty(1L));
+    }
+
+    @Test
+    void loadAvailableSubtractsPendingReservations() {
+        insertItem(1L, 10);
+        insertItem(2L, null);
+        insertPending(1L, 4);
+
+        assertEquals(6L, hotInventoryRepository.loadAvailable(1L));
+        assertNull(hotInventoryRepository.loadAvailable(2L));
+        assertEquals(0L, hotInventoryRepository.loadAvailable(3L));
+    }
+
+    private void insertItem(Long id, Integer qty) {
+        jdbcTemplate.update(
+                "INSERT INTO menu_items (id, available_qty, is_available) VALUES (?, ?, TRUE)",
+                id, qty);
+    }
+
+    private void insertPending(Long menuItemId, int quantity) {
+        jdbcTemplate.update(
+                "INSERT INTO order_items (menu_item_id, quantity, stock_pending) VALUES (?, ?, TRUE)",
+                menuItemId, quantity);
+    }
+
+    private Integer availableQty(Long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT available_qty FROM menu_items WHERE id = ?", Integer.class, id);
+    }
+
+    private boolean isAvailable(Long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT is_available FROM menu_items WHERE id = ?", Boolean.class, id);
+    }
+
+    private int pendingRows() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_items WHERE stock_pending = TRUE", Integer.class);
+    }
+}
@@ -0,0 +1,206 @@
+package com.culina.order.menu.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.culina.order.menu.dto.InventoryLine;
+import com.culina.order.menu.dto.StockLevel;
+
+class InventoryRepositoryTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private InventoryRepository inventoryRepository;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE menu_items (
+                    id BIGINT PRIMARY KEY,
+                    available_qty INT,
+                    is_available BOOLEAN NOT NULL,
+                    updated_at TIMESTAMP WITH TIME ZONE
+                )
+                """);
+        inventoryRepository = new InventoryRepository(jdbcTemplate);
+    }
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        int stock = 50;
+        int buyers = 200;
+        insertItem(1L, stock);
+
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < buyers; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                if (inventoryRepository.reserve(List.of(new InventoryLine(1L, 1))).isEmpty()) {
+                    reserved.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(stock, reserved.get());
+        assertEquals(0, availableQty(1L));
+        assertFalse(isAvailable(1L));
+    }
+
+    @Test
+    void reserveReportsExactlyTheFailedLines() {
+        insertItem(1L, 5);
+        insertItem(2L, 1);
+        insertItem(3L, null);
+
+        List<InventoryLine> failed = inventoryRepository.reserve(List.of(
+                new InventoryLine(1L, 2),
+                new InventoryLine(2L, 3),
+                new InventoryLine(3L, 100)));
+
+        assertEquals(1, failed.size());
+        assertEquals(2L, failed.get(0).getMenuItemId());
+        assertEquals(3, availableQty(1L));
+        assertEquals(1, availableQty(2L));
+        assertNull(jdbcTemplate.queryForObject(
+                "SELECT available_qty FROM menu_items WHERE id = 3", Integer.class));
+    }
+
+    @Test
+    void reserveSendsAllLinesInOneBatch() {
+        int lineCount = 15;
+        List<InventoryLine> lines = new ArrayList<>();
+        for (long id = 1; id <= lineCount; id++) {
+            insertItem(id, 10);
+            lines.add(new InventoryLine(id, 1));
+        }
+
+        AtomicInteger statements = new AtomicInteger();
+        DataSource counting = countingDataSource(jdbcTemplate.getDataSource(), statements);
+        new InventoryRepository(new JdbcTemplate(counting)).reserve(lines);
+
+        // the old read-modify-write path needed a SELECT and at least one UPDATE per line
+        assertEquals(1, statements.get());
+        assertTrue(statements.get() < 2 * lineCount);
+    }
+
+    @Test
+    void releaseReEnablesSoldOutItem() {
+        insertItem(1L, 2);
+
+        assertTrue(inventoryRepository.reserve(List.of(new InventoryLine(1L, 2))).isEmpty());
+        assertEquals(0, availableQty(1L));
+        assertFalse(isAvailable(1L));
+
+        inventoryRepository.release(List.of(new InventoryLine(1L, 3)));
+        assertEquals(3, availableQty(1L));
+        assertTrue(isAvailable(1L));
+    }
+
+    @Test
+    void findStockReadsBackStockAfterReservation() {
+        insertItem(1L, 2);
+        insertItem(2L, null);
+
+        inventoryRepository.reserve(List.of(new InventoryLine(1L, 2), new InventoryLine(2L, 5)));
+
+        Map<Long, StockLevel> stock = inventoryRepository.findStock(List.of(1L, 2L, 3L)).stream()
+                .collect(Collectors.toMap(StockLevel::getMenuItemId, Function.identity()));
+        assertEquals(2, stock.size());
+        assertEquals(0, stock.get(1L).getAvailableQty());
+        assertFalse(stock.get(1L).isAvailable());
+        assertNull(stock.get(2L).getAvailableQty());
+        assertTrue(stock.get(2L).isAvailable());
+        assertTrue(inventoryRepository.findStock(List.of()).isEmpty());
+    }
+
+    private void insertItem(Long id, Integer qty) {
+        jdbcTemplate.update(
+                "INSERT INTO menu_items (id, available_qty, is_available) VALUES (?, ?, TRUE)",
+                id, qty);
+    }
+
+    private Integer availableQty(Long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT available_qty FROM menu_items WHERE id = ?", Integer.class, id);
+    }
+
+    private boolean isAvailable(Long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT is_available FROM menu_items WHERE id = ?", Boolean.class, id);
+    }
+
+    /**
+     * Counts statement executions (a JDBC batch counts as one round trip).
+     */
+    private static DataSource countingDataSource(DataSource target, AtomicInteger counter) {
+        return (DataSource) Proxy.newProxyInstance(
+                DataSource.class.getClassLoader(),
+                new Class<?>[] { DataSource.class },
+                (proxy, method, args) -> {
+                    Object result = method.invoke(target, args);
+                    if (result instanceof Connection connection) {
+                        return countingConnection(connection, counter);
+                    }
+                    return result;
+                });
+    }
+
+    private static Connection countingConnection(Connection target, AtomicInteger counter) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = method.invoke(target, args);
+                    if (result instanceof PreparedStatement statement) {
+                        return Proxy.newProxyInstance(
+                                PreparedStatement.class.getClassLoader(),
+                                new Class<?>[] { PreparedStatement.class },
+                                (p, m, a) -> {
+                                    if (m.getName().startsWith("execute")) {
+                                        counter.incrementAndGet();
+                                    }
+                                    return m.invoke(statement, a);
+                                });
+                    }
+                    return result;
+                });
+    }
+}
@@ -0,0 +1,189 @@
+package com.culina.order.menu.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.menu.dto.InventoryLine;
+import com.culina.order.menu.repository.HotInventoryRepository;
+import com.culina.order.menu.repository.InventoryRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Flash-sale stress run: many buyers race for one dish, through the
+ * row-lock path and through the sequencer. Both must sell exactly the stock.
+ */
+class HotInventorySequencerTests {
+
+    private static final int STOCK = 3_000;
+    private static final int BUYERS = 6_000;
+    private static final int THREADS = 64;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private HotInventorySequencer sequencer;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE menu_items (
+                    id BIGINT PRIMARY KEY,
+                    available_qty INT,
+                    is_available BOOLEAN NOT NULL,
+                    updated_at TIMESTAMP WITH TIME ZONE
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE order_items (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    menu_item_id BIGINT NOT NULL,
+                    quantity INT NOT NULL,
+                    stock_pending BOOLEAN
+                )
+                """);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        sequencer = new HotInventorySequencer(
+                new HotInventoryRepository(jdbcTemplate), transactionTemplate,
+                new SimpleMeterRegistry(), 4096, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sequencer.shutdown();
+    }
+
+    @Test
+    void flashSaleSellsExactlyTheStockOnBothPaths() throws Exception {
+        insertItem(1L, STOCK);
+        insertItem(2L, STOCK);
+        InventoryRepository rowLocks = new InventoryRepository(jdbcTemplate);
+
+        assertEquals(STOCK, race(line -> rowLocks.reserve(List.of(line)).isEmpty(), 1L));
+        assertEquals(STOCK, race(line -> sequencer.reserve(List.of(line)).isEmpty(), 2L));
+        assertEquals(0, availableQty(1L));
+        // Sequenced sales are not in menu_items until they are flushed
+        assertEquals(STOCK, availableQty(2L));
+    }
+
+    @Test
+    void rolledBackReservationReturnsToStock() {
+        insertItem(1L, 2);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(sequencer.reserve(List.of(new InventoryLine(1L, 2))).isEmpty());
+            assertEquals(1, sequencer.reserve(List.of(new InventoryLine(1L, 1))).size());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(sequencer.reserve(List.of(new InventoryLine(1L, 2))).isEmpty());
+    }
+
+    @Test
+    void reloadCountsCommittedPendingReservations() {
+        insertItem(1L, 5);
+        jdbcTemplate.update("INSERT INTO order_items (menu_item_id, quantity, stock_pending) VALUES (1, 3, TRUE)");
+
+        // A fresh writer (e.g. after a restart) sees only what is left
+        assertEquals(1, sequencer.reserve(List.of(new InventoryLine(1L, 3))).size());
+        assertTrue(sequencer.reserve(List.of(new InventoryLine(1L, 2))).isEmpty());
+        jdbcTemplate.update("INSERT INTO order_items (menu_item_id, quantity, stock_pending) VALUES (1, 2, TRUE)");
+
+        // Stock added outside the writer shows up after a reload
+        jdbcTemplate.update("UPDATE menu_items SET available_qty = available_qty + 4 WHERE id = 1");
+        sequencer.reload(List.of(1L));
+        assertTrue(sequencer.reserve(List.of(new InventoryLine(1L, 4))).isEmpty());
+        assertEquals(1, sequencer.reserve(List.of(new InventoryLine(1L, 1))).size());
+    }
+
+    @Test
+    void lockedRowDoesNotHoldUpOtherItems() throws Exception {
+        insertItem(1L, 5);
+        insertItem(2L, 5);
+        assertTrue(sequencer.reserve(List.of(new InventoryLine(2L, 1))).isEmpty());
+
+        // A chef edit holding item 1's row while it is first loaded
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> edit = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList("SELECT available_qty FROM menu_items WHERE id = 1 FOR UPDATE");
+                    locked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<List<InventoryLine>> waiting =
+                CompletableFuture.supplyAsync(() -> sequencer.reserve(List.of(new InventoryLine(1L, 1))));
+        assertTrue(sequencer.reserve(List.of(new InventoryLine(2L, 1))).isEmpty());
+        assertFalse(waiting.isDone());
+
+        release.countDown();
+        edit.get(5, TimeUnit.SECONDS);
+        assertTrue(waiting.get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    private int race(Predicate<InventoryLine> reserve, Long menuItemId) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger sold = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(BUYERS);
+
+        for (int i = 0; i < BUYERS; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                if (reserve.test(new InventoryLine(menuItemId, 1))) {
+                    sold.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        return sold.get();
+    }
+
+    private void insertItem(Long id, Integer qty) {
+        jdbcTemplate.update(
+                "INSERT INTO menu_items (id, available_qty, is_available) VALUES (?, ?, TRUE)",
+                id, qty);
+    }
+
+    private Integer availableQty(Long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT available_qty FROM menu_items WHERE id = ?", Integer.class, id);
+    }
+}
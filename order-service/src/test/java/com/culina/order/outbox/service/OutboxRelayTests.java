@@ -0,0 +1,171 @@
+package com.culina.order.outbox.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.outbox.model.OutboxEvent;
+import com.culina.order.outbox.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * The relay against a real outbox table, with Kafka mocked. The relay lock
+ * is a Postgres advisory lock, so these run on Postgres from embedded
+ * binaries.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(OutboxRelayTests.PostgresConfig.class)
+class OutboxRelayTests {
+
+    // OutboxRelay.RELAY_LOCK_ID
+    private static final long RELAY_LOCK_ID = 0x6f7574626f78L;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+    private final List<String> sent = new ArrayList<>();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(2));
+            return acked();
+        });
+        // Batches of two, so draining five events takes three batches
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate,
+                new TransactionTemplate(transactionManager), new SimpleMeterRegistry(), 2, 1_000);
+    }
+
+    @Test
+    void oneRunDrainsEveryBatchInIdOrder() {
+        // Written out of id order
+        for (long id : new long[] { 4, 2, 5, 1, 3 }) {
+            jdbcTemplate.update("""
+                    INSERT INTO outbox_events (id, topic, message_key, payload, created_at)
+                    VALUES (?, 'orders', 'key', ?, now())
+                    """, id, "event-" + id);
+        }
+
+        relay.relay();
+
+        assertEquals(List.of("event-1", "event-2", "event-3", "event-4", "event-5"), sent);
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void failedSendKeepsItAndEverythingBehindItForTheNextRun() {
+        enqueue("a", "b", "c", "d", "e");
+        doAnswer(invocation -> {
+            sent.add("d");
+            return CompletableFuture.failedFuture(new KafkaException("broker unavailable"));
+        }).doAnswer(invocation -> {
+            sent.add("d");
+            return acked();
+        }).when(kafkaTemplate).send("orders", "key", "d");
+
+        relay.relay();
+
+        // d failed in the second batch: c before it is done, e behind it is not tried
+        assertEquals(List.of("a", "b", "c", "d"), sent);
+        assertEquals(List.of("d", "e"), pending());
+
+        sent.clear();
+        relay.relay();
+
+        assertEquals(List.of("d", "e"), sent);
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void nothingIsSentWhileAnotherInstanceHoldsTheLock() throws Exception {
+        enqueue("a");
+
+        try (Connection other = dataSource.getConnection(); Statement statement = other.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(" + RELAY_LOCK_ID + ")");
+            relay.relay();
+        }
+
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+        assertEquals(List.of("a"), pending());
+
+        relay.relay();
+        assertEquals(List.of("a"), sent);
+    }
+
+    private void enqueue(String... payloads) {
+        for (String payload : payloads) {
+            OutboxEvent event = new OutboxEvent();
+            event.setTopic("orders");
+            event.setMessageKey("key");
+            event.setPayload(payload);
+            outboxEventRepository.save(event);
+        }
+    }
+
+    private List<String> pending() {
+        return outboxEventRepository.findNextBatch(100).stream().map(OutboxEvent::getPayload).toList();
+    }
+
+    private static CompletableFuture<SendResult<String, String>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @TestConfiguration
+    static class PostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return postgres.getPostgresDatabase();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.culina.order.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import com.culina.order.domain.model.Order;
+import com.culina.order.domain.model.OrderItem;
+import com.culina.order.domain.model.OrderStatus;
+
+import jakarta.persistence.CascadeType;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.Table;
+
+/**
+ * Round trips needed to insert an order and its items, the write at the
+ * heart of createOrder. With identity ids (as orders and order_items had
+ * before, measured on copies of the tables below) every row is its own
+ * INSERT; with pooled sequences and JDBC batching the order and its items go
+ * out as one batch per table.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+class OrderInsertRoundTripTests {
+
+    private static final int ITEMS_PER_ORDER = 10;
+    private static final int ORDERS = 40;
+
+    private static final AtomicInteger inserts = new AtomicInteger();
+    private static final AtomicInteger sequenceCalls = new AtomicInteger();
+    private static final AtomicInteger otherRoundTrips = new AtomicInteger();
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void orderWithItemsIsInsertedInOneBatchPerTable() {
+        Counts sequenced = measure(this::sequencedOrder);
+        Counts identity = measure(this::identityOrder);
+
+        // Before: one INSERT per row
+        assertEquals(ORDERS * (1 + ITEMS_PER_ORDER), identity.inserts);
+        assertEquals(0, identity.sequenceCalls);
+
+        // After: one batch per table, plus a sequence call per 50 ids handed out
+        assertEquals(ORDERS * 2, sequenced.inserts);
+        int ids = ORDERS * (1 + ITEMS_PER_ORDER);
+        assertTrue(sequenced.sequenceCalls <= ids / 50 + 2,
+                "expected a sequence call per 50 ids, got " + sequenced.sequenceCalls);
+
+        assertEquals(0, sequenced.other + identity.other);
+        assertTrue(sequenced.total() * 4 < identity.total());
+    }
+
+    private Counts measure(Supplier<Object> order) {
+        // The first orders also fetch the initial id blocks
+        persist(order.get());
+        persist(order.get());
+
+        int insertsBefore = inserts.get();
+        int sequenceCallsBefore = sequenceCalls.get();
+        int otherBefore = otherRoundTrips.get();
+        for (int i = 0; i < ORDERS; i++) {
+            persist(order.get());
+        }
+        return new Counts(inserts.get() - insertsBefore, sequenceCalls.get() - sequenceCallsBefore,
+                otherRoundTrips.get() - otherBefore);
+    }
+
+    private void persist(Object order) {
+        entityManager.persist(order);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private Object sequencedOrder() {
+        Order order = new Order();
+        order.setUserId(1L);
+        order.setChefId(2L);
+        order.setStatus(OrderStatus.CREATED);
+        order.setTotalAmountCents(1_000L * ITEMS_PER_ORDER);
+
+        List<OrderItem> items = new ArrayList<>();
+        for (long i = 0; i < ITEMS_PER_ORDER; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setMenuItemId(i + 1);
+            item.setItemName("Item " + i);
+            item.setItemPriceCents(1_000L);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    private Object identityOrder() {
+        IdentityOrder order = new IdentityOrder();
+        order.userId = 1L;
+        order.chefId = 2L;
+        order.totalAmountCents = 1_000L * ITEMS_PER_ORDER;
+        for (long i = 0; i < ITEMS_PER_ORDER; i++) {
+            IdentityOrderItem item = new IdentityOrderItem();
+            item.order = order;
+            item.menuItemId = i + 1;
+            item.itemPriceCents = 1_000L;
+            item.quantity = 1;
+            order.items.add(item);
+        }
+        return order;
+    }
+
+    private record Counts(int inserts, int sequenceCalls, int other) {
+
+        int total() {
+            return inserts + sequenceCalls + other;
+        }
+    }
+
+    @Entity
+    @Table(name = "identity_orders")
+    static class IdentityOrder {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        Long userId;
+        Long chefId;
+        Long totalAmountCents;
+
+        @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+        List<IdentityOrderItem> items = new ArrayList<>();
+    }
+
+    @Entity
+    @Table(name = "identity_order_items")
+    static class IdentityOrderItem {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        Long id;
+
+        @ManyToOne(fetch = FetchType.LAZY)
+        @JoinColumn(name = "order_id", nullable = false)
+        IdentityOrder order;
+
+        Long menuItemId;
+        Long itemPriceCents;
+        Integer quantity;
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor countingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? countingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Counts statement executions by kind (a JDBC batch counts as one round trip).
+     */
+    private static DataSource countingDataSource(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(
+                DataSource.class.getClassLoader(),
+                new Class<?>[] { DataSource.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(method, target, args);
+                    if (result instanceof Connection connection) {
+                        return countingConnection(connection);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static Connection countingConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    Object result = invoke(method, target, args);
+                    if (result instanceof Statement statement) {
+                        Class<?> type = statement instanceof PreparedStatement
+                                ? PreparedStatement.class
+                                : Statement.class;
+                        String preparedSql = args != null && args.length > 0 && args[0] instanceof String sql
+                                ? sql
+                                : null;
+                        return Proxy.newProxyInstance(
+                                Statement.class.getClassLoader(),
+                                new Class<?>[] { type },
+                                (p, m, a) -> {
+                                    if (m.getName().startsWith("execute")) {
+                                        String sql = preparedSql != null ? preparedSql : (String) a[0];
+                                        count(sql);
+                                    }
+                                    return invoke(m, statement, a);
+                                });
+                    }
+                    return result;
+                });
+    }
+
+    private static void count(String sql) {
+        String statement = sql.trim().toLowerCase(Locale.ROOT);
+        if (statement.startsWith("insert")) {
+            inserts.incrementAndGet();
+        } else if (statement.contains("next value for") || statement.contains("nextval")) {
+            sequenceCalls.incrementAndGet();
+        } else {
+            otherRoundTrips.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.culina.order.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class JwtAuthenticationFilterTests {
+
+    private final JwtAuthenticationFilter filter =
+            new JwtAuthenticationFilter(new JwtVerifier(JwtVerifierTests.SECRET, 100));
+    private final StreamTicketIssuer ticketIssuer = new StreamTicketIssuer(JwtVerifierTests.SECRET, 30);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void accessTokenInTheHeaderAuthenticates() throws Exception {
+        MockHttpServletRequest request = request("/order");
+        request.addHeader("Authorization", "Bearer " + JwtVerifierTests.token(7L, "ACCESS", 60_000));
+
+        assertEquals(7L, authenticate(request).getPrincipal());
+    }
+
+    @Test
+    void refreshTokenInTheHeaderDoesNotAuthenticate() throws Exception {
+        MockHttpServletRequest request = request("/order");
+        request.addHeader("Authorization", "Bearer " + JwtVerifierTests.token(7L, "REFRESH", 60_000));
+
+        assertNull(authenticate(request));
+    }
+
+    @Test
+    void ticketOpensTheFeed() throws Exception {
+        MockHttpServletRequest request = request("/order/stream");
+        request.setParameter("ticket", ticketIssuer.issue(7L, "CUSTOMER"));
+
+        Authentication authentication = authenticate(request);
+        assertEquals(7L, authentication.getPrincipal());
+        assertEquals("ROLE_CUSTOMER", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void ticketIsIgnoredOffTheFeed() throws Exception {
+        MockHttpServletRequest request = request("/order");
+        request.setParameter("ticket", ticketIssuer.issue(7L, "CUSTOMER"));
+
+        assertNull(authenticate(request));
+    }
+
+    @Test
+    void ticketIsNotAnAccessToken() throws Exception {
+        MockHttpServletRequest request = request("/order");
+        request.addHeader("Authorization", "Bearer " + ticketIssuer.issue(7L, "CUSTOMER"));
+
+        assertNull(authenticate(request));
+    }
+
+    @Test
+    void accessTokenIsNotATicket() throws Exception {
+        MockHttpServletRequest request = request("/order/stream");
+        request.setParameter("ticket", JwtVerifierTests.token(7L, "ACCESS", 60_000));
+
+        assertNull(authenticate(request));
+    }
+
+    private Authentication authenticate(MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,108 @@
+package com.culina.order.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+class JwtVerifierTests {
+
+    static final String SECRET = "test-secret-that-is-long-enough-for-hs256";
+
+    private final JwtVerifier verifier = new JwtVerifier(SECRET, 10);
+
+    @Test
+    void verifiedClaimsAreCachedUntilExpiry() {
+        String token = token(7L, "ACCESS", 60_000);
+
+        VerifiedToken first = verifier.verify(token);
+        assertEquals(7L, first.getUserId());
+        assertEquals("CUSTOMER", first.getRole());
+        assertTrue(first.isAccessToken());
+        assertEquals(1, verifier.cachedTokens());
+        assertSame(first, verifier.verify(token));
+    }
+
+    @Test
+    void tamperedSignatureIsRejectedEvenWhileTheOriginalIsCached() {
+        String token = token(7L, "ACCESS", 60_000);
+        verifier.verify(token);
+
+        int at = token.lastIndexOf('.') + 5;
+        char flipped = token.charAt(at) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, at) + flipped + token.substring(at + 1);
+
+        assertThrows(SignatureException.class, () -> verifier.verify(tampered));
+        assertEquals(1, verifier.cachedTokens());
+    }
+
+    @Test
+    void expiredCachedTokenIsParsedAgainAndRejected() throws InterruptedException {
+        String token = token(7L, "ACCESS", 1_500);
+        long expiresAt = verifier.verify(token).getExpiresAtMillis();
+        assertEquals(1, verifier.cachedTokens());
+
+        Thread.sleep(Math.max(expiresAt - System.currentTimeMillis() + 50, 0));
+
+        assertThrows(ExpiredJwtException.class, () -> verifier.verify(token));
+        assertEquals(0, verifier.cachedTokens());
+    }
+
+    @Test
+    void refreshTokenIsNotAnAccessToken() {
+        VerifiedToken refresh = verifier.verify(token(7L, "REFRESH", 60_000));
+
+        assertFalse(refresh.isAccessToken());
+        assertTrue(refresh.isRefreshToken());
+        assertFalse(refresh.isStreamTicket());
+    }
+
+    @Test
+    void cacheStaysWithinMaxEntries() {
+        for (long userId = 1; userId <= 35; userId++) {
+            verifier.verify(token(userId, "ACCESS", 60_000));
+            assertTrue(verifier.cachedTokens() <= 10, "cache grew to " + verifier.cachedTokens());
+        }
+        // Every token still verifies after its entry was evicted
+        assertEquals(3L, verifier.verify(token(3L, "ACCESS", 60_000)).getUserId());
+    }
+
+    @Test
+    void zeroMaxEntriesDisablesTheCache() {
+        JwtVerifier uncached = new JwtVerifier(SECRET, 0);
+        String token = token(7L, "ACCESS", 60_000);
+
+        VerifiedToken first = uncached.verify(token);
+        VerifiedToken second = uncached.verify(token);
+
+        assertEquals(0, uncached.cachedTokens());
+        assertNotSame(first, second);
+        assertEquals(first.getUserId(), second.getUserId());
+    }
+
+    static String token(Long userId, String tokenType, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject(userId.toString())
+                .claim("email", "user" + userId + "@example.com")
+                .claim("role", "CUSTOMER")
+                .claim("tokenType", tokenType)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttlMillis))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
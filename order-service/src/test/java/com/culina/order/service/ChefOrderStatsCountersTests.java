@@ -0,0 +1,142 @@
+package com.culina.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.repository.OrderRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Counters against a stubbed GROUP BY. Transitions committed while a load
+ * runs are played from inside the stub, as if their afterCommit ran then.
+ */
+class ChefOrderStatsCountersTests {
+
+    private static final long CHEF_ID = 1L;
+    private static final long IDLE_MS = 60_000;
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChefOrderStatsCounters counters =
+            new ChefOrderStatsCounters(orderRepository, meterRegistry, 500, 2, IDLE_MS);
+
+    @Test
+    void countsAreLoadedOnceAndFollowTransitions() {
+        stubCounts(row(CHEF_ID, OrderStatus.PAID, 2));
+
+        assertEquals(2L, counters.countsFor(CHEF_ID).get(OrderStatus.PAID));
+        counters.recordTransition(CHEF_ID, OrderStatus.PAID, OrderStatus.CONFIRMED);
+        counters.recordCreated(CHEF_ID, OrderStatus.CREATED);
+
+        Map<OrderStatus, Long> counts = counters.countsFor(CHEF_ID);
+        assertEquals(1L, counts.get(OrderStatus.PAID));
+        assertEquals(1L, counts.get(OrderStatus.CONFIRMED));
+        assertEquals(1L, counts.get(OrderStatus.CREATED));
+        verify(orderRepository, times(1)).countByChefIdInGroupByStatus(anyCollection());
+    }
+
+    @Test
+    void transitionDuringFirstLoadIsNotLost() {
+        // The transition commits after the load has read, so it is not in the result
+        when(orderRepository.countByChefIdInGroupByStatus(anyCollection()))
+                .thenAnswer(invocation -> {
+                    counters.recordTransition(CHEF_ID, OrderStatus.PAID, OrderStatus.CONFIRMED);
+                    return List.<Object[]>of(row(CHEF_ID, OrderStatus.PAID, 1));
+                })
+                .thenReturn(List.<Object[]>of(row(CHEF_ID, OrderStatus.CONFIRMED, 1)));
+
+        assertEquals(1L, counters.countsFor(CHEF_ID).get(OrderStatus.PAID));
+
+        // Not kept, so the next read loads again
+        Map<OrderStatus, Long> counts = counters.countsFor(CHEF_ID);
+        assertEquals(0L, counts.get(OrderStatus.PAID));
+        assertEquals(1L, counts.get(OrderStatus.CONFIRMED));
+
+        counters.recordTransition(CHEF_ID, OrderStatus.CONFIRMED, OrderStatus.PREPARING);
+        assertEquals(1L, counters.countsFor(CHEF_ID).get(OrderStatus.PREPARING));
+        verify(orderRepository, times(2)).countByChefIdInGroupByStatus(anyCollection());
+    }
+
+    @Test
+    void transitionDuringReconciliationIsNotLost() {
+        stubCounts(row(CHEF_ID, OrderStatus.PAID, 2));
+        counters.countsFor(CHEF_ID);
+
+        when(orderRepository.countByChefIdInGroupByStatus(anyCollection())).thenAnswer(invocation -> {
+            counters.recordTransition(CHEF_ID, OrderStatus.PAID, OrderStatus.CONFIRMED);
+            return List.<Object[]>of(row(CHEF_ID, OrderStatus.PAID, 2));
+        });
+        counters.reconcile();
+
+        Map<OrderStatus, Long> counts = counters.countsFor(CHEF_ID);
+        assertEquals(1L, counts.get(OrderStatus.PAID));
+        assertEquals(1L, counts.get(OrderStatus.CONFIRMED));
+        assertEquals(0.0, drift());
+    }
+
+    @Test
+    void reconciliationCorrectsChangesMadeElsewhere() {
+        stubCounts(row(CHEF_ID, OrderStatus.PAID, 2));
+        counters.countsFor(CHEF_ID);
+
+        // Another instance confirmed both orders
+        stubCounts(row(CHEF_ID, OrderStatus.CONFIRMED, 2));
+        counters.reconcile();
+
+        Map<OrderStatus, Long> counts = counters.countsFor(CHEF_ID);
+        assertEquals(0L, counts.get(OrderStatus.PAID));
+        assertEquals(2L, counts.get(OrderStatus.CONFIRMED));
+        assertEquals(4.0, drift());
+    }
+
+    @Test
+    void idleChefsAreDroppedAndTheCountIsBounded() {
+        stubCounts(row(1L, OrderStatus.PAID, 1), row(2L, OrderStatus.PAID, 2), row(3L, OrderStatus.PAID, 3));
+
+        counters.countsFor(1L);
+        counters.countsFor(2L);
+        assertEquals(3L, counters.countsFor(3L).get(OrderStatus.PAID));
+        assertEquals(2, counters.trackedChefs());
+
+        counters.reconcile(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(IDLE_MS) + 1);
+        assertEquals(0, counters.trackedChefs());
+
+        counters.countsFor(3L);
+        assertEquals(1, counters.trackedChefs());
+    }
+
+    private void stubCounts(Object[]... rows) {
+        when(orderRepository.countByChefIdInGroupByStatus(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> chefIds = invocation.getArgument(0);
+            List<Object[]> result = new ArrayList<>();
+            for (Object[] row : rows) {
+                if (chefIds.contains((Long) row[0])) {
+                    result.add(row);
+                }
+            }
+            return result;
+        });
+    }
+
+    private double drift() {
+        return meterRegistry.get("order.stats.drift").gauge().value();
+    }
+
+    private static Object[] row(long chefId, OrderStatus status, long count) {
+        return new Object[] { chefId, status, count };
+    }
+}
@@ -0,0 +1,145 @@
+package com.culina.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.culina.order.controller.OrderController;
+import com.culina.order.dto.OrderPage;
+import com.culina.order.dto.OrderSummary;
+import com.culina.order.event.MenuItemEventPublisher;
+import com.culina.order.event.OrderEventPublisher;
+import com.culina.order.exception.InvalidCursorException;
+import com.culina.order.feed.service.OrderFeedService;
+import com.culina.order.idempotency.service.IdempotencyService;
+import com.culina.order.menu.repository.InventoryRepository;
+import com.culina.order.menu.service.HotInventorySequencer;
+import com.culina.order.menu.service.MenuItemCache;
+import com.culina.order.security.StreamTicketIssuer;
+import com.culina.order.timeline.service.OrderTimelineService;
+
+/**
+ * Keyset paging through a customer's order history, including orders
+ * created within the same instant
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@Import({ OrderService.class, InventoryRepository.class })
+class OrderHistoryPagingTests {
+
+    private static final long USER_ID = 200L;
+    private static final OffsetDateTime NOON = OffsetDateTime.of(2026, 3, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @MockBean
+    private OrderEventPublisher eventPublisher;
+    @MockBean
+    private OrderValidator orderValidator;
+    @MockBean
+    private ChefOrderStatsCounters statsCounters;
+    @MockBean
+    private OrderFeedService orderFeedService;
+    @MockBean
+    private MenuItemCache menuItemCache;
+    @MockBean
+    private MenuItemEventPublisher menuItemEventPublisher;
+    @MockBean
+    private HotInventorySequencer hotInventorySequencer;
+    @MockBean
+    private OrderTimelineService timelineService;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Three orders share 12:00, inserted out of id order
+        insertOrder(5L, NOON.plusMinutes(1));
+        insertOrder(3L, NOON);
+        insertOrder(7L, NOON);
+        insertOrder(4L, NOON);
+        insertOrder(6L, NOON.minusMinutes(1));
+        insertOrder(8L, NOON);
+        // Someone else's
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, user_id, chef_id, status, total_amount_cents, currency, created_at)
+                VALUES (9, 201, 1, 'PAID', 100, 'INR', ?)
+                """, NOON);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (id, order_id, menu_item_id, item_name, item_price_cents, quantity)
+                VALUES (1, 7, 10, 'Dal', 100, 2), (2, 7, 11, 'Roti', 20, 4)
+                """);
+    }
+
+    @Test
+    void pagesVisitEveryOrderOnceNewestFirst() {
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderPage page = orderService.getOrdersByUser(USER_ID, cursor, 2);
+            page.getOrders().forEach(order -> seen.add(order.getId()));
+            pageSizes.add(page.getOrders().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Ties on created_at are broken by id, highest first
+        assertEquals(List.of(5L, 8L, 7L, 4L, 3L, 6L), seen);
+        assertEquals(List.of(2, 2, 2), pageSizes);
+    }
+
+    @Test
+    void cursorResumesInsideATieAndPagesCarryTheirItems() {
+        OrderPage first = orderService.getOrdersByUser(USER_ID, null, 2);
+        assertEquals(List.of(5L, 8L), first.getOrders().stream().map(OrderSummary::getId).toList());
+
+        OrderPage second = orderService.getOrdersByUser(USER_ID, first.getNextCursor(), 3);
+        assertEquals(List.of(7L, 4L, 3L), second.getOrders().stream().map(OrderSummary::getId).toList());
+        assertEquals(2, second.getOrders().get(0).getItems().size());
+
+        OrderPage last = orderService.getOrdersByUser(USER_ID, second.getNextCursor(), 3);
+        assertEquals(List.of(6L), last.getOrders().stream().map(OrderSummary::getId).toList());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void malformedCursorIsRejected() throws Exception {
+        assertThrows(InvalidCursorException.class, () -> orderService.getOrdersByUser(USER_ID, "not-a-cursor", 2));
+        assertThrows(InvalidCursorException.class, () -> orderService.getOrdersByUser(USER_ID, "%%%", 2));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new OrderController(
+                orderService, mock(IdempotencyService.class), mock(StreamTicketIssuer.class))).build();
+        mockMvc.perform(get("/order")
+                        .param("cursor", "bm90IGEgY3Vyc29y")
+                        .principal(new UsernamePasswordAuthenticationToken(Long.toString(USER_ID), null)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("INVALID_CURSOR"));
+    }
+
+    private void insertOrder(long id, OffsetDateTime createdAt) {
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, user_id, chef_id, status, total_amount_cents, currency, created_at)
+                VALUES (?, ?, 1, 'PAID', 100, 'INR', ?)
+                """, id, USER_ID, createdAt);
+    }
+}
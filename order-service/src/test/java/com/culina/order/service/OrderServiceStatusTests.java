@@ -0,0 +1,366 @@
+package com.culina.order.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.dto.OrderStatusResult;
+import com.culina.order.event.MenuItemEventPublisher;
+import com.culina.order.event.OrderEventPublisher;
+import com.culina.order.feed.service.OrderFeedService;
+import com.culina.order.menu.repository.InventoryRepository;
+import com.culina.order.menu.service.HotInventorySequencer;
+import com.culina.order.menu.service.MenuItemCache;
+import com.culina.order.timeline.service.OrderTimelineService;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Status changes, alone and racing each other. Each race holds one side's
+ * transaction open at a latch while the other runs, so the interleaving is
+ * the same on every run. The hold sweep uses SKIP LOCKED, which H2 cannot
+ * run, so these run against a real Postgres from embedded binaries.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ OrderService.class, InventoryRepository.class, OrderServiceStatusTests.PostgresConfig.class })
+class OrderServiceStatusTests {
+
+    private static final long CHEF_ID = 1L;
+    private static final long CHEF_USER_ID = 100L;
+    private static final long CUSTOMER_ID = 200L;
+    private static final long MENU_ITEM_ID = 10L;
+    private static final long ORDER_ID = 1_000L;
+    private static final int STOCK = 10;
+    private static final int ORDERED = 2;
+
+    @MockBean
+    private OrderEventPublisher eventPublisher;
+    @MockBean
+    private OrderValidator orderValidator;
+    @MockBean
+    private ChefOrderStatsCounters statsCounters;
+    @MockBean
+    private OrderFeedService orderFeedService;
+    @MockBean
+    private MenuItemCache menuItemCache;
+    @MockBean
+    private MenuItemEventPublisher menuItemEventPublisher;
+    @MockBean
+    private HotInventorySequencer hotInventorySequencer;
+    @MockBean
+    private OrderTimelineService timelineService;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService threads = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE order_items, orders, menu_items, menus, chefs CASCADE");
+        jdbcTemplate.update("""
+                INSERT INTO chefs (id, user_id, display_name, verification_status, is_active, total_orders,
+                                   created_at, updated_at)
+                VALUES (?, ?, 'Chef', 'APPROVED', TRUE, 0, now(), now())
+                """, CHEF_ID, CHEF_USER_ID);
+        jdbcTemplate.update("INSERT INTO menus (id, chef_id, title, is_active) VALUES (1, ?, 'Menu', TRUE)",
+                CHEF_ID);
+        // Stock as it is once the order below holds its share
+        jdbcTemplate.update("""
+                INSERT INTO menu_items (id, menu_id, name, price_cents, currency, available_qty, is_available)
+                VALUES (?, 1, 'Dal', 24900, 'INR', ?, TRUE)
+                """, MENU_ITEM_ID, STOCK - ORDERED);
+    }
+
+    @AfterEach
+    void tearDown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    void cancelWaitingOnHoldExpiryDoesNotReleaseStockTwice() throws Exception {
+        insertOrder(OrderStatus.CREATED, OffsetDateTime.now().minusMinutes(1));
+
+        CountDownLatch swept = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Future<Integer> sweep = inTransaction(() -> {
+            int expired = orderService.expireHolds(10);
+            swept.countDown();
+            assertTrue(commit.await(10, TimeUnit.SECONDS));
+            return expired;
+        });
+        assertTrue(swept.await(10, TimeUnit.SECONDS));
+
+        Future<?> cancel = threads.submit(() -> orderService.updateStatus(
+                ORDER_ID, OrderStatus.CANCELLED, CUSTOMER_ID, false));
+        try {
+            assertThrows(TimeoutException.class, () -> cancel.get(500, TimeUnit.MILLISECONDS));
+        } finally {
+            commit.countDown();
+        }
+        assertEquals(1, sweep.get(10, TimeUnit.SECONDS));
+        // The cancel sees the sweep's CANCELLED once it has the lock
+        ExecutionException e = assertThrows(ExecutionException.class, () -> cancel.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(RuntimeException.class, e.getCause());
+
+        assertEquals(OrderStatus.CANCELLED, status());
+        assertEquals(STOCK, availableQty());
+    }
+
+    @Test
+    void holdExpirySkipsAnOrderBeingCancelled() throws Exception {
+        insertOrder(OrderStatus.CREATED, OffsetDateTime.now().minusMinutes(1));
+
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Future<Object> cancel = inTransaction(() -> {
+            orderService.updateStatus(ORDER_ID, OrderStatus.CANCELLED, CUSTOMER_ID, false);
+            cancelled.countDown();
+            assertTrue(commit.await(10, TimeUnit.SECONDS));
+            return null;
+        });
+        assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+
+        try {
+            assertEquals(0, orderService.expireHolds(10));
+        } finally {
+            commit.countDown();
+        }
+        cancel.get(10, TimeUnit.SECONDS);
+        assertEquals(0, orderService.expireHolds(10));
+        assertEquals(OrderStatus.CANCELLED, status());
+        assertEquals(STOCK, availableQty());
+    }
+
+    @Test
+    void cancelWaitingOnPaymentRefundsIt() throws Exception {
+        insertOrder(OrderStatus.CREATED, OffsetDateTime.now().plusMinutes(10));
+
+        CountDownLatch paid = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Future<Object> payment = inTransaction(() -> {
+            orderService.markPaid(ORDER_ID);
+            paid.countDown();
+            assertTrue(commit.await(10, TimeUnit.SECONDS));
+            return null;
+        });
+        assertTrue(paid.await(10, TimeUnit.SECONDS));
+
+        Future<?> cancel = threads.submit(() -> orderService.updateStatus(
+                ORDER_ID, OrderStatus.CANCELLED, CUSTOMER_ID, false));
+        try {
+            assertThrows(TimeoutException.class, () -> cancel.get(500, TimeUnit.MILLISECONDS));
+        } finally {
+            commit.countDown();
+        }
+        payment.get(10, TimeUnit.SECONDS);
+        cancel.get(10, TimeUnit.SECONDS);
+
+        assertEquals(OrderStatus.CANCELLED, status());
+        assertEquals(STOCK, availableQty());
+        verify(eventPublisher).publish(eq("order.refund-requested"),
+                argThat(event -> event.getOrderId().equals(ORDER_ID)));
+    }
+
+    @Test
+    void cancellingAnUnpaidOrderRequestsNoRefund() {
+        insertOrder(OrderStatus.CREATED, OffsetDateTime.now().plusMinutes(10));
+
+        orderService.updateStatus(ORDER_ID, OrderStatus.CANCELLED, CUSTOMER_ID, false);
+
+        assertEquals(STOCK, availableQty());
+        verify(eventPublisher, never()).publish(eq("order.refund-requested"), any());
+    }
+
+    @Test
+    void bulkUpdateReportsEveryOrder() {
+        insertOrder(1_001L, OrderStatus.PAID, null);
+        insertOrder(1_002L, OrderStatus.PAID, null);
+        insertOrder(1_003L, OrderStatus.CREATED, OffsetDateTime.now().plusMinutes(10));
+        jdbcTemplate.update("""
+                INSERT INTO chefs (id, user_id, display_name, verification_status, is_active, total_orders,
+                                   created_at, updated_at)
+                VALUES (2, 101, 'Other chef', 'APPROVED', TRUE, 0, now(), now())
+                """);
+        jdbcTemplate.update("UPDATE orders SET chef_id = 2 WHERE id = 1002");
+
+        List<OrderStatusResult> results = orderService.updateStatuses(CHEF_USER_ID,
+                List.of(1_001L, 1_002L, 1_003L, 9_999L, 1_001L), OrderStatus.CONFIRMED);
+
+        assertEquals(List.of(1_001L, 1_002L, 1_003L, 9_999L, 1_001L),
+                results.stream().map(OrderStatusResult::getOrderId).toList());
+        assertTrue(results.get(0).isUpdated());
+        // Other chefs' orders look the same as missing ones
+        assertEquals("ORDER_NOT_FOUND", results.get(1).getError());
+        assertEquals("INVALID_TRANSITION", results.get(2).getError());
+        assertEquals(OrderStatus.CREATED, results.get(2).getStatus());
+        assertEquals("ORDER_NOT_FOUND", results.get(3).getError());
+        assertEquals("DUPLICATE_ORDER", results.get(4).getError());
+
+        assertEquals(OrderStatus.CONFIRMED, status(1_001L));
+        assertEquals(OrderStatus.PAID, status(1_002L));
+        assertEquals(OrderStatus.CREATED, status(1_003L));
+        verify(eventPublisher).publishAll(eq("order.confirmed"),
+                argThat(events -> events.size() == 1 && events.get(0).getOrderId().equals(1_001L)));
+    }
+
+    @Test
+    void bulkConfirmWaitingOnCancelSkipsTheCancelledOrder() throws Exception {
+        insertOrder(ORDER_ID, OrderStatus.PAID, null);
+        insertOrder(1_001L, OrderStatus.PAID, null);
+
+        CountDownLatch cancelled = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        Future<Object> cancel = inTransaction(() -> {
+            orderService.updateStatus(ORDER_ID, OrderStatus.CANCELLED, CUSTOMER_ID, false);
+            cancelled.countDown();
+            assertTrue(commit.await(10, TimeUnit.SECONDS));
+            return null;
+        });
+        assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+
+        Future<List<OrderStatusResult>> confirm = threads.submit(() -> orderService.updateStatuses(
+                CHEF_USER_ID, List.of(ORDER_ID, 1_001L), OrderStatus.CONFIRMED));
+        try {
+            assertThrows(TimeoutException.class, () -> confirm.get(500, TimeUnit.MILLISECONDS));
+        } finally {
+            commit.countDown();
+        }
+        cancel.get(10, TimeUnit.SECONDS);
+
+        List<OrderStatusResult> results = confirm.get(10, TimeUnit.SECONDS);
+        assertEquals("INVALID_TRANSITION", results.get(0).getError());
+        assertEquals(OrderStatus.CANCELLED, results.get(0).getStatus());
+        assertTrue(results.get(1).isUpdated());
+        assertEquals(OrderStatus.CANCELLED, status(ORDER_ID));
+        assertEquals(OrderStatus.CONFIRMED, status(1_001L));
+    }
+
+    @Test
+    void paymentFailureBatchCancelsEachOrderOnce() {
+        insertOrder(ORDER_ID, OrderStatus.CREATED, OffsetDateTime.now().plusMinutes(10));
+        insertOrder(1_001L, OrderStatus.CREATED, OffsetDateTime.now().plusMinutes(10));
+        jdbcTemplate.update("UPDATE menu_items SET available_qty = ?", STOCK - 2 * ORDERED);
+
+        int cancelled = orderService.cancelAllAfterPaymentFailure(List.of(ORDER_ID, 1_001L, ORDER_ID, 9_999L));
+
+        assertEquals(2, cancelled);
+        assertEquals(STOCK, availableQty());
+        verify(eventPublisher).publishAll(eq("order.cancelled"), argThat(events -> events.size() == 2));
+        verify(eventPublisher, never()).publish(eq("order.cancelled"), any());
+    }
+
+    @Test
+    void paymentSuccessBatchRefundsOrdersCancelledMeanwhile() {
+        insertOrder(ORDER_ID, OrderStatus.CANCELLED, null);
+        insertOrder(1_001L, OrderStatus.CREATED, OffsetDateTime.now().plusMinutes(10));
+
+        assertEquals(1, orderService.markPaidAll(List.of(ORDER_ID, 1_001L)));
+
+        assertEquals(OrderStatus.CANCELLED, status(ORDER_ID));
+        assertEquals(OrderStatus.PAID, status(1_001L));
+        verify(eventPublisher).publish(eq("order.refund-requested"),
+                argThat(event -> event.getOrderId().equals(ORDER_ID)));
+        verify(eventPublisher).publishAll(eq("order.paid"),
+                argThat(events -> events.size() == 1 && events.get(0).getOrderId().equals(1_001L)));
+    }
+
+    private <T> Future<T> inTransaction(Callable<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return threads.submit(() -> transaction.execute(status -> {
+            try {
+                return work.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+    }
+
+    private void insertOrder(OrderStatus status, OffsetDateTime holdExpiresAt) {
+        insertOrder(ORDER_ID, status, holdExpiresAt);
+    }
+
+    private void insertOrder(long orderId, OrderStatus status, OffsetDateTime holdExpiresAt) {
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, user_id, chef_id, status, total_amount_cents, currency,
+                                    created_at, updated_at, hold_expires_at)
+                VALUES (?, ?, ?, ?, ?, 'INR', now(), now(), ?)
+                """, orderId, CUSTOMER_ID, CHEF_ID, status.name(), 24_900L * ORDERED, holdExpiresAt);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (id, order_id, menu_item_id, item_name, item_price_cents, quantity,
+                                         stock_pending)
+                VALUES (?, ?, ?, 'Dal', 24900, ?, FALSE)
+                """, orderId, orderId, MENU_ITEM_ID, ORDERED);
+    }
+
+    private OrderStatus status() {
+        return status(ORDER_ID);
+    }
+
+    private OrderStatus status(long orderId) {
+        return OrderStatus.valueOf(jdbcTemplate.queryForObject(
+                "SELECT status FROM orders WHERE id = ?", String.class, orderId));
+    }
+
+    private int availableQty() {
+        return jdbcTemplate.queryForObject(
+                "SELECT available_qty FROM menu_items WHERE id = ?", Integer.class, MENU_ITEM_ID);
+    }
+
+    @TestConfiguration
+    static class PostgresConfig {
+
+        @Bean(destroyMethod = "close")
+        EmbeddedPostgres embeddedPostgres() throws IOException {
+            return EmbeddedPostgres.builder().start();
+        }
+
+        @Bean
+        DataSource dataSource(EmbeddedPostgres postgres) {
+            return postgres.getPostgresDatabase();
+        }
+    }
+}
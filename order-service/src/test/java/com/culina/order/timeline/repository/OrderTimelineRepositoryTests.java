@@ -0,0 +1,139 @@
+package com.culina.order.timeline.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.timeline.dto.TransitionDurations;
+import com.culina.order.timeline.model.OrderTransition;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Partitioned tables, ON CONFLICT and percentile_cont are Postgres only, so
+ * these run against a real Postgres from embedded binaries.
+ */
+class OrderTimelineRepositoryTests {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2026, 3, 10, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderTimelineRepository timelineRepository;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_events, order_snapshots CASCADE");
+        timelineRepository = new OrderTimelineRepository(jdbcTemplate);
+        timelineRepository.createSchema();
+    }
+
+    @Test
+    void eventsLandInTheirMonthOrTheDefaultPartition() {
+        // Both are safe to repeat
+        timelineRepository.createSchema();
+        timelineRepository.createMonthPartition(YearMonth.of(2026, 3));
+        timelineRepository.createMonthPartition(YearMonth.of(2026, 3));
+
+        timelineRepository.append(List.of(
+                new OrderTransition(1L, 5L, null, OrderStatus.CREATED, T0),
+                new OrderTransition(1L, 5L, OrderStatus.CREATED, OrderStatus.PAID,
+                        OffsetDateTime.of(2026, 3, 31, 23, 59, 59, 0, ZoneOffset.UTC)),
+                new OrderTransition(1L, 5L, OrderStatus.PAID, OrderStatus.CONFIRMED,
+                        OffsetDateTime.of(2026, 4, 1, 0, 0, 0, 0, ZoneOffset.UTC))));
+
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE relname = 'order_events'", String.class));
+        assertEquals(List.of("order_events_2026_03", "order_events_2026_03", "order_events_default"),
+                jdbcTemplate.queryForList(
+                        "SELECT tableoid::regclass::text FROM order_events ORDER BY occurred_at", String.class));
+    }
+
+    @Test
+    void snapshotKeepsTheTimeOfEveryStatusReached() {
+        timelineRepository.append(List.of(new OrderTransition(1L, 5L, null, OrderStatus.CREATED, T0)));
+        timelineRepository.append(List.of(
+                new OrderTransition(1L, 5L, OrderStatus.CREATED, OrderStatus.PAID, T0.plusMinutes(1)),
+                new OrderTransition(1L, 5L, OrderStatus.PAID, OrderStatus.CONFIRMED, T0.plusMinutes(3))));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT * FROM order_snapshots WHERE order_id = 1");
+        assertEquals("CONFIRMED", row.get("status"));
+        assertEquals(T0.plusMinutes(3).toInstant(), instant(row.get("updated_at")));
+        assertEquals(T0.toInstant(), instant(row.get("created_at")));
+        assertEquals(T0.plusMinutes(1).toInstant(), instant(row.get("paid_at")));
+        assertEquals(T0.plusMinutes(3).toInstant(), instant(row.get("confirmed_at")));
+        assertNull(row.get("preparing_at"));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_snapshots", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_events", Integer.class));
+    }
+
+    @Test
+    void durationsCoverOrdersThatReachedTheTargetSinceTheCutoff() {
+        // CREATED -> PAID took 60, 120, 180 and 600 seconds; the last is another chef's
+        paid(1L, 5L, 60);
+        paid(2L, 5L, 120);
+        paid(3L, 5L, 180);
+        paid(4L, 6L, 600);
+        // Paid before the cutoff
+        timelineRepository.append(List.of(
+                new OrderTransition(5L, 5L, null, OrderStatus.CREATED, T0.minusDays(2)),
+                new OrderTransition(5L, 5L, OrderStatus.CREATED, OrderStatus.PAID, T0.minusDays(2).plusSeconds(5))));
+        // Never paid
+        timelineRepository.append(List.of(new OrderTransition(6L, 5L, null, OrderStatus.CREATED, T0)));
+
+        TransitionDurations chef = timelineRepository.durations(
+                5L, OrderStatus.CREATED, OrderStatus.PAID, T0.minusDays(1), 1);
+        assertEquals(3, chef.getCount());
+        assertEquals(120.0, chef.getAverageSeconds(), 1e-6);
+        assertEquals(120.0, chef.getP50Seconds(), 1e-6);
+        assertEquals(168.0, chef.getP90Seconds(), 1e-6);
+        assertEquals(180.0, chef.getMaxSeconds(), 1e-6);
+
+        TransitionDurations all = timelineRepository.durations(
+                null, OrderStatus.CREATED, OrderStatus.PAID, T0.minusDays(1), 1);
+        assertEquals(4, all.getCount());
+        assertEquals(600.0, all.getMaxSeconds(), 1e-6);
+
+        TransitionDurations none = timelineRepository.durations(
+                5L, OrderStatus.PAID, OrderStatus.DELIVERED, T0.minusDays(1), 1);
+        assertEquals(0, none.getCount());
+        assertNull(none.getAverageSeconds());
+    }
+
+    private void paid(Long orderId, Long chefId, long seconds) {
+        timelineRepository.append(List.of(
+                new OrderTransition(orderId, chefId, null, OrderStatus.CREATED, T0),
+                new OrderTransition(orderId, chefId, OrderStatus.CREATED, OrderStatus.PAID, T0.plusSeconds(seconds))));
+    }
+
+    private static Instant instant(Object timestamp) {
+        return ((Timestamp) timestamp).toInstant();
+    }
+}
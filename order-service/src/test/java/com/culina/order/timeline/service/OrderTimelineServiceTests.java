@@ -0,0 +1,125 @@
+package com.culina.order.timeline.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.culina.order.chef.repository.ChefRepository;
+import com.culina.order.domain.model.Order;
+import com.culina.order.domain.model.OrderStatus;
+import com.culina.order.timeline.repository.OrderTimelineRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Transitions are buffered per transaction and written just before it
+ * commits, on its connection
+ */
+class OrderTimelineServiceTests {
+
+    private static EmbeddedPostgres postgres;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OrderTimelineRepository timelineRepository;
+    private OrderTimelineService timelineService;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_events, order_snapshots CASCADE");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(postgres.getPostgresDatabase()));
+
+        timelineRepository = spy(new OrderTimelineRepository(jdbcTemplate));
+        timelineService = new OrderTimelineService(
+                timelineRepository, mock(ChefRepository.class), new SimpleMeterRegistry(), 1, 90);
+        timelineService.createSchema();
+    }
+
+    @Test
+    void transitionsAreWrittenInOneBatchAtCommit() {
+        Order order = order(1L);
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            timelineService.recordCreated(order);
+            timelineService.recordTransition(order, OrderStatus.CREATED, OrderStatus.PAID);
+            timelineService.recordTransition(order, OrderStatus.PAID, OrderStatus.PAID);
+
+            // Same connection, so rows written so far would be visible
+            assertEquals(0, events());
+            verify(timelineRepository, never()).append(anyList());
+        });
+
+        verify(timelineRepository, times(1)).append(anyList());
+        assertEquals(2, events());
+        assertEquals("PAID", jdbcTemplate.queryForObject(
+                "SELECT status FROM order_snapshots WHERE order_id = 1", String.class));
+    }
+
+    @Test
+    void transitionsRollBackWithTheTransaction() {
+        Order order = order(1L);
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(tx -> {
+            timelineService.recordCreated(order);
+            throw new IllegalStateException("status change failed");
+        }));
+        transactionTemplate.executeWithoutResult(tx -> {
+            timelineService.recordCreated(order(2L));
+            tx.setRollbackOnly();
+        });
+
+        verify(timelineRepository, never()).append(anyList());
+        assertEquals(0, events());
+
+        // Nothing is left buffered for the next transaction on this thread
+        transactionTemplate.executeWithoutResult(tx -> timelineService.recordCreated(order(3L)));
+        assertEquals(List.of(3L), jdbcTemplate.queryForList("SELECT order_id FROM order_events", Long.class));
+    }
+
+    @Test
+    void transitionOutsideATransactionIsWrittenAtOnce() {
+        timelineService.recordCreated(order(1L));
+
+        assertEquals(1, events());
+    }
+
+    private int events() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_events", Integer.class);
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setChefId(5L);
+        order.setStatus(OrderStatus.CREATED);
+        return order;
+    }
+}
@@ -0,0 +1,27 @@
+package com.culina.payment.event;
+
+/**
+ * order.refund-requested: order-service received a payment for an order it
+ * had already cancelled
+ */
+public class RefundRequestedEvent {
+
+    private Long orderId;
+    private Long userId;
+    private Long totalAmountCents;
+
+    public RefundRequestedEvent() {
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getTotalAmountCents() {
+        return totalAmountCents;
+    }
+}
@@ -0,0 +1,26 @@
+package com.culina.payment.kafka;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.culina.payment.event.RefundRequestedEvent;
+import com.culina.payment.service.PaymentService;
+
+@Component
+public class RefundRequestedListener {
+
+    private final PaymentService paymentService;
+
+    public RefundRequestedListener(PaymentService paymentService) {
+        this.paymentService = paymentService;
+    }
+
+    @KafkaListener(
+        topics = "order.refund-requested",
+        groupId = "payment-service",
+        properties = "spring.json.value.default.type=com.culina.payment.event.RefundRequestedEvent"
+    )
+    public void handle(RefundRequestedEvent event) {
+        paymentService.refund(event);
+    }
+}
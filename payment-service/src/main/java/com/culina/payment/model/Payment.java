@@ -10,6 +10,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -17,7 +18,8 @@ import jakarta.persistence.Table;
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "order_id", nullable = false, unique = true)
@@ -35,6 +37,10 @@ public class Payment {
     @Column(name = "created_at", updatable = false)
     private OffsetDateTime createdAt;
 
+    // Set once a successful payment is handed back, e.g. for an order cancelled before it arrived
+    @Column(name = "refunded_at")
+    private OffsetDateTime refundedAt;
+
     @PrePersist
     void onCreate() {
         createdAt = OffsetDateTime.now();
@@ -84,4 +90,12 @@ public class Payment {
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
+
+    public OffsetDateTime getRefundedAt() {
+        return refundedAt;
+    }
+
+    public void setRefundedAt(OffsetDateTime refundedAt) {
+        this.refundedAt = refundedAt;
+    }
 }
@@ -3,8 +3,12 @@ package com.culina.payment.repository;
 import com.culina.payment.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Optional;
+
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     boolean existsByOrderId(Long orderId);
+
+    Optional<Payment> findByOrderId(Long orderId);
 }
 
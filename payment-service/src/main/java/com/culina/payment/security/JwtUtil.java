@@ -1,27 +1,19 @@
 package com.culina.payment.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
-
 @Component
 public class JwtUtil {
 
-    @Value("${security.jwt.secret}")
-    private String secret;
+    private final JwtVerifier jwtVerifier;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    public JwtUtil(JwtVerifier jwtVerifier) {
+        this.jwtVerifier = jwtVerifier;
     }
 
     public boolean isTokenValid(String token) {
         try {
-            getClaims(token);
+            jwtVerifier.verify(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -29,22 +21,14 @@ public class JwtUtil {
     }
 
     public Long extractUserId(String token) {
-        return Long.parseLong(getClaims(token).getSubject());
+        return jwtVerifier.verify(token).getUserId();
     }
 
     public String extractEmail(String token) {
-        return getClaims(token).get("email", String.class);
+        return jwtVerifier.verify(token).getEmail();
     }
 
     public String extractRole(String token) {
-        return getClaims(token).get("role", String.class);
-    }
-
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtVerifier.verify(token).getRole();
     }
 }
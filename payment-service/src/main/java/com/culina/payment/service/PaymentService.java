@@ -1,9 +1,14 @@
 package com.culina.payment.service;
 
+import java.time.OffsetDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import com.culina.payment.event.OrderConfirmedEvent;
 import com.culina.payment.event.PaymentEvent;
+import com.culina.payment.event.RefundRequestedEvent;
 import com.culina.payment.kafka.PaymentEventPublisher;
 import com.culina.payment.model.Payment;
 import com.culina.payment.model.PaymentStatus;
@@ -14,6 +19,8 @@ import jakarta.transaction.Transactional;
 @Service
 public class PaymentService {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentService.class);
+
     private final PaymentRepository paymentRepository;
     private final PaymentEventPublisher eventPublisher;
 
@@ -55,4 +62,26 @@ public class PaymentService {
                         payment.getAmountCents()));
     }
 
+    /**
+     * Hand back a successful payment whose order was cancelled before the
+     * payment reached order-service. Requests for a payment already refunded,
+     * or one that did not succeed, are ignored.
+     */
+    @Transactional
+    public void refund(RefundRequestedEvent event) {
+        Payment payment = paymentRepository.findByOrderId(event.getOrderId()).orElse(null);
+        if (payment == null) {
+            log.warn("Refund requested for order {} without a payment", event.getOrderId());
+            return;
+        }
+        if (payment.getStatus() != PaymentStatus.SUCCESS || payment.getRefundedAt() != null) {
+            return;
+        }
+
+        // MOCK PAYMENT GATEWAY
+        payment.setRefundedAt(OffsetDateTime.now());
+        paymentRepository.save(payment);
+        log.info("Refunded {} cents for cancelled order {}", payment.getAmountCents(), payment.getOrderId());
+    }
+
 }
@@ -3,6 +3,7 @@ package com.culina.search.dto;
 import java.time.OffsetDateTime;
 import java.util.Base64;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.JsonNode;
 
 public class MenuItemResponse {
@@ -19,6 +20,7 @@ public class MenuItemResponse {
     private Integer preparationTimeMinutes;
     private String[] tags;
     private JsonNode metadata;
+    private String imageUrl;
     private String imageBase64;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
@@ -98,6 +100,12 @@ public class MenuItemResponse {
         return metadata;
     }
 
+    // Path on order-service, e.g. /chefs/menu/images/42
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public String getImageBase64() {
         return imageBase64;
     }
@@ -162,6 +170,10 @@ public class MenuItemResponse {
         this.metadata = metadata;
     }
 
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
     public void setImageBase64(String imageBase64) {
         this.imageBase64 = imageBase64;
     }